@@ -436,6 +436,11 @@ public interface Plugin {
      */
     ExtensionPoint<RateLimiter, String> LIMITER = new ExtensionPointLazy<>(RateLimiter.class);
 
+    /**
+     * 分布式限流配额协调器
+     */
+    ExtensionPoint<QuotaCoordinator, String> QUOTA_COORDINATOR = new ExtensionPointLazy<>(QuotaCoordinator.class);
+
     /**
      * 路由策略
      */
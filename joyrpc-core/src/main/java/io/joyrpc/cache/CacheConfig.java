@@ -20,6 +20,8 @@ package io.joyrpc.cache;
  * #L%
  */
 
+import java.lang.reflect.Type;
+
 /**
  * 缓存配置
  */
@@ -34,16 +36,35 @@ public class CacheConfig<K, V> {
     protected long expireAfterWrite = -1;
     //是否缓存空值
     protected boolean nullable;
+    //最大内存字节数，堆外缓存使用
+    protected long memory = -1;
+    //序列化插件名称，堆外缓存使用
+    protected String serialization;
+    //值的泛型类型，堆外缓存反序列化使用
+    protected Type valueType;
 
     public CacheConfig() {
     }
 
     public CacheConfig(Class<K> keyClass, Class<V> valueClass, int capacity, long expireAfterWrite, boolean nullable) {
+        this(keyClass, valueClass, capacity, expireAfterWrite, nullable, -1, null);
+    }
+
+    public CacheConfig(Class<K> keyClass, Class<V> valueClass, int capacity, long expireAfterWrite, boolean nullable,
+                       long memory, String serialization) {
+        this(keyClass, valueClass, capacity, expireAfterWrite, nullable, memory, serialization, null);
+    }
+
+    public CacheConfig(Class<K> keyClass, Class<V> valueClass, int capacity, long expireAfterWrite, boolean nullable,
+                       long memory, String serialization, Type valueType) {
         this.keyClass = keyClass;
         this.valueClass = valueClass;
         this.capacity = capacity;
         this.expireAfterWrite = expireAfterWrite;
         this.nullable = nullable;
+        this.memory = memory;
+        this.serialization = serialization;
+        this.valueType = valueType;
     }
 
     public Class<K> getKeyClass() {
@@ -86,6 +107,30 @@ public class CacheConfig<K, V> {
         this.nullable = nullable;
     }
 
+    public long getMemory() {
+        return memory;
+    }
+
+    public void setMemory(long memory) {
+        this.memory = memory;
+    }
+
+    public String getSerialization() {
+        return serialization;
+    }
+
+    public void setSerialization(String serialization) {
+        this.serialization = serialization;
+    }
+
+    public Type getValueType() {
+        return valueType;
+    }
+
+    public void setValueType(Type valueType) {
+        this.valueType = valueType;
+    }
+
     public static <K, V> Builder<K, V> builder() {
         return new Builder<>();
     }
@@ -108,6 +153,12 @@ public class CacheConfig<K, V> {
         protected long expireAfterWrite = -1;
         //是否缓存空值
         protected boolean nullable;
+        //最大内存字节数，堆外缓存使用
+        protected long memory = -1;
+        //序列化插件名称，堆外缓存使用
+        protected String serialization;
+        //值的泛型类型，堆外缓存反序列化使用
+        protected Type valueType;
 
         public Builder<K, V> keyClass(final Class<K> keyClass) {
             this.keyClass = keyClass;
@@ -134,13 +185,28 @@ public class CacheConfig<K, V> {
             return this;
         }
 
+        public Builder<K, V> memory(final long memory) {
+            this.memory = memory;
+            return this;
+        }
+
+        public Builder<K, V> serialization(final String serialization) {
+            this.serialization = serialization;
+            return this;
+        }
+
+        public Builder<K, V> valueType(final Type valueType) {
+            this.valueType = valueType;
+            return this;
+        }
+
         /**
          * 构建
          *
          * @return
          */
         public CacheConfig<K, V> build() {
-            return new CacheConfig<>(keyClass, valueClass, capacity, expireAfterWrite, nullable);
+            return new CacheConfig<>(keyClass, valueClass, capacity, expireAfterWrite, nullable, memory, serialization, valueType);
         }
 
     }
@@ -34,6 +34,10 @@ public interface CacheFactory {
 
     int GUAVA_ORDER = CACHE2K_ORDER + 1;
 
+    int TINYLFU_ORDER = GUAVA_ORDER + 1;
+
+    int OFFHEAP_ORDER = TINYLFU_ORDER + 1;
+
     int MAP_ORDER = Short.MAX_VALUE;
 
     /**
@@ -20,6 +20,8 @@ package io.joyrpc.cache;
  * #L%
  */
 
+import io.joyrpc.util.SystemClock;
+
 import java.io.Serializable;
 
 /**
@@ -32,12 +34,25 @@ public class CacheObject<V> implements Serializable {
      * 结果值
      */
     protected V result;
+    /**
+     * 写入时间(毫秒)
+     */
+    protected long writeTime;
 
     public CacheObject(V result) {
+        this(result, SystemClock.now());
+    }
+
+    public CacheObject(V result, long writeTime) {
         this.result = result;
+        this.writeTime = writeTime;
     }
 
     public V getResult() {
         return result;
     }
+
+    public long getWriteTime() {
+        return writeTime;
+    }
 }
@@ -0,0 +1,480 @@
+package io.joyrpc.cache.offheap;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cache.AbstractCache;
+import io.joyrpc.cache.CacheConfig;
+import io.joyrpc.cache.CacheObject;
+import io.joyrpc.codec.serialization.Serialization;
+import io.joyrpc.codec.serialization.Serializer;
+import io.joyrpc.util.SystemClock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static io.joyrpc.Plugin.SERIALIZATION;
+import static io.joyrpc.constants.Constants.CACHE_MEMORY_OPTION;
+
+/**
+ * 堆外缓存，结果序列化后存放在直接内存里面，命中时反序列化，减少大结果对老年代和GC的压力。<br>
+ * 按键哈希分段加锁，每个分段按固定大小的slab从直接内存申请空间，slab按块大小分级切分，
+ * 每一级维护空闲块和LRU队列，内存达到上限后淘汰同级最久未访问的条目。<br>
+ * 反序列化优先采用配置的值泛型类型（方法的泛型返回值），和远程调用的应答保持一致，避免丢失集合元素等泛型信息；
+ * 没有配置或者是Object等不确定的类型，才采用值的实际类型。
+ */
+public class OffHeapCache<K, V> extends AbstractCache<K, V> {
+
+    /**
+     * 分段数
+     */
+    protected static final int SEGMENTS = 16;
+    /**
+     * 最大slab大小，也是能缓存的最大序列化结果
+     */
+    protected static final int MAX_SLAB_SIZE = 1024 * 1024;
+    /**
+     * 最小块大小
+     */
+    protected static final int MIN_CHUNK_SIZE = 64;
+    /**
+     * 块大小的增长因子
+     */
+    protected static final double GROWTH_FACTOR = 1.25d;
+
+    /**
+     * 名称
+     */
+    protected String name;
+    /**
+     * 序列化
+     */
+    protected final Serialization serialization;
+    /**
+     * 分段
+     */
+    protected final Segment<K>[] segments;
+
+    /**
+     * 构造函数
+     *
+     * @param name   名称
+     * @param config 配置
+     */
+    public OffHeapCache(final String name, final CacheConfig<K, V> config) {
+        this.name = name;
+        this.config = config == null ? new CacheConfig<>() : config;
+        String type = this.config.getSerialization();
+        Serialization s = type == null ? null : SERIALIZATION.get(type);
+        //没有该序列化插件，则使用java序列化
+        this.serialization = s != null ? s : SERIALIZATION.get("java");
+        long memory = this.config.getMemory() > 0 ? this.config.getMemory() : CACHE_MEMORY_OPTION.getValue();
+        long segmentMemory = Math.max(MIN_CHUNK_SIZE, memory / SEGMENTS);
+        int slabSize = (int) Math.min(MAX_SLAB_SIZE, segmentMemory);
+        int maxSlabs = (int) Math.max(1, segmentMemory / slabSize);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(slabSize, maxSlabs);
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Void> doPut(final K key, final V value) {
+        byte[] bytes = new byte[0];
+        Type type = null;
+        if (value != null) {
+            ByteArrayOutputStream os = new ByteArrayOutputStream(256);
+            serialization.getSerializer().serialize(os, value);
+            bytes = os.toByteArray();
+            type = getType(value);
+        }
+        long now = SystemClock.now();
+        long expireTime = config.getExpireAfterWrite() > 0 ? now + config.getExpireAfterWrite() : -1;
+        segment(key).put(key, type, bytes, expireTime, now);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 获取反序列化的类型
+     *
+     * @param value 值
+     * @return 类型
+     */
+    protected Type getType(final V value) {
+        Type type = config.getValueType();
+        if (type == null || type == Object.class || type instanceof TypeVariable || type instanceof WildcardType) {
+            return value.getClass();
+        }
+        return type;
+    }
+
+    @Override
+    protected CompletableFuture<CacheObject<V>> doGet(final K key) {
+        Value value = segment(key).get(key, SystemClock.now());
+        if (value == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        V result = null;
+        if (value.type != null) {
+            //在锁外面反序列化
+            Serializer serializer = serialization.getSerializer();
+            result = serializer.deserialize(new ByteArrayInputStream(value.bytes), value.type);
+        }
+        return CompletableFuture.completedFuture(new CacheObject<>(result, value.writeTime));
+    }
+
+    @Override
+    protected CompletableFuture<Void> doRemove(final K key) {
+        segment(key).remove(key);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 当前数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        int result = 0;
+        for (Segment<K> segment : segments) {
+            result += segment.size();
+        }
+        return result;
+    }
+
+    /**
+     * 已经申请的直接内存
+     *
+     * @return 字节数
+     */
+    public long getAllocated() {
+        long result = 0;
+        for (Segment<K> segment : segments) {
+            result += segment.getAllocated();
+        }
+        return result;
+    }
+
+    /**
+     * 获取分段
+     *
+     * @param key 键
+     * @return 分段
+     */
+    protected Segment<K> segment(final K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    /**
+     * 读取的值
+     */
+    protected static class Value {
+        protected final Type type;
+        protected final byte[] bytes;
+        protected final long writeTime;
+
+        public Value(Type type, byte[] bytes, long writeTime) {
+            this.type = type;
+            this.bytes = bytes;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * 分段，堆上只保存索引，数据在slab里面
+     */
+    protected static class Segment<K> {
+        /**
+         * slab大小
+         */
+        protected final int slabSize;
+        /**
+         * 最大slab数量
+         */
+        protected final int maxSlabs;
+        /**
+         * 已申请的slab
+         */
+        protected final List<ByteBuffer> slabs = new ArrayList<>();
+        /**
+         * 块大小分级，从小到大
+         */
+        protected final SizeClass<K>[] classes;
+        /**
+         * 索引
+         */
+        protected final Map<K, Entry<K>> index = new HashMap<>();
+
+        public Segment(final int slabSize, final int maxSlabs) {
+            this.slabSize = slabSize;
+            this.maxSlabs = maxSlabs;
+            List<SizeClass<K>> sizes = new ArrayList<>();
+            int size = Math.min(MIN_CHUNK_SIZE, slabSize);
+            while (size < slabSize) {
+                sizes.add(new SizeClass<>(size));
+                //按8字节对齐
+                size = Math.max(size + 8, ((int) (size * GROWTH_FACTOR) + 7) & ~7);
+            }
+            sizes.add(new SizeClass<>(slabSize));
+            this.classes = sizes.toArray(new SizeClass[0]);
+        }
+
+        /**
+         * 放入
+         *
+         * @param key        键
+         * @param type       值类型
+         * @param bytes      序列化数据
+         * @param expireTime 过期时间
+         * @param writeTime  写入时间
+         */
+        protected synchronized void put(final K key, final Type type, final byte[] bytes,
+                                        final long expireTime, final long writeTime) {
+            Entry<K> old = index.remove(key);
+            if (old != null) {
+                release(old);
+            }
+            SizeClass<K> sizeClass = getSizeClass(bytes.length);
+            if (sizeClass == null) {
+                //超过slab大小，不缓存
+                return;
+            }
+            long address = allocate(sizeClass);
+            if (address < 0) {
+                return;
+            }
+            ByteBuffer slab = slabs.get((int) (address >>> 32));
+            slab.position((int) address);
+            slab.put(bytes);
+            Entry<K> entry = new Entry<>(key, type, address, bytes.length, expireTime, writeTime, sizeClass);
+            index.put(key, entry);
+            sizeClass.addLast(entry);
+        }
+
+        /**
+         * 读取，拷贝到堆上
+         *
+         * @param key 键
+         * @param now 当前时间
+         * @return 值
+         */
+        protected synchronized Value get(final K key, final long now) {
+            Entry<K> entry = index.get(key);
+            if (entry == null) {
+                return null;
+            } else if (entry.expireTime > 0 && now > entry.expireTime) {
+                index.remove(key);
+                release(entry);
+                return null;
+            }
+            byte[] bytes = new byte[entry.length];
+            ByteBuffer slab = slabs.get((int) (entry.address >>> 32));
+            slab.position((int) entry.address);
+            slab.get(bytes);
+            entry.sizeClass.moveToLast(entry);
+            return new Value(entry.type, bytes, entry.writeTime);
+        }
+
+        /**
+         * 删除
+         *
+         * @param key 键
+         */
+        protected synchronized void remove(final K key) {
+            Entry<K> entry = index.remove(key);
+            if (entry != null) {
+                release(entry);
+            }
+        }
+
+        protected synchronized int size() {
+            return index.size();
+        }
+
+        protected synchronized long getAllocated() {
+            return (long) slabs.size() * slabSize;
+        }
+
+        /**
+         * 获取能容纳指定长度的最小分级
+         *
+         * @param length 长度
+         * @return 分级
+         */
+        protected SizeClass<K> getSizeClass(final int length) {
+            for (SizeClass<K> sizeClass : classes) {
+                if (sizeClass.chunkSize >= length) {
+                    return sizeClass;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 分配块，优先使用空闲块，其次申请新的slab，最后淘汰同级最久未访问的条目
+         *
+         * @param sizeClass 分级
+         * @return 地址，高32位是slab索引，低32位是偏移量，小于0表示没有空间
+         */
+        protected long allocate(final SizeClass<K> sizeClass) {
+            if (sizeClass.frees > 0) {
+                return sizeClass.pop();
+            }
+            if (slabs.size() < maxSlabs) {
+                long slab = slabs.size();
+                slabs.add(ByteBuffer.allocateDirect(slabSize));
+                for (int offset = slabSize - sizeClass.chunkSize; offset >= 0; offset -= sizeClass.chunkSize) {
+                    sizeClass.push((slab << 32) | offset);
+                }
+                return sizeClass.pop();
+            }
+            Entry<K> victim = sizeClass.head;
+            if (victim == null) {
+                //内存已经被其它分级占用
+                return -1;
+            }
+            index.remove(victim.key);
+            release(victim);
+            return sizeClass.pop();
+        }
+
+        /**
+         * 释放条目占用的块
+         *
+         * @param entry 条目
+         */
+        protected void release(final Entry<K> entry) {
+            entry.sizeClass.remove(entry);
+            entry.sizeClass.push(entry.address);
+        }
+    }
+
+    /**
+     * 块大小分级，维护空闲块和LRU队列
+     */
+    protected static class SizeClass<K> {
+        /**
+         * 块大小
+         */
+        protected final int chunkSize;
+        /**
+         * 空闲块地址栈
+         */
+        protected long[] freeChunks = new long[16];
+        /**
+         * 空闲块数量
+         */
+        protected int frees;
+        /**
+         * 最久未访问
+         */
+        protected Entry<K> head;
+        /**
+         * 最近访问
+         */
+        protected Entry<K> tail;
+
+        public SizeClass(final int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        protected void push(final long address) {
+            if (frees == freeChunks.length) {
+                long[] chunks = new long[freeChunks.length << 1];
+                System.arraycopy(freeChunks, 0, chunks, 0, frees);
+                freeChunks = chunks;
+            }
+            freeChunks[frees++] = address;
+        }
+
+        protected long pop() {
+            return freeChunks[--frees];
+        }
+
+        protected void addLast(final Entry<K> entry) {
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        protected void remove(final Entry<K> entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        protected void moveToLast(final Entry<K> entry) {
+            if (entry != tail) {
+                remove(entry);
+                addLast(entry);
+            }
+        }
+    }
+
+    /**
+     * 索引条目
+     */
+    protected static class Entry<K> {
+        protected final K key;
+        protected final Type type;
+        protected final long address;
+        protected final int length;
+        protected final long expireTime;
+        protected final long writeTime;
+        protected final SizeClass<K> sizeClass;
+        protected Entry<K> prev;
+        protected Entry<K> next;
+
+        public Entry(K key, Type type, long address, int length, long expireTime, long writeTime, SizeClass<K> sizeClass) {
+            this.key = key;
+            this.type = type;
+            this.address = address;
+            this.length = length;
+            this.expireTime = expireTime;
+            this.writeTime = writeTime;
+            this.sizeClass = sizeClass;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package io.joyrpc.cache.tinylfu;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * 4位计数的Count-Min Sketch，用于估算键的访问频率。<br>
+ * 每个long存放16个计数器，每个键通过4个哈希函数定位计数器，计数总数达到采样数后所有计数减半，让频率随时间衰减。
+ * 非线程安全，由缓存在锁里面访问。
+ */
+class FrequencySketch {
+
+    protected static final long[] SEEDS = new long[]{0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    /**
+     * 减半时每个计数器右移后保留的位
+     */
+    protected static final long RESET_MASK = 0x7777777777777777L;
+
+    /**
+     * 计数表
+     */
+    protected final long[] table;
+    /**
+     * 计数表掩码
+     */
+    protected final int mask;
+    /**
+     * 采样数
+     */
+    protected final int sampleSize;
+    /**
+     * 当前计数
+     */
+    protected int size;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓存容量
+     */
+    FrequencySketch(final int capacity) {
+        int length = 16;
+        int max = Math.max(16, Math.min(capacity, 1 << 30));
+        while (length < max) {
+            length <<= 1;
+        }
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(capacity, 16), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 估算频率
+     *
+     * @param hashCode 哈希值
+     * @return 频率，最大15
+     */
+    int frequency(final int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 增加计数
+     *
+     * @param hashCode 哈希值
+     */
+    void increment(final int hashCode) {
+        int hash = spread(hashCode);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 增加指定位置的计数，达到15不再增加
+     *
+     * @param i 计数表索引
+     * @param j 计数器索引
+     * @return 是否增加
+     */
+    protected boolean incrementAt(final int i, final int j) {
+        int offset = j << 2;
+        long counter = 0xfL << offset;
+        if ((table[i] & counter) != counter) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 所有计数减半
+     */
+    protected void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = size >>> 1;
+    }
+
+    /**
+     * 计算第i个哈希函数的计数表索引
+     *
+     * @param item 哈希值
+     * @param i    哈希函数
+     * @return 索引
+     */
+    protected int indexOf(final int item, final int i) {
+        long hash = (item + SEEDS[i]) * SEEDS[i];
+        hash += hash >>> 32;
+        return ((int) hash) & mask;
+    }
+
+    /**
+     * 打散哈希值
+     *
+     * @param x 哈希值
+     * @return 打散后的哈希值
+     */
+    protected static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
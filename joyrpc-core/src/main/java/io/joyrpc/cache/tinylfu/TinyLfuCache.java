@@ -0,0 +1,498 @@
+package io.joyrpc.cache.tinylfu;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cache.AbstractCache;
+import io.joyrpc.cache.CacheConfig;
+import io.joyrpc.cache.CacheObject;
+import io.joyrpc.util.SystemClock;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于W-TinyLFU淘汰策略的缓存，不依赖第三方库。<br>
+ * 读操作无锁，命中记录写入按线程分段的有损环形缓冲区，缓冲区满了以后尝试获取锁批量回放；
+ * 写操作在锁里面维护窗口LRU、试用区和保护区，并由频率草图决定窗口淘汰的候选者和试用区牺牲者谁被保留。
+ * 过期时间固定，按写入顺序队列清理过期数据。
+ */
+public class TinyLfuCache<K, V> extends AbstractCache<K, V> {
+
+    protected static final int NONE = 0;
+    protected static final int WINDOW = 1;
+    protected static final int PROBATION = 2;
+    protected static final int PROTECTED = 3;
+    /**
+     * 每个分段的读缓冲区大小
+     */
+    protected static final int BUFFER_SIZE = 16;
+    /**
+     * 读缓冲区计数器的间隔，避免伪共享
+     */
+    protected static final int PADDING = 16;
+
+    /**
+     * 名称
+     */
+    protected String name;
+    /**
+     * 数据
+     */
+    protected Map<K, Entry<K, V>> data;
+    /**
+     * 容量，小于等于0表示不限制
+     */
+    protected final int capacity;
+    /**
+     * 窗口最大数量
+     */
+    protected final int windowMax;
+    /**
+     * 保护区最大数量
+     */
+    protected final int protectedMax;
+    /**
+     * 维护锁
+     */
+    protected final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 频率草图
+     */
+    protected final FrequencySketch sketch;
+    /**
+     * 读缓冲区分段数
+     */
+    protected final int stripes;
+    /**
+     * 读缓冲区
+     */
+    protected final AtomicReferenceArray<Entry<K, V>> readBuffer;
+    /**
+     * 读缓冲区的写入计数
+     */
+    protected final AtomicIntegerArray readCounts;
+    /**
+     * 窗口LRU
+     */
+    protected final AccessQueue<K, V> window = new AccessQueue<>();
+    /**
+     * 试用区LRU
+     */
+    protected final AccessQueue<K, V> probation = new AccessQueue<>();
+    /**
+     * 保护区LRU
+     */
+    protected final AccessQueue<K, V> protect = new AccessQueue<>();
+    /**
+     * 写入顺序队列头部，最早写入
+     */
+    protected Entry<K, V> writeHead;
+    /**
+     * 写入顺序队列尾部
+     */
+    protected Entry<K, V> writeTail;
+    /**
+     * 在淘汰策略里面的数量
+     */
+    protected int size;
+
+    /**
+     * 构造函数
+     *
+     * @param name   名称
+     * @param config 配置
+     */
+    public TinyLfuCache(final String name, final CacheConfig<K, V> config) {
+        this.name = name;
+        this.config = config == null ? new CacheConfig<>() : config;
+        this.capacity = this.config.getCapacity();
+        this.windowMax = capacity <= 0 ? Integer.MAX_VALUE : Math.max(1, capacity / 100);
+        this.protectedMax = capacity <= 0 ? Integer.MAX_VALUE : (int) ((capacity - windowMax) * 0.8d);
+        this.data = new ConcurrentHashMap<>(capacity <= 0 ? 1024 : Math.min(capacity, 1 << 16));
+        this.sketch = new FrequencySketch(capacity <= 0 ? 1024 : capacity);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int count = 1;
+        while (count < cpus && count < 64) {
+            count <<= 1;
+        }
+        this.stripes = count;
+        this.readBuffer = new AtomicReferenceArray<>(count * BUFFER_SIZE);
+        this.readCounts = new AtomicIntegerArray(count * PADDING);
+    }
+
+    @Override
+    protected CompletableFuture<Void> doPut(final K key, final V value) {
+        long expireTime = config.getExpireAfterWrite() > 0 ? SystemClock.now() + config.getExpireAfterWrite() : -1;
+        Entry<K, V> entry = new Entry<>(key, new CacheObject<>(value), expireTime);
+        Entry<K, V> old = data.put(key, entry);
+        lock.lock();
+        try {
+            if (old != null) {
+                unlink(old);
+            }
+            //并发写入同一个键的时候，只有仍在数据里面的条目才加入淘汰策略
+            if (data.get(key) == entry) {
+                sketch.increment(entry.hash);
+                window.addLast(entry, WINDOW);
+                linkWrite(entry);
+                size++;
+            }
+            maintain(SystemClock.now());
+        } finally {
+            lock.unlock();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    protected CompletableFuture<CacheObject<V>> doGet(final K key) {
+        Entry<K, V> entry = data.get(key);
+        if (entry == null) {
+            return CompletableFuture.completedFuture(null);
+        } else if (entry.isExpire(SystemClock.now())) {
+            //过期了，由维护线程从淘汰策略里面移除
+            data.remove(key, entry);
+            record(entry);
+            return CompletableFuture.completedFuture(null);
+        }
+        record(entry);
+        return CompletableFuture.completedFuture(entry.value);
+    }
+
+    @Override
+    protected CompletableFuture<Void> doRemove(final K key) {
+        Entry<K, V> entry = data.remove(key);
+        if (entry != null) {
+            lock.lock();
+            try {
+                unlink(entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 当前数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * 记录访问，缓冲区满了丢弃记录，并尝试回放
+     *
+     * @param entry 条目
+     */
+    protected void record(final Entry<K, V> entry) {
+        int stripe = (int) Thread.currentThread().getId() & (stripes - 1);
+        int count = readCounts.getAndIncrement(stripe * PADDING);
+        if (count < BUFFER_SIZE) {
+            readBuffer.lazySet(stripe * BUFFER_SIZE + count, entry);
+        }
+        if (count >= BUFFER_SIZE - 1 && lock.tryLock()) {
+            try {
+                maintain(SystemClock.now());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 维护，在锁里面执行
+     *
+     * @param now 当前时间
+     */
+    protected void maintain(final long now) {
+        drainReadBuffer(now);
+        expire(now);
+        evict();
+    }
+
+    /**
+     * 回放读缓冲区
+     *
+     * @param now 当前时间
+     */
+    protected void drainReadBuffer(final long now) {
+        Entry<K, V> entry;
+        for (int i = 0; i < stripes; i++) {
+            int count = Math.min(readCounts.get(i * PADDING), BUFFER_SIZE);
+            for (int j = 0; j < count; j++) {
+                entry = readBuffer.getAndSet(i * BUFFER_SIZE + j, null);
+                if (entry != null) {
+                    onAccess(entry, now);
+                }
+            }
+            readCounts.set(i * PADDING, 0);
+        }
+    }
+
+    /**
+     * 访问条目
+     *
+     * @param entry 条目
+     * @param now   当前时间
+     */
+    protected void onAccess(final Entry<K, V> entry, final long now) {
+        if (entry.queue == NONE) {
+            return;
+        } else if (entry.isExpire(now)) {
+            remove(entry);
+            return;
+        }
+        sketch.increment(entry.hash);
+        switch (entry.queue) {
+            case WINDOW:
+                window.moveToLast(entry);
+                break;
+            case PROBATION:
+                //晋升到保护区
+                probation.remove(entry);
+                protect.addLast(entry, PROTECTED);
+                while (protect.size > protectedMax) {
+                    Entry<K, V> demoted = protect.head;
+                    protect.remove(demoted);
+                    probation.addLast(demoted, PROBATION);
+                }
+                break;
+            case PROTECTED:
+                protect.moveToLast(entry);
+                break;
+        }
+    }
+
+    /**
+     * 按写入顺序清理过期条目
+     *
+     * @param now 当前时间
+     */
+    protected void expire(final long now) {
+        while (writeHead != null && writeHead.isExpire(now)) {
+            remove(writeHead);
+        }
+    }
+
+    /**
+     * 淘汰
+     */
+    protected void evict() {
+        //窗口溢出的条目进入试用区尾部，作为候选者
+        while (window.size > windowMax) {
+            Entry<K, V> entry = window.head;
+            window.remove(entry);
+            probation.addLast(entry, PROBATION);
+        }
+        if (capacity <= 0) {
+            return;
+        }
+        Entry<K, V> victim;
+        Entry<K, V> candidate;
+        while (size > capacity) {
+            victim = probation.head;
+            candidate = probation.tail;
+            if (victim == null) {
+                remove(protect.head != null ? protect.head : window.head);
+            } else if (victim == candidate) {
+                remove(victim);
+            } else {
+                //候选者的频率更高才淘汰试用区的牺牲者
+                remove(sketch.frequency(candidate.hash) > sketch.frequency(victim.hash) ? victim : candidate);
+            }
+        }
+    }
+
+    /**
+     * 从数据和淘汰策略里面移除条目
+     *
+     * @param entry 条目
+     */
+    protected void remove(final Entry<K, V> entry) {
+        data.remove(entry.key, entry);
+        unlink(entry);
+    }
+
+    /**
+     * 从淘汰策略里面移除条目
+     *
+     * @param entry 条目
+     */
+    protected void unlink(final Entry<K, V> entry) {
+        switch (entry.queue) {
+            case WINDOW:
+                window.remove(entry);
+                break;
+            case PROBATION:
+                probation.remove(entry);
+                break;
+            case PROTECTED:
+                protect.remove(entry);
+                break;
+            default:
+                return;
+        }
+        entry.queue = NONE;
+        unlinkWrite(entry);
+        size--;
+    }
+
+    /**
+     * 加入写入顺序队列
+     *
+     * @param entry 条目
+     */
+    protected void linkWrite(final Entry<K, V> entry) {
+        entry.writePrev = writeTail;
+        entry.writeNext = null;
+        if (writeTail == null) {
+            writeHead = entry;
+        } else {
+            writeTail.writeNext = entry;
+        }
+        writeTail = entry;
+    }
+
+    /**
+     * 从写入顺序队列移除
+     *
+     * @param entry 条目
+     */
+    protected void unlinkWrite(final Entry<K, V> entry) {
+        Entry<K, V> prev = entry.writePrev;
+        Entry<K, V> next = entry.writeNext;
+        if (prev == null) {
+            writeHead = next;
+        } else {
+            prev.writeNext = next;
+        }
+        if (next == null) {
+            writeTail = prev;
+        } else {
+            next.writePrev = prev;
+        }
+        entry.writePrev = null;
+        entry.writeNext = null;
+    }
+
+    /**
+     * 缓存条目，链表指针只在锁里面访问
+     */
+    protected static class Entry<K, V> {
+        protected final K key;
+        protected final int hash;
+        protected final CacheObject<V> value;
+        protected final long expireTime;
+        protected int queue = NONE;
+        protected Entry<K, V> prev;
+        protected Entry<K, V> next;
+        protected Entry<K, V> writePrev;
+        protected Entry<K, V> writeNext;
+
+        public Entry(final K key, final CacheObject<V> value, final long expireTime) {
+            this.key = key;
+            this.hash = key.hashCode();
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+
+        /**
+         * 是否过期
+         *
+         * @param now 当前毫秒数
+         * @return 过期标识
+         */
+        public boolean isExpire(final long now) {
+            return expireTime > 0 && now > expireTime;
+        }
+    }
+
+    /**
+     * 访问顺序队列，头部是最久未访问的
+     */
+    protected static class AccessQueue<K, V> {
+        protected Entry<K, V> head;
+        protected Entry<K, V> tail;
+        protected int size;
+
+        /**
+         * 加入尾部
+         *
+         * @param entry 条目
+         * @param queue 队列类型
+         */
+        protected void addLast(final Entry<K, V> entry, final int queue) {
+            entry.queue = queue;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+            size++;
+        }
+
+        /**
+         * 移除
+         *
+         * @param entry 条目
+         */
+        protected void remove(final Entry<K, V> entry) {
+            Entry<K, V> prev = entry.prev;
+            Entry<K, V> next = entry.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            size--;
+        }
+
+        /**
+         * 移动到尾部
+         *
+         * @param entry 条目
+         */
+        protected void moveToLast(final Entry<K, V> entry) {
+            if (entry != tail) {
+                int queue = entry.queue;
+                remove(entry);
+                addLast(entry, queue);
+            }
+        }
+    }
+}
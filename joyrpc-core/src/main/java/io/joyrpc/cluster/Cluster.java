@@ -153,6 +153,10 @@ public class Cluster {
      * 当初始化超时的时候，是否验证必须要有连接
      */
     protected boolean check;
+    /**
+     * 权重版本，本集群的节点共享
+     */
+    protected final AtomicLong weightVersion = new AtomicLong(0);
     /**
      * 状态机
      */
@@ -250,8 +254,19 @@ public class Cluster {
      * @return 变更标识
      */
     protected boolean isChanged(final Shard shard, final Node previous) {
-        //没有发生变化
-        return previous == null || (previous.originWeight != shard.getWeight()
+        //和节点创建时的原始分片比较，原始分片的权重即节点的原始权重
+        return isChanged(shard, previous == null ? null : previous.shard);
+    }
+
+    /**
+     * 判断分片是否发生变化
+     *
+     * @param shard    分片
+     * @param previous 以前的分片
+     * @return 变化标识
+     */
+    protected boolean isChanged(final Shard shard, final Shard previous) {
+        return previous == null || (previous.getWeight() != shard.getWeight()
                 || !Objects.equals(previous.getName(), shard.getName())
                 || !Objects.equals(previous.getRegion(), shard.getRegion())
                 || !Objects.equals(previous.getDataCenter(), shard.getDataCenter())
@@ -323,7 +338,8 @@ public class Cluster {
                 authentication,
                 handler,
                 dashboardFactory == null ? null : dashboardFactory.create(url, DashboardType.Node),
-                metricPublisher);
+                metricPublisher,
+                weightVersion);
     }
 
     /**
@@ -459,6 +475,18 @@ public class Cluster {
          * 补充节点的名称
          */
         protected final String supplyTask;
+        /**
+         * 注册中心推送的分片快照，包括被过滤掉的分片，用于比较出变化的分片，只在任务队列里面访问
+         */
+        protected final Map<String, Snapshot> snapshots = new HashMap<>(50);
+        /**
+         * 集群事件的版本，每个事件递增，用于标记快照是否出现在当前事件中
+         */
+        protected long epoch;
+        /**
+         * 是否进行过全量选举
+         */
+        protected boolean elected;
 
         /**
          * 构造函数
@@ -583,6 +611,8 @@ public class Cluster {
          * @param event 事件
          */
         protected void onClearEvent(final ClusterEvent event) {
+            snapshots.clear();
+            elected = false;
             backups.clear();
             connects.clear();
             readys = new ArrayList<>(0);
@@ -596,32 +626,38 @@ public class Cluster {
          * @param event 事件
          */
         protected void onFullEvent(final ClusterEvent event) {
-            int add = 0;
+            List<Node> adds = new LinkedList<>();
             List<ShardEvent> events = event.getDatum();
             if (events != null) {
-                //记录节点名称
-                Set<String> names = new HashSet<>();
-                //遍历节点，进行添加
+                long current = ++epoch;
+                int count = 0;
+                //遍历节点，只处理发生变化的分片
                 for (ShardEvent e : events) {
                     //防止注册中心有重复数据的情况
-                    if (names.add(e.getShard().getName())) {
-                        add += onAdd(e.getShard()) ? 1 : 0;
+                    if (onUpdate(e.getShard(), current, adds)) {
+                        count++;
                     }
                 }
-                //判断哪些节点被删除了
-                for (Map.Entry<String, Node> node : nodes.entrySet()) {
-                    if (!names.contains(node.getKey())) {
-                        onDelete(node.getValue());
+                if (count < snapshots.size()) {
+                    //有分片没有出现在本次全量数据中，说明被删除了
+                    Snapshot snapshot;
+                    Iterator<Snapshot> iterator = snapshots.values().iterator();
+                    while (iterator.hasNext()) {
+                        snapshot = iterator.next();
+                        if (snapshot.epoch != current) {
+                            iterator.remove();
+                            onDelete(snapshot.shard);
+                        }
                     }
                 }
             }
-            if (add > 0) {
+            if (!adds.isEmpty()) {
                 //新增了节点，重新选举
-                candidate();
+                candidate(adds);
             }
             //第一次全量事件，触发连接超时检测
             if (trigger != null) {
-                trigger.onFull(add);
+                trigger.onFull(adds.size());
             }
         }
 
@@ -631,26 +667,58 @@ public class Cluster {
          * @param event 事件
          */
         protected void onUpdateEvent(final ClusterEvent event) {
-            int add = 0;
+            List<Node> adds = new LinkedList<>();
             //增量更新
             List<ShardEvent> events = event.getDatum();
             //增量更新
             if (events != null) {
+                long current = ++epoch;
                 for (ShardEvent e : events) {
                     switch (e.getType()) {
                         case DELETE:
+                            snapshots.remove(e.getShard().getName());
                             onDelete(e.getShard());
                             break;
                         case ADD:
-                            add += onAdd(e.getShard()) ? 1 : 0;
+                            onUpdate(e.getShard(), current, adds);
                             break;
                     }
                 }
             }
-            if (add > 0) {
+            if (!adds.isEmpty()) {
                 //新增了节点，重新选举
-                candidate();
+                candidate(adds);
+            }
+        }
+
+        /**
+         * 和快照比较，分片发生变化才创建节点
+         *
+         * @param shard   分片
+         * @param current 当前事件版本
+         * @param adds    新增的节点
+         * @return 分片是否第一次出现在当前事件中
+         */
+        protected boolean onUpdate(final Shard shard, final long current, final List<Node> adds) {
+            String name = shard.getName();
+            Snapshot snapshot = snapshots.get(name);
+            if (snapshot == null) {
+                snapshots.put(name, new Snapshot(shard, current));
+            } else if (snapshot.epoch == current) {
+                //重复数据
+                return false;
+            } else {
+                snapshot.epoch = current;
+                if (!cluster.isChanged(shard, snapshot.shard)) {
+                    //没有发生变化
+                    return true;
+                }
+                snapshot.shard = shard;
+            }
+            if (onAdd(shard)) {
+                adds.add(nodes.get(name));
             }
+            return true;
         }
 
         /**
@@ -687,6 +755,19 @@ public class Cluster {
             return nodes.get(node.getName()) == node;
         }
 
+        /**
+         * 新增节点后进行选举，选举算法支持增量选举则只对新增节点进行选举，否则全量重新选举
+         *
+         * @param adds 新增的节点
+         */
+        protected void candidate(final List<Node> adds) {
+            if (elected && cluster.candidature.isIncremental()) {
+                candidate(cluster.candidate(adds));
+            } else {
+                candidate();
+            }
+        }
+
         /**
          * 重新选举节点
          */
@@ -694,13 +775,14 @@ public class Cluster {
             //增加选举次数，正在重连的任务会自动放弃
             //冷备节点，已经在算法里面做了最优打散
             backups.clear();
-            List<Node> candidates = new LinkedList<>(nodes.values());
+            List<Node> candidates = new ArrayList<>(nodes.values());
             //用最新的参数进行更新
             Candidature.Result result = cluster.candidate(candidates);
             int size = result.getSize();
             if (size > 0) {
                 Optional.ofNullable(trigger).ifPresent(o -> o.adjustSemaphore(size));
             }
+            elected = true;
             /*logger.info(String.format("cluster url:%s, candidate result, candidates:%d, standbys:%d, backups:%d, discards:%d",
                     cluster.url.toString(false, true, "alias", "initTimeout", "region", "datacenter"),
                     result.getCandidates().size(),
@@ -708,6 +790,17 @@ public class Cluster {
                     result.getBackups().size(),
                     result.getDiscards().size()
             ));*/
+            candidate(result);
+            //重置可用节点，因为有些节点可能在这次选举中被放弃了
+            readys = new ArrayList<>(connects.values());
+        }
+
+        /**
+         * 处理选举结果
+         *
+         * @param result 选举结果
+         */
+        protected void candidate(final Candidature.Result result) {
             final AtomicInteger semaphore = new AtomicInteger(result.getCandidates().size());
             //命中节点建立连接
             candidate(result.getCandidates(), (s, n) -> connect(n, r -> semaphore.decrementAndGet()), Node::getWeight);
@@ -718,8 +811,6 @@ public class Cluster {
             candidate(result.getBackups(), (s, n) -> backup(n), Node::getWeight);
             //丢弃的节点
             candidate(result.getDiscards(), (s, n) -> discard(n), null);
-            //重置可用节点，因为有些节点可能在这次选举中被放弃了
-            readys = new ArrayList<>(connects.values());
         }
 
         /**
@@ -1042,6 +1133,25 @@ public class Cluster {
         }
     }
 
+    /**
+     * 分片快照
+     */
+    protected static class Snapshot {
+        /**
+         * 分片
+         */
+        protected Shard shard;
+        /**
+         * 最后出现的事件版本
+         */
+        protected long epoch;
+
+        public Snapshot(Shard shard, long epoch) {
+            this.shard = shard;
+            this.epoch = epoch;
+        }
+    }
+
     /**
      * 延迟连接节点
      */
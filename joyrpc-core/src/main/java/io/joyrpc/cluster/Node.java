@@ -34,6 +34,7 @@ import io.joyrpc.exception.ProtocolException;
 import io.joyrpc.extension.URL;
 import io.joyrpc.apm.metric.Dashboard;
 import io.joyrpc.protocol.ClientProtocol;
+import io.joyrpc.protocol.MsgType;
 import io.joyrpc.protocol.Protocol.ProtocolVersion;
 import io.joyrpc.protocol.message.HeartbeatAware;
 import io.joyrpc.protocol.message.Response;
@@ -80,6 +81,10 @@ public class Node implements Shard {
     protected static final String VERSION = "version";
     protected static final String DISCONNECT_WHEN_HEARTBEAT_FAILS = "disconnectWhenHeartbeatFails";
     public static final String START_TIMESTAMP = "startTime";
+    /**
+     * 业务请求延迟的指数加权移动平均的衰减时间(毫秒)
+     */
+    protected static final double LATENCY_DECAY = 10000D;
 
     /**
      * 集群URL
@@ -89,6 +94,10 @@ public class Node implements Shard {
      * 集群名称
      */
     protected final String clusterName;
+    /**
+     * 权重版本，同一个集群的节点共享，任意节点的权重变化后递增，用于加权选择表的缓存失效
+     */
+    protected final AtomicLong weightVersion;
     /**
      * 分片
      */
@@ -177,6 +186,14 @@ public class Node implements Shard {
      * 权重：经过预热计算后
      */
     protected int weight;
+    /**
+     * 业务请求延迟(毫秒)的指数加权移动平均
+     */
+    protected volatile double latency;
+    /**
+     * 上一次更新延迟的时间(纳秒)
+     */
+    protected volatile long latencyTime;
     /**
      * 指标事件处理器
      */
@@ -222,6 +239,32 @@ public class Node implements Shard {
                 final NodeHandler nodeHandler,
                 final Dashboard dashboard,
                 final Publisher<MetricEvent> publisher) {
+        this(clusterName, clusterUrl, shard, factory, workerPool, authentication, nodeHandler, dashboard, publisher, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param clusterName    集群名称
+     * @param clusterUrl     集群URL
+     * @param shard          分片
+     * @param factory        连接工程
+     * @param authentication 授权
+     * @param nodeHandler    节点事件处理器
+     * @param dashboard      当前节点指标面板
+     * @param publisher      额外的指标事件监听器
+     * @param weightVersion  集群共享的权重版本
+     */
+    public Node(final String clusterName,
+                final URL clusterUrl,
+                final Shard shard,
+                final EndpointFactory factory,
+                final ThreadPool workerPool,
+                final Function<URL, Message> authentication,
+                final NodeHandler nodeHandler,
+                final Dashboard dashboard,
+                final Publisher<MetricEvent> publisher,
+                final AtomicLong weightVersion) {
         Objects.requireNonNull(clusterUrl, "clusterUrl can not be null.");
         Objects.requireNonNull(shard, "shard can not be null.");
         Objects.requireNonNull(factory, "factory can not be null.");
@@ -235,6 +278,7 @@ public class Node implements Shard {
             this.clusterUrl = clusterUrl;
         }
         this.clusterName = clusterName;
+        this.weightVersion = weightVersion == null ? new AtomicLong(0) : weightVersion;
         this.shard = shard;
         this.factory = factory;
         this.workerPool = workerPool;
@@ -322,6 +366,45 @@ public class Node implements Shard {
         return client;
     }
 
+    /**
+     * 获取正在处理的请求数
+     *
+     * @return 正在处理的请求数
+     */
+    public int getRequests() {
+        Client cl = client;
+        return cl == null ? 0 : cl.getRequests();
+    }
+
+    /**
+     * 获取业务请求延迟(毫秒)的指数加权移动平均
+     *
+     * @return 延迟
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * 更新业务请求延迟，按照距离上次更新的时间进行衰减，并发更新丢失个别样本不影响结果。<br/>
+     * 失败的请求按照惩罚延迟计算，避免快速失败的节点看起来延迟最低而获得更多流量
+     *
+     * @param startTime 请求开始时间(纳秒)
+     * @param penalty   惩罚延迟(毫秒)，成功的请求为0
+     */
+    protected void latency(final long startTime, final double penalty) {
+        long now = System.nanoTime();
+        double elapsed = Math.max((now - startTime) / 1000000D, penalty);
+        long last = latencyTime;
+        latencyTime = now;
+        if (last == 0) {
+            latency = elapsed;
+        } else {
+            double w = Math.exp(-((now - last) / 1000000D) / LATENCY_DECAY);
+            latency = latency * w + elapsed * (1 - w);
+        }
+    }
+
     @Override
     public String getName() {
         return shard.getName();
@@ -364,7 +447,19 @@ public class Node implements Shard {
     }
 
     protected void setWeight(int weight) {
-        this.weight = weight;
+        if (this.weight != weight) {
+            this.weight = weight;
+            weightVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * 获取集群的权重版本，集群内任意节点权重变化后递增
+     *
+     * @return 权重版本
+     */
+    public long getWeightVersion() {
+        return weightVersion.get();
     }
 
     @Override
@@ -435,7 +530,7 @@ public class Node implements Shard {
      */
     protected Client newClient(final EventHandler<TransportEvent> handler) {
         Client client = factory.createClient(url, workerPool, t -> publisher == null ?
-                new NodeClient(url, t, handler) :
+                new NodeClient(url, t, handler, this) :
                 new MetricClient(url, t, handler, this));
         if (client != null) {
             client.setProtocol(clientProtocol);
@@ -460,7 +555,7 @@ public class Node implements Shard {
                 int duration = (int) (SystemClock.now() - startTime);
                 if (duration > 0 && duration < warmupDuration) {
                     int w = warmupWeight + Math.round(((float) duration / warmupDuration) * originWeight);
-                    weight = w < 1 ? 1 : Math.min(w, originWeight);
+                    setWeight(w < 1 ? 1 : Math.min(w, originWeight));
                     return true;
                 }
             }
@@ -905,6 +1000,10 @@ public class Node implements Shard {
          * 处理器
          */
         protected EventHandler<? extends TransportEvent> handler;
+        /**
+         * 节点
+         */
+        protected final Node node;
 
         /**
          * 构造函数
@@ -914,11 +1013,30 @@ public class Node implements Shard {
          * @param handler   处理器
          */
         public NodeClient(final URL url, final TransportClient transport,
-                          final EventHandler<? extends TransportEvent> handler) {
+                          final EventHandler<? extends TransportEvent> handler,
+                          final Node node) {
             super(url, transport);
+            this.node = node;
             this.addEventHandler(handler);
         }
 
+        @Override
+        public CompletableFuture<Message> async(final Message message, final int timeoutMillis) {
+            if (message.getMsgType() != MsgType.BizReq.getType()) {
+                return transport.async(message, timeoutMillis);
+            }
+            //统计业务请求的延迟，回调注册在原始Future上并返回原始Future，便于调用方取消请求
+            final long startTime = System.nanoTime();
+            CompletableFuture<Message> future = transport.async(message, timeoutMillis);
+            future.whenComplete((r, t) -> {
+                if (!future.isCancelled()) {
+                    //请求失败按照超时时间惩罚
+                    node.latency(startTime, t == null ? 0 : timeoutMillis);
+                }
+            });
+            return future;
+        }
+
         @Override
         public CompletableFuture<Channel> close() {
             //优雅下线，需要注销监听器，否则连接断开又触发Inactive事件
@@ -933,10 +1051,6 @@ public class Node implements Shard {
      */
     protected static class MetricClient extends NodeClient {
 
-        /**
-         * 节点
-         */
-        protected final Node node;
         /**
          * 集群URL
          */
@@ -961,8 +1075,7 @@ public class Node implements Shard {
         public MetricClient(final URL url, final TransportClient transport,
                             final EventHandler<? extends TransportEvent> handler,
                             final Node node) {
-            super(url, transport, handler);
-            this.node = node;
+            super(url, transport, handler, node);
             this.clusterUrl = node.clusterUrl;
             this.clusterName = node.clusterName;
             this.publisher = node.publisher;
@@ -973,8 +1086,14 @@ public class Node implements Shard {
             //判空,验证是否需要统计
             final long startTime = SystemClock.now();
             try {
-                return transport.async(message, timeoutMillis).whenComplete((r, t) ->
-                        publish(message, r, startTime, SystemClock.now(), t));
+                CompletableFuture<Message> future = super.async(message, timeoutMillis);
+                //被取消的请求不计入指标
+                future.whenComplete((r, t) -> {
+                    if (!future.isCancelled()) {
+                        publish(message, r, startTime, SystemClock.now(), t);
+                    }
+                });
+                return future;
             } catch (Exception e) {
                 publish(message, null, startTime, SystemClock.now(), e);
                 throw e;
@@ -43,6 +43,15 @@ public interface Candidature {
      */
     Result candidate(URL url, Candidate candidate);
 
+    /**
+     * 是否支持增量选举，即每个节点的选举结果和其它节点无关，新增节点时只需要对新增节点进行选举
+     *
+     * @return 增量选举标识
+     */
+    default boolean isIncremental() {
+        return false;
+    }
+
     /**
      * 选择结果
      */
@@ -35,4 +35,9 @@ public class AllCandidature implements Candidature {
     public Result candidate(final URL url, final Candidate candidate) {
         return new Result(candidate.getNodes());
     }
+
+    @Override
+    public boolean isIncremental() {
+        return true;
+    }
 }
@@ -42,6 +42,7 @@ import io.joyrpc.extension.URL;
 import io.joyrpc.util.*;
 import io.joyrpc.util.Daemon.Waiting;
 import io.joyrpc.util.StateMachine.IntStateMachine;
+import io.joyrpc.util.Timer.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +60,7 @@ import java.util.function.Predicate;
 import static io.joyrpc.Plugin.EVENT_BUS;
 import static io.joyrpc.cluster.event.ClusterEvent.ShardEventType.ADD;
 import static io.joyrpc.constants.Constants.*;
+import static io.joyrpc.util.Timer.timer;
 
 /**
  * 注册中心基类，实现Registry接口
@@ -103,6 +105,10 @@ public abstract class AbstractRegistry implements Registry, Configure {
      * 备份时间间隔
      */
     protected long backupInterval;
+    /**
+     * 集群增量事件的合并窗口
+     */
+    protected long clusterEventWindow;
     /**
      * 注册
      */
@@ -154,6 +160,7 @@ public abstract class AbstractRegistry implements Registry, Configure {
         this.maxConnectRetryTimes = url.getInteger(REGISTRY_MAX_CONNECT_RETRY_TIMES_OPTION);
         this.taskRetryInterval = url.getPositiveLong(REGISTRY_TASK_RETRY_INTERVAL_OPTION);
         this.backupInterval = url.getPositiveLong(REGISTRY_BACKUP_INTERVAL_OPTION);
+        this.clusterEventWindow = url.getLong(REGISTRY_CLUSTER_EVENT_WINDOW_OPTION);
         this.registryId = ID_GENERATOR.get();
     }
 
@@ -708,7 +715,11 @@ public abstract class AbstractRegistry implements Registry, Configure {
         @Override
         public void subscribe(final ClusterSubscription subscription) {
             //在锁里面
-            subscribe(clusters, subscription, this::createClusterBooking, this::doSubscribe);
+            subscribe(clusters, subscription, key -> {
+                ClusterBooking booking = createClusterBooking(key);
+                booking.setWindow(registry.clusterEventWindow);
+                return booking;
+            }, this::doSubscribe);
         }
 
         @Override
@@ -1525,6 +1536,26 @@ public abstract class AbstractRegistry implements Registry, Configure {
          * 分片信息
          */
         protected volatile Map<String, Shard> datum;
+        /**
+         * 事件合并窗口(毫秒)
+         */
+        protected long window;
+        /**
+         * 合并窗口内待通知的增量信息
+         */
+        protected Map<String, ClusterEvent.ShardEvent> pending;
+        /**
+         * 合并窗口内是否有全量更新
+         */
+        protected boolean pendingFull;
+        /**
+         * 合并窗口的通知任务
+         */
+        protected Timeout flusher;
+        /**
+         * 合并窗口的锁
+         */
+        protected final Object mutex = new Object();
         /**
          * 没有全量数据的时候，合并的增量信息
          */
@@ -1672,13 +1703,13 @@ public abstract class AbstractRegistry implements Registry, Configure {
                     //如果存在全量数据，通知事件
                     if (full) {
                         if (event.getType() == UpdateType.CLEAR) {
-                            publisher.offer(new ClusterEvent(this, null, UpdateType.CLEAR, version, event.getDatum()));
+                            clear(event.getDatum());
                         } else if (!old) {
                             //如果以前不是全量数据，收到了全量数据事件，则广播合并完的全量数据
                             publisher.offer(new ClusterEvent(this, null, UpdateType.FULL, version, full()));
                         } else {
-                            //以前是全量数据，则直接广播本次更新数据
-                            publisher.offer(new ClusterEvent(this, null, event.getType(), version, event.getDatum()));
+                            //以前是全量数据，则广播本次更新数据
+                            publish(event.getType(), event.getDatum());
                         }
                         //保存数据
                         dirty();
@@ -1686,6 +1717,89 @@ public abstract class AbstractRegistry implements Registry, Configure {
                 }
             });
         }
+
+        public long getWindow() {
+            return window;
+        }
+
+        public void setWindow(final long window) {
+            this.window = window;
+        }
+
+        /**
+         * 广播更新数据，设置了合并窗口则把窗口内的变更合并成一次通知，减少集群重复选举和重连
+         *
+         * @param type   事件类型
+         * @param shards 分片
+         */
+        protected void publish(final UpdateType type, final List<ClusterEvent.ShardEvent> shards) {
+            if (window <= 0) {
+                publisher.offer(new ClusterEvent(this, null, type, version, shards));
+                return;
+            }
+            synchronized (mutex) {
+                if (type == UpdateType.FULL) {
+                    //全量数据覆盖以前的增量数据
+                    pendingFull = true;
+                    pending = null;
+                } else if (!pendingFull) {
+                    //同一个分片只保留最后的变更
+                    pending = update(pending, shards);
+                }
+                if (flusher == null) {
+                    flusher = timer().add("ClusterEventTask-" + key, SystemClock.now() + window, this::flush);
+                }
+            }
+        }
+
+        /**
+         * 合并窗口到期，通知合并后的数据
+         */
+        protected void flush() {
+            synchronized (mutex) {
+                flusher = null;
+                if (pendingFull) {
+                    //全量数据以当前数据为准
+                    publisher.offer(new ClusterEvent(this, null, UpdateType.FULL, version, full()));
+                } else if (pending != null && !pending.isEmpty()) {
+                    publisher.offer(new ClusterEvent(this, null, UpdateType.UPDATE, version, new ArrayList<>(pending.values())));
+                }
+                pending = null;
+                pendingFull = false;
+            }
+        }
+
+        /**
+         * 广播清理事件，丢弃合并窗口内的数据
+         *
+         * @param shards 分片
+         */
+        protected void clear(final List<ClusterEvent.ShardEvent> shards) {
+            synchronized (mutex) {
+                discard();
+                publisher.offer(new ClusterEvent(this, null, UpdateType.CLEAR, version, shards));
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (mutex) {
+                discard();
+            }
+            super.close();
+        }
+
+        /**
+         * 取消通知任务，丢弃合并窗口内的数据
+         */
+        protected void discard() {
+            if (flusher != null) {
+                flusher.cancel();
+                flusher = null;
+            }
+            pending = null;
+            pendingFull = false;
+        }
     }
 
     /**
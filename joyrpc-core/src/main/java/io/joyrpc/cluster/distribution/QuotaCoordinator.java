@@ -0,0 +1,69 @@
+package io.joyrpc.cluster.distribution;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.limiter.RateLimiterConfig;
+import io.joyrpc.extension.Extensible;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 分布式限流的配额协调器，各进程按块从协调器租用当前限流周期的配额，在本地消费
+ */
+@Extensible("quotaCoordinator")
+public interface QuotaCoordinator {
+
+    /**
+     * 租用配额
+     *
+     * @param config 限流配置，名称作为全局限流的键
+     * @param count  期望的配额数
+     * @return 租约
+     */
+    CompletableFuture<Lease> lease(RateLimiterConfig config, int count);
+
+    /**
+     * 租约
+     */
+    class Lease {
+        /**
+         * 分配的配额数，为0表示当前周期的配额已经用完
+         */
+        protected final int permits;
+        /**
+         * 配额过期时间，即当前限流周期的结束时间(毫秒)
+         */
+        protected final long expireTime;
+
+        public Lease(int permits, long expireTime) {
+            this.permits = permits;
+            this.expireTime = expireTime;
+        }
+
+        public int getPermits() {
+            return permits;
+        }
+
+        public long getExpireTime() {
+            return expireTime;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.RateLimiter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段限流器，把限流数平均拆分到多个分段上，线程按ID选择分段，分段许可不足再依次尝试其它分段，
+ * 降低多核下单个原子变量的CAS竞争。获取许可的路径上不创建对象。
+ */
+public abstract class AbstractStripedRateLimiter implements RateLimiter {
+
+    /**
+     * 分段间隔的槽位数，避免伪共享
+     */
+    protected static final int PADDING = 16;
+    /**
+     * 最大分段数
+     */
+    protected static final int MAX_STRIPES = 64;
+
+    /**
+     * 启动时间，确保运行时间从一个限流周期开始
+     */
+    protected volatile long startTimeNanos;
+    /**
+     * 分段状态，配置变更时整体替换
+     */
+    protected volatile Stripes stripes;
+
+    /**
+     * 构造函数
+     */
+    public AbstractStripedRateLimiter() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param config 配置
+     */
+    public AbstractStripedRateLimiter(final RateLimiterConfig config) {
+        reload(config);
+    }
+
+    @Override
+    public boolean getPermission() {
+        Stripes current = stripes;
+        if (current == null) {
+            return true;
+        }
+        long now = System.nanoTime() - startTimeNanos;
+        int size = current.quotas.length;
+        int start = (int) Thread.currentThread().getId() & (size - 1);
+        for (int i = 0; i < size; i++) {
+            if (acquire(current, (start + i) & (size - 1), now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在分段上获取许可
+     *
+     * @param stripes 分段状态
+     * @param index   分段索引
+     * @param now     运行时间(纳秒)
+     * @return 成功标识
+     */
+    protected abstract boolean acquire(Stripes stripes, int index, long now);
+
+    @Override
+    public synchronized boolean reload(final RateLimiterConfig config) {
+        if (config == null) {
+            return false;
+        }
+        Stripes current = stripes;
+        if (current != null && config.limitCount == current.config.limitCount
+                && config.limitPeriodNanos == current.config.limitPeriodNanos) {
+            //配置没有发生变化
+            return true;
+        }
+        if (startTimeNanos == 0) {
+            startTimeNanos = System.nanoTime() - config.limitPeriodNanos;
+        }
+        //新的分段状态值都为0，令牌桶是满的，滑动窗口计数为空
+        stripes = new Stripes(config, stripes(config.limitCount));
+        return true;
+    }
+
+    /**
+     * 计算分段数，为2的幂次，并确保每个分段至少有一个许可
+     *
+     * @param limitCount 限流数
+     * @return 分段数
+     */
+    protected int stripes(final int limitCount) {
+        int cpus = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors());
+        int size = 1;
+        while (size < cpus) {
+            size <<= 1;
+        }
+        return Math.max(1, Math.min(size, Integer.highestOneBit(limitCount)));
+    }
+
+    /**
+     * 分段状态
+     */
+    protected static class Stripes {
+        /**
+         * 配置
+         */
+        protected final RateLimiterConfig config;
+        /**
+         * 每个分段的限流数
+         */
+        protected final int[] quotas;
+        /**
+         * 分段的状态值，按PADDING间隔存放
+         */
+        protected final AtomicLongArray values;
+
+        public Stripes(final RateLimiterConfig config, final int size) {
+            this.config = config;
+            this.quotas = new int[size];
+            this.values = new AtomicLongArray(size * PADDING);
+            int quota = config.limitCount / size;
+            int remain = config.limitCount % size;
+            for (int i = 0; i < size; i++) {
+                quotas[i] = i < remain ? quota + 1 : quota;
+            }
+        }
+
+        /**
+         * 分段的状态值位置
+         *
+         * @param index 分段索引
+         * @return 位置
+         */
+        protected int offset(final int index) {
+            return index * PADDING;
+        }
+    }
+}
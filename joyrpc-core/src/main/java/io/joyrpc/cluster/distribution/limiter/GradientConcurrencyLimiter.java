@@ -0,0 +1,205 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发限制器，梯度算法。<br>
+ * 按采样窗口统计短期平均耗时，与长期平均耗时比较得到梯度，梯度小于1说明出现排队，收缩并发上限；
+ * 耗时平稳则按sqrt(limit)的排队余量逐步放大并发上限。获取不到许可直接拒绝，不阻塞线程。
+ */
+public class GradientConcurrencyLimiter {
+
+    /**
+     * 长期平均耗时的衰减窗口数
+     */
+    protected static final int LONG_WINDOW = 600;
+    /**
+     * 最小梯度，单个窗口最多收缩一半
+     */
+    protected static final double MIN_GRADIENT = 0.5d;
+
+    /**
+     * 最小并发上限
+     */
+    protected final int minLimit;
+    /**
+     * 最大并发上限
+     */
+    protected final int maxLimit;
+    /**
+     * 耗时容忍倍数，短期耗时超过长期耗时的该倍数才开始收缩
+     */
+    protected final double tolerance;
+    /**
+     * 平滑系数
+     */
+    protected final double smoothing;
+    /**
+     * 采样窗口(纳秒)
+     */
+    protected final long windowNanos;
+    /**
+     * 当前并发数
+     */
+    protected final AtomicInteger inflight = new AtomicInteger();
+    /**
+     * 窗口内的最大并发数，用于判断是否是调用方本身压力不足
+     */
+    protected final AtomicInteger maxInflight = new AtomicInteger();
+    /**
+     * 窗口内耗时累加
+     */
+    protected final LongAdder rtts = new LongAdder();
+    /**
+     * 窗口内采样数
+     */
+    protected final LongAdder samples = new LongAdder();
+    /**
+     * 当前窗口的结束时间
+     */
+    protected final AtomicLong windowEnd;
+    /**
+     * 估算的并发上限，只在窗口切换的线程里面修改
+     */
+    protected volatile double estimated;
+    /**
+     * 长期平均耗时，只在窗口切换的线程里面修改
+     */
+    protected volatile double longRtt;
+    /**
+     * 并发上限
+     */
+    protected volatile int limit;
+
+    /**
+     * 构造函数
+     *
+     * @param initial   初始并发上限
+     * @param minLimit  最小并发上限
+     * @param maxLimit  最大并发上限
+     * @param tolerance 耗时容忍倍数
+     * @param windowMs  采样窗口(毫秒)
+     */
+    public GradientConcurrencyLimiter(final int initial, final int minLimit, final int maxLimit,
+                                      final double tolerance, final long windowMs) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tolerance = Math.max(1.0d, tolerance);
+        this.smoothing = 0.2d;
+        this.windowNanos = Math.max(1L, windowMs) * 1000000L;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initial));
+        this.estimated = limit;
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * 获取许可
+     *
+     * @return 成功标识
+     */
+    public boolean acquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        current++;
+        int max = maxInflight.get();
+        while (current > max && !maxInflight.compareAndSet(max, current)) {
+            max = maxInflight.get();
+        }
+        return true;
+    }
+
+    /**
+     * 释放许可，不采样
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * 释放许可，并采样耗时
+     *
+     * @param rttNanos 耗时(纳秒)
+     */
+    public void release(final long rttNanos) {
+        inflight.decrementAndGet();
+        rtts.add(rttNanos);
+        samples.increment();
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            update();
+        }
+    }
+
+    /**
+     * 窗口切换，重新计算并发上限
+     */
+    protected void update() {
+        long count = samples.sumThenReset();
+        long sum = rtts.sumThenReset();
+        int max = maxInflight.getAndSet(inflight.get());
+        if (count <= 0) {
+            return;
+        }
+        double shortRtt = Math.max(1.0d, (double) sum / count);
+        double lRtt = longRtt;
+        if (lRtt <= 0) {
+            lRtt = shortRtt;
+        } else {
+            lRtt = lRtt + (shortRtt - lRtt) / LONG_WINDOW;
+            //长期耗时明显偏高(例如发布后单次请求成本下降)，快速衰减，避免长期放大
+            if (lRtt / shortRtt > 2.0d) {
+                lRtt *= 0.95d;
+            }
+        }
+        longRtt = lRtt;
+
+        double current = estimated;
+        //调用方压力不到上限的一半，耗时样本不足以说明能够承受更高并发，不再放大
+        if (max < current / 2 && shortRtt <= lRtt * tolerance) {
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0d, tolerance * lRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        target = current * (1 - smoothing) + target * smoothing;
+        target = Math.max(minLimit, Math.min(maxLimit, target));
+        estimated = target;
+        limit = (int) target;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
@@ -0,0 +1,237 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.QuotaCoordinator;
+import io.joyrpc.cluster.distribution.QuotaCoordinator.Lease;
+import io.joyrpc.cluster.distribution.RateLimiter;
+import io.joyrpc.util.SystemClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.joyrpc.Plugin.QUOTA_COORDINATOR;
+
+/**
+ * 分布式限流器，按块从配额协调器租用当前限流周期的配额，在本地消费，每次调用不需要访问协调器。<br>
+ * 剩余配额低于租用块的一半时异步预取；周期结束后未用完的配额作废。<br>
+ * 租约还没有返回（启动或者周期切换）以及协调器不可用的时候，由本地限流器过渡，本地限流数为租用块的大小，
+ * 避免每个进程都按全局限流数放行。
+ */
+public class LeasingRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasingRateLimiter.class);
+
+    /**
+     * 协调器失败后的重试间隔(毫秒)
+     */
+    protected static final long RETRY_INTERVAL = 100;
+
+    /**
+     * 限流配置
+     */
+    protected volatile RateLimiterConfig config;
+    /**
+     * 配额协调器
+     */
+    protected volatile QuotaCoordinator coordinator;
+    /**
+     * 租约未到达或协调器不可用时的本地限流器
+     */
+    protected volatile RateLimiter fallback;
+    /**
+     * 本地剩余配额
+     */
+    protected final AtomicLong permits = new AtomicLong();
+    /**
+     * 配额过期时间
+     */
+    protected volatile long expireTime;
+    /**
+     * 当前周期的全局配额已经用完
+     */
+    protected volatile boolean exhausted;
+    /**
+     * 协调器最后一次失败的时间
+     */
+    protected volatile long failTime;
+    /**
+     * 正在租用
+     */
+    protected final AtomicBoolean leasing = new AtomicBoolean();
+
+    public LeasingRateLimiter() {
+    }
+
+    public LeasingRateLimiter(final RateLimiterConfig config) {
+        reload(config);
+    }
+
+    @Override
+    public String type() {
+        return "leasing";
+    }
+
+    @Override
+    public boolean getPermission() {
+        RateLimiterConfig current = config;
+        if (current == null) {
+            return true;
+        }
+        long now = SystemClock.now();
+        if (now >= expireTime) {
+            //周期结束，重新租用，本地协调器会同步返回
+            lease(current, now);
+            if (now >= expireTime) {
+                return degrade(current, now);
+            }
+        }
+        long remain;
+        boolean leased = false;
+        while (true) {
+            remain = permits.get();
+            if (remain > 0) {
+                if (permits.compareAndSet(remain, remain - 1)) {
+                    break;
+                }
+            } else if (exhausted || leased) {
+                return degrade(current, now);
+            } else {
+                //配额用完，本地协调器同步返回的租约可以直接消费
+                lease(current, now);
+                leased = true;
+            }
+        }
+        if (remain <= current.getLeaseCount() / 2 && !exhausted) {
+            //预取
+            lease(current, now);
+        }
+        return true;
+    }
+
+    /**
+     * 租约还在路上或者协调器不可用时降级为本地限流
+     *
+     * @param config 配置
+     * @param now    当前时间
+     * @return 成功标识
+     */
+    protected boolean degrade(final RateLimiterConfig config, final long now) {
+        boolean pending = leasing.get() && !exhausted;
+        boolean failed = failTime > 0 && now - failTime < TimeUnit.NANOSECONDS.toMillis(config.getLimitPeriodNanos()) + RETRY_INTERVAL;
+        return (pending || failed) && fallback.getPermission();
+    }
+
+    /**
+     * 异步租用配额，同时只有一个请求
+     *
+     * @param config 配置
+     * @param now    当前时间
+     */
+    protected void lease(final RateLimiterConfig config, final long now) {
+        if (now - failTime < RETRY_INTERVAL || !leasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            coordinator.lease(config, config.getLeaseCount()).whenComplete((lease, error) -> {
+                try {
+                    if (error != null) {
+                        onFail(config, error);
+                    } else if (config == this.config) {
+                        apply(lease, config.getLeaseCount());
+                    }
+                } finally {
+                    leasing.set(false);
+                }
+            });
+        } catch (Throwable e) {
+            onFail(config, e);
+            leasing.set(false);
+        }
+    }
+
+    /**
+     * 协调器失败
+     *
+     * @param config 配置
+     * @param error  异常
+     */
+    protected void onFail(final RateLimiterConfig config, final Throwable error) {
+        if (failTime == 0) {
+            logger.error(String.format("Error occurs while leasing quota of %s from %s, degrade to local limiter. caused by %s",
+                    config.getName(), config.getCoordinator(), error.getMessage()));
+        }
+        failTime = SystemClock.now();
+    }
+
+    /**
+     * 应用租约
+     *
+     * @param lease 租约
+     * @param count 期望的配额数
+     */
+    protected synchronized void apply(final Lease lease, final int count) {
+        failTime = 0;
+        if (lease.getExpireTime() > expireTime) {
+            //新的周期，上个周期剩余的配额作废
+            permits.set(lease.getPermits());
+            expireTime = lease.getExpireTime();
+        } else if (lease.getExpireTime() == expireTime) {
+            permits.addAndGet(lease.getPermits());
+        } else {
+            return;
+        }
+        exhausted = lease.getPermits() < count;
+    }
+
+    @Override
+    public synchronized boolean reload(final RateLimiterConfig config) {
+        if (config == null) {
+            return false;
+        }
+        RateLimiterConfig current = this.config;
+        if (current != null && config.getLimitCount() == current.getLimitCount()
+                && config.getLimitPeriodNanos() == current.getLimitPeriodNanos()
+                && config.getLeaseCount() == current.getLeaseCount()
+                && config.getName().equals(current.getName())
+                && config.getCoordinator().equals(current.getCoordinator())) {
+            //配置没有发生变化
+            return true;
+        }
+        QuotaCoordinator quotaCoordinator = QUOTA_COORDINATOR.get(config.getCoordinator());
+        if (quotaCoordinator == null) {
+            logger.error(String.format("No such extension %s for %s ", config.getCoordinator(), QuotaCoordinator.class.getName()));
+            return false;
+        }
+        this.coordinator = quotaCoordinator;
+        //本地限流按照单个进程的份额，即租用块大小
+        this.fallback = new TokenBucketRateLimiter(RateLimiterConfig.builder(config).limitCount(config.getLeaseCount()).build());
+        this.permits.set(0);
+        this.expireTime = 0;
+        this.exhausted = false;
+        this.failTime = 0;
+        this.config = config;
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.QuotaCoordinator;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.util.SystemClock;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内的配额协调器，按限流周期对齐时间窗口分配配额，用于测试和单进程部署
+ */
+@Extension("local")
+public class LocalQuotaCoordinator implements QuotaCoordinator {
+
+    /**
+     * 各限流键的当前窗口
+     */
+    protected Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Lease> lease(final RateLimiterConfig config, final int count) {
+        long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(config.getLimitPeriodNanos()));
+        long now = SystemClock.now();
+        long id = now / period;
+        Window window = windows.computeIfAbsent(config.getName(), k -> new Window());
+        int permits;
+        synchronized (window) {
+            if (window.id != id) {
+                window.id = id;
+                window.used = 0;
+            }
+            permits = Math.max(0, Math.min(count, config.getLimitCount() - window.used));
+            window.used += permits;
+        }
+        return CompletableFuture.completedFuture(new Lease(permits, (id + 1) * period));
+    }
+
+    /**
+     * 时间窗口
+     */
+    protected static class Window {
+        /**
+         * 窗口编号
+         */
+        protected long id = -1;
+        /**
+         * 已分配的配额
+         */
+        protected int used;
+    }
+}
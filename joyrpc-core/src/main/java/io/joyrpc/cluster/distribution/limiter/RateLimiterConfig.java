@@ -35,7 +35,7 @@ public class RateLimiterConfig implements Serializable {
      */
     public static final int ONE_SECOND = 1000 * 1000 * 1000;
     /**
-     * 类型
+     * 类型，对应限流器插件，例如leakyBucket、tokenBucket、slidingWindow和分布式的leasing
      */
     protected String type;
     /**
@@ -50,14 +50,35 @@ public class RateLimiterConfig implements Serializable {
      * 限流数
      */
     protected int limitCount;
+    /**
+     * 名称，分布式限流的全局键
+     */
+    protected String name;
+    /**
+     * 分布式限流的配额协调器
+     */
+    protected String coordinator;
+    /**
+     * 分布式限流每次租用的配额数
+     */
+    protected int leaseCount;
 
     public RateLimiterConfig(final String type, final long limitPeriodNanos, final long waitTimeoutNanos, final int limitCount) {
+        this(type, limitPeriodNanos, waitTimeoutNanos, limitCount, null, null, 0);
+    }
+
+    public RateLimiterConfig(final String type, final long limitPeriodNanos, final long waitTimeoutNanos, final int limitCount,
+                             final String name, final String coordinator, final int leaseCount) {
         this.type = type;
         //默认一秒
         this.limitPeriodNanos = limitPeriodNanos > 0 ? limitPeriodNanos : ONE_SECOND;
         this.waitTimeoutNanos = waitTimeoutNanos > 0 ? waitTimeoutNanos : 0;
         //限流数
         this.limitCount = limitCount > 0 ? limitCount : 20000;
+        this.name = name == null ? "" : name;
+        this.coordinator = coordinator == null || coordinator.isEmpty() ? "local" : coordinator;
+        //默认每次租用限流数的十分之一
+        this.leaseCount = leaseCount > 0 ? Math.min(leaseCount, this.limitCount) : Math.max(1, this.limitCount / 10);
     }
 
     public String getType() {
@@ -76,6 +97,18 @@ public class RateLimiterConfig implements Serializable {
         return limitCount;
     }
 
+    public String getName() {
+        return name;
+    }
+
+    public String getCoordinator() {
+        return coordinator;
+    }
+
+    public int getLeaseCount() {
+        return leaseCount;
+    }
+
     /**
      * 构造器
      *
@@ -115,6 +148,18 @@ public class RateLimiterConfig implements Serializable {
          * 限流数
          */
         protected int limitCount;
+        /**
+         * 名称
+         */
+        protected String name;
+        /**
+         * 配额协调器
+         */
+        protected String coordinator;
+        /**
+         * 每次租用的配额数
+         */
+        protected int leaseCount;
 
         /**
          * 构造函数
@@ -133,6 +178,9 @@ public class RateLimiterConfig implements Serializable {
                 limitCount = config.limitCount;
                 limitPeriodNanos = config.limitPeriodNanos;
                 waitTimeoutNanos = config.waitTimeoutNanos;
+                name = config.name;
+                coordinator = config.coordinator;
+                leaseCount = config.leaseCount;
             }
         }
 
@@ -156,13 +204,28 @@ public class RateLimiterConfig implements Serializable {
             return this;
         }
 
+        public Builder name(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder coordinator(final String coordinator) {
+            this.coordinator = coordinator;
+            return this;
+        }
+
+        public Builder leaseCount(final int leaseCount) {
+            this.leaseCount = leaseCount;
+            return this;
+        }
+
         /**
          * 构建
          *
          * @return
          */
         public RateLimiterConfig build() {
-            return new RateLimiterConfig(type, limitPeriodNanos, waitTimeoutNanos, limitCount);
+            return new RateLimiterConfig(type, limitPeriodNanos, waitTimeoutNanos, limitCount, name, coordinator, leaseCount);
         }
 
     }
@@ -0,0 +1,82 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * 分段滑动窗口限流器，每个分段保存当前和上一个窗口的计数，按上一个窗口剩余的时间比例加权估算当前速率。<br>
+ * 窗口编号和计数打包在一个long里面，CAS更新，不创建对象。
+ */
+public class SlidingWindowRateLimiter extends AbstractStripedRateLimiter {
+
+    /**
+     * 低32位掩码
+     */
+    protected static final long MASK = 0xFFFFFFFFL;
+
+    public SlidingWindowRateLimiter() {
+    }
+
+    public SlidingWindowRateLimiter(final RateLimiterConfig config) {
+        super(config);
+    }
+
+    @Override
+    public String type() {
+        return "slidingWindow";
+    }
+
+    @Override
+    protected boolean acquire(final Stripes stripes, final int index, final long now) {
+        int quota = stripes.quotas[index];
+        if (quota <= 0) {
+            return false;
+        }
+        long period = stripes.config.limitPeriodNanos;
+        long window = now / period;
+        //上一个窗口在当前时间点的剩余权重
+        double weight = (double) (period - (now - window * period)) / period;
+        int offset = stripes.offset(index);
+        //按窗口编号奇偶交替使用两个槽位
+        int current = offset + (int) (window & 1);
+        int previous = offset + (int) ((window + 1) & 1);
+        long value;
+        long count;
+        do {
+            value = stripes.values.get(current);
+            count = (value >>> 32) == (window & MASK) ? value & MASK : 0;
+            if (count(stripes.values.get(previous), window - 1) * weight + count + 1 > quota) {
+                return false;
+            }
+        } while (!stripes.values.compareAndSet(current, value, ((window & MASK) << 32) | (count + 1)));
+        return true;
+    }
+
+    /**
+     * 获取窗口计数
+     *
+     * @param value  槽位值
+     * @param window 窗口编号
+     * @return 计数，不是该窗口返回0
+     */
+    protected long count(final long value, final long window) {
+        return (value >>> 32) == (window & MASK) ? value & MASK : 0;
+    }
+}
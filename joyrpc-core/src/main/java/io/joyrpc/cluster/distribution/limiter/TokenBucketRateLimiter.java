@@ -0,0 +1,63 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * 分段令牌桶限流器，每个分段采用GCRA算法，用一个long记录理论到达时间，CAS更新，不创建对象。<br>
+ * 桶容量为分段的限流数，允许一个限流周期内的突发。
+ */
+public class TokenBucketRateLimiter extends AbstractStripedRateLimiter {
+
+    public TokenBucketRateLimiter() {
+    }
+
+    public TokenBucketRateLimiter(final RateLimiterConfig config) {
+        super(config);
+    }
+
+    @Override
+    public String type() {
+        return "tokenBucket";
+    }
+
+    @Override
+    protected boolean acquire(final Stripes stripes, final int index, final long now) {
+        int quota = stripes.quotas[index];
+        if (quota <= 0) {
+            return false;
+        }
+        long period = stripes.config.limitPeriodNanos;
+        //产生一个令牌的纳秒数，向上取整，避免超发
+        long interval = (period + quota - 1) / quota;
+        int offset = stripes.offset(index);
+        long tat;
+        long next;
+        do {
+            tat = stripes.values.get(offset);
+            next = Math.max(tat, now) + interval;
+            if (next - now > period) {
+                //桶里面没有令牌
+                return false;
+            }
+        } while (!stripes.values.compareAndSet(offset, tat, next));
+        return true;
+    }
+}
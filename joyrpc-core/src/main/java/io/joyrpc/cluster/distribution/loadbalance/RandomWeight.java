@@ -24,6 +24,8 @@ import io.joyrpc.cluster.Weighter;
 
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
 
 /**
  * 加权随机负载均衡
@@ -84,4 +86,88 @@ public class RandomWeight {
 
         }
     }
+
+    /**
+     * 带缓存的加权随机选择器，按照节点列表的引用缓存选择表，节点列表或其权重版本变化后重建，
+     * 避免每次请求都遍历全部节点计算权重。
+     *
+     * @param <T>
+     */
+    public static class Selector<T extends Weighter> {
+        /**
+         * 小于该数量的节点直接遍历
+         */
+        protected static final int SCAN_THRESHOLD = 8;
+        /**
+         * 选择表缓存，按照列表的对象标识进行散列
+         */
+        protected final WeightTable<T>[] tables;
+        /**
+         * 掩码
+         */
+        protected final int mask;
+        /**
+         * 节点列表的权重版本
+         */
+        protected final ToLongFunction<List<T>> version;
+
+        /**
+         * 构造函数
+         *
+         * @param capacity 缓存的选择表数量
+         * @param version  权重版本
+         */
+        public Selector(final int capacity, final LongSupplier version) {
+            this(capacity, nodes -> version.getAsLong());
+        }
+
+        /**
+         * 构造函数
+         *
+         * @param capacity 缓存的选择表数量
+         * @param version  节点列表的权重版本函数
+         */
+        @SuppressWarnings("unchecked")
+        public Selector(final int capacity, final ToLongFunction<List<T>> version) {
+            int size = 1;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            this.tables = new WeightTable[size];
+            this.mask = size - 1;
+            this.version = version;
+        }
+
+        /**
+         * 随机选择
+         *
+         * @param nodes 节点
+         * @return 节点
+         */
+        public T select(final List<T> nodes) {
+            int size = nodes == null ? 0 : nodes.size();
+            if (size < SCAN_THRESHOLD) {
+                return RandomWeight.select(nodes);
+            }
+            return table(nodes).select();
+        }
+
+        /**
+         * 获取选择表
+         *
+         * @param nodes 节点
+         * @return 选择表
+         */
+        public WeightTable<T> table(final List<T> nodes) {
+            long ver = version.applyAsLong(nodes);
+            int index = System.identityHashCode(nodes) & mask;
+            WeightTable<T> table = tables[index];
+            if (table == null || !table.match(nodes, ver)) {
+                //选择表不可变，并发重建没有问题
+                table = new WeightTable<>(nodes, ver);
+                tables[index] = table;
+            }
+            return table;
+        }
+    }
 }
@@ -36,6 +36,10 @@ public class StickyLoadBalance extends DecoratorLoadBalance {
      * 上一次的选择结果
      */
     protected Node last;
+    /**
+     * 上一次确认包含粘连节点的节点列表，列表不变的情况下直接返回粘连节点，避免遍历
+     */
+    protected volatile Sticky sticky;
 
     /**
      * 构造函数
@@ -54,7 +58,35 @@ public class StickyLoadBalance extends DecoratorLoadBalance {
 
     @Override
     public Node select(Candidate candidate, RequestMessage<Invocation> request) {
-        last = super.select(candidate, request);
-        return last;
+        List<Node> nodes = candidate.getNodes();
+        Sticky st = sticky;
+        if (st != null && nodes != null && st.nodes == nodes) {
+            return st.node;
+        }
+        Node prev = last;
+        Node node = super.select(candidate, request);
+        //粘连节点在列表中，记录列表
+        sticky = node != null && node == prev ? new Sticky(node, nodes) : null;
+        last = node;
+        return node;
+    }
+
+    /**
+     * 粘连节点及所在的节点列表
+     */
+    protected static class Sticky {
+        /**
+         * 节点
+         */
+        protected final Node node;
+        /**
+         * 节点列表
+         */
+        protected final List<Node> nodes;
+
+        public Sticky(Node node, List<Node> nodes) {
+            this.node = node;
+            this.nodes = nodes;
+        }
     }
 }
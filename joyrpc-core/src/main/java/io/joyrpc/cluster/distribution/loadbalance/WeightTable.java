@@ -0,0 +1,140 @@
+package io.joyrpc.cluster.distribution.loadbalance;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Weighter;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 加权随机选择表，预先计算权重前缀和，按照二分查找进行选择，单次选择的复杂度为O(logn)。<br/>
+ * 选择表创建后不可修改，节点列表或权重变化的时候需要重新创建。
+ */
+public class WeightTable<T extends Weighter> {
+    /**
+     * 节点
+     */
+    protected final List<T> nodes;
+    /**
+     * 节点数组，避免链表随机访问
+     */
+    protected final Object[] elements;
+    /**
+     * 权重版本
+     */
+    protected final long version;
+    /**
+     * 权重前缀和
+     */
+    protected final int[] sums;
+    /**
+     * 总权重
+     */
+    protected final int total;
+
+    /**
+     * 构造函数
+     *
+     * @param nodes   节点
+     * @param version 权重版本
+     */
+    public WeightTable(final List<T> nodes, final long version) {
+        this.nodes = nodes;
+        this.version = version;
+        this.elements = nodes == null ? new Object[0] : nodes.toArray();
+        int size = elements.length;
+        this.sums = new int[size];
+        long sum = 0;
+        int weight;
+        for (int i = 0; i < size; i++) {
+            weight = ((Weighter) elements[i]).getWeight();
+            if (weight > 0) {
+                sum += weight;
+            }
+            //防止溢出
+            sums[i] = (int) Math.min(sum, Integer.MAX_VALUE);
+        }
+        this.total = size == 0 ? 0 : sums[size - 1];
+    }
+
+    /**
+     * 判断是否和节点及权重版本匹配
+     *
+     * @param nodes   节点
+     * @param version 权重版本
+     * @return 匹配标识
+     */
+    public boolean match(final List<T> nodes, final long version) {
+        return this.nodes == nodes && this.version == version;
+    }
+
+    /**
+     * 随机选择
+     *
+     * @return 节点
+     */
+    @SuppressWarnings("unchecked")
+    public T select() {
+        int size = sums.length;
+        switch (size) {
+            case 0:
+                return null;
+            case 1:
+                return (T) elements[0];
+            default:
+                //权重和不大于零,直接退化为随机
+                if (total <= 0) {
+                    return (T) elements[ThreadLocalRandom.current().nextInt(size)];
+                }
+                int random = ThreadLocalRandom.current().nextInt(total);
+                //查找第一个前缀和大于随机数的位置
+                int low = 0;
+                int high = size - 1;
+                int mid;
+                while (low < high) {
+                    mid = (low + high) >>> 1;
+                    if (sums[mid] > random) {
+                        high = mid;
+                    } else {
+                        low = mid + 1;
+                    }
+                }
+                return (T) elements[low];
+        }
+    }
+
+    public List<T> getNodes() {
+        return nodes;
+    }
+
+    public int size() {
+        return sums.length;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
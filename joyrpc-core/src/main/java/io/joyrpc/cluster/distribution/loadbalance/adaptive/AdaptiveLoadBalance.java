@@ -26,20 +26,27 @@ import io.joyrpc.cluster.Candidate;
 import io.joyrpc.cluster.Cluster;
 import io.joyrpc.cluster.Node;
 import io.joyrpc.cluster.distribution.LoadBalance;
+import io.joyrpc.cluster.distribution.loadbalance.WeightTable;
+import io.joyrpc.cluster.distribution.loadbalance.adaptive.election.RandomWeightElection;
 import io.joyrpc.invoker.option.ConsumerMethodOption;
 import io.joyrpc.extension.Extension;
 import io.joyrpc.extension.URL;
 import io.joyrpc.apm.metric.Dashboard;
 import io.joyrpc.apm.metric.DashboardAware;
+import io.joyrpc.apm.metric.TPMetric;
 import io.joyrpc.apm.metric.TPSnapshot;
 import io.joyrpc.apm.metric.TPWindow;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.util.SystemClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -84,6 +91,14 @@ public class AdaptiveLoadBalance implements LoadBalance, InvokerAware, Dashboard
      * 接口
      */
     protected String className;
+    /**
+     * 评分结果缓存时间
+     */
+    protected long rankTtl;
+    /**
+     * 按照方法缓存的评分结果
+     */
+    protected final Map<String, RankCache> rankCaches = new ConcurrentHashMap<>();
 
     @Override
     public void setClassName(String className) {
@@ -100,6 +115,7 @@ public class AdaptiveLoadBalance implements LoadBalance, InvokerAware, Dashboard
         clusterFunction = getTpFunction(url.getString(ADAPTIVE_CLUSTER_TP), TP30_FUNCTION);
         nodeFunction = getTpFunction(url.getString(ADAPTIVE_NODE_TP), TP90_FUNCTION);
         samplingSize = url.getInteger(ADAPTIVE_SAMPLING_SIZE);
+        rankTtl = url.getLong(ADAPTIVE_RANK_TTL);
         if (url.getBoolean(ADAPTIVE_LOG)) {
             recorder = ranks -> {
                 StringBuilder builder = new StringBuilder();
@@ -156,10 +172,84 @@ public class AdaptiveLoadBalance implements LoadBalance, InvokerAware, Dashboard
 
         ConsumerMethodOption option = (ConsumerMethodOption) request.getOption();
         AdaptivePolicy policy = option.getAdaptivePolicy();
-        ClusterRank clusterRank = new ClusterRank(candidate.getCluster(), policy, metricFunction, nodeFunction);
+        Cluster cluster = candidate.getCluster();
+        NodeRank rank;
+        if (rankTtl <= 0 || cluster == null) {
+            rank = rank(cluster, candidates, policy, metricFunction, false).select();
+        } else {
+            rank = getRankCache(request.getPayLoad().getMethodName(), cluster, candidates, policy, metricFunction).select();
+        }
+        if (rank != null) {
+            rank.distribution();
+            return rank.getNode();
+        }
+        return null;
+    }
+
+    /**
+     * 获取缓存的评分结果，节点列表、策略或集群指标快照变化后，以及缓存过期后重新评分。<br/>
+     * 过期的时候只有一个线程重新评分，其它线程继续使用旧的评分结果。
+     *
+     * @param method         方法
+     * @param cluster        集群
+     * @param candidates     节点
+     * @param policy         策略
+     * @param metricFunction 指标函数
+     * @return 评分结果
+     */
+    protected RankCache getRankCache(final String method, final Cluster cluster, final List<Node> candidates,
+                                     final AdaptivePolicy policy, final Function<Dashboard, TPWindow> metricFunction) {
+        TPMetric snapshot = getClusterSnapshot(cluster, metricFunction);
+        RankCache cache = rankCaches.get(method);
+        if (cache == null || !cache.match(cluster, candidates, policy)) {
+            cache = new RankCache(rank(cluster, candidates, policy, metricFunction, true), candidates, policy, snapshot,
+                    SystemClock.now() + rankTtl);
+            rankCaches.put(method, cache);
+        } else if ((cache.snapshot != snapshot || cache.expireTime <= SystemClock.now()) && cache.refreshing.compareAndSet(false, true)) {
+            RankCache old = cache;
+            try {
+                cache = new RankCache(rank(cluster, candidates, policy, metricFunction, true), candidates, policy, snapshot,
+                        SystemClock.now() + rankTtl);
+                rankCaches.put(method, cache);
+            } finally {
+                if (cache == old) {
+                    //评分异常，允许后续请求重新评分
+                    old.refreshing.set(false);
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 获取集群指标快照
+     *
+     * @param cluster        集群
+     * @param metricFunction 指标函数
+     * @return 集群指标快照
+     */
+    protected TPMetric getClusterSnapshot(final Cluster cluster, final Function<Dashboard, TPWindow> metricFunction) {
+        Dashboard dashboard = cluster.getDashboard();
+        TPWindow window = dashboard == null ? null : metricFunction.apply(dashboard);
+        return window == null ? null : window.getSnapshot();
+    }
+
+    /**
+     * 对节点进行评分
+     *
+     * @param cluster        集群
+     * @param candidates     节点
+     * @param policy         策略
+     * @param metricFunction 指标函数
+     * @param full           是否全量评分，缓存的评分结果会被多次使用，全量评分避免流量集中在抽样的节点上
+     * @return 集群评分
+     */
+    protected ClusterRank rank(final Cluster cluster, final List<Node> candidates, final AdaptivePolicy policy,
+                               final Function<Dashboard, TPWindow> metricFunction, final boolean full) {
+        ClusterRank clusterRank = new ClusterRank(cluster, policy, metricFunction, nodeFunction);
         int size = candidates.size();
         //抽样随机打散，避免每次都拿到固定的节点
-        boolean sampling = clusterRank.enoughGoods > 0 && policy.getArbiter().sampling();
+        boolean sampling = !full && clusterRank.enoughGoods > 0 && policy.getArbiter().sampling();
         if (!sampling) {
             //节点全选
             clusterRank.enoughGoods = 0;
@@ -180,13 +270,7 @@ public class AdaptiveLoadBalance implements LoadBalance, InvokerAware, Dashboard
         if (recorder != null) {
             recorder.accept(clusterRank.ranks);
         }
-        //选择最佳评分节点
-        NodeRank rank = clusterRank.select();
-        if (rank != null) {
-            rank.distribution();
-            return rank.getNode();
-        }
-        return null;
+        return clusterRank;
     }
 
     /**
@@ -310,4 +394,70 @@ public class AdaptiveLoadBalance implements LoadBalance, InvokerAware, Dashboard
 
     }
 
+    /**
+     * 评分结果缓存
+     */
+    protected static class RankCache {
+        /**
+         * 集群评分
+         */
+        protected final ClusterRank clusterRank;
+        /**
+         * 节点
+         */
+        protected final List<Node> nodes;
+        /**
+         * 策略
+         */
+        protected final AdaptivePolicy policy;
+        /**
+         * 评分时候的集群指标快照
+         */
+        protected final TPMetric snapshot;
+        /**
+         * 过期时间
+         */
+        protected final long expireTime;
+        /**
+         * 加权随机选择表，选举算法为加权随机的时候预先计算
+         */
+        protected final WeightTable<NodeRank> table;
+        /**
+         * 是否正在刷新
+         */
+        protected final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        public RankCache(final ClusterRank clusterRank, final List<Node> nodes, final AdaptivePolicy policy,
+                         final TPMetric snapshot, final long expireTime) {
+            this.clusterRank = clusterRank;
+            this.nodes = nodes;
+            this.policy = policy;
+            this.snapshot = snapshot;
+            this.expireTime = expireTime;
+            this.table = policy.election instanceof RandomWeightElection && clusterRank.bestRanks.size() > 1 ?
+                    new WeightTable<>(clusterRank.bestRanks, 0) : null;
+        }
+
+        /**
+         * 判断节点、集群和策略是否匹配
+         *
+         * @param cluster 集群
+         * @param nodes   节点
+         * @param policy  策略
+         * @return 匹配标识
+         */
+        public boolean match(final Cluster cluster, final List<Node> nodes, final AdaptivePolicy policy) {
+            return this.nodes == nodes && this.policy == policy && clusterRank.cluster == cluster;
+        }
+
+        /**
+         * 选择节点
+         *
+         * @return 节点评分
+         */
+        public NodeRank select() {
+            return table != null ? table.select() : clusterRank.select();
+        }
+    }
+
 }
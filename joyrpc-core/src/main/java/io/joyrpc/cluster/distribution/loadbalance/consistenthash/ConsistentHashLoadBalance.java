@@ -0,0 +1,381 @@
+package io.joyrpc.cluster.distribution.loadbalance.consistenthash;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cache.CacheKeyGenerator;
+import io.joyrpc.cluster.Candidate;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.distribution.LoadBalance;
+import io.joyrpc.exception.CacheException;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.URL;
+import io.joyrpc.invoker.option.ConsumerMethodOption;
+import io.joyrpc.invoker.option.MethodOption;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.joyrpc.constants.Constants.HASH_LOAD_FACTOR_OPTION;
+import static io.joyrpc.constants.Constants.HASH_REPLICAS_OPTION;
+
+/**
+ * 一致性哈希负载均衡，按照方法参数生成的哈希键选择节点，相同的键路由到相同的节点，提升服务端本地缓存命中率。<br/>
+ * 哈希键由方法的哈希键生成器产生，支持通过hashKeyExpression配置参数表达式；没有哈希键的请求随机选择。<br/>
+ * 支持有界负载(Consistent Hashing with Bounded Loads)，节点正在处理的请求数超过平均值的loadFactor倍，则顺延到哈希环上的下一个节点。<br/>
+ * 节点列表变化时增量更新哈希环，只计算新增节点的虚拟节点。<br/>
+ * 路由和分区等会产生不同的候选列表，按照列表的对象标识缓存少量哈希环，避免候选列表交替出现时反复重建。
+ */
+@Extension("consistentHash")
+public class ConsistentHashLoadBalance implements LoadBalance {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsistentHashLoadBalance.class);
+
+    /**
+     * 每个节点的虚拟节点数
+     */
+    protected int replicas;
+    /**
+     * 负载上限因子
+     */
+    protected double loadFactor;
+    /**
+     * 缓存的哈希环数量
+     */
+    protected static final int RING_CAPACITY = 8;
+    /**
+     * 哈希环缓存，按照列表的对象标识匹配，轮流替换
+     */
+    protected final AtomicReferenceArray<Ring> rings = new AtomicReferenceArray<>(RING_CAPACITY);
+    /**
+     * 下一个替换的位置
+     */
+    protected int next;
+    /**
+     * 最近构建的哈希环，作为增量更新的基础
+     */
+    protected Ring last;
+
+    @Override
+    public void setUrl(final URL url) {
+        replicas = url.getPositive(HASH_REPLICAS_OPTION.getName(), HASH_REPLICAS_OPTION.getValue());
+        Double factor = url.getDouble(HASH_LOAD_FACTOR_OPTION);
+        loadFactor = factor == null ? 0 : factor;
+    }
+
+    @Override
+    public Node select(final Candidate candidate, final RequestMessage<Invocation> request) {
+        List<Node> nodes = candidate.getNodes();
+        int size = nodes == null ? 0 : nodes.size();
+        switch (size) {
+            case 0:
+                return null;
+            case 1:
+                return nodes.get(0);
+            default:
+                Object key = getKey(request);
+                if (key == null) {
+                    return nodes.get(ThreadLocalRandom.current().nextInt(size));
+                }
+                Ring current = getRing(nodes);
+                int index = current.index(hash(key));
+                return loadFactor <= 1 ? current.owners[index] : bound(current, index, nodes);
+        }
+    }
+
+    /**
+     * 有界负载，从哈希位置开始顺时针查找第一个未超过负载上限的节点
+     *
+     * @param ring  哈希环
+     * @param index 哈希位置
+     * @param nodes 节点列表
+     * @return 节点
+     */
+    protected Node bound(final Ring ring, final int index, final List<Node> nodes) {
+        long total = 0;
+        for (Node node : nodes) {
+            total += node.getRequests();
+        }
+        //加上当前请求计算上限，保证至少有一个节点满足条件
+        double capacity = Math.ceil(loadFactor * (total + 1) / nodes.size());
+        Node[] owners = ring.owners;
+        int length = owners.length;
+        Node owner;
+        Node last = null;
+        for (int i = 0; i < length; i++) {
+            owner = owners[(index + i) % length];
+            if (owner != last) {
+                if (owner.getRequests() + 1 <= capacity) {
+                    return owner;
+                }
+                last = owner;
+            }
+        }
+        return owners[index];
+    }
+
+    /**
+     * 获取哈希键
+     *
+     * @param request 请求
+     * @return 哈希键
+     */
+    protected Object getKey(final RequestMessage<Invocation> request) {
+        MethodOption option = request.getOption();
+        CacheKeyGenerator generator = option instanceof ConsumerMethodOption ? ((ConsumerMethodOption) option).getHashKeyGenerator() : null;
+        if (generator == null) {
+            return null;
+        }
+        try {
+            return generator.generate(request.getPayLoad());
+        } catch (CacheException e) {
+            logger.error(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 获取哈希环，节点列表变化的时候增量更新
+     *
+     * @param nodes 节点列表
+     * @return 哈希环
+     */
+    protected Ring getRing(final List<Node> nodes) {
+        //集群在节点变化的时候会产生新的列表，列表对象不变则哈希环不变
+        Ring result = find(nodes);
+        if (result == null) {
+            synchronized (this) {
+                result = find(nodes);
+                if (result == null) {
+                    //基于最近构建的哈希环增量更新
+                    result = last == null ? new Ring(nodes, replicas) : last.update(nodes, replicas);
+                    rings.set(next, result);
+                    next = (next + 1) % RING_CAPACITY;
+                    last = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查找节点列表对应的哈希环
+     *
+     * @param nodes 节点列表
+     * @return 哈希环
+     */
+    protected Ring find(final List<Node> nodes) {
+        Ring ring;
+        for (int i = 0; i < RING_CAPACITY; i++) {
+            ring = rings.get(i);
+            if (ring == null) {
+                return null;
+            } else if (ring.nodes == nodes) {
+                return ring;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 计算哈希键的哈希值
+     *
+     * @param key 哈希键
+     * @return 哈希值
+     */
+    protected static long hash(final Object key) {
+        if (key instanceof Object[]) {
+            return hash(Arrays.deepToString((Object[]) key));
+        }
+        return hash(key.toString());
+    }
+
+    /**
+     * 64位FNV-1a哈希，再经过MurmurHash3的混淆函数打散
+     *
+     * @param value 字符串
+     * @return 哈希值
+     */
+    protected static long hash(final String value) {
+        long h = 0xcbf29ce484222325L;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 哈希环，虚拟节点按照哈希值排序
+     */
+    protected static class Ring {
+        /**
+         * 节点列表
+         */
+        protected final List<Node> nodes;
+        /**
+         * 排序后的虚拟节点哈希值
+         */
+        protected final long[] hashes;
+        /**
+         * 虚拟节点对应的节点
+         */
+        protected final Node[] owners;
+
+        /**
+         * 构造函数
+         *
+         * @param nodes    节点列表
+         * @param replicas 虚拟节点数
+         */
+        public Ring(final List<Node> nodes, final int replicas) {
+            this(nodes, new long[0], new Node[0], nodes, replicas);
+        }
+
+        /**
+         * 构造函数，合并已有的虚拟节点和新增节点的虚拟节点
+         *
+         * @param nodes    节点列表
+         * @param hashes   已有的排序后的虚拟节点哈希值
+         * @param owners   已有的虚拟节点对应的节点
+         * @param added    新增的节点
+         * @param replicas 虚拟节点数
+         */
+        protected Ring(final List<Node> nodes, final long[] hashes, final Node[] owners,
+                       final Collection<Node> added, final int replicas) {
+            this.nodes = nodes;
+            if (added.isEmpty()) {
+                this.hashes = hashes;
+                this.owners = owners;
+            } else {
+                //计算新增节点的虚拟节点并排序
+                Point[] points = new Point[added.size() * replicas];
+                int count = 0;
+                for (Node node : added) {
+                    String name = node.getName();
+                    for (int i = 0; i < replicas; i++) {
+                        points[count++] = new Point(hash(name + "#" + i), node);
+                    }
+                }
+                Arrays.sort(points, Comparator.comparingLong(o -> o.hash));
+                //归并
+                int length = hashes.length + points.length;
+                this.hashes = new long[length];
+                this.owners = new Node[length];
+                int i = 0, j = 0;
+                for (int k = 0; k < length; k++) {
+                    if (j >= points.length || i < hashes.length && hashes[i] <= points[j].hash) {
+                        this.hashes[k] = hashes[i];
+                        this.owners[k] = owners[i++];
+                    } else {
+                        this.hashes[k] = points[j].hash;
+                        this.owners[k] = points[j++].node;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 增量更新，删除下线节点的虚拟节点，只计算新增节点的虚拟节点
+         *
+         * @param nodes    新的节点列表
+         * @param replicas 虚拟节点数
+         * @return 新的哈希环
+         */
+        public Ring update(final List<Node> nodes, final int replicas) {
+            Map<String, Node> current = new HashMap<>(nodes.size() * 4 / 3 + 1);
+            for (Node node : nodes) {
+                current.put(node.getName(), node);
+            }
+            Set<String> exists = new HashSet<>(this.nodes.size() * 4 / 3 + 1);
+            for (Node node : this.nodes) {
+                exists.add(node.getName());
+            }
+            List<Node> added = new LinkedList<>();
+            current.forEach((name, node) -> {
+                if (!exists.contains(name)) {
+                    added.add(node);
+                }
+            });
+            //保留仍然存在的节点，并替换成最新的节点对象
+            long[] remainHashes = new long[hashes.length];
+            Node[] remainOwners = new Node[owners.length];
+            int count = 0;
+            Node node;
+            for (int i = 0; i < hashes.length; i++) {
+                node = current.get(owners[i].getName());
+                if (node != null) {
+                    remainHashes[count] = hashes[i];
+                    remainOwners[count++] = node;
+                }
+            }
+            if (count < hashes.length) {
+                remainHashes = Arrays.copyOf(remainHashes, count);
+                remainOwners = Arrays.copyOf(remainOwners, count);
+            }
+            return new Ring(nodes, remainHashes, remainOwners, added, replicas);
+        }
+
+        /**
+         * 顺时针查找第一个大于等于哈希值的虚拟节点
+         *
+         * @param hash 哈希值
+         * @return 虚拟节点位置
+         */
+        public int index(final long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index >= hashes.length ? 0 : index;
+        }
+    }
+
+    /**
+     * 虚拟节点
+     */
+    protected static class Point {
+        /**
+         * 哈希值
+         */
+        protected final long hash;
+        /**
+         * 节点
+         */
+        protected final Node node;
+
+        public Point(long hash, Node node) {
+            this.hash = hash;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.joyrpc.cluster.distribution.loadbalance.p2c;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Candidate;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.distribution.LoadBalance;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.URL;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.joyrpc.constants.Constants.P2C_LATENCY_OPTION;
+
+/**
+ * 两次随机选择负载均衡(Power of two choices)，随机选择两个节点，选择负载较低的节点。<br/>
+ * 负载为正在处理的请求数，可以再乘以业务请求延迟的指数加权移动平均，并按照权重折算，预热中的节点负载相对更高。
+ */
+@Extension("p2c")
+public class P2cLoadBalance implements LoadBalance {
+
+    /**
+     * 是否考虑延迟
+     */
+    protected boolean latency;
+
+    @Override
+    public void setUrl(final URL url) {
+        latency = url.getBoolean(P2C_LATENCY_OPTION);
+    }
+
+    @Override
+    public Node select(final Candidate candidate, final RequestMessage<Invocation> request) {
+        List<Node> nodes = candidate.getNodes();
+        int size = nodes == null ? 0 : nodes.size();
+        switch (size) {
+            case 0:
+                return null;
+            case 1:
+                return nodes.get(0);
+            default:
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int first = random.nextInt(size);
+                int second = random.nextInt(size - 1);
+                if (second >= first) {
+                    second++;
+                }
+                Node a = nodes.get(first);
+                Node b = nodes.get(second);
+                double la = load(a);
+                double lb = load(b);
+                return la < lb || la == lb && random.nextBoolean() ? a : b;
+        }
+    }
+
+    /**
+     * 计算负载
+     *
+     * @param node 节点
+     * @return 负载
+     */
+    protected double load(final Node node) {
+        double load = node.getRequests() + 1;
+        if (latency) {
+            //没有延迟数据的节点按照1毫秒计算，便于新节点获得流量
+            double value = node.getLatency();
+            load *= value < 1 ? 1 : value;
+        }
+        int weight = node.getWeight();
+        return weight <= 0 ? load * 100 : load / weight;
+    }
+}
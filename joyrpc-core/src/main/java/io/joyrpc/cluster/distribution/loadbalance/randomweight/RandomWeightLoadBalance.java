@@ -28,14 +28,22 @@ import io.joyrpc.extension.Extension;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
 
+import java.util.List;
+
 /**
  * 加权随机负载均衡
  */
 @Extension("randomWeight")
 public class RandomWeightLoadBalance implements LoadBalance {
 
+    /**
+     * 选择器，缓存节点列表的权重选择表，节点列表或所属集群的权重变化后重建
+     */
+    protected final RandomWeight.Selector<Node> selector = new RandomWeight.Selector<>(8,
+            (List<Node> nodes) -> nodes.isEmpty() ? 0 : nodes.get(0).getWeightVersion());
+
     @Override
     public Node select(final Candidate candidate, final RequestMessage<Invocation> request) {
-        return RandomWeight.select(candidate.getNodes());
+        return selector.select(candidate.getNodes());
     }
 }
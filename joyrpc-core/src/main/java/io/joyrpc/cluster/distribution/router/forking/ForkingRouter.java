@@ -30,7 +30,7 @@ import io.joyrpc.extension.Extension;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -65,16 +65,35 @@ public class ForkingRouter extends AbstractRouter {
                 futures[total++] = operation.apply(node, null, request);
             }
         } else {
-            //选择指定数量的节点进行调用
-            nodes = new LinkedList<>(nodes);
-            Node node = null;
-            for (int i = 0; i < forks; i++) {
-                node = loadBalance.select(node == null ? candidate : new Candidate(candidate, nodes.remove(node) ? nodes : nodes), request);
-                if (node != null) {
-                    total++;
-                    futures[i] = operation.apply(node, null, request);
-                } else {
+            //选择指定数量的节点进行调用，先在完整的候选者中选择，复用负载均衡缓存的选择表，重复的节点跳过
+            Node[] selects = new Node[forks];
+            Node node;
+            int attempts = forks * 2;
+            while (total < forks && attempts-- > 0) {
+                node = loadBalance.select(candidate, request);
+                if (node == null) {
                     break;
+                } else if (!contains(selects, total, node)) {
+                    selects[total] = node;
+                    futures[total++] = operation.apply(node, null, request);
+                }
+            }
+            if (total < forks) {
+                //冲突较多，在剩余节点中继续选择
+                List<Node> remains = new ArrayList<>(nodes.size());
+                for (Node n : nodes) {
+                    if (!contains(selects, total, n)) {
+                        remains.add(n);
+                    }
+                }
+                while (total < forks && !remains.isEmpty()) {
+                    node = loadBalance.select(new Candidate(candidate, remains), request);
+                    if (node == null) {
+                        break;
+                    }
+                    remains.remove(node);
+                    selects[total] = node;
+                    futures[total++] = operation.apply(node, null, request);
                 }
             }
         }
@@ -99,4 +118,21 @@ public class ForkingRouter extends AbstractRouter {
         }
         return result;
     }
+
+    /**
+     * 判断是否已经选择
+     *
+     * @param selects 已选择的节点
+     * @param size    已选择的数量
+     * @param node    节点
+     * @return 已选择标识
+     */
+    protected static boolean contains(final Node[] selects, final int size, final Node node) {
+        for (int i = 0; i < size; i++) {
+            if (selects[i] == node) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
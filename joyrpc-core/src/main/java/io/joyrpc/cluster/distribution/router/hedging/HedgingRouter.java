@@ -0,0 +1,364 @@
+package io.joyrpc.cluster.distribution.router.hedging;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.Result;
+import io.joyrpc.apm.metric.Dashboard;
+import io.joyrpc.apm.metric.TPMetric;
+import io.joyrpc.apm.metric.TPSnapshot;
+import io.joyrpc.apm.metric.TPWindow;
+import io.joyrpc.cluster.Candidate;
+import io.joyrpc.cluster.Cluster;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.distribution.router.AbstractRouter;
+import io.joyrpc.context.RequestContext;
+import io.joyrpc.exception.FailoverException;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.util.Futures;
+import io.joyrpc.util.Timer;
+import io.joyrpc.util.Timer.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static io.joyrpc.cluster.distribution.Router.HEDGING;
+import static io.joyrpc.cluster.distribution.Router.ORDER_HEDGING;
+import static io.joyrpc.constants.Constants.*;
+
+/**
+ * 对冲调用，先调用一个节点，超过延迟阈值还没有返回则调用另外一个节点，采用先成功返回的结果并取消另外一个请求。<br/>
+ * 延迟阈值默认采用方法的性能指标(如TP90)，对冲调用的比例由令牌桶限制，避免服务端整体变慢的时候放大流量。
+ */
+@Extension(value = HEDGING, order = ORDER_HEDGING)
+public class HedgingRouter extends AbstractRouter {
+
+    /**
+     * 固定的延迟阈值
+     */
+    protected long delay;
+    /**
+     * 最小延迟阈值
+     */
+    protected long minDelay;
+    /**
+     * 性能指标函数
+     */
+    protected Function<TPSnapshot, Integer> percentile;
+    /**
+     * 令牌桶
+     */
+    protected Budget budget;
+    /**
+     * 方法级别的固定延迟阈值
+     */
+    protected Map<String, Long> delays = new ConcurrentHashMap<>();
+
+    @Override
+    public void setup() {
+        delay = url.getLong(HEDGE_DELAY_OPTION);
+        minDelay = url.getLong(HEDGE_MIN_DELAY_OPTION);
+        percentile = getPercentile(url.getString(HEDGE_PERCENTILE_OPTION));
+        budget = new Budget(url.getDouble(HEDGE_RATIO_OPTION), url.getPositive(HEDGE_BURST_OPTION.getName(), HEDGE_BURST_OPTION.getValue()));
+    }
+
+    /**
+     * 获取性能指标函数
+     *
+     * @param name 名称
+     * @return 性能指标函数
+     */
+    protected Function<TPSnapshot, Integer> getPercentile(final String name) {
+        if ("tp99".equalsIgnoreCase(name)) {
+            return TPSnapshot::getTp99;
+        } else if ("tp999".equalsIgnoreCase(name)) {
+            return TPSnapshot::getTp999;
+        }
+        return TPSnapshot::getTp90;
+    }
+
+    @Override
+    public CompletableFuture<Result> route(final RequestMessage<Invocation> request, final Candidate candidate) {
+        Node node = loadBalance.select(candidate, request);
+        if (node == null) {
+            return Futures.completeExceptionally(new FailoverException(
+                    String.format("there is not any suitable node. candidates size %d", candidate.getSize()), true));
+        }
+        budget.deposit();
+        CompletableFuture<Result> primary = operation.apply(node, null, request);
+        long threshold = candidate.getSize() < 2 ? 0 : getDelay(request, candidate.getCluster());
+        if (threshold <= 0 || primary.isDone()) {
+            return primary;
+        }
+        Hedging hedging = new Hedging(request, candidate, node, primary);
+        hedging.timeout = TimerHolder.TIMER.delay("hedging", threshold, hedging::hedge);
+        return hedging.result;
+    }
+
+    /**
+     * 获取对冲的延迟阈值
+     *
+     * @param request 请求
+     * @param cluster 集群
+     * @return 延迟阈值，小于等于0表示不对冲
+     */
+    protected long getDelay(final RequestMessage<Invocation> request, final Cluster cluster) {
+        String method = request.getMethodName();
+        long value = delays.computeIfAbsent(method, m -> url.getLong(METHOD_KEY_FUNC.apply(m, HEDGE_DELAY_OPTION.getName()), delay));
+        if (value > 0) {
+            return value;
+        }
+        //根据方法的性能指标计算
+        Dashboard dashboard = cluster == null ? null : cluster.getDashboard();
+        TPWindow window = dashboard == null ? null : dashboard.getMethod(method);
+        TPMetric metric = window == null ? null : window.getSnapshot();
+        TPSnapshot snapshot = metric == null ? null : metric.getSnapshot();
+        Integer tp = snapshot == null ? null : percentile.apply(snapshot);
+        //没有性能指标数据则不对冲
+        return tp == null || tp <= 0 ? 0 : Math.max(tp, minDelay);
+    }
+
+    /**
+     * 对冲调用
+     */
+    protected class Hedging {
+        /**
+         * 请求
+         */
+        protected final RequestMessage<Invocation> request;
+        /**
+         * 候选者
+         */
+        protected final Candidate candidate;
+        /**
+         * 首次调用的节点
+         */
+        protected final Node node;
+        /**
+         * 首次调用
+         */
+        protected final CompletableFuture<Result> primary;
+        /**
+         * 对冲调用
+         */
+        protected volatile CompletableFuture<Result> secondary;
+        /**
+         * 最终结果
+         */
+        protected final CompletableFuture<Result> result = new CompletableFuture<>();
+        /**
+         * 未完成的调用数
+         */
+        protected final AtomicInteger pending = new AtomicInteger(1);
+        /**
+         * 对冲任务
+         */
+        protected volatile Timeout timeout;
+
+        public Hedging(final RequestMessage<Invocation> request, final Candidate candidate,
+                       final Node node, final CompletableFuture<Result> primary) {
+            this.request = request;
+            this.candidate = candidate;
+            this.node = node;
+            this.primary = primary;
+            primary.whenComplete((r, e) -> onComplete(r, e, true));
+        }
+
+        /**
+         * 超过延迟阈值，发起对冲调用
+         */
+        protected void hedge() {
+            if (result.isDone()) {
+                return;
+            }
+            //从剩余节点中选择
+            List<Node> nodes = candidate.getNodes();
+            List<Node> remains = new ArrayList<>(nodes.size());
+            for (Node n : nodes) {
+                if (n != node) {
+                    remains.add(n);
+                }
+            }
+            Node target = remains.isEmpty() ? null : loadBalance.select(new Candidate(candidate, remains), request);
+            //选择到节点后再消耗令牌
+            if (target == null || !budget.acquire()) {
+                return;
+            }
+            //首次调用已经结束则放弃
+            int count;
+            do {
+                count = pending.get();
+                if (count == 0) {
+                    return;
+                }
+            } while (!pending.compareAndSet(count, count + 1));
+            //首次调用可能还在发送中，对冲调用使用复制的请求，避免共享消息头和调用参数
+            CompletableFuture<Result> future = operation.apply(target, node, copy(request));
+            secondary = future;
+            future.whenComplete((r, e) -> onComplete(r, e, false));
+            //首次调用可能在设置对冲调用之前成功返回
+            if (result.isDone()) {
+                cancel(future);
+            }
+        }
+
+        /**
+         * 复制请求，拥有独立的消息头和调用参数
+         *
+         * @param request 请求
+         * @return 新请求
+         */
+        protected RequestMessage<Invocation> copy(final RequestMessage<Invocation> request) {
+            Invocation invocation = request.getPayLoad();
+            Invocation payload = invocation.create();
+            payload.setClazz(invocation.getClazz());
+            payload.setMethod(invocation.getMethod());
+            payload.setObject(invocation.getObject());
+            payload.setArgsType(invocation.getArgClasses(), invocation.getArgsType());
+            RequestMessage<Invocation> result = new RequestMessage<>(request.getHeader().clone(), payload);
+            //保持原有的创建时间，共享超时时间
+            result.setCreateTime(request.getCreateTime());
+            result.setTimeout(request.getTimeout());
+            result.setOption(request.getOption());
+            result.setMethodName(request.getMethodName());
+            result.setConsumer(request.isConsumer());
+            result.setThread(request.getThread());
+            result.setUrl(request.getUrl());
+            result.setTracer(request.getTracer());
+            result.setContext(request.getContext() == null ? new RequestContext() : request.getContext().create());
+            return result;
+        }
+
+        /**
+         * 调用完成
+         *
+         * @param r       结果
+         * @param e       异常
+         * @param primary 是否是首次调用
+         */
+        protected void onComplete(final Result r, final Throwable e, final boolean primary) {
+            if (e == null && !r.isException()) {
+                //成功，取消另外一个调用
+                if (result.complete(r)) {
+                    //不再发起对冲调用
+                    pending.set(0);
+                    cancel(primary ? secondary : this.primary);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                //都失败了，或者首次调用在对冲之前失败
+                if (e != null) {
+                    result.complete(new Result(request.getContext(), e));
+                } else {
+                    result.complete(r);
+                }
+            }
+            if (result.isDone() && timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        /**
+         * 取消调用
+         *
+         * @param future 调用
+         */
+        protected void cancel(final CompletableFuture<Result> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 对冲调用的令牌桶，每个请求增加ratio个令牌，每次对冲消耗1个令牌
+     */
+    protected static class Budget {
+        /**
+         * 令牌精度
+         */
+        protected static final long UNIT = 1000;
+        /**
+         * 每个请求增加的令牌
+         */
+        protected final long ratio;
+        /**
+         * 令牌桶容量
+         */
+        protected final long capacity;
+        /**
+         * 当前令牌
+         */
+        protected final AtomicLong tokens;
+
+        public Budget(final double ratio, final int burst) {
+            this.ratio = (long) (Math.max(ratio, 0) * UNIT);
+            this.capacity = burst * UNIT;
+            this.tokens = new AtomicLong(capacity);
+        }
+
+        /**
+         * 请求增加令牌
+         */
+        public void deposit() {
+            if (ratio <= 0) {
+                return;
+            }
+            long current;
+            while ((current = tokens.get()) < capacity) {
+                if (tokens.compareAndSet(current, Math.min(current + ratio, capacity))) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 获取一个令牌
+         *
+         * @return 成功标识
+         */
+        public boolean acquire() {
+            if (ratio <= 0) {
+                return false;
+            }
+            long current;
+            while ((current = tokens.get()) >= UNIT) {
+                if (tokens.compareAndSet(current, current - UNIT)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 对冲调用的定时器，默认定时器的时间精度不够，延迟创建
+     */
+    protected static class TimerHolder {
+        protected static final Timer TIMER = new Timer("hedging-timer", 5, 200, 2);
+    }
+}
@@ -0,0 +1,124 @@
+package io.joyrpc.cluster.distribution.selector;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 节点选择结果缓存，节点列表或路由规则变化的时候失效。<br/>
+ * 缓存的结果是不可修改的共享列表，全部节点都满足条件的时候直接返回原始节点列表。
+ */
+public class SelectorCache {
+
+    /**
+     * 缓存容量
+     */
+    protected final int capacity;
+    /**
+     * 当前快照
+     */
+    protected volatile Snapshot snapshot;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 缓存容量，小于等于0不缓存
+     */
+    public SelectorCache(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 获取选择结果
+     *
+     * @param nodes     节点列表
+     * @param rule      路由规则，规则对象变化则缓存失效
+     * @param key       请求中和路由相关的键
+     * @param predicate 节点断言
+     * @return 选择结果
+     */
+    public List<Node> get(final List<Node> nodes, final Object rule, final Object key, final Predicate<Node> predicate) {
+        if (capacity <= 0 || key == null) {
+            return filter(nodes, predicate);
+        }
+        Snapshot current = snapshot;
+        if (current == null || current.nodes != nodes || current.rule != rule) {
+            //集群节点变化会产生新的列表对象，路由规则变化会产生新的规则对象
+            current = new Snapshot(nodes, rule);
+            snapshot = current;
+        }
+        List<Node> result = current.results.get(key);
+        if (result == null) {
+            result = filter(nodes, predicate);
+            if (current.results.size() < capacity) {
+                current.results.putIfAbsent(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 过滤节点
+     *
+     * @param nodes     节点列表
+     * @param predicate 节点断言
+     * @return 满足条件的节点
+     */
+    public static List<Node> filter(final List<Node> nodes, final Predicate<Node> predicate) {
+        List<Node> result = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (predicate.test(node)) {
+                result.add(node);
+            }
+        }
+        return result.size() == nodes.size() ? nodes : Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 缓存快照
+     */
+    protected static class Snapshot {
+        /**
+         * 节点列表
+         */
+        protected final List<Node> nodes;
+        /**
+         * 路由规则
+         */
+        protected final Object rule;
+        /**
+         * 选择结果
+         */
+        protected final Map<Object, List<Node>> results = new ConcurrentHashMap<>();
+
+        public Snapshot(final List<Node> nodes, final Object rule) {
+            this.nodes = nodes;
+            this.rule = rule;
+        }
+    }
+}
@@ -24,16 +24,19 @@ import io.joyrpc.cluster.Candidate;
 import io.joyrpc.cluster.Node;
 import io.joyrpc.cluster.Shard;
 import io.joyrpc.cluster.distribution.NodeSelector;
+import io.joyrpc.cluster.distribution.selector.SelectorCache;
+import io.joyrpc.cluster.distribution.selector.method.predicate.RulePredicate;
 import io.joyrpc.invoker.option.ConsumerMethodOption;
 import io.joyrpc.extension.Extension;
 import io.joyrpc.extension.URL;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.function.BiPredicate;
 
+import static io.joyrpc.constants.Constants.SELECTOR_CACHE_CAPACITY_OPTION;
+
 /**
  * 基于方法的条件路由
  */
@@ -47,12 +50,21 @@ public class MethodSelector implements NodeSelector {
      * 接口类
      */
     protected String className;
+    /**
+     * 选择结果缓存
+     */
+    protected SelectorCache cache;
 
     @Override
     public void setUrl(final URL url) {
         this.url = url;
     }
 
+    @Override
+    public void setup() {
+        this.cache = new SelectorCache(url.getInteger(SELECTOR_CACHE_CAPACITY_OPTION));
+    }
+
     @Override
     public void setClassName(String className) {
         this.className = className;
@@ -65,16 +77,9 @@ public class MethodSelector implements NodeSelector {
         if (predicate == null) {
             return candidate.getNodes();
         }
-        List<Node> result = new LinkedList<>();
-        List<Node> nodes = candidate.getNodes();
-        //先遍历服务列表
-        for (Node node : nodes) {
-            //在遍历路由规则
-            if (predicate.test(node, request)) {
-                result.add(node);
-            }
-        }
-        return result;
+        //路由规则记录了引用的请求参数，可以按照方法和参数缓存选择结果
+        Object key = predicate instanceof RulePredicate ? ((RulePredicate) predicate).getKey(request) : null;
+        return cache.get(candidate.getNodes(), predicate, key, node -> predicate.test(node, request));
     }
 
 }
@@ -30,6 +30,8 @@ import io.joyrpc.protocol.message.RequestMessage;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -84,12 +86,7 @@ public class MethodSelectorBuilder {
             String[] groups = group(s);
             if (groups != null) {
                 int argFlagIdx = groups[0].indexOf(WHEN_CONDITION_FLAG_ARG);
-                int argIndexIdx = argFlagIdx + 4;
-                int argIndex = 0;
-                if (argIndexIdx >= 4 && argIndexIdx < groups[0].length()) {
-                    argIndex = Integer.parseInt(groups[0].substring(argIndexIdx));
-                }
-                BiPredicate<Shard, RequestMessage<Invocation>> methodParameterMatch = new ParameterMatcher(argIndex, groups[2], Operator.of(groups[1]));
+                BiPredicate<Shard, RequestMessage<Invocation>> methodParameterMatch = new ParameterMatcher(getArgIndex(groups[0]), groups[2], Operator.of(groups[1]));
                 if (argFlagIdx > 0) {
                     String methodName = groups[0].substring(0, argFlagIdx);
                     methodParameterMatch = new MethodNameMatcher(methodName, Operator.eq).and(methodParameterMatch);
@@ -117,6 +114,20 @@ public class MethodSelectorBuilder {
         return groups;
     }
 
+    /**
+     * 获取参数位置
+     * @param condition 条件的键
+     * @return 参数位置
+     */
+    protected static int getArgIndex(final String condition) {
+        int argIndexIdx = condition.indexOf(WHEN_CONDITION_FLAG_ARG) + 4;
+        int argIndex = 0;
+        if (argIndexIdx >= 4 && argIndexIdx < condition.length()) {
+            argIndex = Integer.parseInt(condition.substring(argIndexIdx));
+        }
+        return argIndex;
+    }
+
     /**
      * 构造条件路由规则
      *
@@ -125,6 +136,8 @@ public class MethodSelectorBuilder {
      */
     public static BiPredicate<Shard, RequestMessage<Invocation>> build(final String json) {
         BiPredicate<Shard, RequestMessage<Invocation>> predicate = null;
+        //规则引用的参数位置
+        Set<Integer> arguments = new TreeSet<>();
         if (json != null && !json.isEmpty()) {
             //json反序列化为Map
             Map<String, String> map = JSON.get().parseObject(json, Map.class);
@@ -137,11 +150,18 @@ public class MethodSelectorBuilder {
                     if (thenCond != null) {
                         //when不匹配，或者when匹配then匹配，返回true
                         predicate = predicate == null ? whenCond.negate().or(thenCond) : predicate.and(whenCond.negate().or(thenCond));
+                        if (isArgCondition(entry.getKey())) {
+                            //和WHEN_BUILDER一样，从条件左边解析参数位置
+                            String[] groups = group(entry.getKey());
+                            if (groups != null) {
+                                arguments.add(getArgIndex(groups[0]));
+                            }
+                        }
                     }
                 }
             }
         }
-        return predicate;
+        return predicate == null ? null : new RulePredicate(predicate, arguments.stream().mapToInt(Integer::intValue).toArray());
     }
 
     /**
@@ -162,6 +182,16 @@ public class MethodSelectorBuilder {
         }
     }
 
+    /**
+     * 是否是参数条件，和buildWhen的判断顺序保持一致
+     * @param condition 条件
+     * @return 参数条件标识
+     */
+    protected static boolean isArgCondition(final String condition) {
+        return !condition.startsWith(WHEN_FLAG_METHOD) && !condition.contains(WHEN_CONDITION_FLAG_IP)
+                && condition.contains(WHEN_CONDITION_FLAG_ARG);
+    }
+
     /**
      * 构造Then条件
      *
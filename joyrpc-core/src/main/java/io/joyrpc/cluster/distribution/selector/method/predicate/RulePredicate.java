@@ -0,0 +1,75 @@
+package io.joyrpc.cluster.distribution.selector.method.predicate;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+/**
+ * 方法路由规则，记录规则引用的参数位置，用于生成路由结果的缓存键
+ */
+public class RulePredicate implements BiPredicate<Shard, RequestMessage<Invocation>> {
+
+    /**
+     * 路由规则
+     */
+    protected final BiPredicate<Shard, RequestMessage<Invocation>> predicate;
+    /**
+     * 规则引用的参数位置
+     */
+    protected final int[] arguments;
+
+    public RulePredicate(final BiPredicate<Shard, RequestMessage<Invocation>> predicate, final int[] arguments) {
+        this.predicate = predicate;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public boolean test(final Shard shard, final RequestMessage<Invocation> request) {
+        return predicate.test(shard, request);
+    }
+
+    /**
+     * 获取缓存键，由方法名和规则引用的参数组成
+     *
+     * @param request 请求
+     * @return 缓存键
+     */
+    public Object getKey(final RequestMessage<Invocation> request) {
+        Invocation invocation = request.getPayLoad();
+        if (arguments.length == 0) {
+            return invocation.getMethodName();
+        }
+        Object[] args = invocation.getArgs();
+        Object[] keys = new Object[arguments.length + 1];
+        keys[0] = invocation.getMethodName();
+        int index;
+        for (int i = 0; i < arguments.length; i++) {
+            index = arguments[i];
+            keys[i + 1] = args == null || index >= args.length || args[index] == null ? null : args[index].toString();
+        }
+        return Arrays.asList(keys);
+    }
+}
@@ -23,15 +23,16 @@ package io.joyrpc.cluster.distribution.selector.tag;
 import io.joyrpc.cluster.Candidate;
 import io.joyrpc.cluster.Node;
 import io.joyrpc.cluster.distribution.NodeSelector;
+import io.joyrpc.cluster.distribution.selector.SelectorCache;
 import io.joyrpc.extension.Extension;
 import io.joyrpc.extension.URL;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
+import static io.joyrpc.constants.Constants.SELECTOR_CACHE_CAPACITY_OPTION;
 import static io.joyrpc.constants.Constants.TAG_KEY_OPTION;
 
 /**
@@ -54,6 +55,10 @@ public class TagSelector implements NodeSelector {
      * 配置的标签值
      */
     protected String tagValue;
+    /**
+     * 选择结果缓存
+     */
+    protected SelectorCache cache;
 
     @Override
     public void setUrl(final URL url) {
@@ -64,6 +69,7 @@ public class TagSelector implements NodeSelector {
     public void setup() {
         this.tagKey = url.getString(TAG_KEY_OPTION);
         this.tagValue = url.getString(tagKey);
+        this.cache = new SelectorCache(url.getInteger(SELECTOR_CACHE_CAPACITY_OPTION));
     }
 
     @Override
@@ -72,17 +78,10 @@ public class TagSelector implements NodeSelector {
         if (tag == null || tag.isEmpty()) {
             return candidate.getNodes();
         }
-        List<Node> result = new LinkedList<>();
-        List<Node> nodes = candidate.getNodes();
-        URL url;
-        //先遍历服务列表
-        for (Node node : nodes) {
-            url = node.getUrl();
-            String nodeTag = url == null ? null : url.getString(tagKey);
-            if (Objects.equals(tag, nodeTag)) {
-                result.add(node);
-            }
-        }
-        return result;
+        //按照标签缓存选择结果
+        return cache.get(candidate.getNodes(), tagKey, tag, node -> {
+            URL url = node.getUrl();
+            return Objects.equals(tag, url == null ? null : url.getString(tagKey));
+        });
     }
 }
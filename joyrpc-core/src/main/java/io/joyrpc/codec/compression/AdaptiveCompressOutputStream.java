@@ -24,6 +24,7 @@ import io.joyrpc.transport.buffer.ChannelBuffer;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.IntFunction;
 
 /**
  * 自适应压缩
@@ -43,6 +44,10 @@ public class AdaptiveCompressOutputStream extends OutputStream implements Finish
      * 底层的数据缓冲区
      */
     protected ChannelBuffer buffer;
+    /**
+     * 临时缓冲区分配器，用于在开启压缩时暂存已写入的原始数据
+     */
+    protected IntFunction<ChannelBuffer> allocator;
     /**
      * 开启压缩的阈值
      */
@@ -80,6 +85,20 @@ public class AdaptiveCompressOutputStream extends OutputStream implements Finish
      * @throws IllegalArgumentException
      */
     public AdaptiveCompressOutputStream(final ChannelBuffer buffer, final Compression compression, final int threshold) {
+        this(buffer, compression, threshold, null);
+    }
+
+    /**
+     * 构建自适应压缩流
+     *
+     * @param buffer      数据缓冲区.
+     * @param compression 压缩流提供者.
+     * @param threshold   缓冲区大小.
+     * @param allocator   临时缓冲区分配器，为空则使用堆内存字节数组
+     * @throws IllegalArgumentException
+     */
+    public AdaptiveCompressOutputStream(final ChannelBuffer buffer, final Compression compression, final int threshold,
+                                        final IntFunction<ChannelBuffer> allocator) {
         if (buffer == null) {
             throw new NullPointerException("buffer can not be null.");
         } else if (compression == null) {
@@ -91,6 +110,7 @@ public class AdaptiveCompressOutputStream extends OutputStream implements Finish
         this.buffer = buffer;
         this.compression = compression;
         this.threshold = threshold;
+        this.allocator = allocator;
     }
 
     public boolean isCompressed() {
@@ -108,7 +128,18 @@ public class AdaptiveCompressOutputStream extends OutputStream implements Finish
         if (out == null) {
             //读取写入的数据
             int size = buffer.writerIndex() - writerIndex;
-            if (size > 0) {
+            if (size > 0 && allocator != null) {
+                //拷贝到池化的临时缓冲区，避免在堆上分配字节数组
+                ChannelBuffer temp = allocator.apply(size);
+                try {
+                    temp.writeBytes(buffer, writerIndex, size);
+                    buffer.writerIndex(writerIndex);
+                    out = compression.compress(buffer.outputStream());
+                    temp.readBytes(out, size);
+                } finally {
+                    temp.release();
+                }
+            } else if (size > 0) {
                 byte[] bytes = new byte[size];
                 buffer.getBytes(writerIndex, bytes);
                 buffer.writerIndex(writerIndex);
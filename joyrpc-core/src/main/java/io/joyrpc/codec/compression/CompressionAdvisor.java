@@ -0,0 +1,244 @@
+package io.joyrpc.codec.compression;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.joyrpc.Plugin.COMPRESSION;
+
+/**
+ * 自适应压缩选择器，绑定在连接上（即按对端），按照方法统计消息大小、压缩率和压缩耗时，
+ * 在对端支持的压缩算法中选择单位CPU耗时节省字节最多的算法，压缩收益太低则不压缩。<br/>
+ * 定期对各个算法进行探测，保证统计数据能跟随数据特征变化。
+ */
+public class CompressionAdvisor {
+
+    /**
+     * 每个算法预热的样本数
+     */
+    protected static final int WARMUP = 4;
+    /**
+     * 探测间隔
+     */
+    protected static final int PROBE_INTERVAL = 64;
+    /**
+     * 指数加权平均系数
+     */
+    protected static final double ALPHA = 0.2;
+    /**
+     * 最小的压缩收益，压缩后至少减少10%
+     */
+    protected static final double MIN_SAVING = 0.1;
+    /**
+     * 最小的压缩耗时（纳秒/字节），防止除零
+     */
+    protected static final double MIN_COST = 0.01;
+
+    /**
+     * 按照方法统计
+     */
+    protected Map<String, MethodStat> stats = new ConcurrentHashMap<>();
+    /**
+     * 对端支持的压缩算法名称
+     */
+    protected volatile List<String> names;
+    /**
+     * 对端支持并且本地存在的压缩算法
+     */
+    protected volatile List<Compression> supports = Collections.emptyList();
+
+    /**
+     * 选择压缩算法
+     *
+     * @param key       方法键
+     * @param preferred 协商的压缩算法
+     * @param names     对端支持的压缩算法名称
+     * @return 压缩算法，返回null表示不压缩
+     */
+    public Compression select(final String key, final Compression preferred, final List<String> names) {
+        return stats.computeIfAbsent(key, o -> new MethodStat()).select(getCandidates(preferred, names));
+    }
+
+    /**
+     * 反馈压缩结果
+     *
+     * @param key         方法键
+     * @param compression 压缩算法，null表示不压缩
+     * @param raw         原始大小
+     * @param compressed  压缩后的大小
+     * @param nanos       耗时（纳秒）
+     */
+    public void feedback(final String key, final Compression compression, final int raw, final int compressed, final long nanos) {
+        if (raw <= 0) {
+            return;
+        }
+        MethodStat stat = stats.get(key);
+        if (stat != null) {
+            stat.feedback(compression == null ? Compression.NONE : compression.getTypeId(), raw, compressed, nanos);
+        }
+    }
+
+    /**
+     * 获取候选的压缩算法，协商的压缩算法排在第一位
+     *
+     * @param preferred 协商的压缩算法
+     * @param names     对端支持的压缩算法名称
+     * @return 候选的压缩算法
+     */
+    protected List<Compression> getCandidates(final Compression preferred, final List<String> names) {
+        if (names != this.names) {
+            List<Compression> result = new ArrayList<>(names == null ? 0 : names.size());
+            if (names != null) {
+                Compression compression;
+                for (String name : names) {
+                    compression = COMPRESSION.get(name);
+                    if (compression != null && compression.getTypeId() != Compression.NONE && !result.contains(compression)) {
+                        result.add(compression);
+                    }
+                }
+            }
+            this.supports = result;
+            this.names = names;
+        }
+        List<Compression> supports = this.supports;
+        if (supports.isEmpty()) {
+            return Collections.singletonList(preferred);
+        } else if (supports.get(0) == preferred) {
+            return supports;
+        }
+        List<Compression> result = new ArrayList<>(supports.size() + 1);
+        result.add(preferred);
+        for (Compression compression : supports) {
+            if (compression != preferred) {
+                result.add(compression);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 方法统计
+     */
+    protected static class MethodStat {
+        /**
+         * 选择次数
+         */
+        protected long count;
+        /**
+         * 按照压缩类型统计，包括不压缩
+         */
+        protected Map<Byte, Sample> samples = new ConcurrentHashMap<>();
+
+        /**
+         * 选择压缩算法
+         *
+         * @param candidates 候选的压缩算法
+         * @return 压缩算法
+         */
+        protected Compression select(final List<Compression> candidates) {
+            long n = ++count;
+            //预热，每个算法包括不压缩都需要一定的样本
+            Sample none = samples.get(Compression.NONE);
+            if (none == null || none.count < WARMUP) {
+                return null;
+            }
+            Sample sample;
+            for (Compression candidate : candidates) {
+                sample = samples.get(candidate.getTypeId());
+                if (sample == null || sample.count < WARMUP) {
+                    return candidate;
+                }
+            }
+            if (n % PROBE_INTERVAL == 0) {
+                //探测，轮流选择不压缩和各个候选算法
+                int index = (int) ((n / PROBE_INTERVAL) % (candidates.size() + 1));
+                return index == candidates.size() ? null : candidates.get(index);
+            }
+            Compression result = null;
+            double best = 0;
+            double saving;
+            double score;
+            for (Compression candidate : candidates) {
+                sample = samples.get(candidate.getTypeId());
+                saving = 1 - sample.ratio;
+                if (saving >= MIN_SAVING) {
+                    //单位CPU耗时节省的字节比例
+                    score = saving / Math.max(sample.cost - none.cost, MIN_COST);
+                    if (score > best) {
+                        best = score;
+                        result = candidate;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 反馈
+         *
+         * @param type       压缩类型
+         * @param raw        原始大小
+         * @param compressed 压缩后的大小
+         * @param nanos      耗时
+         */
+        protected void feedback(final byte type, final int raw, final int compressed, final long nanos) {
+            samples.computeIfAbsent(type, o -> new Sample()).update((double) compressed / raw, (double) nanos / raw);
+        }
+    }
+
+    /**
+     * 样本
+     */
+    protected static class Sample {
+        /**
+         * 样本数
+         */
+        protected volatile long count;
+        /**
+         * 压缩率，压缩后大小/原始大小
+         */
+        protected volatile double ratio;
+        /**
+         * 每字节耗时（纳秒）
+         */
+        protected volatile double cost;
+
+        /**
+         * 更新
+         *
+         * @param ratio 压缩率
+         * @param cost  每字节耗时
+         */
+        protected void update(final double ratio, final double cost) {
+            if (count++ == 0) {
+                this.ratio = ratio;
+                this.cost = cost;
+            } else {
+                this.ratio += ALPHA * (ratio - this.ratio);
+                this.cost += ALPHA * (cost - this.cost);
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.joyrpc.codec.compression;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.transport.session.Session;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static io.joyrpc.Plugin.COMPRESSION;
+
+/**
+ * 支持共享字典的压缩算法。<br/>
+ * 客户端在协商请求中携带本地的字典ID，服务端选出双方都有的字典并在协商应答中返回，双方会话中保存该字典ID，
+ * 压缩的时候按照会话绑定字典，压缩数据中携带字典ID，解压的时候按照字典ID查找本地字典。
+ */
+public interface DictionaryCompression extends Compression {
+
+    /**
+     * 协商请求中本地字典ID列表的属性后缀
+     */
+    String DICTIONARIES_SUFFIX = ".dictionaries";
+    /**
+     * 会话中协商选定的字典ID的属性后缀
+     */
+    String DICTIONARY_SUFFIX = ".dictionary";
+
+    /**
+     * 本地可用的字典ID，按照优先级排序
+     *
+     * @return 字典ID
+     */
+    List<Long> getDictionaries();
+
+    /**
+     * 获取绑定了字典的压缩算法
+     *
+     * @param dictionaryId 字典ID
+     * @return 压缩算法，字典不存在返回null
+     */
+    Compression dictionary(long dictionaryId);
+
+    /**
+     * 在协商请求中提供本地的字典ID
+     *
+     * @param consumer 属性消费者
+     */
+    static void offer(final BiConsumer<String, String> consumer) {
+        offer(COMPRESSION.extensions(), consumer);
+    }
+
+    /**
+     * 在协商请求中提供本地的字典ID
+     *
+     * @param compressions 压缩算法
+     * @param consumer     属性消费者
+     */
+    static void offer(final Iterable<Compression> compressions, final BiConsumer<String, String> consumer) {
+        for (Compression compression : compressions) {
+            if (compression instanceof DictionaryCompression) {
+                List<Long> dictionaries = ((DictionaryCompression) compression).getDictionaries();
+                if (dictionaries != null && !dictionaries.isEmpty()) {
+                    StringBuilder builder = new StringBuilder();
+                    for (Long id : dictionaries) {
+                        if (builder.length() > 0) {
+                            builder.append(',');
+                        }
+                        builder.append(id);
+                    }
+                    consumer.accept(compression.getTypeName() + DICTIONARIES_SUFFIX, builder.toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * 服务端根据协商请求选择双方都有的字典
+     *
+     * @param attributes 协商请求的属性
+     * @param consumer   选定结果消费者
+     */
+    static void negotiate(final Map<String, String> attributes, final BiConsumer<String, String> consumer) {
+        negotiate(COMPRESSION.extensions(), attributes, consumer);
+    }
+
+    /**
+     * 服务端根据协商请求选择双方都有的字典
+     *
+     * @param compressions 压缩算法
+     * @param attributes   协商请求的属性
+     * @param consumer     选定结果消费者
+     */
+    static void negotiate(final Iterable<Compression> compressions, final Map<String, String> attributes,
+                          final BiConsumer<String, String> consumer) {
+        if (attributes == null || attributes.isEmpty()) {
+            return;
+        }
+        String offer;
+        for (Compression compression : compressions) {
+            if (compression instanceof DictionaryCompression) {
+                offer = attributes.get(compression.getTypeName() + DICTIONARIES_SUFFIX);
+                if (offer != null && !offer.isEmpty()) {
+                    List<Long> dictionaries = ((DictionaryCompression) compression).getDictionaries();
+                    for (Long id : dictionaries) {
+                        if (("," + offer + ",").contains("," + id + ",")) {
+                            consumer.accept(compression.getTypeName() + DICTIONARY_SUFFIX, String.valueOf(id));
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 按照会话协商的字典绑定压缩算法
+     *
+     * @param compression 压缩算法
+     * @param session     会话
+     * @return 压缩算法
+     */
+    static Compression bind(final Compression compression, final Session session) {
+        if (!(compression instanceof DictionaryCompression) || session == null) {
+            return compression;
+        }
+        String id = session.get(compression.getTypeName() + DICTIONARY_SUFFIX);
+        if (id == null || id.isEmpty()) {
+            return compression;
+        }
+        try {
+            Compression result = ((DictionaryCompression) compression).dictionary(Long.parseLong(id));
+            return result == null ? compression : result;
+        } catch (NumberFormatException e) {
+            return compression;
+        }
+    }
+}
@@ -145,7 +145,7 @@ public abstract class AbstractConsumerConfig<T> extends AbstractInterfaceConfig
     protected Integer forks;
     /**
      * channel创建模式
-     * shared:共享(默认),unshared:独享
+     * shared:共享(默认),unshared:独享,pooled:连接池
      */
     @ValidatePlugin(extensible = ChannelManagerFactory.class, name = "CHANNEL_MANAGER_FACTORY", defaultValue = DEFAULT_CHANNEL_FACTORY)
     protected String channelFactory;
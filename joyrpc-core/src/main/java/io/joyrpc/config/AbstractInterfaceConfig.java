@@ -152,6 +152,14 @@ public abstract class AbstractInterfaceConfig extends AbstractIdConfig {
      * 缓存值是否可空
      */
     protected Boolean cacheNullable;
+    /**
+     * 缓存未命中时是否合并相同键的并发调用
+     */
+    protected Boolean cacheSingleFlight;
+    /**
+     * 缓存提前刷新比例
+     */
+    protected Double cacheRefreshAhead;
     /**
      * 外部注入的配置中心
      */
@@ -196,6 +204,8 @@ public abstract class AbstractInterfaceConfig extends AbstractIdConfig {
         this.cacheExpireTime = config.cacheExpireTime;
         this.cacheCapacity = config.cacheCapacity;
         this.cacheNullable = config.cacheNullable;
+        this.cacheSingleFlight = config.cacheSingleFlight;
+        this.cacheRefreshAhead = config.cacheRefreshAhead;
         this.name = config.name;
         this.interfaceClass = config.interfaceClass;
         this.configure = config.configure;
@@ -509,6 +519,22 @@ public abstract class AbstractInterfaceConfig extends AbstractIdConfig {
         this.cacheNullable = cacheNullable;
     }
 
+    public Boolean getCacheSingleFlight() {
+        return cacheSingleFlight;
+    }
+
+    public void setCacheSingleFlight(Boolean cacheSingleFlight) {
+        this.cacheSingleFlight = cacheSingleFlight;
+    }
+
+    public Double getCacheRefreshAhead() {
+        return cacheRefreshAhead;
+    }
+
+    public void setCacheRefreshAhead(Double cacheRefreshAhead) {
+        this.cacheRefreshAhead = cacheRefreshAhead;
+    }
+
     public Configure getConfigure() {
         return configure;
     }
@@ -639,6 +665,8 @@ public abstract class AbstractInterfaceConfig extends AbstractIdConfig {
         addElement2Map(params, Constants.CACHE_KEY_GENERATOR_OPTION, cacheKeyGenerator);
         addElement2Map(params, Constants.CACHE_CAPACITY_OPTION, cacheCapacity);
         addElement2Map(params, Constants.CACHE_NULLABLE_OPTION, cacheNullable);
+        addElement2Map(params, Constants.CACHE_SINGLE_FLIGHT_OPTION, cacheSingleFlight);
+        addElement2Map(params, Constants.CACHE_REFRESH_AHEAD_OPTION, cacheRefreshAhead);
 
         if (null != parameters) {
             parameters.forEach((k, v) -> addElement2Map(params, k, v));
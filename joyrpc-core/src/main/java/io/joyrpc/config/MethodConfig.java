@@ -115,6 +115,15 @@ public class MethodConfig extends AbstractConfig {
      * cache键表达式
      */
     protected String cacheKeyExpression;
+    /**
+     * 一致性哈希键生成器
+     */
+    @ValidatePlugin(extensible = CacheKeyGenerator.class, name = "CACHE_KEY_GENERATOR", defaultValue = JSON_CACHE_KEY_GENERATOR)
+    protected String hashKeyGenerator;
+    /**
+     * 一致性哈希键表达式
+     */
+    protected String hashKeyExpression;
     /**
      * 是否启动压缩
      */
@@ -129,6 +138,14 @@ public class MethodConfig extends AbstractConfig {
      * 缓存值是否可空
      */
     protected Boolean cacheNullable;
+    /**
+     * 缓存未命中时是否合并相同键的并发调用
+     */
+    protected Boolean cacheSingleFlight;
+    /**
+     * 缓存提前刷新比例
+     */
+    protected Double cacheRefreshAhead;
 
     public String getName() {
         return name;
@@ -274,6 +291,22 @@ public class MethodConfig extends AbstractConfig {
         this.cacheKeyExpression = cacheKeyExpression;
     }
 
+    public String getHashKeyGenerator() {
+        return hashKeyGenerator;
+    }
+
+    public void setHashKeyGenerator(String hashKeyGenerator) {
+        this.hashKeyGenerator = hashKeyGenerator;
+    }
+
+    public String getHashKeyExpression() {
+        return hashKeyExpression;
+    }
+
+    public void setHashKeyExpression(String hashKeyExpression) {
+        this.hashKeyExpression = hashKeyExpression;
+    }
+
     public Integer getDstParam() {
         return dstParam;
     }
@@ -290,6 +323,22 @@ public class MethodConfig extends AbstractConfig {
         this.cacheNullable = cacheNullable;
     }
 
+    public Boolean getCacheSingleFlight() {
+        return cacheSingleFlight;
+    }
+
+    public void setCacheSingleFlight(Boolean cacheSingleFlight) {
+        this.cacheSingleFlight = cacheSingleFlight;
+    }
+
+    public Double getCacheRefreshAhead() {
+        return cacheRefreshAhead;
+    }
+
+    public void setCacheRefreshAhead(Double cacheRefreshAhead) {
+        this.cacheRefreshAhead = cacheRefreshAhead;
+    }
+
     public String getCacheProvider() {
         return cacheProvider;
     }
@@ -342,7 +391,11 @@ public class MethodConfig extends AbstractConfig {
         addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_EXPIRE_TIME_OPTION.getName()), cacheExpireTime);
         addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_CAPACITY_OPTION.getName()), cacheCapacity);
         addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_NULLABLE_OPTION.getName()), cacheNullable);
+        addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_SINGLE_FLIGHT_OPTION.getName()), cacheSingleFlight);
+        addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_REFRESH_AHEAD_OPTION.getName()), cacheRefreshAhead);
         addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.CACHE_KEY_EXPRESSION), cacheKeyExpression);
+        addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.HASH_KEY_GENERATOR_OPTION.getName()), hashKeyGenerator);
+        addElement2Map(params, METHOD_KEY_FUNC.apply(name, Constants.HASH_KEY_EXPRESSION), hashKeyExpression);
 
         if (null != parameters) {
             parameters.forEach((k, v) -> addElement2Map(params, METHOD_KEY_FUNC.apply(name, k), v));
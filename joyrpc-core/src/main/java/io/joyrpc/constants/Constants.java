@@ -562,6 +562,10 @@ public class Constants {
     public static final URLOption<Boolean> FROM_GROUP_OPTION = new URLOption<>("_fromGroup", false);
     public static final URLOption<String> TAG_KEY_OPTION = new URLOption<>("tagKey", () -> GlobalContext.getString("tagKey", "serviceTag"));
     public static final URLOption<Integer> SIMPLE_SELECTOR_OPTION = new URLOption<>("nodeSimple", 100);
+    /**
+     * 节点选择结果的缓存容量，小于等于0不缓存
+     */
+    public static final URLOption<Integer> SELECTOR_CACHE_CAPACITY_OPTION = new URLOption<>("selector.cacheCapacity", 1024);
     /**
      * 默认连接工厂
      */
@@ -623,6 +627,18 @@ public class Constants {
      */
     public static final URLOption<String> LOADBALANCE_OPTION = new URLOption<>("loadbalance", DEFAULT_LOADBALANCE);
     public static final URLOption<Boolean> STICKY_OPTION = new URLOption<>("sticky", false);
+    /**
+     * P2C负载均衡是否考虑请求延迟
+     */
+    public static final URLOption<Boolean> P2C_LATENCY_OPTION = new URLOption<>("p2c.latency", true);
+    /**
+     * 一致性哈希每个节点的虚拟节点数
+     */
+    public static final URLOption<Integer> HASH_REPLICAS_OPTION = new URLOption<>("hash.replicas", 160);
+    /**
+     * 一致性哈希的负载上限因子，节点正在处理的请求数超过平均值的该倍数则顺延到下一个节点，小于等于1不限制
+     */
+    public static final URLOption<Double> HASH_LOAD_FACTOR_OPTION = new URLOption<>("hash.loadFactor", 1.25d);
     public static final URLOption<Boolean> IN_JVM_OPTION = new URLOption<>("injvm", true);
     public static final URLOption<Boolean> CHECK_OPTION = new URLOption<>("check", true);
     /**
@@ -677,10 +693,54 @@ public class Constants {
     public static final URLOption<Integer> DELAY_OPTION = new URLOption<>("delay", -1);
     public static final URLOption<Boolean> DYNAMIC_OPTION = new URLOption<>("dynamic", true);
     public static final URLOption<Integer> CONCURRENCY_OPTION = new URLOption<>("concurrency", 0);
+    /**
+     * 自适应并发限制，根据耗时梯度动态调整并发上限，超出直接拒绝
+     */
+    public static final URLOption<Boolean> ADAPTIVE_CONCURRENCY_OPTION = new URLOption<>("adaptiveConcurrency", false);
+    /**
+     * 自适应并发限制，初始并发上限
+     */
+    public static final URLOption<Integer> ADAPTIVE_CONCURRENCY_INITIAL_OPTION = new URLOption<>("adaptiveConcurrency.initial", 20);
+    /**
+     * 自适应并发限制，最小并发上限
+     */
+    public static final URLOption<Integer> ADAPTIVE_CONCURRENCY_MIN_OPTION = new URLOption<>("adaptiveConcurrency.min", 1);
+    /**
+     * 自适应并发限制，最大并发上限
+     */
+    public static final URLOption<Integer> ADAPTIVE_CONCURRENCY_MAX_OPTION = new URLOption<>("adaptiveConcurrency.max", 1000);
+    /**
+     * 自适应并发限制，耗时容忍倍数
+     */
+    public static final URLOption<Double> ADAPTIVE_CONCURRENCY_TOLERANCE_OPTION = new URLOption<>("adaptiveConcurrency.tolerance", 1.5d);
+    /**
+     * 自适应并发限制，采样窗口(毫秒)
+     */
+    public static final URLOption<Long> ADAPTIVE_CONCURRENCY_WINDOW_OPTION = new URLOption<>("adaptiveConcurrency.window", 100L);
     public static final URLOption<Boolean> LIMITER_OPTION = new URLOption<>("limiter", false);
     public static final URLOption<String> METHOD_EXCLUDE_OPTION = new URLOption<>("exclude", "");
     public static final URLOption<String> CONTEXT_PATH_OPTION = new URLOption<>("contextpath", "/");
     public static final URLOption<Integer> FORKS_OPTION = new URLOption<>("forks", 2);
+    /**
+     * 对冲调用的延迟（毫秒），大于0则固定使用该延迟，否则根据方法的性能指标计算，支持方法级别配置
+     */
+    public static final URLOption<Long> HEDGE_DELAY_OPTION = new URLOption<>("hedge.delay", 0L);
+    /**
+     * 对冲调用延迟采用的方法性能指标，支持tp90、tp99和tp999
+     */
+    public static final URLOption<String> HEDGE_PERCENTILE_OPTION = new URLOption<>("hedge.percentile", "tp90");
+    /**
+     * 对冲调用的最小延迟（毫秒）
+     */
+    public static final URLOption<Long> HEDGE_MIN_DELAY_OPTION = new URLOption<>("hedge.minDelay", 5L);
+    /**
+     * 对冲调用占请求数的最大比例
+     */
+    public static final URLOption<Double> HEDGE_RATIO_OPTION = new URLOption<>("hedge.ratio", 0.1d);
+    /**
+     * 对冲调用的令牌桶容量，允许短时间的突发
+     */
+    public static final URLOption<Integer> HEDGE_BURST_OPTION = new URLOption<>("hedge.burst", 10);
     public static final URLOption<Boolean> METHOD_PRECOMPILATION = new URLOption<>("precompilation", Boolean.TRUE);
 
     public static final String JAVA_VERSION_KEY = "javaVersion";
@@ -750,6 +810,10 @@ public class Constants {
     public static final URLOption<Long> REGISTRY_BACKUP_INTERVAL_OPTION = new URLOption<>("reg.backupInterval", 10000L);
     public static final URLOption<Long> REGISTRY_TASK_RETRY_INTERVAL_OPTION = new URLOption<>("reg.taskRetryInterval", 5000L);
     public static final URLOption<Integer> REGISTRY_MAX_CONNECT_RETRY_TIMES_OPTION = new URLOption<>("reg.maxConnectRetryTimes", -1);
+    /**
+     * 集群增量事件的合并窗口(毫秒)，窗口内的多次变更合并成一次事件通知，小于等于0表示不合并
+     */
+    public static final URLOption<Long> REGISTRY_CLUSTER_EVENT_WINDOW_OPTION = new URLOption<>("reg.clusterEventWindow", 0L);
 
     public static final URLOption<Boolean> SYSTEM_REFER_OPTION = new URLOption<>("systemRefer", Boolean.FALSE);
 
@@ -775,9 +839,29 @@ public class Constants {
      * 缓存键生成算法选项
      */
     public static final URLOption<String> CACHE_KEY_GENERATOR_OPTION = new URLOption<>("cacheKeyGenerator", JSON_CACHE_KEY_GENERATOR);
+    /**
+     * 一致性哈希键生成算法选项
+     */
+    public static final URLOption<String> HASH_KEY_GENERATOR_OPTION = new URLOption<>("hashKeyGenerator", JSON_CACHE_KEY_GENERATOR);
+    /**
+     * 一致性哈希键表达式
+     */
+    public static final String HASH_KEY_EXPRESSION = "hashKeyExpression";
     public static final URLOption<Integer> CACHE_EXPIRE_TIME_OPTION = new URLOption<>("cacheExpireTime", -1);
     public static final URLOption<Integer> CACHE_CAPACITY_OPTION = new URLOption<>("cacheCapacity", 10000);
     public static final URLOption<Boolean> CACHE_NULLABLE_OPTION = new URLOption<>("cacheNullable", Boolean.FALSE);
+    /**
+     * 缓存未命中时合并相同键的并发调用，只发起一次远程调用
+     */
+    public static final URLOption<Boolean> CACHE_SINGLE_FLIGHT_OPTION = new URLOption<>("cacheSingleFlight", Boolean.FALSE);
+    /**
+     * 缓存提前刷新比例，写入时间超过过期时间的该比例后，命中时返回旧值并异步刷新，0表示不提前刷新
+     */
+    public static final URLOption<Double> CACHE_REFRESH_AHEAD_OPTION = new URLOption<>("cacheRefreshAhead", 0d);
+    /**
+     * 堆外缓存的最大内存字节数
+     */
+    public static final URLOption<Long> CACHE_MEMORY_OPTION = new URLOption<>("cacheMemory", 64L * 1024 * 1024);
 
     /**
      * 指标窗口时间（毫秒）
@@ -788,6 +872,10 @@ public class Constants {
      * 插件默认常量
      */
     public static final URLOption<String> CHANNEL_MANAGER_FACTORY_OPTION = new URLOption<>("channelManagerFactory", "shared");
+    /**
+     * 连接池模式下每个节点的连接数
+     */
+    public static final URLOption<Integer> CHANNEL_POOL_SIZE_OPTION = new URLOption<>("channelPoolSize", 4);
 
     public static final URLOption<Integer> PAYLOAD = new URLOption<>("payload", 8388608);
 
@@ -802,6 +890,22 @@ public class Constants {
     public static final String REUSE_PORT_KEY = "reusePort";
 
     public static final URLOption<Boolean> BUFFER_POOLED_OPTION = new URLOption<>("buffer.pooled", false);
+    /**
+     * 零拷贝编码，按照历史消息大小预分配缓冲区，大消息使用池化的直接内存复合缓冲区，压缩使用池化的临时缓冲区
+     */
+    public static final URLOption<Boolean> BUFFER_ZERO_COPY_OPTION = new URLOption<>("buffer.zeroCopy", false);
+    /**
+     * 延迟解码，IO线程只解析消息头，消息体的解压缩和反序列化在业务线程池中执行
+     */
+    public static final URLOption<Boolean> DECODE_LAZY_OPTION = new URLOption<>("decode.lazy", false);
+    /**
+     * 自适应压缩，按照方法和对端统计压缩率和耗时，自动选择压缩算法或不压缩
+     */
+    public static final URLOption<Boolean> COMPRESS_ADAPTIVE_OPTION = new URLOption<>("compress.adaptive", false);
+    /**
+     * 客户端在途请求环形数组的容量，大于0启用基于环形数组和批量超时扫描的Future管理器
+     */
+    public static final URLOption<Integer> FUTURE_RING_OPTION = new URLOption<>("future.ring", 0);
     public static final URLOption<Integer> INIT_SIZE_OPTION = new URLOption<>("initSize", 5);
     public static final URLOption<Integer> MIN_SIZE_OPTION = new URLOption<>("minSize", 0);
     public static final URLOption<Long> INIT_TIMEOUT_OPTION = new URLOption<>("initTimeout", 90000L);
@@ -934,6 +1038,10 @@ public class Constants {
      * 自适应负载均衡，集群TP
      */
     public static final URLOption<String> ADAPTIVE_CLUSTER_TP = new URLOption<>("adaptive.clusterTp", "tp30");
+    /**
+     * 自适应负载均衡，评分结果的缓存时间(毫秒)，小于等于0表示每次请求都重新评分
+     */
+    public static final URLOption<Long> ADAPTIVE_RANK_TTL = new URLOption<>("adaptive.rankTtl", 100L);
 
     /**
      * GrpcType函数
@@ -117,6 +117,8 @@ public abstract class ExceptionCode {
     public static final String FILTER_PROVIDER_TIMEOUT = FILTER_PREFIX + BIZ_LEVEL + "008";
     //provider并发超时异常
     public static final String FILTER_CONCURRENT_PROVIDER_TIMEOUT = FILTER_PREFIX + CONFIG_LEVEL + "009";
+    //自适应并发超限异常
+    public static final String FILTER_ADAPTIVE_CONCURRENCY_LIMIT = FILTER_PREFIX + CONFIG_LEVEL + "010";
 
 
     // 注册中心模块
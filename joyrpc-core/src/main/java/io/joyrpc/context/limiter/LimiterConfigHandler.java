@@ -63,7 +63,7 @@ public class LimiterConfigHandler implements ConfigEventHandler {
             String newAttr = newAttrs.get(SETTING_INVOKE_PROVIDER_LIMIT);
             if (!Objects.equals(oldAttr, newAttr)) {
                 try {
-                    Map<Option, RateLimiterConfig> newConfigs = parse(newAttr);
+                    Map<Option, RateLimiterConfig> newConfigs = parse(className, newAttr);
                     ClassLimiter limiter = LIMITERS.get(className);
                     limiter = load(newConfigs, limiter == null ? null : limiter.getLimiters());
                     //全量更新
@@ -130,10 +130,11 @@ public class LimiterConfigHandler implements ConfigEventHandler {
     /**
      * 解析配置
      *
+     * @param className
      * @param limitStr
      * @return
      */
-    protected Map<Option, RateLimiterConfig> parse(final String limitStr) {
+    protected Map<Option, RateLimiterConfig> parse(final String className, final String limitStr) {
         if (limitStr == null || limitStr.isEmpty()) {
             return null;
         }
@@ -152,10 +153,15 @@ public class LimiterConfigHandler implements ConfigEventHandler {
             boolean open = parametric.getBoolean("enabled", "open", Boolean.TRUE);
             int limit = parametric.getInteger("limit", 0);
             long periodNanos = TimeUnit.MILLISECONDS.toNanos(parametric.getLong("period", 1000L));
+            //分布式限流的配额协调器和每次租用的配额数
+            String coordinator = parametric.getString("coordinator");
+            int lease = parametric.getInteger("lease", 0);
             if (type != null && open && limit > 0 && periodNanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
                 //限流开关没有关闭，限流数大于0，限流周期大于等于1ms
                 option = new Option(methodName, alias, appId);
-                configs.put(option, RateLimiterConfig.builder().type(type).limitCount(limit).limitPeriodNanos(periodNanos).build());
+                configs.put(option, RateLimiterConfig.builder().type(type).limitCount(limit).limitPeriodNanos(periodNanos)
+                        .name(String.join(RateLimiter.DELIMITER, className, methodName, alias, appId))
+                        .coordinator(coordinator).leaseCount(lease).build());
             }
         }
         return configs;
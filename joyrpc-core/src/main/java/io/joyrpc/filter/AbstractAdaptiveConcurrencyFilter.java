@@ -0,0 +1,108 @@
+package io.joyrpc.filter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.Invoker;
+import io.joyrpc.Result;
+import io.joyrpc.cluster.distribution.limiter.GradientConcurrencyLimiter;
+import io.joyrpc.constants.ExceptionCode;
+import io.joyrpc.exception.OverloadException;
+import io.joyrpc.extension.URL;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.joyrpc.constants.Constants.*;
+
+/**
+ * 自适应并发限制器，按方法根据耗时梯度动态调整并发上限，超出直接拒绝，不阻塞线程
+ */
+public abstract class AbstractAdaptiveConcurrencyFilter extends AbstractFilter {
+
+    /**
+     * 方法的并发限制器
+     */
+    protected Map<String, GradientConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Result> invoke(final Invoker invoker, final RequestMessage<Invocation> request) {
+        Invocation invocation = request.getPayLoad();
+        GradientConcurrencyLimiter limiter = limiters.computeIfAbsent(invocation.getMethodName(), this::create);
+        if (!limiter.acquire()) {
+            //被限流后会抛出大量异常，不打印异常堆栈，避免消耗CPU
+            return CompletableFuture.completedFuture(new Result(request.getContext(),
+                    new OverloadException("Failed to invoke method " + invocation.getClassName() + "." + invocation.getMethodName()
+                            + " in " + (isServer() ? "server-side" : "client-side") + ", concurrent invokes exceed adaptive limit: "
+                            + limiter.getLimit(), ExceptionCode.FILTER_ADAPTIVE_CONCURRENCY_LIMIT, 0, isServer())));
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Result> future = null;
+        try {
+            future = invoker.invoke(request);
+            return future.whenComplete((result, throwable) -> limiter.release(System.nanoTime() - start));
+        } finally {
+            if (future == null) {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * 创建方法的并发限制器，支持方法级别参数
+     *
+     * @param method 方法名
+     * @return 并发限制器
+     */
+    protected GradientConcurrencyLimiter create(final String method) {
+        return new GradientConcurrencyLimiter(
+                url.getInteger(METHOD_KEY_FUNC.apply(method, ADAPTIVE_CONCURRENCY_INITIAL_OPTION.getName()),
+                        ADAPTIVE_CONCURRENCY_INITIAL_OPTION.getName(), ADAPTIVE_CONCURRENCY_INITIAL_OPTION.getValue()),
+                url.getInteger(METHOD_KEY_FUNC.apply(method, ADAPTIVE_CONCURRENCY_MIN_OPTION.getName()),
+                        ADAPTIVE_CONCURRENCY_MIN_OPTION.getName(), ADAPTIVE_CONCURRENCY_MIN_OPTION.getValue()),
+                url.getInteger(METHOD_KEY_FUNC.apply(method, ADAPTIVE_CONCURRENCY_MAX_OPTION.getName()),
+                        ADAPTIVE_CONCURRENCY_MAX_OPTION.getName(), ADAPTIVE_CONCURRENCY_MAX_OPTION.getValue()),
+                url.getDouble(METHOD_KEY_FUNC.apply(method, ADAPTIVE_CONCURRENCY_TOLERANCE_OPTION.getName()),
+                        ADAPTIVE_CONCURRENCY_TOLERANCE_OPTION.getName(), ADAPTIVE_CONCURRENCY_TOLERANCE_OPTION.getValue()),
+                url.getLong(METHOD_KEY_FUNC.apply(method, ADAPTIVE_CONCURRENCY_WINDOW_OPTION.getName()),
+                        ADAPTIVE_CONCURRENCY_WINDOW_OPTION.getName(), ADAPTIVE_CONCURRENCY_WINDOW_OPTION.getValue()));
+    }
+
+    /**
+     * 是否是服务端
+     *
+     * @return 服务端标识
+     */
+    protected abstract boolean isServer();
+
+    @Override
+    public boolean test(final URL url) {
+        return url.getBoolean(ADAPTIVE_CONCURRENCY_OPTION);
+    }
+
+    @Override
+    public int type() {
+        return SYSTEM_GLOBAL;
+    }
+
+}
@@ -23,15 +23,19 @@ package io.joyrpc.filter;
 import io.joyrpc.Invoker;
 import io.joyrpc.Result;
 import io.joyrpc.cache.Cache;
+import io.joyrpc.context.RequestContext;
 import io.joyrpc.invoker.option.InterfaceOption;
 import io.joyrpc.invoker.option.CacheOption;
 import io.joyrpc.exception.CacheException;
 import io.joyrpc.extension.URL;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.util.Futures;
+import io.joyrpc.util.SystemClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 
@@ -59,6 +63,11 @@ public class AbstractCacheFilter extends AbstractFilter {
         cache.get(key).whenComplete((c, t) -> {
             if (t == null && c != null) {
                 result.complete(new Result(request.getContext(), c.getResult()));
+                long refreshAfterWrite = policy.getRefreshAfterWrite();
+                if (refreshAfterWrite > 0 && SystemClock.now() - c.getWriteTime() >= refreshAfterWrite) {
+                    //快要过期，返回旧值，并用复制的请求合并发起一次异步刷新
+                    share(invoker, copy(request), policy, key);
+                }
             } else {
                 //没有拿到缓存
                 if (t != null) {
@@ -66,16 +75,18 @@ public class AbstractCacheFilter extends AbstractFilter {
                     logger.error("Error occurs while reading cache,caused by " + t.getMessage(), t);
                 }
                 //未命中发起远程调用
-                invoker.invoke(request).whenComplete((r, error) -> {
+                CompletableFuture<Result> future = policy.isSingleFlight() ? share(invoker, request, policy, key) : load(invoker, request, cache, key);
+                future.whenComplete((r, error) -> {
                     if (error != null) {
                         //远程调用异常
                         result.completeExceptionally(error);
-                    } else {
-                        if (!r.isException()) {
-                            //缓存非异常结果
-                            cache.put(key, r.getValue());
-                        }
+                    } else if (r.getContext() == request.getContext()) {
                         result.complete(r);
+                    } else if (r.isException()) {
+                        //合并的调用，使用当前请求的上下文
+                        result.complete(new Result(request.getContext(), r.getException()));
+                    } else {
+                        result.complete(new Result(request.getContext(), r.getValue()));
                     }
                 });
             }
@@ -83,6 +94,86 @@ public class AbstractCacheFilter extends AbstractFilter {
         return result;
     }
 
+    /**
+     * 合并相同缓存键的并发调用，只有第一个请求发起远程调用
+     *
+     * @param invoker 调用器
+     * @param request 请求
+     * @param policy  缓存策略
+     * @param key     缓存键
+     * @return 结果
+     */
+    protected CompletableFuture<Result> share(final Invoker invoker, final RequestMessage<Invocation> request,
+                                              final CacheOption policy, final Object key) {
+        Map<Object, CompletableFuture<Result>> flights = policy.getFlights();
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        CompletableFuture<Result> exists = flights.putIfAbsent(key, future);
+        if (exists != null) {
+            return exists;
+        }
+        load(invoker, request, policy.getCache(), key).whenComplete((r, error) -> {
+            flights.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(r);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 复制请求用于异步刷新，避免调用方拿到结果后原请求继续在调用链中被修改
+     *
+     * @param request 请求
+     * @return 新请求
+     */
+    protected RequestMessage<Invocation> copy(final RequestMessage<Invocation> request) {
+        Invocation invocation = request.getPayLoad();
+        Invocation payload = invocation.create();
+        payload.setClazz(invocation.getClazz());
+        payload.setMethod(invocation.getMethod());
+        payload.setObject(invocation.getObject());
+        payload.setArgsType(invocation.getArgClasses(), invocation.getArgsType());
+        RequestMessage<Invocation> result = new RequestMessage<>(request.getHeader().clone(), payload);
+        //刷新请求重新计算超时
+        result.setCreateTime(SystemClock.now());
+        result.setTimeout(request.getTimeout());
+        result.setOption(request.getOption());
+        result.setMethodName(request.getMethodName());
+        result.setConsumer(request.isConsumer());
+        result.setThread(request.getThread());
+        result.setUrl(request.getUrl());
+        result.setContext(request.getContext() == null ? new RequestContext() : request.getContext().create());
+        return result;
+    }
+
+    /**
+     * 远程调用，并缓存非异常结果
+     *
+     * @param invoker 调用器
+     * @param request 请求
+     * @param cache   缓存
+     * @param key     缓存键
+     * @return 结果
+     */
+    protected CompletableFuture<Result> load(final Invoker invoker, final RequestMessage<Invocation> request,
+                                             final Cache<Object, Object> cache, final Object key) {
+        CompletableFuture<Result> future;
+        try {
+            future = invoker.invoke(request);
+        } catch (Throwable e) {
+            //避免合并的调用一直挂起
+            return Futures.completeExceptionally(e);
+        }
+        return future.whenComplete((r, error) -> {
+            if (error == null && !r.isException()) {
+                //缓存非异常结果
+                cache.put(key, r.getValue());
+            }
+        });
+    }
+
     /**
      * 生成缓存键
      *
@@ -42,6 +42,10 @@ public interface ConsumerFilter extends Filter {
      * 并发控制顺序
      */
     int CONCURRENCY_ORDER = -80;
+    /**
+     * 自适应并发控制顺序
+     */
+    int ADAPTIVE_CONCURRENCY_ORDER = -75;
     /**
      * 缓存处理器顺序
      */
@@ -63,6 +63,8 @@ public interface ProviderFilter extends Filter {
 
     int CONCURRENCY_ORDER = VALIDATION_ORDER + 10;
 
+    int ADAPTIVE_CONCURRENCY_ORDER = CONCURRENCY_ORDER + 5;
+
     int INVOKER_LIMITER_ORDER = CONCURRENCY_ORDER + 10;
 
     int TIMEOUT_ORDER = INVOKER_LIMITER_ORDER + 10;
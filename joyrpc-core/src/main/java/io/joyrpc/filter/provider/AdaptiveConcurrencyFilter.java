@@ -0,0 +1,38 @@
+package io.joyrpc.filter.provider;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.Extension;
+import io.joyrpc.filter.AbstractAdaptiveConcurrencyFilter;
+import io.joyrpc.filter.ProviderFilter;
+
+/**
+ * 服务端方法级别的自适应并发限制，超出直接返回过载异常，调用方可以重试其它节点
+ */
+@Extension(value = "adaptiveConcurrency", order = ProviderFilter.ADAPTIVE_CONCURRENCY_ORDER)
+public class AdaptiveConcurrencyFilter extends AbstractAdaptiveConcurrencyFilter implements ProviderFilter {
+
+    @Override
+    protected boolean isServer() {
+        return true;
+    }
+
+}
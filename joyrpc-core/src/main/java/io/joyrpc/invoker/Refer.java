@@ -299,15 +299,22 @@ public class Refer extends AbstractService {
             CompletableFuture<Message> future = client.async(request, header.getTimeout());
 
             //返回future
-            return future.handle((response, err) -> {
+            CompletableFuture<Result> result = future.handle((response, err) -> {
                 //线程恢复统一改在consumerInvokerHandler里面
-                Result result = err != null ? new Result(request.getContext(), err, response) : response2Result(request, client, response);
-                if (result.isException()) {
-                    //异常处理
-                    onException(request, result, client);
+                Result r = err != null ? new Result(request.getContext(), err, response) : response2Result(request, client, response);
+                if (r.isException() && !future.isCancelled()) {
+                    //异常处理，取消的请求不处理
+                    onException(request, r, client);
+                }
+                return r;
+            });
+            //结果被取消（例如对冲调用中落败的请求），同步取消底层请求
+            result.whenComplete((r, err) -> {
+                if (result.isCancelled()) {
+                    future.cancel(false);
                 }
-                return result;
             });
+            return result;
         } catch (Throwable e) {
             return Futures.completeExceptionally(e);
         }
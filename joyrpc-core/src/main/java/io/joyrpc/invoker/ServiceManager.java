@@ -385,9 +385,7 @@ public class ServiceManager {
             DashboardFactory dashboardFactory = buildDashboardFactory(url, loadBalance);
             //集群的名字是服务名称+别名+配置变更计数器，确保相同接口引用的集群名称不一样
             Publisher<NodeEvent> publisher = EVENT_BUS.get().getPublisher(EVENT_PUBLISHER_CLUSTER, clusterName, EVENT_PUBLISHER_CLUSTER_CONF);
-            //TODO 是否要设置业务线程池处理应答消息
-            ThreadPool workerPool = null;
-            Cluster cluster = new Cluster(clusterName, url, registry, null, null, workerPool, null, dashboardFactory, METRIC_HANDLER.extensions(), publisher);
+            Cluster cluster = new Cluster(clusterName, url, registry, null, null, getResponsePool(url), null, dashboardFactory, METRIC_HANDLER.extensions(), publisher);
             //判断是否有回调，如果注册成功，说明有回调方法，需要往Cluster注册事件，监听节点断开事件
             serializationRegister(config.getProxyClass());
             //refer的名称和key保持一致，便于删除
@@ -528,6 +526,16 @@ public class ServiceManager {
         return pool.get(name, url, threadFactory);
     }
 
+    /**
+     * 获取消费者处理应答消息的线程池，延迟解码的时候使用回调线程池完成反序列化，减少IO线程的阻塞
+     *
+     * @param url url
+     * @return 线程池
+     */
+    protected ThreadPool getResponsePool(final URL url) {
+        return url.getBoolean(DECODE_LAZY_OPTION) ? getCallbackPool() : null;
+    }
+
     /**
      * 获取回调管理器
      *
@@ -37,6 +37,8 @@ import io.joyrpc.extension.URLOption;
 import io.joyrpc.extension.WrapperParametric;
 import io.joyrpc.transaction.TransactionFactory;
 import io.joyrpc.util.GenericClass;
+import io.joyrpc.util.GenericMethod;
+import io.joyrpc.util.GenericType;
 import io.joyrpc.util.IDLMethod;
 import io.joyrpc.util.MethodOption.NameKeyOption;
 
@@ -46,7 +48,10 @@ import javax.validation.metadata.BeanDescriptor;
 import javax.validation.metadata.MethodDescriptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
@@ -105,6 +110,18 @@ public abstract class AbstractInterfaceOption implements InterfaceOption {
      * 缓存过期时间
      */
     protected int cacheExpireTime;
+    /**
+     * 缓存未命中时合并相同键的并发调用
+     */
+    protected boolean cacheSingleFlight;
+    /**
+     * 缓存提前刷新比例
+     */
+    protected double cacheRefreshAhead;
+    /**
+     * 堆外缓存的最大内存
+     */
+    protected long cacheMemory;
     /**
      * 缓存键生成器
      */
@@ -203,6 +220,9 @@ public abstract class AbstractInterfaceOption implements InterfaceOption {
         this.cacheNullable = url.getBoolean(CACHE_NULLABLE_OPTION);
         this.cacheCapacity = url.getInteger(CACHE_CAPACITY_OPTION);
         this.cacheExpireTime = url.getInteger(CACHE_EXPIRE_TIME_OPTION);
+        this.cacheSingleFlight = url.getBoolean(CACHE_SINGLE_FLIGHT_OPTION);
+        this.cacheRefreshAhead = url.getDouble(CACHE_REFRESH_AHEAD_OPTION);
+        this.cacheMemory = url.getLong(CACHE_MEMORY_OPTION);
         this.cacheKeyGenerator = url.getString(CACHE_KEY_GENERATOR_OPTION);
         this.cacheProvider = url.getString(CACHE_PROVIDER_OPTION);
         this.cacheFactory = CACHE.get(cacheProvider);
@@ -365,10 +385,11 @@ public abstract class AbstractInterfaceOption implements InterfaceOption {
     /**
      * 构造缓存策略
      *
-     * @param parametric 参数
+     * @param parametric    参数
+     * @param genericMethod 泛型方法
      * @return 缓存策略
      */
-    protected CacheOption getCachePolicy(final WrapperParametric parametric) {
+    protected CacheOption getCachePolicy(final WrapperParametric parametric, final GenericMethod genericMethod) {
         CacheOption cachePolicy = null;
         //判断是否开启了缓存
         boolean enable = cacheFactory == null ? false : parametric.getBoolean(CACHE_OPTION.getName(), cacheEnable);
@@ -388,14 +409,37 @@ public abstract class AbstractInterfaceOption implements InterfaceOption {
                         nullable(parametric.getBoolean(CACHE_NULLABLE_OPTION.getName(), cacheNullable)).
                         capacity(parametric.getInteger(CACHE_CAPACITY_OPTION.getName(), cacheCapacity)).
                         expireAfterWrite(parametric.getInteger(CACHE_EXPIRE_TIME_OPTION.getName(), cacheExpireTime)).
+                        memory(parametric.getLong(CACHE_MEMORY_OPTION.getName(), cacheMemory)).
+                        serialization(url.getString(SERIALIZATION_OPTION)).
+                        valueType(getCacheValueType(genericMethod)).
                         build();
                 Cache<Object, Object> cache = cacheFactory.build(parametric.getName(), cacheConfig);
-                cachePolicy = new CacheOption(cache, generator);
+                cachePolicy = new CacheOption(cache, generator, cacheConfig.getExpireAfterWrite(),
+                        parametric.getBoolean(CACHE_SINGLE_FLIGHT_OPTION.getName(), cacheSingleFlight),
+                        parametric.getDouble(CACHE_REFRESH_AHEAD_OPTION.getName(), cacheRefreshAhead));
             }
         }
         return cachePolicy;
     }
 
+    /**
+     * 获取缓存值的泛型类型，异步方法取CompletableFuture的参数类型
+     *
+     * @param genericMethod 泛型方法
+     * @return 泛型类型
+     */
+    protected Type getCacheValueType(final GenericMethod genericMethod) {
+        GenericType returnType = genericMethod == null ? null : genericMethod.getReturnType();
+        if (returnType == null) {
+            return null;
+        }
+        Type type = returnType.getGenericType();
+        if (returnType.getType() == CompletableFuture.class) {
+            return type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments()[0] : null;
+        }
+        return type;
+    }
+
     /**
      * 获取跟踪ID
      *
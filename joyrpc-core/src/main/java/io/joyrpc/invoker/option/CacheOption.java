@@ -20,9 +20,14 @@ package io.joyrpc.invoker.option;
  * #L%
  */
 
+import io.joyrpc.Result;
 import io.joyrpc.cache.Cache;
 import io.joyrpc.cache.CacheKeyGenerator;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 缓存选项
  */
@@ -35,10 +40,34 @@ public class CacheOption {
      * 缓存键生成器
      */
     protected final CacheKeyGenerator generator;
+    /**
+     * 过期时间(毫秒)
+     */
+    protected final long expireAfterWrite;
+    /**
+     * 未命中时合并相同键的并发调用
+     */
+    protected final boolean singleFlight;
+    /**
+     * 提前刷新的时间(毫秒)，写入时间超过该值后命中时异步刷新，小于等于0表示不提前刷新
+     */
+    protected final long refreshAfterWrite;
+    /**
+     * 进行中的调用，按缓存键合并
+     */
+    protected final Map<Object, CompletableFuture<Result>> flights = new ConcurrentHashMap<>();
 
     public CacheOption(Cache<Object, Object> cache, CacheKeyGenerator generator) {
+        this(cache, generator, -1, false, 0);
+    }
+
+    public CacheOption(Cache<Object, Object> cache, CacheKeyGenerator generator, long expireAfterWrite,
+                       boolean singleFlight, double refreshAhead) {
         this.cache = cache;
         this.generator = generator;
+        this.expireAfterWrite = expireAfterWrite;
+        this.singleFlight = singleFlight;
+        this.refreshAfterWrite = expireAfterWrite > 0 && refreshAhead > 0 && refreshAhead < 1 ? (long) (expireAfterWrite * refreshAhead) : 0;
     }
 
     public Cache<Object, Object> getCache() {
@@ -48,4 +77,20 @@ public class CacheOption {
     public CacheKeyGenerator getGenerator() {
         return generator;
     }
+
+    public long getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    public long getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    public Map<Object, CompletableFuture<Result>> getFlights() {
+        return flights;
+    }
 }
@@ -20,6 +20,7 @@ package io.joyrpc.invoker.option;
  * #L%
  */
 
+import io.joyrpc.cache.CacheKeyGenerator;
 import io.joyrpc.cluster.Shard;
 import io.joyrpc.cluster.distribution.CircuitBreaker;
 import io.joyrpc.cluster.distribution.FailoverPolicy;
@@ -77,6 +78,13 @@ public interface ConsumerMethodOption extends MethodOption {
      */
     CircuitBreaker getCircuitBreaker();
 
+    /**
+     * 获取一致性哈希键生成器
+     *
+     * @return 一致性哈希键生成器
+     */
+    CacheKeyGenerator getHashKeyGenerator();
+
     /**
      * 返回方法的Mock数据
      *
@@ -1,5 +1,6 @@
 package io.joyrpc.invoker.option.inner;
 
+import io.joyrpc.cache.CacheKeyGenerator;
 import io.joyrpc.cluster.Shard;
 import io.joyrpc.cluster.distribution.CircuitBreaker;
 import io.joyrpc.cluster.distribution.FailoverPolicy;
@@ -69,6 +70,10 @@ public class InnerConsumerMethodOption extends AbstractMethodOption implements C
      * Mock数据
      */
     protected volatile Map<String, Object> mock;
+    /**
+     * 一致性哈希键生成器
+     */
+    protected CacheKeyGenerator hashKeyGenerator;
 
     public InnerConsumerMethodOption(final IDLMethod grpcMethod,
                                      final GenericMethod genericMethod,
@@ -89,7 +94,8 @@ public class InnerConsumerMethodOption extends AbstractMethodOption implements C
                                      final MethodAdaptiveOption adaptiveConfig,
                                      final McMethodBreakerConfig staticBreakerConfig,
                                      final McMethodBreakerConfig dynamicBreakerConfig,
-                                     final Map<String, Object> mock) {
+                                     final Map<String, Object> mock,
+                                     final CacheKeyGenerator hashKeyGenerator) {
         super(grpcMethod, genericMethod, implicits, timeout, concurrency, cachePolicy, validator, transactionOption, token, async, trace, callback);
         this.forks = forks;
         this.selector = selector;
@@ -99,6 +105,7 @@ public class InnerConsumerMethodOption extends AbstractMethodOption implements C
         this.staticBreakerConfig = staticBreakerConfig;
         update(dynamicBreakerConfig);
         this.mock = mock;
+        this.hashKeyGenerator = hashKeyGenerator;
     }
 
     protected void update(McMethodBreakerConfig dynamicConfig) {
@@ -145,6 +152,11 @@ public class InnerConsumerMethodOption extends AbstractMethodOption implements C
         return mock;
     }
 
+    @Override
+    public CacheKeyGenerator getHashKeyGenerator() {
+        return hashKeyGenerator;
+    }
+
     @Override
     public void setAutoScore(final boolean autoScore) {
         if (this.autoScore != autoScore) {
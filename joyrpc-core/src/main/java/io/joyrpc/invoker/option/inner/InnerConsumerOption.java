@@ -21,6 +21,8 @@ package io.joyrpc.invoker.option.inner;
  */
 
 import io.joyrpc.annotation.EnableTrace;
+import io.joyrpc.cache.CacheKeyGenerator;
+import io.joyrpc.cache.CacheKeyGenerator.ExpressionGenerator;
 import io.joyrpc.cluster.Shard;
 import io.joyrpc.cluster.distribution.ExceptionPolicy;
 import io.joyrpc.cluster.distribution.ExceptionPredication;
@@ -37,6 +39,7 @@ import io.joyrpc.context.circuitbreaker.BreakerConfiguration;
 import io.joyrpc.exception.InitializationException;
 import io.joyrpc.exception.OverloadException;
 import io.joyrpc.extension.ExtensionMeta;
+import io.joyrpc.extension.MapParametric;
 import io.joyrpc.extension.URL;
 import io.joyrpc.extension.WrapperParametric;
 import io.joyrpc.invoker.option.AbstractInterfaceOption;
@@ -48,6 +51,7 @@ import io.joyrpc.permission.ExceptionBlackWhiteList;
 import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.RequestMessage;
 import io.joyrpc.util.ClassUtils;
+import io.joyrpc.util.GenericMethod;
 import io.joyrpc.util.IDLMethod;
 import io.joyrpc.util.SystemClock;
 import io.joyrpc.util.Timer;
@@ -131,6 +135,10 @@ public class InnerConsumerOption extends AbstractInterfaceOption {
      * 接口级别并行度
      */
     protected int forks;
+    /**
+     * 接口级别的一致性哈希键生成器
+     */
+    protected String hashKeyGenerator;
     /**
      * 重试异常
      */
@@ -193,6 +201,7 @@ public class InnerConsumerOption extends AbstractInterfaceOption {
         //需要放在failoverPredication后面，里面加载配置文件的时候需要判断failoverPredication
         this.failoverBlackWhiteList = buildFailoverBlackWhiteList();
         this.forks = url.getInteger(FORKS_OPTION);
+        this.hashKeyGenerator = url.getString(HASH_KEY_GENERATOR_OPTION);
         //构建接口熔断配置
         this.breakerConfig = new McCircuitBreakerConfig(url);
         breakerConfig.addWhite(OverloadException.class);
@@ -273,16 +282,17 @@ public class InnerConsumerOption extends AbstractInterfaceOption {
     protected AbstractMethodOption create(final WrapperParametric parametric) {
         IDLMethod grpcMethod = getMethod(parametric.getName());
         Method method = grpcMethod == null ? null : grpcMethod.getMethod();
+        GenericMethod genericMethod = genericClass.get(method);
         EnableTrace enableTrace = method == null ? null : method.getAnnotation(EnableTrace.class);
         Map<String, Map<String, Object>> methodMocks = mockConfig == null ? null : mockConfig.get();
         McIntfCircuitBreakerConfig icbCfg = breakerConfigs == null ? null : breakerConfigs.get();
         return new InnerConsumerMethodOption(
                 grpcMethod,
-                genericClass.get(method),
+                genericMethod,
                 getImplicits(parametric.getName()),
                 parametric.getPositive(TIMEOUT_OPTION.getName(), timeout),
                 new Concurrency(parametric.getInteger(CONCURRENCY_OPTION.getName(), concurrency)),
-                getCachePolicy(parametric),
+                getCachePolicy(parametric, genericMethod),
                 getValidator(parametric),
                 transactionFactory == null ? null : transactionFactory.create(interfaceClass, method),
                 parametric.getString(HIDDEN_KEY_TOKEN, token),
@@ -301,7 +311,27 @@ public class InnerConsumerOption extends AbstractInterfaceOption {
                 scorer == null ? null : new MethodAdaptiveOption(intfConfig, new AdaptiveConfig(parametric), dynamicConfig.get(), judges),
                 new McMethodBreakerConfig(parametric.getName(), breakerConfig, new McCircuitBreakerConfig(parametric)),
                 icbCfg == null ? null : icbCfg.getConfig(parametric.getName()),
-                methodMocks == null ? null : methodMocks.get(parametric.getName()));
+                methodMocks == null ? null : methodMocks.get(parametric.getName()),
+                getHashKeyGenerator(parametric));
+    }
+
+    /**
+     * 构造一致性哈希键生成器
+     *
+     * @param parametric 参数
+     * @return 一致性哈希键生成器
+     */
+    protected CacheKeyGenerator getHashKeyGenerator(final WrapperParametric parametric) {
+        CacheKeyGenerator generator = CACHE_KEY_GENERATOR.get(parametric.getString(HASH_KEY_GENERATOR_OPTION.getName(), hashKeyGenerator));
+        if (generator instanceof ExpressionGenerator) {
+            //复用缓存键的表达式生成器，把一致性哈希键表达式作为缓存键表达式传入
+            Map<String, String> parameters = new HashMap<>(2);
+            parameters.put(CACHE_KEY_EXPRESSION, parametric.getString(HASH_KEY_EXPRESSION));
+            ExpressionGenerator gen = (ExpressionGenerator) generator;
+            gen.setParametric(new MapParametric<>(parameters));
+            gen.setup();
+        }
+        return generator;
     }
 
     /**
@@ -32,6 +32,7 @@ import io.joyrpc.permission.StringBlackWhiteList;
 import io.joyrpc.proxy.JCompiler;
 import io.joyrpc.proxy.MethodCaller;
 import io.joyrpc.util.ClassUtils;
+import io.joyrpc.util.GenericMethod;
 import io.joyrpc.util.IDLMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -122,14 +123,15 @@ public class InnerProviderOption extends AbstractInterfaceOption {
     protected AbstractMethodOption create(final WrapperParametric parametric) {
         IDLMethod idlMethod = getMethod(parametric.getName());
         Method method = idlMethod == null ? null : idlMethod.getMethod();
+        GenericMethod genericMethod = genericClass.get(method);
         EnableTrace enableTrace = method == null ? null : method.getAnnotation(EnableTrace.class);
         return new InnerProviderMethodOption(
                 idlMethod,
-                genericClass.get(method),
+                genericMethod,
                 getImplicits(parametric.getName()),
                 parametric.getPositive(TIMEOUT_OPTION.getName(), timeout),
                 new Concurrency(parametric.getInteger(CONCURRENCY_OPTION.getName(), concurrency)),
-                getCachePolicy(parametric),
+                getCachePolicy(parametric, genericMethod),
                 getValidator(parametric),
                 transactionFactory == null ? null : transactionFactory.create(interfaceClass, method),
                 parametric.getString(HIDDEN_KEY_TOKEN, token),
@@ -22,6 +22,8 @@ package io.joyrpc.protocol;
 
 import io.joyrpc.codec.compression.AdaptiveCompressOutputStream;
 import io.joyrpc.codec.compression.Compression;
+import io.joyrpc.codec.compression.CompressionAdvisor;
+import io.joyrpc.codec.compression.DictionaryCompression;
 import io.joyrpc.codec.serialization.Serialization;
 import io.joyrpc.constants.ExceptionCode;
 import io.joyrpc.exception.CodecException;
@@ -29,17 +31,22 @@ import io.joyrpc.exception.LafException;
 import io.joyrpc.exception.ProtocolException;
 import io.joyrpc.exception.SerializerException;
 import io.joyrpc.protocol.Protocol.MessageConverter;
+import io.joyrpc.protocol.message.Invocation;
 import io.joyrpc.protocol.message.MessageHeader;
 import io.joyrpc.protocol.message.RequestMessage;
 import io.joyrpc.protocol.message.ResponseMessage;
+import io.joyrpc.protocol.message.ResponsePayload;
 import io.joyrpc.transport.buffer.ChannelBuffer;
+import io.joyrpc.transport.channel.Channel;
 import io.joyrpc.transport.codec.Codec;
 import io.joyrpc.transport.codec.DecodeContext;
 import io.joyrpc.transport.codec.EncodeContext;
 import io.joyrpc.transport.codec.LengthFieldFrameCodec;
 import io.joyrpc.transport.message.Header;
+import io.joyrpc.transport.message.LazyMessage;
 import io.joyrpc.transport.message.Message;
 import io.joyrpc.transport.session.Session;
+import io.joyrpc.util.ByteMap;
 import io.joyrpc.util.StringUtils;
 import io.joyrpc.util.SystemClock;
 
@@ -48,7 +55,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -60,6 +66,11 @@ import static io.joyrpc.Plugin.SERIALIZATION_SELECTOR;
  */
 public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
 
+    /**
+     * 开启压缩的阈值
+     */
+    protected static final int COMPRESS_THRESHOLD = 2048;
+
     /**
      * 协议
      */
@@ -256,50 +267,69 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
         int pos = buffer.writerIndex();
         buffer.setByte(pos++, size);
         if (size > 0) {
-            byte key;
-            Object val;
-            for (Map.Entry<Byte, Object> attr : attributes.entrySet()) {
-                key = attr.getKey();
-                val = attr.getValue();
-                if (val != null) {
-                    if (val instanceof Integer) {
-                        buffer.ensureWritable(6);
-                        buffer.setByte(pos++, key);
-                        buffer.setByte(pos++, (byte) 1);
-                        buffer.setInt(pos, (Integer) val);
-                        pos += 4;
-                    } else if (val instanceof String) {
-                        byte[] bytes = ((String) val).getBytes(StandardCharsets.UTF_8);
-                        int length = bytes.length;
-                        buffer.ensureWritable(4 + length);
-                        buffer.setByte(pos++, key);
-                        buffer.setByte(pos++, (byte) 2);
-                        buffer.setShort(pos, length);
-                        pos += 2;
-                        if (length > 0) {
-                            buffer.setBytes(pos, bytes, 0, length);
-                            pos += bytes.length;
-                        }
-                    } else if (val instanceof Byte) {
-                        buffer.ensureWritable(3);
-                        buffer.setByte(pos++, key);
-                        buffer.setByte(pos++, (byte) 3);
-                        buffer.setByte(pos++, (Byte) val);
-                    } else if (val instanceof Short) {
-                        buffer.ensureWritable(4);
-                        buffer.setByte(pos++, key);
-                        buffer.setByte(pos++, (byte) 4);
-                        buffer.setShort(pos, (Short) val);
-                        pos += 2;
-                    } else {
-                        throw new CodecException("Value of attrs in message header must be byte/short/int/string", ExceptionCode.CODEC_HEADER_FORMAT_EXCEPTION);
-                    }
+            if (attributes instanceof ByteMap) {
+                //按下标遍历，避免创建迭代器和Entry
+                ByteMap<Object> map = (ByteMap<Object>) attributes;
+                for (int i = 0; i < size; i++) {
+                    pos = encodeAttribute(buffer, pos, map.keyAt(i), map.valueAt(i));
+                }
+            } else {
+                for (Map.Entry<Byte, Object> attr : attributes.entrySet()) {
+                    pos = encodeAttribute(buffer, pos, attr.getKey(), attr.getValue());
                 }
             }
         }
         buffer.writerIndex(pos);
     }
 
+    /**
+     * 编码单个扩展属性
+     *
+     * @param buffer 缓冲区
+     * @param pos    写入位置
+     * @param key    键
+     * @param val    值
+     * @return 新的写入位置
+     */
+    protected int encodeAttribute(final ChannelBuffer buffer, int pos, final byte key, final Object val) {
+        if (val == null) {
+            return pos;
+        }
+        if (val instanceof Integer) {
+            buffer.ensureWritable(6);
+            buffer.setByte(pos++, key);
+            buffer.setByte(pos++, (byte) 1);
+            buffer.setInt(pos, (Integer) val);
+            pos += 4;
+        } else if (val instanceof String) {
+            byte[] bytes = ((String) val).getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            buffer.ensureWritable(4 + length);
+            buffer.setByte(pos++, key);
+            buffer.setByte(pos++, (byte) 2);
+            buffer.setShort(pos, length);
+            pos += 2;
+            if (length > 0) {
+                buffer.setBytes(pos, bytes, 0, length);
+                pos += bytes.length;
+            }
+        } else if (val instanceof Byte) {
+            buffer.ensureWritable(3);
+            buffer.setByte(pos++, key);
+            buffer.setByte(pos++, (byte) 3);
+            buffer.setByte(pos++, (Byte) val);
+        } else if (val instanceof Short) {
+            buffer.ensureWritable(4);
+            buffer.setByte(pos++, key);
+            buffer.setByte(pos++, (byte) 4);
+            buffer.setShort(pos, (Short) val);
+            pos += 2;
+        } else {
+            throw new CodecException("Value of attrs in message header must be byte/short/int/string", ExceptionCode.CODEC_HEADER_FORMAT_EXCEPTION);
+        }
+        return pos;
+    }
+
     /**
      * 编码消息体
      *
@@ -320,24 +350,78 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
 
         if (header.getCompression() > 0) {
             Compression compression = COMPRESSION_SELECTOR.select(header.getCompression());
+            Channel channel = context.getChannel();
+            //按照方法和对端自适应选择压缩算法
+            CompressionAdvisor advisor = compression == null ? null : getCompressionAdvisor(channel);
+            String key = advisor == null ? null : getCompressionKey(message);
+            Session session = compression == null || channel == null ? null : channel.getSession(header.getSessionId());
+            if (key != null) {
+                compression = advisor.select(key, compression, session == null ? null : session.getCompressions());
+            }
+            //绑定会话协商的共享字典
+            compression = DictionaryCompression.bind(compression, session);
+            int writerIndex = buffer.writerIndex();
+            long startTime = key == null ? 0 : System.nanoTime();
             if (compression != null) {
-                //自适应压缩
-                AdaptiveCompressOutputStream acos = new AdaptiveCompressOutputStream(buffer, compression, 2048);
+                //自适应压缩，零拷贝模式下使用连接通道分配的池化缓冲区进行暂存
+                AdaptiveCompressOutputStream acos = channel != null && channel.getAttribute(Channel.BUFFER_ZERO_COPY, false) ?
+                        new AdaptiveCompressOutputStream(buffer, compression, COMPRESS_THRESHOLD, channel::buffer) :
+                        new AdaptiveCompressOutputStream(buffer, compression, COMPRESS_THRESHOLD);
                 serialize(serialization, acos, message, context);
                 //压缩完成，写完结束标识
                 acos.finish();
                 //输出
                 acos.flush();
                 //动态压缩设置
-                buffer.setByte(compress, !acos.isCompressed() ? Compression.NONE : header.getCompression());
+                buffer.setByte(compress, !acos.isCompressed() ? Compression.NONE : compression.getTypeId());
+                if (key != null && acos.isCompressed()) {
+                    advisor.feedback(key, compression, acos.getTotal(), buffer.writerIndex() - writerIndex, System.nanoTime() - startTime);
+                }
                 return;
             } else {
                 buffer.setByte(compress, Compression.NONE);
+                if (key != null) {
+                    serialize(serialization, buffer.outputStream(), message, context);
+                    int size = buffer.writerIndex() - writerIndex;
+                    if (size >= COMPRESS_THRESHOLD) {
+                        advisor.feedback(key, null, size, size, System.nanoTime() - startTime);
+                    }
+                    return;
+                }
             }
         }
         serialize(serialization, buffer.outputStream(), message, context);
     }
 
+    /**
+     * 获取自适应压缩选择器
+     *
+     * @param channel 连接通道
+     * @return 自适应压缩选择器
+     */
+    protected CompressionAdvisor getCompressionAdvisor(final Channel channel) {
+        return channel == null || !channel.getAttribute(Channel.COMPRESS_ADAPTIVE, false) ? null :
+                channel.getAttribute(Channel.COMPRESSION_ADVISOR, o -> new CompressionAdvisor());
+    }
+
+    /**
+     * 获取自适应压缩的统计键，请求和应答都按照接口方法
+     *
+     * @param message 消息
+     * @return 统计键，返回null表示不进行自适应压缩
+     */
+    protected String getCompressionKey(final Message message) {
+        Object payload = message.getPayLoad();
+        if (payload instanceof Invocation) {
+            Invocation invocation = (Invocation) payload;
+            return invocation.getClassName() + "." + invocation.getMethodName();
+        } else if (message instanceof ResponseMessage && payload instanceof ResponsePayload) {
+            //应答的统计键在创建的时候由请求的接口方法确定
+            return ((ResponseMessage<?>) message).getCompressionKey();
+        }
+        return null;
+    }
+
     /**
      * 编码阶段根据协议和序列化对消息体进行调整
      *
@@ -384,6 +468,10 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
             //进行转换
             MessageConverter converter = protocol.inMessage();
             header = convert(header, converter);
+            if (buffer.readableBytes() > 0 && isLazy(context)) {
+                //延迟解码，保留数据帧，由业务线程进行反序列化
+                return new LazyFrame(context, header, converter, buffer.readRetainedSlice(buffer.readableBytes()));
+            }
             return convert(decodeMessage(context, buffer, header), converter);
         } catch (CodecException e) {
             e.setHeader(header);
@@ -395,6 +483,17 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
         }
     }
 
+    /**
+     * 判断是否延迟解码消息体
+     *
+     * @param context 上下文
+     * @return 延迟解码标识
+     */
+    protected boolean isLazy(final DecodeContext context) {
+        Channel channel = context.getChannel();
+        return channel != null && channel.getAttribute(Channel.DECODE_LAZY, false);
+    }
+
     /**
      * 解码消息头
      *
@@ -511,7 +610,8 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
         if (size <= 0) {
             return null;
         }
-        Map<Byte, Object> attributes = new HashMap<>(size);
+        //紧凑的数组映射，容量和属性个数一致
+        ByteMap<Object> attributes = new ByteMap<>(size);
         byte key;
         byte type;
         for (int i = 0; i < size; i++) {
@@ -519,16 +619,16 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
             type = buffer.readByte();
             switch (type) {
                 case 1:
-                    attributes.put(key, buffer.readInt());
+                    attributes.putValue(key, buffer.readInt());
                     break;
                 case 2:
-                    attributes.put(key, buffer.readString(null, true));
+                    attributes.putValue(key, buffer.readString(null, true));
                     break;
                 case 3:
-                    attributes.put(key, buffer.readByte());
+                    attributes.putValue(key, buffer.readByte());
                     break;
                 case 4:
-                    attributes.put(key, buffer.readShort());
+                    attributes.putValue(key, buffer.readShort());
                     break;
                 default:
                     throw new CodecException("Value of attrs in message header must be byte/short/int/string", ExceptionCode.CODEC_HEADER_FORMAT_EXCEPTION);
@@ -564,6 +664,78 @@ public abstract class AbstractCodec implements Codec, LengthFieldFrameCodec {
 
     }
 
+    /**
+     * 延迟解码的数据帧
+     */
+    protected class LazyFrame implements LazyMessage {
+        /**
+         * 上下文
+         */
+        protected final DecodeContext context;
+        /**
+         * 消息头
+         */
+        protected final Header header;
+        /**
+         * 转换器
+         */
+        protected final MessageConverter converter;
+        /**
+         * 保留的消息体数据
+         */
+        protected final ChannelBuffer buffer;
+        /**
+         * 接收时间
+         */
+        protected final long receiveTime;
+        /**
+         * 释放标识
+         */
+        protected boolean released;
+
+        public LazyFrame(DecodeContext context, Header header, MessageConverter converter, ChannelBuffer buffer) {
+            this.context = context;
+            this.header = header;
+            this.converter = converter;
+            this.buffer = buffer;
+            this.receiveTime = SystemClock.now();
+        }
+
+        @Override
+        public Header getHeader() {
+            return header;
+        }
+
+        @Override
+        public Object decode() throws CodecException {
+            try {
+                Object result = decodeMessage(context, buffer, header);
+                if (result instanceof RequestMessage) {
+                    //以IO线程收到的时间为准，便于计算排队时间
+                    ((RequestMessage) result).setReceiveTime(receiveTime);
+                }
+                return convert(result, converter);
+            } catch (CodecException e) {
+                e.setHeader(header);
+                throw e;
+            } catch (Exception e) {
+                CodecException ce = toCodecException("Error occurs while decoding.", e);
+                ce.setHeader(header);
+                throw ce;
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public void release() {
+            if (!released) {
+                released = true;
+                buffer.release();
+            }
+        }
+    }
+
     /**
      * 为空
      */
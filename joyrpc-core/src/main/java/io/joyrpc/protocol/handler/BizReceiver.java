@@ -349,6 +349,11 @@ public class BizReceiver extends AbstractReceiver {
                     new ResponseMessage<>(header.response(MsgType.BizResp.getType(),
                             compressType != null ? compressType :
                                     (session == null ? Compression.NONE : session.getCompressionType())));
+            //应答按照请求的接口方法统计压缩效果
+            Invocation invocation = request.getPayLoad();
+            if (invocation != null) {
+                response.setCompressionKey(invocation.getClassName() + "." + invocation.getMethodName());
+            }
             return response;
         }
 
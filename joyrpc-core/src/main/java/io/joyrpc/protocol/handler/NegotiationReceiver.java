@@ -21,6 +21,7 @@ package io.joyrpc.protocol.handler;
  */
 
 import io.joyrpc.Invoker;
+import io.joyrpc.codec.compression.DictionaryCompression;
 import io.joyrpc.constants.Version;
 import io.joyrpc.context.GlobalContext;
 import io.joyrpc.extension.Converts;
@@ -75,6 +76,8 @@ public class NegotiationReceiver extends AbstractNegotiationHandler {
             response.addAttribute(APPLICATION_NAME, GlobalContext.getString(KEY_APPNAME));
             response.addAttribute(APPLICATION_INSTANCE, GlobalContext.getString(KEY_APPINSID));
             response.addAttribute(APPLICATION_GROUP, GlobalContext.getString(KEY_APPGROUP));
+            //选择双方都有的共享字典
+            DictionaryCompression.negotiate(attributes, response::addAttribute);
         }
         return response;
     }
@@ -96,6 +99,7 @@ public class NegotiationReceiver extends AbstractNegotiationHandler {
         session.setCompressions(negotiation.getCompressions());
         session.setChecksums(negotiation.getChecksums());
         session.putAll(attributes);
+        DictionaryCompression.negotiate(attributes, session::put);
         //提前绑定Exporter
         session.setExporter(ServiceManager.getExporter(session.getInterfaceName(), session.getAlias(),
                 session.localAddress.getPort()));
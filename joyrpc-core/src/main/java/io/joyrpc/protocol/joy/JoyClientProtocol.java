@@ -20,6 +20,7 @@ package io.joyrpc.protocol.joy;
  * #L%
  */
 
+import io.joyrpc.codec.compression.DictionaryCompression;
 import io.joyrpc.constants.Constants;
 import io.joyrpc.constants.Version;
 import io.joyrpc.context.GlobalContext;
@@ -94,6 +95,8 @@ public class JoyClientProtocol extends AbstractProtocol implements ClientProtoco
         negotiation.addAttribute(Constants.APPLICATION_INSTANCE, GlobalContext.getString(Constants.KEY_APPINSID));
         negotiation.addAttribute(SESSION_TIMEOUT_OPTION.getName(), String.valueOf(clusterUrl.getPositiveLong(SESSION_TIMEOUT_OPTION)));
         negotiation.addAttribute(REMOTE_START_TIMESTAMP, GlobalContext.getString(Constants.KEY_START_TIME));
+        //共享字典压缩的本地字典
+        DictionaryCompression.offer(negotiation::addAttribute);
         //构造协商请求消息
         return new RequestMessage<>(new MessageHeader(MsgType.NegotiationReq.getType()), negotiation);
     }
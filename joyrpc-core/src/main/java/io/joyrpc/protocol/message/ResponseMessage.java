@@ -31,6 +31,10 @@ public class ResponseMessage<T> extends BaseMessage<T> implements Response {
      * 响应结果
      */
     protected T response;
+    /**
+     * 自适应压缩的统计键，由对应请求的接口和方法确定，不参与序列化
+     */
+    protected transient String compressionKey;
 
     /**
      * 构造函数
@@ -128,6 +132,14 @@ public class ResponseMessage<T> extends BaseMessage<T> implements Response {
         return false;
     }
 
+    public String getCompressionKey() {
+        return compressionKey;
+    }
+
+    public void setCompressionKey(String compressionKey) {
+        this.compressionKey = compressionKey;
+    }
+
     @Override
     public String toString() {
         return "ResponseMessage{" +
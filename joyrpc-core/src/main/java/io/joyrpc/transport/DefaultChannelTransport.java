@@ -25,6 +25,7 @@ import io.joyrpc.exception.ChannelSendException;
 import io.joyrpc.extension.URL;
 import io.joyrpc.transport.channel.Channel;
 import io.joyrpc.transport.channel.FutureManager;
+import io.joyrpc.transport.channel.PooledChannel;
 import io.joyrpc.transport.message.Message;
 import io.joyrpc.transport.session.Session;
 import io.joyrpc.util.Futures;
@@ -95,11 +96,12 @@ public class DefaultChannelTransport implements ChannelTransport {
         requests.incrementAndGet();
         CompletableFuture<Void> result = new CompletableFuture<>();
         if (message != null) {
-            message.setMsgId(channel.getFutureManager().nextMessageId());
+            Channel ch = channel instanceof PooledChannel ? ((PooledChannel) channel).select() : channel;
+            message.setMsgId(ch.getFutureManager().nextMessageId());
             message.setSessionId(transportId);
             message.setSession(session);
             try {
-                channel.send(message).whenComplete((v, error) -> {
+                ch.send(message).whenComplete((v, error) -> {
                     requests.decrementAndGet();
                     if (error == null) {
                         result.complete(null);
@@ -133,31 +135,81 @@ public class DefaultChannelTransport implements ChannelTransport {
                             Channel.toString(channel))));
         } else {
             int timeout = timeoutMillis <= 0 ? Constants.DEFAULT_TIMEOUT : timeoutMillis;
-            FutureManager<Long, Message> futureManager = channel.getFutureManager();
-            //设置id
-            message.setMsgId(futureManager.nextMessageId());
             message.setSessionId(transportId);
             message.setSession(session);
-            //创建 future
-            future = futureManager.create(message.getMsgId(), timeout, session, requests);
-            try {
-                channel.send(message).whenComplete((v, error) -> {
-                    if (error != null) {
-                        Throwable throwable = new ChannelSendException(error);
-                        futureManager.completeExceptionally(message.getMsgId(), throwable);
-                        logger.error("Failed sending message. caused by " + throwable.getMessage(), throwable);
-                    } else {
-                        lastRequestTime = SystemClock.now();
-                    }
-                });
-            } catch (Throwable e) {
-                //捕获系统异常
-                futureManager.completeExceptionally(message.getMsgId(), e);
+            if (channel instanceof PooledChannel) {
+                //连接池，业务请求选择正在处理请求最少的连接，会话消息在每个连接上依次发送
+                PooledChannel pool = (PooledChannel) channel;
+                if (pool.isBroadcast(message)) {
+                    future = new CompletableFuture<>();
+                    broadcast(pool.getChannels(), 0, message, timeout, null, future);
+                    future = future.whenComplete((r, e) -> requests.decrementAndGet());
+                } else {
+                    future = send(pool.select(), message, timeout, requests);
+                }
+            } else {
+                future = send(channel, message, timeout, requests);
             }
         }
         return future;
     }
 
+    /**
+     * 在指定连接上发送请求
+     *
+     * @param channel  连接
+     * @param message  消息
+     * @param timeout  超时时间
+     * @param requests 请求计数器
+     * @return CompletableFuture
+     */
+    protected CompletableFuture<Message> send(final Channel channel, final Message message, final int timeout,
+                                              final AtomicInteger requests) {
+        FutureManager<Long, Message> futureManager = channel.getFutureManager();
+        //设置id
+        message.setMsgId(futureManager.nextMessageId());
+        //创建 future
+        CompletableFuture<Message> future = futureManager.create(message.getMsgId(), timeout, session, requests);
+        try {
+            channel.send(message).whenComplete((v, error) -> {
+                if (error != null) {
+                    Throwable throwable = new ChannelSendException(error);
+                    futureManager.completeExceptionally(message.getMsgId(), throwable);
+                    logger.error("Failed sending message. caused by " + throwable.getMessage(), throwable);
+                } else {
+                    lastRequestTime = SystemClock.now();
+                }
+            });
+        } catch (Throwable e) {
+            //捕获系统异常
+            futureManager.completeExceptionally(message.getMsgId(), e);
+        }
+        return future;
+    }
+
+    /**
+     * 在每个连接上依次发送请求，收到上一个连接的应答后再发送，避免并发修改消息ID，返回第一个连接的应答
+     *
+     * @param channels 连接
+     * @param index    当前连接
+     * @param message  消息
+     * @param timeout  超时时间
+     * @param first    第一个连接的应答
+     * @param result   结果
+     */
+    protected void broadcast(final Channel[] channels, final int index, final Message message, final int timeout,
+                             final Message first, final CompletableFuture<Message> result) {
+        send(channels[index], message, timeout, null).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (index == channels.length - 1) {
+                result.complete(first == null ? response : first);
+            } else {
+                broadcast(channels, index + 1, message, timeout, first == null ? response : first, result);
+            }
+        });
+    }
+
     @Override
     public InetSocketAddress getRemoteAddress() {
         return channel.getRemoteAddress();
@@ -97,6 +97,18 @@ public interface ChannelBuffer {
 
     ChannelBuffer readSlice(int length);
 
+    /**
+     * 读取指定长度的数据片段，并增加引用计数，调用方负责释放
+     *
+     * @param length 长度
+     * @return 数据片段
+     */
+    default ChannelBuffer readRetainedSlice(final int length) {
+        ChannelBuffer result = copy(readerIndex(), length);
+        skipBytes(length);
+        return result;
+    }
+
     void setByte(int index, int value);
 
     void setBytes(int index, byte[] src);
@@ -129,6 +141,23 @@ public interface ChannelBuffer {
 
     int writeBytes(InputStream in, int length) throws IOException;
 
+    /**
+     * 从源缓冲区的指定位置拷贝数据，不修改源缓冲区的读写位置
+     *
+     * @param src      源缓冲区
+     * @param srcIndex 源缓冲区起始位置
+     * @param length   长度
+     */
+    default void writeBytes(final ChannelBuffer src, final int srcIndex, final int length) {
+        if (length <= 0) {
+            return;
+        }
+        ensureWritable(length);
+        int pos = writerIndex();
+        setBytes(pos, src.toByteBuffer(srcIndex, length));
+        writerIndex(pos + length);
+    }
+
     default int writeString(final String value) {
         return writeString(value, StandardCharsets.UTF_8, false, false);
     }
@@ -141,9 +141,23 @@ public abstract class AbstractChannelManager implements ChannelManager {
         protected PoolChannel(final TransportClient client,
                               final Connector connector,
                               final Consumer<PoolChannel> beforeClose) {
+            this(client.getName(), client, connector, beforeClose);
+        }
+
+        /**
+         * 构造函数
+         * @param name        名称
+         * @param client      客户端
+         * @param connector   连接器
+         * @param beforeClose 关闭前事件
+         */
+        protected PoolChannel(final String name,
+                              final TransportClient client,
+                              final Connector connector,
+                              final Consumer<PoolChannel> beforeClose) {
             super(null);
             this.publisher = client.getPublisher();
-            this.name = client.getName();
+            this.name = name;
             this.connector = connector;
             this.beforeClose = beforeClose;
             this.strategy = client.getHeartbeatStrategy();
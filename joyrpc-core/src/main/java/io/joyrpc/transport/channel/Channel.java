@@ -47,6 +47,24 @@ public interface Channel {
 
     String PROTOCOL = "PROTOCOL";
 
+    /**
+     * 零拷贝编码标识
+     */
+    String BUFFER_ZERO_COPY = "BUFFER_ZERO_COPY";
+
+    /**
+     * 延迟解码标识
+     */
+    String DECODE_LAZY = "DECODE_LAZY";
+    /**
+     * 自适应压缩标识
+     */
+    String COMPRESS_ADAPTIVE = "COMPRESS_ADAPTIVE";
+    /**
+     * 自适应压缩选择器
+     */
+    String COMPRESSION_ADVISOR = "COMPRESSION_ADVISOR";
+
     /**
      * 获取名称
      *
@@ -0,0 +1,190 @@
+package io.joyrpc.transport.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.protocol.MsgType;
+import io.joyrpc.transport.message.Message;
+import io.joyrpc.transport.session.Session;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 连接池通道，由多个连接组成。<br/>
+ * 业务请求选择正在处理请求最少的连接；会话需要在每个连接上建立，握手和会话心跳等消息需要在每个连接上发送。
+ */
+public class PooledChannel extends DecoratorChannel {
+
+    /**
+     * 连接
+     */
+    protected final Channel[] channels;
+
+    public PooledChannel(final Channel[] channels) {
+        super(channels[0]);
+        this.channels = channels;
+    }
+
+    public Channel[] getChannels() {
+        return channels;
+    }
+
+    /**
+     * 选择正在处理请求最少的连接，从随机位置开始比较，请求数相同的时候分散到不同的连接
+     *
+     * @return 连接
+     */
+    public Channel select() {
+        int length = channels.length;
+        int start = ThreadLocalRandom.current().nextInt(length);
+        Channel result = null;
+        int min = Integer.MAX_VALUE;
+        Channel ch;
+        int size;
+        for (int i = 0; i < length; i++) {
+            ch = channels[(start + i) % length];
+            if (ch.isActive()) {
+                size = ch.getFutureManager().size();
+                if (size < min) {
+                    min = size;
+                    result = ch;
+                }
+            }
+        }
+        return result == null ? channels[start] : result;
+    }
+
+    /**
+     * 是否需要在每个连接上发送
+     *
+     * @param message 消息
+     * @return 广播标识
+     */
+    public boolean isBroadcast(final Message message) {
+        int type = message.getMsgType();
+        return type == MsgType.NegotiationReq.getType()
+                || type == MsgType.AuthenticationReq.getType()
+                || type == MsgType.SessionReq.getType()
+                || type == MsgType.SessionbeatReq.getType();
+    }
+
+    @Override
+    public CompletableFuture<Channel> close() {
+        CompletableFuture<Channel>[] futures = new CompletableFuture[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            futures[i] = channels[i].close();
+        }
+        CompletableFuture<Channel> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures).whenComplete((v, error) -> result.complete(this));
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> send(final Object object) {
+        return select().send(object);
+    }
+
+    @Override
+    public boolean isWritable() {
+        for (Channel ch : channels) {
+            if (ch.isWritable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isActive() {
+        //任何一个连接断开，都需要重连
+        for (Channel ch : channels) {
+            if (!ch.isActive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Channel setAttribute(final String key, final Object value) {
+        for (Channel ch : channels) {
+            ch.setAttribute(key, value);
+        }
+        return this;
+    }
+
+    @Override
+    public Object removeAttribute(final String key) {
+        Object result = null;
+        for (Channel ch : channels) {
+            Object value = ch.removeAttribute(key);
+            result = result == null ? value : result;
+        }
+        return result;
+    }
+
+    @Override
+    public Session addSession(final int sessionId, final Session session) {
+        Session result = null;
+        for (Channel ch : channels) {
+            Session old = ch.addSession(sessionId, session);
+            result = result == null ? old : result;
+        }
+        return result;
+    }
+
+    @Override
+    public Session addIfAbsentSession(final int sessionId, final Session session) {
+        Session result = null;
+        for (Channel ch : channels) {
+            Session old = ch.addIfAbsentSession(sessionId, session);
+            result = result == null ? old : result;
+        }
+        return result;
+    }
+
+    @Override
+    public Session removeSession(final int sessionId) {
+        Session result = null;
+        for (Channel ch : channels) {
+            Session old = ch.removeSession(sessionId);
+            result = result == null ? old : result;
+        }
+        return result;
+    }
+
+    @Override
+    public void evictSession() {
+        for (Channel ch : channels) {
+            ch.evictSession();
+        }
+    }
+
+    @Override
+    public boolean beatSession(final int sessionId) {
+        boolean result = true;
+        for (Channel ch : channels) {
+            result &= ch.beatSession(sessionId);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.joyrpc.transport.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.ConnectionException;
+import io.joyrpc.extension.URL;
+import io.joyrpc.transport.TransportClient;
+import io.joyrpc.util.Futures;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static io.joyrpc.constants.Constants.CHANNEL_POOL_SIZE_OPTION;
+
+/**
+ * 连接池通道管理器，每个节点建立多个共享连接，连接分散在不同的IO线程上，业务请求选择正在处理请求最少的连接
+ */
+public class PooledChannelManager extends AbstractChannelManager implements ChannelManager {
+
+    /**
+     * 每个节点的连接数
+     */
+    protected final int size;
+
+    public PooledChannelManager(URL url) {
+        super(url);
+        this.size = url.getPositive(CHANNEL_POOL_SIZE_OPTION.getName(), CHANNEL_POOL_SIZE_OPTION.getValue());
+    }
+
+    @Override
+    public CompletableFuture<Channel> connect(final TransportClient client, final Connector connector) {
+        if (client == null) {
+            return Futures.completeExceptionally(new ConnectionException("client can not be null."));
+        } else if (connector == null) {
+            return Futures.completeExceptionally(new ConnectionException("connector can not be null."));
+        } else if (size == 1) {
+            return super.connect(client, connector);
+        }
+        String name = client.getName();
+        CompletableFuture<Channel>[] futures = new CompletableFuture[size];
+        for (int i = 0; i < size; i++) {
+            //每个连接单独计数，和共享模式一样在最后一个客户端关闭的时候关闭
+            PoolChannel channel = channels.computeIfAbsent(name + "#" + i, o -> new PoolChannel(o, client, connector, beforeClose));
+            futures[i] = channel.open();
+        }
+        CompletableFuture<Channel> result = new CompletableFuture<>();
+        CompletableFuture.allOf(futures).whenComplete((v, error) -> {
+            if (error == null) {
+                Channel[] members = new Channel[size];
+                for (int i = 0; i < size; i++) {
+                    members[i] = futures[i].join();
+                }
+                result.complete(new PooledChannel(members));
+            } else {
+                //关闭已经打开的连接
+                for (CompletableFuture<Channel> future : futures) {
+                    future.whenComplete((ch, e) -> {
+                        if (e == null) {
+                            ch.close();
+                        }
+                    });
+                }
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public String getName(final TransportClient transport) {
+        return transport == null ? null : transport.getUrl().toString(false, false);
+    }
+
+}
@@ -121,6 +121,18 @@ public class RequestFuture<I, M> extends CompletableFuture<M> {
         return false;
     }
 
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        //调用方取消请求，立即释放请求计数。保留超时任务，应答一直没有到达的时候由它把Future从管理器中移除
+        if (super.cancel(mayInterruptIfRunning)) {
+            if (requests != null) {
+                requests.decrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
     /**
      * 放弃过期检查任务，在从Future管理器移除任务会进行调用
      */
@@ -0,0 +1,327 @@
+package io.joyrpc.transport.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.ChannelClosedException;
+import io.joyrpc.transport.session.Session;
+import io.joyrpc.util.SystemClock;
+import io.joyrpc.util.Timer.TimeTask;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static io.joyrpc.constants.Constants.FUTURE_TIMEOUT_PREFIX;
+import static io.joyrpc.util.Timer.timer;
+
+/**
+ * 基于环形数组的Future管理器，按照消息ID的低位直接定位槽位，避免哈希查找。<br/>
+ * 槽位中保存的Future的消息ID和请求的消息ID一致才认为命中，槽位冲突时降级到父类的哈希表。<br/>
+ * 超时不再为每个请求注册定时任务，而是每个连接一个扫描任务批量检查，有请求的时候才运行，
+ * 并且记录最早的截止时间，没有到期的请求时不扫描。
+ */
+public class RingFutureManager<M> extends FutureManager<Long, M> {
+
+    /**
+     * 扫描间隔（毫秒），全局定时器的精度为200毫秒
+     */
+    protected static final long SWEEP_INTERVAL = 100;
+
+    /**
+     * 环形数组
+     */
+    protected final AtomicReferenceArray<DeadlineFuture<M>> ring;
+    /**
+     * 掩码
+     */
+    protected final int mask;
+    /**
+     * 环形数组中的请求数
+     */
+    protected final AtomicInteger slots = new AtomicInteger();
+    /**
+     * 最早的截止时间，只会提前，不会比实际的最早截止时间晚
+     */
+    protected final AtomicLong earliest = new AtomicLong(Long.MAX_VALUE);
+    /**
+     * 降级到哈希表的锁
+     */
+    protected final Object mutex = new Object();
+    /**
+     * 扫描任务是否在运行
+     */
+    protected final AtomicBoolean sweeping = new AtomicBoolean();
+    /**
+     * 扫描任务
+     */
+    protected final SweepTask sweepTask;
+
+    /**
+     * 构造函数
+     *
+     * @param channel           连接通道
+     * @param msgIdGenerator    消息ID生成器
+     * @param streamIdGenerator 流式ID生成器
+     * @param capacity          容量，会调整为2的幂
+     */
+    public RingFutureManager(final Channel channel,
+                             final Supplier<Long> msgIdGenerator,
+                             final Supplier<Integer> streamIdGenerator,
+                             final int capacity) {
+        super(channel, msgIdGenerator, streamIdGenerator);
+        int size = capacity <= 1 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.sweepTask = new SweepTask(this);
+    }
+
+    @Override
+    protected RequestFuture<Long, M> create(final Long messageId,
+                                            final long timeoutMillis,
+                                            final Session session,
+                                            final AtomicInteger requests,
+                                            final BiConsumer<M, Throwable> afterRun) {
+        long id = messageId;
+        int index = (int) id & mask;
+        DeadlineFuture<M> future = ring.get(index);
+        if (future != null && future.messageId == id) {
+            return future;
+        }
+        //和父类的computeIfAbsent保持一致，同一个消息ID只有一个Future
+        RequestFuture<Long, M> exists = futures.isEmpty() ? null : futures.get(messageId);
+        if (exists != null) {
+            return exists;
+        }
+        DeadlineFuture<M> result = new DeadlineFuture<>(messageId, session, requests, afterRun, SystemClock.now() + timeoutMillis);
+        if (future == null && ring.compareAndSet(index, null, result)) {
+            if (!futures.isEmpty()) {
+                synchronized (mutex) {
+                    //并发降级到了哈希表，撤销
+                    exists = futures.get(messageId);
+                    if (exists != null) {
+                        ring.compareAndSet(index, result, null);
+                        return exists;
+                    }
+                }
+            }
+            slots.incrementAndGet();
+            counter.incrementAndGet();
+        } else {
+            //槽位被其它在途请求占用，降级到哈希表，很少发生，加锁和放入环形数组的检查互斥
+            synchronized (mutex) {
+                exists = futures.putIfAbsent(messageId, result);
+                if (exists != null) {
+                    return exists;
+                }
+                future = ring.get(index);
+                if (future != null && future.messageId == id) {
+                    //并发放入了环形数组，撤销
+                    futures.remove(messageId, result);
+                    return future;
+                }
+            }
+            counter.incrementAndGet();
+        }
+        //先放入再更新截止时间，确保扫描不会遗漏
+        earliest.accumulateAndGet(result.deadline, Math::min);
+        if (sweeping.compareAndSet(false, true)) {
+            sweepTask.schedule();
+        }
+        return result;
+    }
+
+    @Override
+    public RequestFuture<Long, M> get(final Long messageId) {
+        long id = messageId;
+        DeadlineFuture<M> future = ring.get((int) id & mask);
+        return future != null && future.messageId == id ? future : futures.get(messageId);
+    }
+
+    @Override
+    protected boolean complete(final Long messageId, final M message, final Throwable throwable) {
+        long id = messageId;
+        int index = (int) id & mask;
+        DeadlineFuture<M> future = ring.get(index);
+        if (future != null && future.messageId == id) {
+            if (ring.compareAndSet(index, future, null)) {
+                slots.decrementAndGet();
+                counter.decrementAndGet();
+                return throwable != null ? future.completeExceptionally(throwable) : future.complete(message);
+            }
+            return false;
+        }
+        return super.complete(messageId, message, throwable);
+    }
+
+    @Override
+    public void close() {
+        Exception exception = new ChannelClosedException("channel is inactive, address is " + channel.getRemoteAddress());
+        DeadlineFuture<M> future;
+        for (int i = 0; i < ring.length(); i++) {
+            future = ring.getAndSet(i, null);
+            if (future != null) {
+                slots.decrementAndGet();
+                future.completeExceptionally(exception);
+            }
+        }
+        super.close();
+    }
+
+    /**
+     * 扫描超时的请求
+     *
+     * @return 是否还有待应答的请求
+     */
+    protected boolean sweep() {
+        long now = SystemClock.now();
+        if (now < earliest.get()) {
+            //没有到期的请求
+            return !isEmpty();
+        }
+        //重置后再扫描，扫描期间新增的请求会自己更新截止时间
+        earliest.set(Long.MAX_VALUE);
+        long next = Long.MAX_VALUE;
+        DeadlineFuture<M> future;
+        if (slots.get() > 0) {
+            for (int i = 0; i < ring.length(); i++) {
+                future = ring.get(i);
+                if (future != null) {
+                    if (future.deadline > now) {
+                        next = Math.min(next, future.deadline);
+                    } else if (ring.compareAndSet(i, future, null)) {
+                        slots.decrementAndGet();
+                        counter.decrementAndGet();
+                        future.completeExceptionally(new TimeoutException("future is timeout."));
+                    }
+                }
+            }
+        }
+        if (!futures.isEmpty()) {
+            for (RequestFuture<Long, M> f : futures.values()) {
+                future = (DeadlineFuture<M>) f;
+                if (future.deadline > now) {
+                    next = Math.min(next, future.deadline);
+                } else {
+                    super.complete(future.messageId, null, new TimeoutException("future is timeout."));
+                }
+            }
+        }
+        earliest.accumulateAndGet(next, Math::min);
+        return !isEmpty();
+    }
+
+    /**
+     * 带截止时间的Future
+     *
+     * @param <M>
+     */
+    protected static class DeadlineFuture<M> extends RequestFuture<Long, M> {
+        /**
+         * 消息ID
+         */
+        protected final long messageId;
+        /**
+         * 截止时间
+         */
+        protected final long deadline;
+
+        /**
+         * 构造函数
+         *
+         * @param messageId 消息ID
+         * @param session   会话
+         * @param requests  正在处理的请求数
+         * @param consumer  结束后执行
+         * @param deadline  截止时间
+         */
+        public DeadlineFuture(final Long messageId,
+                              final Session session,
+                              final AtomicInteger requests,
+                              final BiConsumer<M, Throwable> consumer,
+                              final long deadline) {
+            super(messageId, session, null, requests, consumer);
+            this.messageId = messageId;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * 超时扫描任务，没有待应答请求的时候停止，有新请求的时候重新启动
+     */
+    protected static class SweepTask implements TimeTask {
+        /**
+         * Future管理器
+         */
+        protected final RingFutureManager<?> manager;
+        /**
+         * 名称
+         */
+        protected final String name;
+        /**
+         * 执行时间
+         */
+        protected long time;
+
+        /**
+         * 构造函数
+         *
+         * @param manager Future管理器
+         */
+        public SweepTask(final RingFutureManager<?> manager) {
+            this.manager = manager;
+            this.name = FUTURE_TIMEOUT_PREFIX + "sweep-" + System.identityHashCode(manager);
+        }
+
+        /**
+         * 调度下一次扫描
+         */
+        protected void schedule() {
+            time = SystemClock.now() + SWEEP_INTERVAL;
+            timer().add(this);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+
+        @Override
+        public void run() {
+            if (!manager.sweep()) {
+                manager.sweeping.set(false);
+                //防止停止的同时有新的请求进来
+                if (manager.isEmpty() || !manager.sweeping.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.joyrpc.transport.message;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.CodecException;
+
+/**
+ * 延迟解码的消息，IO线程只解析消息头并保留数据帧，由业务线程完成消息体的解码
+ */
+public interface LazyMessage {
+
+    /**
+     * 获取消息头
+     *
+     * @return 消息头
+     */
+    Header getHeader();
+
+    /**
+     * 解码消息体，解码完成后释放保留的数据帧
+     *
+     * @return 解码后的消息
+     * @throws CodecException 解码异常
+     */
+    Object decode() throws CodecException;
+
+    /**
+     * 释放保留的数据帧，用于消息被丢弃的场景
+     */
+    void release();
+}
@@ -0,0 +1,300 @@
+package io.joyrpc.util;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.*;
+
+/**
+ * 以byte为键的紧凑映射，采用数组存储并线性查找，适合消息头扩展属性这类元素很少的场景，
+ * 避免HashMap的节点和桶数组分配。非线程安全。
+ *
+ * @param <V>
+ */
+public class ByteMap<V> extends AbstractMap<Byte, V> {
+
+    protected static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * 键
+     */
+    protected byte[] keys;
+    /**
+     * 值
+     */
+    protected Object[] values;
+    /**
+     * 元素个数
+     */
+    protected int size;
+
+    /**
+     * 构造函数
+     */
+    public ByteMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 初始容量
+     */
+    public ByteMap(final int capacity) {
+        int cap = Math.max(capacity, 1);
+        this.keys = new byte[cap];
+        this.values = new Object[cap];
+    }
+
+    /**
+     * 查找键的位置
+     *
+     * @param key 键
+     * @return 位置，不存在返回-1
+     */
+    protected int indexOf(final byte key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取指定位置的键，用于无分配遍历
+     *
+     * @param index 位置
+     * @return 键
+     */
+    public byte keyAt(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index:" + index + ", size:" + size);
+        }
+        return keys[index];
+    }
+
+    /**
+     * 获取指定位置的值，用于无分配遍历
+     *
+     * @param index 位置
+     * @return 值
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index:" + index + ", size:" + size);
+        }
+        return (V) values[index];
+    }
+
+    /**
+     * 获取值
+     *
+     * @param key 键
+     * @return 值
+     */
+    @SuppressWarnings("unchecked")
+    public V get(final byte key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    public V get(final Object key) {
+        return key instanceof Byte ? get(((Byte) key).byteValue()) : null;
+    }
+
+    /**
+     * 判断是否包含键
+     *
+     * @param key 键
+     * @return 包含标识
+     */
+    public boolean containsKey(final byte key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return key instanceof Byte && indexOf((Byte) key) >= 0;
+    }
+
+    /**
+     * 添加值
+     *
+     * @param key   键
+     * @param value 值
+     * @return 原值
+     */
+    @SuppressWarnings("unchecked")
+    public V putValue(final byte key, final V value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            V old = (V) values[index];
+            values[index] = value;
+            return old;
+        }
+        if (size == keys.length) {
+            int capacity = size << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size++] = value;
+        return null;
+    }
+
+    @Override
+    public V put(final Byte key, final V value) {
+        if (key == null) {
+            throw new NullPointerException("key can not be null.");
+        }
+        return putValue(key, value);
+    }
+
+    /**
+     * 删除值
+     *
+     * @param key 键
+     * @return 原值
+     */
+    public V remove(final byte key) {
+        int index = indexOf(key);
+        return index < 0 ? null : removeAt(index);
+    }
+
+    @Override
+    public V remove(final Object key) {
+        return key instanceof Byte ? remove(((Byte) key).byteValue()) : null;
+    }
+
+    /**
+     * 删除指定位置的元素
+     *
+     * @param index 位置
+     * @return 原值
+     */
+    @SuppressWarnings("unchecked")
+    protected V removeAt(final int index) {
+        V old = (V) values[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        values[--size] = null;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<Byte, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * 元素集合
+     */
+    protected class EntrySet extends AbstractSet<Entry<Byte, V>> {
+
+        @Override
+        public Iterator<Entry<Byte, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * 元素迭代器
+     */
+    protected class EntryIterator implements Iterator<Entry<Byte, V>> {
+        /**
+         * 下一个位置
+         */
+        protected int next;
+        /**
+         * 上一次返回的位置
+         */
+        protected int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<Byte, V> next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new ByteEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    /**
+     * 元素
+     */
+    protected class ByteEntry extends SimpleEntry<Byte, V> {
+
+        protected final int index;
+
+        public ByteEntry(final int index) {
+            super(keys[index], valueAt(index));
+            this.index = index;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            values[index] = value;
+            return super.setValue(value);
+        }
+    }
+}
@@ -27,12 +27,15 @@ import io.joyrpc.util.thread.NamedThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 import static io.joyrpc.Plugin.ENVIRONMENT;
@@ -45,6 +48,11 @@ public class Timer {
 
     private final static Logger logger = LoggerFactory.getLogger(Timer.class);
 
+    /**
+     * 最大分段数
+     */
+    protected static final int MAX_STRIPES = 16;
+
     /**
      * 默认定时器
      */
@@ -67,17 +75,37 @@ public class Timer {
      */
     protected ExecutorService bossPool;
     /**
-     * 放弃的任务
+     * 放弃的任务，按照线程分段，减少并发竞争
      */
-    protected Queue<Task> cancels = new ConcurrentLinkedQueue<>();
+    protected Queue<Task>[] cancels;
     /**
-     * 待分配的任务，防止并发
+     * 待分配的任务，按照线程分段，减少并发竞争
      */
-    protected Queue<Task> flying = new ConcurrentLinkedQueue<>();
+    protected Queue<Task>[] flying;
     /**
-     * 待处理的任务计数
+     * 分段掩码
+     */
+    protected int stripeMask;
+    /**
+     * 待处理的任务计数，限制了最大待处理任务时使用，精确控制上限
      */
     protected AtomicLong tasks = new AtomicLong(0);
+    /**
+     * 待处理的任务计数，没有限制最大待处理任务时使用，减少并发竞争
+     */
+    protected LongAdder counter = new LongAdder();
+    /**
+     * 下一次添加任务的起始分段，由轮询线程轮转，避免后面的分段饥饿
+     */
+    protected int supplyStripe;
+    /**
+     * 最近一次时间槽到期的执行延迟（毫秒）
+     */
+    protected volatile long tickLag;
+    /**
+     * 最大的时间槽执行延迟（毫秒）
+     */
+    protected volatile long maxTickLag;
     /**
      * 最大待处理任务
      */
@@ -127,6 +155,7 @@ public class Timer {
      * @param workerThreads 工作线程数
      * @param maxTasks      最大待处理任务
      */
+    @SuppressWarnings("unchecked")
     public Timer(final String name, final long tickTime, final int ticks, final int workerThreads, final long maxTasks) {
         if (tickTime <= 0) {
             throw new IllegalArgumentException("tickTime must be greater than 0");
@@ -136,9 +165,17 @@ public class Timer {
             throw new IllegalArgumentException("workerThreads must be greater than 0");
         }
         this.maxTasks = maxTasks;
-        this.afterRun = o -> tasks.decrementAndGet();
+        this.afterRun = o -> decrement();
         this.afterCancel = this::cancel;
         this.beforeRun = this::supply;
+        int stripes = Integer.highestOneBit(Math.max(Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES), 1));
+        this.stripeMask = stripes - 1;
+        this.flying = new Queue[stripes];
+        this.cancels = new Queue[stripes];
+        for (int i = 0; i < stripes; i++) {
+            flying[i] = new ConcurrentLinkedQueue<>();
+            cancels[i] = new ConcurrentLinkedQueue<>();
+        }
         this.queue = new DelayQueue<>();
         this.timeWheel = new TimeWheel(tickTime, ticks, SystemClock.now(), queue);
         String prefix = name == null || name.isEmpty() ? "timer" : name;
@@ -155,6 +192,8 @@ public class Timer {
                         //添加新增的任务，如果当前任务已经过期则立刻执行，否则放入后续的槽中
                         supply();
                         if (slot != null) {
+                            //记录执行延迟
+                            lag(slot.expiration);
                             //推进一跳
                             timeWheel.advance(slot.expiration);
                             //执行任务
@@ -198,10 +237,12 @@ public class Timer {
      */
     protected void cancel() {
         Task task;
-        //移除放弃的任务
-        while ((task = cancels.poll()) != null) {
-            //放弃任务，进入队列之前已经修改了计数器，这里不需要再处理。
-            task.remove();
+        for (Queue<Task> queue : cancels) {
+            //移除放弃的任务
+            while ((task = queue.poll()) != null) {
+                //放弃任务，进入队列之前已经修改了计数器，这里不需要再处理。
+                task.remove();
+            }
         }
     }
 
@@ -211,17 +252,84 @@ public class Timer {
     protected void supply() {
         Task task;
         //添加任务，1跳最多10万次
-        for (int i = 0; i < 100000; i++) {
-            task = flying.poll();
-            if (task == null) {
-                break;
-            }
-            if (!task.isCancelled()) {
-                supply(task);
+        int count = 0;
+        int start = supplyStripe;
+        supplyStripe = (start + 1) & stripeMask;
+        for (int i = 0; i < flying.length; i++) {
+            Queue<Task> queue = flying[(start + i) & stripeMask];
+            while (count++ < 100000 && (task = queue.poll()) != null) {
+                if (!task.isCancelled()) {
+                    supply(task);
+                }
             }
         }
     }
 
+    /**
+     * 记录时间槽的执行延迟
+     *
+     * @param expiration 时间槽的过期时间
+     */
+    protected void lag(final long expiration) {
+        long lag = Math.max(0, SystemClock.now() - expiration);
+        tickLag = lag;
+        if (lag > maxTickLag) {
+            maxTickLag = lag;
+        }
+    }
+
+    /**
+     * 当前线程对应的分段
+     *
+     * @return 分段
+     */
+    protected int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    /**
+     * 待处理的任务数
+     *
+     * @return 待处理的任务数
+     */
+    public long getPendingTasks() {
+        return maxTasks > 0 ? tasks.get() : counter.sum();
+    }
+
+    /**
+     * 最近一次时间槽的执行延迟
+     *
+     * @return 执行延迟（毫秒）
+     */
+    public long getTickLag() {
+        return tickLag;
+    }
+
+    /**
+     * 最大的时间槽执行延迟
+     *
+     * @return 执行延迟（毫秒）
+     */
+    public long getMaxTickLag() {
+        return maxTickLag;
+    }
+
+    /**
+     * 导出运行指标
+     *
+     * @return 运行指标
+     */
+    public Map<String, Object> dump() {
+        Map<String, Object> result = new HashMap<>(8);
+        result.put("tickTime", timeWheel.tickTime);
+        result.put("ticks", timeWheel.ticks);
+        result.put("pendingTasks", getPendingTasks());
+        result.put("maxTasks", maxTasks);
+        result.put("tickLag", tickLag);
+        result.put("maxTickLag", maxTickLag);
+        return result;
+    }
+
     /**
      * 添加任务
      *
@@ -283,22 +391,41 @@ public class Timer {
      * @return 超时对象
      */
     protected Timeout add(final Task task) {
-        if (maxTasks > 0 && tasks.incrementAndGet() > maxTasks) {
-            tasks.decrementAndGet();
-            throw new RejectedExecutionException("the maximum of pending tasks is " + maxTasks);
+        //任务执行完毕和放弃的时候都会减少计数器，这里需要始终增加
+        if (maxTasks > 0) {
+            long count;
+            do {
+                count = tasks.get();
+                if (count >= maxTasks) {
+                    throw new RejectedExecutionException("the maximum of pending tasks is " + maxTasks);
+                }
+            } while (!tasks.compareAndSet(count, count + 1));
+        } else {
+            counter.increment();
         }
-        flying.add(task);
+        flying[stripe()].add(task);
         return task;
     }
 
+    /**
+     * 减少待处理的任务计数
+     */
+    protected void decrement() {
+        if (maxTasks > 0) {
+            tasks.decrementAndGet();
+        } else {
+            counter.decrement();
+        }
+    }
+
     /**
      * 放弃任务
      *
      * @param task 任务
      */
     protected void cancel(final Task task) {
-        tasks.decrementAndGet();
-        cancels.add(task);
+        decrement();
+        cancels[stripe()].add(task);
     }
 
     /**
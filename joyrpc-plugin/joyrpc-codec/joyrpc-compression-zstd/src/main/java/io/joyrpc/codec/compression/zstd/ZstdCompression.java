@@ -0,0 +1,541 @@
+package io.joyrpc.codec.compression.zstd;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.luben.zstd.*;
+import io.joyrpc.codec.UnsafeByteArrayInputStream;
+import io.joyrpc.codec.UnsafeByteArrayOutputStream;
+import io.joyrpc.codec.compression.Compression;
+import io.joyrpc.codec.compression.DictionaryCompression;
+import io.joyrpc.codec.compression.Finishable;
+import io.joyrpc.constants.Constants;
+import io.joyrpc.context.GlobalContext;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.MapParametric;
+import io.joyrpc.extension.Parametric;
+import io.joyrpc.extension.condition.ConditionalOnClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Zstd压缩算法，支持共享字典。<br/>
+ * 字典通过zstd --train离线训练，配置参数zstd.dictionaries指定字典文件或类路径资源，多个用逗号分隔，排在前面的优先。<br/>
+ * 压缩数据前4个字节为字典ID，0表示没有使用字典。RPC消息较小，采用单帧压缩并复用线程级的压缩和解压上下文，
+ * 避免每条消息创建流式压缩的本地资源。<br/>
+ * 解压后的大小由对端声明，超过配置的payload大小直接拒绝；线程级缓冲区超过上限后会被释放，避免长期占用大块内存。
+ */
+@Extension(value = "zstd", provider = "luben", order = Compression.ZSTD_ORDER)
+@ConditionalOnClass("com.github.luben.zstd.Zstd")
+public class ZstdCompression implements DictionaryCompression {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZstdCompression.class);
+
+    /**
+     * 压缩级别参数
+     */
+    public static final String ZSTD_LEVEL = "zstd.level";
+    /**
+     * 字典参数
+     */
+    public static final String ZSTD_DICTIONARIES = "zstd.dictionaries";
+
+    /**
+     * 线程级的压缩和解压上下文
+     */
+    protected static final ThreadLocal<Contexts> CONTEXTS = ThreadLocal.withInitial(Contexts::new);
+    /**
+     * 线程级缓冲区保留的最大字节数，超过后用完即释放
+     */
+    protected static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 压缩级别
+     */
+    protected final int level;
+    /**
+     * 字典
+     */
+    protected final Map<Long, Dictionary> dictionaries;
+    /**
+     * 字典ID
+     */
+    protected final List<Long> ids;
+    /**
+     * 解压后允许的最大字节数
+     */
+    protected final int maxSize;
+
+    public ZstdCompression() {
+        Parametric parametric = new MapParametric<>(GlobalContext.getContext());
+        this.level = parametric.getInteger(ZSTD_LEVEL, 3);
+        this.dictionaries = load(parametric.getString(ZSTD_DICTIONARIES), level);
+        this.ids = Collections.unmodifiableList(new ArrayList<>(dictionaries.keySet()));
+        this.maxSize = parametric.getPositiveInt(Constants.PAYLOAD);
+    }
+
+    @Override
+    public byte getTypeId() {
+        return ZSTD;
+    }
+
+    @Override
+    public String getTypeName() {
+        return "zstd";
+    }
+
+    @Override
+    public OutputStream compress(final OutputStream out) throws IOException {
+        return new ZstdCompressOutputStream(out, level, null);
+    }
+
+    @Override
+    public InputStream decompress(final InputStream input) throws IOException {
+        long id = readInt(input) & 0xFFFFFFFFL;
+        Dictionary dictionary = null;
+        if (id != 0) {
+            dictionary = dictionaries.get(id);
+            if (dictionary == null) {
+                throw new IOException(String.format("zstd dictionary %d is not found.", id));
+            }
+        }
+        Contexts contexts = CONTEXTS.get();
+        UnsafeByteArrayOutputStream source = contexts.input;
+        source.reset();
+        byte[] buffer = contexts.buffer;
+        int len;
+        while ((len = input.read(buffer)) > 0) {
+            source.write(buffer, 0, len);
+        }
+        //直接使用缓冲区的底层数组，避免拷贝
+        byte[] bytes = source.toByteBuffer().array();
+        int length = source.size();
+        try {
+            long size = Zstd.decompressedSize(bytes, 0, length);
+            if (size > maxSize) {
+                throw new IOException(String.format("zstd decompressed size %d exceeds the limit %d.", size, maxSize));
+            } else if (size <= 0) {
+                //未知大小的帧，采用流式解压，限制解压后的大小。延迟读取，线程级缓冲区会被复用，需要拷贝数据
+                ZstdInputStream result = new ZstdInputStream(new UnsafeByteArrayInputStream(source.toByteArray()));
+                if (dictionary != null) {
+                    result.setDict(dictionary.decompress);
+                }
+                return new LimitInputStream(result, maxSize);
+            }
+            byte[] target = new byte[(int) size];
+            int count = contexts.decompress(dictionary).decompressByteArray(target, 0, target.length, bytes, 0, length);
+            return new UnsafeByteArrayInputStream(target, 0, count);
+        } catch (ZstdException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            contexts.releaseInput();
+        }
+    }
+
+    @Override
+    public List<Long> getDictionaries() {
+        return ids;
+    }
+
+    @Override
+    public Compression dictionary(final long dictionaryId) {
+        Dictionary dictionary = dictionaries.get(dictionaryId);
+        return dictionary == null ? null : dictionary.compression;
+    }
+
+    /**
+     * 读取4个字节的整数
+     *
+     * @param input 输入流
+     * @return 整数
+     * @throws IOException
+     */
+    protected static int readInt(final InputStream input) throws IOException {
+        int result = 0;
+        int b;
+        for (int i = 0; i < 4; i++) {
+            b = input.read();
+            if (b < 0) {
+                throw new EOFException("zstd dictionary id is missing.");
+            }
+            result = (result << 8) | b;
+        }
+        return result;
+    }
+
+    /**
+     * 加载字典
+     *
+     * @param paths 字典文件或类路径资源，逗号分隔
+     * @param level 压缩级别
+     * @return 字典
+     */
+    protected Map<Long, Dictionary> load(final String paths, final int level) {
+        Map<Long, Dictionary> result = new LinkedHashMap<>();
+        if (paths == null || paths.isEmpty()) {
+            return result;
+        }
+        for (String path : paths.split(",")) {
+            path = path.trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            try {
+                byte[] bytes = read(path);
+                if (bytes == null) {
+                    logger.warn(String.format("zstd dictionary %s is not found.", path));
+                    continue;
+                }
+                long id = Zstd.getDictIdFromDict(bytes);
+                if (id == 0) {
+                    //原始内容字典没有ID，无法和对端协商
+                    logger.warn(String.format("zstd dictionary %s is ignored, it is not a trained dictionary.", path));
+                } else if (!result.containsKey(id)) {
+                    result.put(id, new Dictionary(this, id, bytes, level));
+                    logger.info(String.format("Success loading zstd dictionary %s, id=%d", path, id));
+                }
+            } catch (IOException e) {
+                logger.error(String.format("Error occurs while loading zstd dictionary %s, caused by %s", path, e.getMessage()), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 读取字典内容，优先从文件读取，其次从类路径读取
+     *
+     * @param path 路径
+     * @return 字典内容
+     * @throws IOException
+     */
+    protected byte[] read(final String path) throws IOException {
+        Path file = Paths.get(path);
+        if (Files.isRegularFile(file)) {
+            return Files.readAllBytes(file);
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        URL url = (loader == null ? ZstdCompression.class.getClassLoader() : loader)
+                .getResource(path.startsWith("/") ? path.substring(1) : path);
+        if (url == null) {
+            return null;
+        }
+        URLConnection connection = url.openConnection();
+        long length = connection.getContentLengthLong();
+        if (length > 0 && length <= Integer.MAX_VALUE) {
+            //已知大小，直接读取到字典数组，避免拷贝
+            byte[] result = new byte[(int) length];
+            try (DataInputStream in = new DataInputStream(connection.getInputStream())) {
+                in.readFully(result);
+            }
+            return result;
+        }
+        try (InputStream in = connection.getInputStream(); ByteArrayOutputStream out = new ByteArrayOutputStream(1024)) {
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 字典
+     */
+    protected static class Dictionary {
+        /**
+         * 字典ID
+         */
+        protected final long id;
+        /**
+         * 压缩字典
+         */
+        protected final ZstdDictCompress compress;
+        /**
+         * 解压字典
+         */
+        protected final ZstdDictDecompress decompress;
+        /**
+         * 绑定了字典的压缩算法
+         */
+        protected final Compression compression;
+
+        public Dictionary(final ZstdCompression parent, final long id, final byte[] bytes, final int level) {
+            this.id = id;
+            this.compress = new ZstdDictCompress(bytes, level);
+            this.decompress = new ZstdDictDecompress(bytes);
+            this.compression = new Compression() {
+                @Override
+                public OutputStream compress(final OutputStream out) throws IOException {
+                    return new ZstdCompressOutputStream(out, level, Dictionary.this);
+                }
+
+                @Override
+                public InputStream decompress(final InputStream input) throws IOException {
+                    return parent.decompress(input);
+                }
+
+                @Override
+                public String getTypeName() {
+                    return parent.getTypeName();
+                }
+
+                @Override
+                public byte getTypeId() {
+                    return parent.getTypeId();
+                }
+            };
+        }
+    }
+
+    /**
+     * 线程级的上下文，按照字典缓存
+     */
+    protected static class Contexts {
+        /**
+         * 压缩上下文
+         */
+        protected final Map<Dictionary, ZstdCompressCtx> compresses = new HashMap<>(4);
+        /**
+         * 解压上下文
+         */
+        protected final Map<Dictionary, ZstdDecompressCtx> decompresses = new HashMap<>(4);
+        /**
+         * 原始数据
+         */
+        protected UnsafeByteArrayOutputStream source = new UnsafeByteArrayOutputStream(4096);
+        /**
+         * 待解压数据
+         */
+        protected UnsafeByteArrayOutputStream input = new UnsafeByteArrayOutputStream(4096);
+        /**
+         * 读取缓冲区
+         */
+        protected final byte[] buffer = new byte[4096];
+        /**
+         * 压缩输出缓冲区
+         */
+        protected byte[] target = new byte[4096];
+
+        /**
+         * 获取压缩上下文
+         *
+         * @param level      压缩级别
+         * @param dictionary 字典
+         * @return 压缩上下文
+         */
+        protected ZstdCompressCtx compress(final int level, final Dictionary dictionary) {
+            return compresses.computeIfAbsent(dictionary, o -> {
+                ZstdCompressCtx ctx = new ZstdCompressCtx().setLevel(level);
+                if (o != null) {
+                    ctx.loadDict(o.compress);
+                }
+                return ctx;
+            });
+        }
+
+        /**
+         * 获取解压上下文
+         *
+         * @param dictionary 字典
+         * @return 解压上下文
+         */
+        protected ZstdDecompressCtx decompress(final Dictionary dictionary) {
+            return decompresses.computeIfAbsent(dictionary, o -> {
+                ZstdDecompressCtx ctx = new ZstdDecompressCtx();
+                if (o != null) {
+                    ctx.loadDict(o.decompress);
+                }
+                return ctx;
+            });
+        }
+
+        /**
+         * 获取压缩输出缓冲区
+         *
+         * @param size 大小
+         * @return 缓冲区
+         */
+        protected byte[] target(final int size) {
+            if (size > MAX_BUFFER_SIZE) {
+                //超大的数据不缓存
+                return new byte[size];
+            } else if (target.length < size) {
+                target = new byte[size];
+            }
+            return target;
+        }
+
+        /**
+         * 待解压数据超过上限，重建缓冲区
+         */
+        protected void releaseInput() {
+            if (input.size() > MAX_BUFFER_SIZE) {
+                input = new UnsafeByteArrayOutputStream(4096);
+            }
+        }
+
+        /**
+         * 原始数据超过上限，重建缓冲区
+         */
+        protected void releaseSource() {
+            if (source.size() > MAX_BUFFER_SIZE) {
+                source = new UnsafeByteArrayOutputStream(4096);
+            }
+        }
+    }
+
+    /**
+     * 限制读取字节数的输入流
+     */
+    protected static class LimitInputStream extends FilterInputStream {
+        /**
+         * 剩余可读字节数
+         */
+        protected long remain;
+
+        public LimitInputStream(final InputStream in, final long limit) {
+            super(in);
+            this.remain = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0 && --remain < 0) {
+                throw new IOException("zstd decompressed size exceeds the limit.");
+            }
+            return result;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                remain -= result;
+                if (remain < 0) {
+                    throw new IOException("zstd decompressed size exceeds the limit.");
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long result = super.skip(n);
+            remain -= result;
+            if (remain < 0) {
+                throw new IOException("zstd decompressed size exceeds the limit.");
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 压缩流，先写入字典ID，数据暂存在线程级的缓冲区，结束的时候单帧压缩输出
+     */
+    protected static class ZstdCompressOutputStream extends OutputStream implements Finishable {
+        /**
+         * 底层输出流
+         */
+        protected final OutputStream out;
+        /**
+         * 压缩级别
+         */
+        protected final int level;
+        /**
+         * 字典
+         */
+        protected final Dictionary dictionary;
+        /**
+         * 上下文
+         */
+        protected final Contexts contexts;
+        /**
+         * 原始数据
+         */
+        protected final UnsafeByteArrayOutputStream source;
+        /**
+         * 结束标识
+         */
+        protected boolean finished;
+
+        public ZstdCompressOutputStream(final OutputStream out, final int level, final Dictionary dictionary) throws IOException {
+            this.out = out;
+            this.level = level;
+            this.dictionary = dictionary;
+            this.contexts = CONTEXTS.get();
+            this.source = contexts.source;
+            this.source.reset();
+            int id = dictionary == null ? 0 : (int) dictionary.id;
+            out.write(id >>> 24);
+            out.write(id >>> 16);
+            out.write(id >>> 8);
+            out.write(id);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            source.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            source.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                int size = source.size();
+                byte[] target = contexts.target((int) Zstd.compressBound(size));
+                try {
+                    int count = contexts.compress(level, dictionary).compressByteArray(target, 0, target.length,
+                            source.toByteBuffer().array(), 0, size);
+                    out.write(target, 0, count);
+                } catch (ZstdException e) {
+                    throw new IOException(e.getMessage(), e);
+                } finally {
+                    contexts.releaseSource();
+                    source.reset();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+}
@@ -209,6 +209,11 @@ public class Hessian2Input
         }
 
         _is = is;
+        //线程复用的时候，丢弃上次解析异常残留的缓冲数据
+        _offset = 0;
+        _length = 0;
+        _isLastChunk = false;
+        _chunkLength = 0;
 
         reset();
     }
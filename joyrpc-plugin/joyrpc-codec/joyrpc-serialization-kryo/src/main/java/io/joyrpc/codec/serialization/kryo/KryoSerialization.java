@@ -130,6 +130,12 @@ public class KryoSerialization implements Serialization {
             return kryo;
         });
 
+        /**
+         * 绑定在线程变量里面的输出缓冲区，避免每次序列化都分配字节数组，满了直接刷到底层的缓冲区。<br/>
+         * 序列化结束后会解除对输出流的引用，输出流不为空说明正在被外层的序列化使用。
+         */
+        protected static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(() -> new Output(4096));
+
         protected static final KryoSerializer INSTANCE = new KryoSerializer();
 
         protected KryoSerializer() {
@@ -137,7 +143,13 @@ public class KryoSerialization implements Serialization {
 
         @Override
         protected ObjectWriter createWriter(final OutputStream os, final Object object) throws IOException {
-            return new KryoWriter(local.get(), new Output(os));
+            Output output = OUTPUT.get();
+            if (output.getOutputStream() != null) {
+                //重入的序列化，例如在底层输出流里面再次序列化，不能复用外层正在使用的缓冲区
+                output = new Output(4096);
+            }
+            output.setOutputStream(os);
+            return new KryoWriter(local.get(), output);
         }
 
         @Override
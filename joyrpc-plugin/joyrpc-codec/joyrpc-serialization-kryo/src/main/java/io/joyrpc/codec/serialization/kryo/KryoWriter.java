@@ -181,4 +181,10 @@ public class KryoWriter implements ObjectWriter {
             throw new IOException(e.getMessage(), e);
         }
     }
+
+    @Override
+    public void release() {
+        //解除对输出流的引用，便于复用输出缓冲区
+        output.setOutputStream(null);
+    }
 }
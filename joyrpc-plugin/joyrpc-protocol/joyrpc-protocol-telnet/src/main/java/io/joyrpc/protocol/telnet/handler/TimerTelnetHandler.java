@@ -0,0 +1,64 @@
+package io.joyrpc.protocol.telnet.handler;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.transport.channel.Channel;
+import io.joyrpc.transport.telnet.TelnetResponse;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Options;
+
+import static io.joyrpc.Plugin.JSON;
+import static io.joyrpc.util.Timer.timer;
+
+/**
+ * 定时器处理器，输出待处理任务数和时间槽执行延迟
+ */
+public class TimerTelnetHandler extends AbstractTelnetHandler {
+
+    public TimerTelnetHandler() {
+        options = new Options()
+                .addOption(HELP_SHORT, HELP_LONG, false, "show help message for command timer");
+    }
+
+    @Override
+    public String type() {
+        return "timer";
+    }
+
+    @Override
+    public String description() {
+        return "Usage:\ttimer" + LINE + "Display the pending tasks and tick lag of the default timer.";
+    }
+
+    @Override
+    public String shortDescription() {
+        return "Display the default timer information.";
+    }
+
+    @Override
+    public TelnetResponse telnet(final Channel channel, final String[] args) {
+        CommandLine cmd = getCommand(options, args);
+        if (cmd.hasOption(HELP_SHORT)) {
+            return new TelnetResponse(help());
+        }
+        return new TelnetResponse(JSON.get().toJSONString(timer().dump()));
+    }
+}
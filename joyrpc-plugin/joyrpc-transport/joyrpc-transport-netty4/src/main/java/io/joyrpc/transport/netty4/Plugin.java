@@ -23,6 +23,7 @@ package io.joyrpc.transport.netty4;
 import io.joyrpc.extension.ExtensionPoint;
 import io.joyrpc.extension.ExtensionPointLazy;
 import io.joyrpc.transport.netty4.pipeline.PipelineFactory;
+import io.joyrpc.transport.netty4.transport.NettyTransport;
 
 public interface Plugin {
 
@@ -30,4 +31,9 @@ public interface Plugin {
      * 处理器工厂扩展点
      */
     ExtensionPoint<PipelineFactory, String> PIPELINE_FACTORY = new ExtensionPointLazy<>(PipelineFactory.class);
+
+    /**
+     * IO传输扩展点
+     */
+    ExtensionPoint<NettyTransport, String> NETTY_TRANSPORT = new ExtensionPointLazy<>(NettyTransport.class);
 }
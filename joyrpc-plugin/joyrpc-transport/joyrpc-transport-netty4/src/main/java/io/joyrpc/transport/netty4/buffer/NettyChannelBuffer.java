@@ -196,6 +196,11 @@ public class NettyChannelBuffer implements ChannelBuffer {
         return new NettyChannelBuffer(byteBuf.readSlice(length));
     }
 
+    @Override
+    public ChannelBuffer readRetainedSlice(final int length) {
+        return new NettyChannelBuffer(byteBuf.readRetainedSlice(length));
+    }
+
     @Override
     public void setInt(final int index, final int value) {
         byteBuf.setInt(index, value);
@@ -276,6 +281,16 @@ public class NettyChannelBuffer implements ChannelBuffer {
         byteBuf.writeBytes(src.toByteBuffer());
     }
 
+    @Override
+    public void writeBytes(final ChannelBuffer src, final int srcIndex, final int length) {
+        if (src instanceof NettyChannelBuffer) {
+            //直接在ByteBuf之间拷贝，避免中间的字节数组
+            byteBuf.writeBytes(((NettyChannelBuffer) src).byteBuf, srcIndex, length);
+        } else {
+            byteBuf.writeBytes(src.toByteBuffer(srcIndex, length));
+        }
+    }
+
     @Override
     public int writeBytes(final InputStream in, final int length) throws IOException {
         return byteBuf.writeBytes(in, length);
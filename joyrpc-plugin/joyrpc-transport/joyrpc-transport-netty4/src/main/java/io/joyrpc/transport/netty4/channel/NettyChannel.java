@@ -28,6 +28,7 @@ import io.joyrpc.util.thread.ThreadPool;
 import io.joyrpc.transport.buffer.ChannelBuffer;
 import io.joyrpc.transport.channel.Channel;
 import io.joyrpc.transport.channel.FutureManager;
+import io.joyrpc.transport.channel.RingFutureManager;
 import io.joyrpc.transport.event.TransportEvent;
 import io.joyrpc.transport.message.Message;
 import io.joyrpc.transport.netty4.buffer.NettyChannelBuffer;
@@ -91,6 +92,10 @@ public class NettyChannel implements Channel {
      * 是否是服务端
      */
     protected final boolean server;
+    /**
+     * 写批处理，为空表示每次写都立即flush
+     */
+    protected final WriteBatcher batcher;
 
     /**
      * 构造函数
@@ -108,15 +113,62 @@ public class NettyChannel implements Channel {
                         final Publisher<TransportEvent> publisher,
                         final int payloadSize,
                         final boolean server) {
+        this(name, channel, workerPool, publisher, payloadSize, server, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param name        名称
+     * @param channel     通道
+     * @param workerPool  业务线程池
+     * @param publisher   事件发布器
+     * @param payloadSize 数据包大小
+     * @param server      服务端标识
+     * @param batcher     写批处理
+     */
+    public NettyChannel(final String name,
+                        final io.netty.channel.Channel channel,
+                        final ThreadPool workerPool,
+                        final Publisher<TransportEvent> publisher,
+                        final int payloadSize,
+                        final boolean server,
+                        final WriteBatcher batcher) {
+        this(name, channel, workerPool, publisher, payloadSize, server, batcher, 0);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param name        名称
+     * @param channel     通道
+     * @param workerPool  业务线程池
+     * @param publisher   事件发布器
+     * @param payloadSize 数据包大小
+     * @param server      服务端标识
+     * @param batcher     写批处理
+     * @param futureRing  在途请求环形数组容量，小于等于0使用哈希表
+     */
+    public NettyChannel(final String name,
+                        final io.netty.channel.Channel channel,
+                        final ThreadPool workerPool,
+                        final Publisher<TransportEvent> publisher,
+                        final int payloadSize,
+                        final boolean server,
+                        final WriteBatcher batcher,
+                        final int futureRing) {
         this.name = name;
         this.channel = channel;
         this.publisher = publisher;
         this.workerPool = workerPool;
         this.payloadSize = payloadSize;
         this.server = server;
+        this.batcher = batcher;
         this.msgIdGenerator = new IntToLongIdGenerator();
         this.streamIdGenerator = server ? new ServerStreamIdGenerator() : new ClientStreamIdGenerator();
-        this.futureManager = new FutureManager<>(this, msgIdGenerator, streamIdGenerator);
+        this.futureManager = futureRing > 0 ?
+                new RingFutureManager<>(this, msgIdGenerator, streamIdGenerator, futureRing) :
+                new FutureManager<>(this, msgIdGenerator, streamIdGenerator);
         this.sessionManager = new SessionManager(server);
     }
 
@@ -133,7 +185,11 @@ public class NettyChannel implements Channel {
         } else {
             try {
                 //TODO 要不要改成工作线程池来回调
-                channel.writeAndFlush(object).addListener(new FutureAdapter<>(future));
+                if (batcher != null) {
+                    batcher.write(object, future);
+                } else {
+                    channel.writeAndFlush(object).addListener(new FutureAdapter<>(future));
+                }
             } catch (Throwable e) {
                 future.completeExceptionally(e);
             }
@@ -46,7 +46,28 @@ public class NettyClientChannel extends NettyChannel {
                               final Publisher<TransportEvent> publisher,
                               final int payloadSize,
                               final EventLoopGroup ioGroup) {
-        super(name, channel, workerPool, publisher, payloadSize, false);
+        this(name, channel, workerPool, publisher, payloadSize, ioGroup, null);
+    }
+
+    public NettyClientChannel(final String name,
+                              final io.netty.channel.Channel channel,
+                              final ThreadPool workerPool,
+                              final Publisher<TransportEvent> publisher,
+                              final int payloadSize,
+                              final EventLoopGroup ioGroup,
+                              final WriteBatcher batcher) {
+        this(name, channel, workerPool, publisher, payloadSize, ioGroup, batcher, 0);
+    }
+
+    public NettyClientChannel(final String name,
+                              final io.netty.channel.Channel channel,
+                              final ThreadPool workerPool,
+                              final Publisher<TransportEvent> publisher,
+                              final int payloadSize,
+                              final EventLoopGroup ioGroup,
+                              final WriteBatcher batcher,
+                              final int futureRing) {
+        super(name, channel, workerPool, publisher, payloadSize, false, batcher, futureRing);
         this.ioGroup = ioGroup;
     }
 
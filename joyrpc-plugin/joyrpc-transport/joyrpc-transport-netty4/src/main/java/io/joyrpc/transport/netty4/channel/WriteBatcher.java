@@ -0,0 +1,161 @@
+package io.joyrpc.transport.netty4.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.URL;
+import io.joyrpc.transport.netty4.util.FutureAdapter;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写批处理，合并多次写操作的flush，减少系统调用。<br/>
+ * 所有状态都在连接通道绑定的EventLoop中修改，无需同步
+ */
+public class WriteBatcher {
+
+    /**
+     * 最大待flush的消息数，大于1才开启批量写
+     */
+    public static final String NETTY_FLUSH_MAX_PENDING = "netty.flush.maxPending";
+    /**
+     * 最大的flush延迟（微秒），为0则在EventLoop当前批次的任务执行完后flush
+     */
+    public static final String NETTY_FLUSH_MAX_DELAY = "netty.flush.maxDelay";
+
+    /**
+     * 连接通道
+     */
+    protected final Channel channel;
+    /**
+     * 事件循环
+     */
+    protected final EventLoop eventLoop;
+    /**
+     * 最大待flush的消息数
+     */
+    protected final int maxPending;
+    /**
+     * 最大的flush延迟（微秒）
+     */
+    protected final long maxDelay;
+    /**
+     * flush任务
+     */
+    protected final Runnable flushTask = this::onFlushTask;
+    /**
+     * 待flush的消息数
+     */
+    protected int pending;
+    /**
+     * 是否已经调度了flush任务
+     */
+    protected boolean scheduled;
+
+    /**
+     * 构造函数
+     *
+     * @param channel    连接通道
+     * @param maxPending 最大待flush的消息数
+     * @param maxDelay   最大的flush延迟（微秒）
+     */
+    public WriteBatcher(final Channel channel, final int maxPending, final long maxDelay) {
+        this.channel = channel;
+        this.eventLoop = channel.eventLoop();
+        this.maxPending = maxPending;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * 根据URL参数创建写批处理
+     *
+     * @param url     url
+     * @param channel 连接通道
+     * @return 写批处理，没有开启则返回null
+     */
+    public static WriteBatcher create(final URL url, final Channel channel) {
+        int maxPending = url == null ? 0 : url.getInteger(NETTY_FLUSH_MAX_PENDING, 0);
+        if (maxPending <= 1) {
+            return null;
+        }
+        long maxDelay = url.getLong(NETTY_FLUSH_MAX_DELAY, 0L);
+        return new WriteBatcher(channel, maxPending, maxDelay < 0 ? 0 : maxDelay);
+    }
+
+    /**
+     * 写消息
+     *
+     * @param object 消息
+     * @param future 完成的Future
+     */
+    public void write(final Object object, final CompletableFuture<Void> future) {
+        if (eventLoop.inEventLoop()) {
+            doWrite(object, future);
+        } else {
+            eventLoop.execute(() -> doWrite(object, future));
+        }
+    }
+
+    /**
+     * 在EventLoop中写消息
+     *
+     * @param object 消息
+     * @param future 完成的Future
+     */
+    protected void doWrite(final Object object, final CompletableFuture<Void> future) {
+        try {
+            channel.write(object).addListener(new FutureAdapter<>(future));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            return;
+        }
+        if (++pending >= maxPending) {
+            flush();
+        } else if (!scheduled) {
+            scheduled = true;
+            if (maxDelay > 0) {
+                eventLoop.schedule(flushTask, maxDelay, TimeUnit.MICROSECONDS);
+            } else {
+                eventLoop.execute(flushTask);
+            }
+        }
+    }
+
+    /**
+     * 定时flush任务
+     */
+    protected void onFlushTask() {
+        scheduled = false;
+        if (pending > 0) {
+            flush();
+        }
+    }
+
+    /**
+     * flush
+     */
+    protected void flush() {
+        pending = 0;
+        channel.flush();
+    }
+}
@@ -24,6 +24,7 @@ import io.joyrpc.transport.channel.Channel;
 import io.joyrpc.transport.channel.ChannelChainReaderContext;
 import io.joyrpc.transport.channel.ChannelContext;
 import io.joyrpc.transport.channel.ChannelReader;
+import io.joyrpc.transport.message.LazyMessage;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import org.slf4j.Logger;
@@ -78,10 +79,13 @@ public class ChannelChainReaderAdapter extends ChannelInboundHandlerAdapter {
                 workerPool.execute(new ReceiveJob(context, msg));
             } catch (Throwable e) {
                 //可能抛出RejectedExecutionException
+                if (msg instanceof LazyMessage) {
+                    ((LazyMessage) msg).release();
+                }
                 context.fireExceptionCaught(e);
             }
         } else {
-            context.fireChannelRead(msg);
+            receive(context, msg);
         }
     }
 
@@ -91,6 +95,25 @@ public class ChannelChainReaderAdapter extends ChannelInboundHandlerAdapter {
         context.fireExceptionCaught(cause);
     }
 
+    /**
+     * 处理收到的消息，延迟解码的消息在当前线程完成解码
+     *
+     * @param context 上下文
+     * @param msg     消息
+     */
+    protected static void receive(final ChannelContext context, final Object msg) {
+        Object message = msg;
+        if (message instanceof LazyMessage) {
+            try {
+                message = ((LazyMessage) message).decode();
+            } catch (Throwable e) {
+                context.fireExceptionCaught(e);
+                return;
+            }
+        }
+        context.fireChannelRead(message);
+    }
+
     /**
      * 收到数据的任务
      */
@@ -116,7 +139,7 @@ public class ChannelChainReaderAdapter extends ChannelInboundHandlerAdapter {
 
         @Override
         public void run() {
-            context.fireChannelRead(message);
+            receive(context, message);
         }
     }
 }
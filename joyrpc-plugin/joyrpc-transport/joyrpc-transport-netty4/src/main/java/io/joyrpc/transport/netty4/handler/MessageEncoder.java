@@ -25,6 +25,7 @@ import io.joyrpc.transport.codec.Codec;
 import io.joyrpc.transport.codec.DefaultEncodeContext;
 import io.joyrpc.transport.netty4.buffer.NettyChannelBuffer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
@@ -40,6 +41,22 @@ public class MessageEncoder extends MessageToByteEncoder {
      * 函数
      */
     public static final BiFunction<Codec, Channel, ChannelHandler> FUNCTION = (c, l) -> new MessageEncoder(c, l);
+    /**
+     * 最小预分配大小
+     */
+    protected static final int MIN_ESTIMATE = 256;
+    /**
+     * 最大预分配大小，超大的消息通过扩容或复合缓冲区追加组件
+     */
+    protected static final int MAX_ESTIMATE = 1024 * 1024;
+    /**
+     * 超过该大小使用复合缓冲区，扩容时追加组件而不拷贝已写入的数据
+     */
+    protected static final int COMPOSITE_THRESHOLD = 64 * 1024;
+    /**
+     * 复合缓冲区最大组件数
+     */
+    protected static final int MAX_COMPONENTS = 64;
     /**
      * 编解码
      */
@@ -48,18 +65,59 @@ public class MessageEncoder extends MessageToByteEncoder {
      * 通道
      */
     protected Channel channel;
+    /**
+     * 零拷贝模式
+     */
+    protected boolean zeroCopy;
+    /**
+     * 预估的消息大小，编码在IO线程中串行执行，无需同步
+     */
+    protected int estimate = MIN_ESTIMATE;
 
     public MessageEncoder(Codec codec, Channel channel) {
         this.codec = codec;
         this.channel = channel;
+        this.zeroCopy = channel.getAttribute(Channel.BUFFER_ZERO_COPY, false);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(final ChannelHandlerContext ctx, final Object msg, final boolean preferDirect) throws Exception {
+        if (!zeroCopy) {
+            return super.allocateBuffer(ctx, msg, preferDirect);
+        }
+        ByteBufAllocator allocator = ctx.alloc();
+        if (estimate >= COMPOSITE_THRESHOLD && preferDirect && allocator.isDirectBufferPooled()) {
+            //大消息使用池化的直接内存复合缓冲区，首个组件按照预估大小分配
+            return allocator.compositeDirectBuffer(MAX_COMPONENTS).capacity(estimate);
+        }
+        return preferDirect ? allocator.ioBuffer(estimate) : allocator.heapBuffer(estimate);
     }
 
     @Override
     protected void encode(final ChannelHandlerContext ctx, final Object msg, final ByteBuf out) throws Exception {
         try {
+            int writerIndex = out.writerIndex();
             codec.encode(new DefaultEncodeContext(channel), new NettyChannelBuffer(out), msg);
+            if (zeroCopy) {
+                estimate(out.writerIndex() - writerIndex);
+            }
         } catch (Throwable throwable) {
             ctx.fireExceptionCaught(throwable);
         }
     }
+
+    /**
+     * 更新预估大小，采用非对称的移动平均：变大时每次追上一半差距，变小时每次衰减1/8，
+     * 并限制在最大预分配大小以内，避免偶发的超大消息让后续的小消息长期占用大块内存
+     *
+     * @param size 本次编码的大小
+     */
+    protected void estimate(final int size) {
+        int target = Math.min(Math.max(size, MIN_ESTIMATE), MAX_ESTIMATE);
+        if (target >= estimate) {
+            estimate += (target - estimate + 1) >> 1;
+        } else {
+            estimate -= (estimate - target) >> 3;
+        }
+    }
 }
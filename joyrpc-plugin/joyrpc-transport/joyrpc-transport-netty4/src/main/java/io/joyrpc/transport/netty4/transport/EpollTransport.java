@@ -0,0 +1,65 @@
+package io.joyrpc.transport.netty4.transport;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import io.joyrpc.constants.Constants;
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.URL;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Epoll传输，需要Linux并且本地库加载成功
+ */
+@Extension(value = "epoll", order = NettyTransport.EPOLL_ORDER)
+public class EpollTransport implements NettyTransport {
+
+    @Override
+    public boolean isAvailable(final URL url) {
+        return Constants.isUseEpoll(url) && Epoll.isAvailable();
+    }
+
+    @Override
+    public Throwable unavailabilityCause() {
+        return Epoll.unavailabilityCause();
+    }
+
+    @Override
+    public EventLoopGroup createGroup(final int threads, final ThreadFactory threadFactory) {
+        return new EpollEventLoopGroup(threads, threadFactory);
+    }
+
+    @Override
+    public Class<? extends SocketChannel> getChannelClass() {
+        return EpollSocketChannel.class;
+    }
+
+    @Override
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return EpollServerSocketChannel.class;
+    }
+}
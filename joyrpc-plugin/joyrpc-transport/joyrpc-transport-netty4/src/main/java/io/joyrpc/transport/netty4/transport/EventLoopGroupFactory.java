@@ -20,12 +20,11 @@ package io.joyrpc.transport.netty4.transport;
  * #L%
  */
 
+import io.joyrpc.extension.ExtensionMeta;
 import io.joyrpc.extension.URL;
 import io.joyrpc.extension.URLOption;
 import io.joyrpc.util.thread.NamedThreadFactory;
 import io.netty.channel.*;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ScheduledFuture;
 import io.netty.util.concurrent.*;
@@ -37,6 +36,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static io.joyrpc.constants.Constants.*;
+import static io.joyrpc.transport.netty4.Plugin.NETTY_TRANSPORT;
 
 /**
  * eventloop 工厂类
@@ -51,8 +51,17 @@ public class EventLoopGroupFactory {
     public static final String EVENT_LOOP_GROUP_WORKER = "EventLoopGroup-Worker";
     public static final String EVENT_LOOP_GROUP_BOSS = "EventLoopGroup-Boss";
     public static final String NETTY_EVENT_LOOP_SHARE = "netty.eventloop.share";
+    /**
+     * IO传输，可选auto、epoll、io_uring和nio，默认auto按照优先级自动选择
+     */
+    public static final String NETTY_TRANSPORT_KEY = "netty.transport";
+    public static final String NETTY_TRANSPORT_AUTO = "auto";
 
     protected static Map<String, ReferenceEventLoopGroup> groups = new ConcurrentHashMap<>();
+    /**
+     * 选择的传输缓存，避免重复自检和打印日志
+     */
+    protected static Map<String, NettyTransport> transports = new ConcurrentHashMap<>();
 
 
     /**
@@ -63,8 +72,9 @@ public class EventLoopGroupFactory {
      */
     public static EventLoopGroup getBossGroup(URL url) {
         boolean share = url.getBoolean(NETTY_EVENT_LOOP_SHARE, false);
-        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_BOSS, share),
-                o -> create(o, url, EVENT_LOOP_GROUP_BOSS, BOSS_THREAD_OPTION, share));
+        NettyTransport transport = getTransport(url);
+        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_BOSS, share, transport),
+                o -> create(o, url, EVENT_LOOP_GROUP_BOSS, BOSS_THREAD_OPTION, share, transport));
         result.addRef();
         return result;
     }
@@ -77,8 +87,9 @@ public class EventLoopGroupFactory {
      */
     public static EventLoopGroup getWorkerGroup(final URL url) {
         boolean share = url.getBoolean(NETTY_EVENT_LOOP_SHARE, false);
-        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_WORKER, share),
-                o -> create(o, url, EVENT_LOOP_GROUP_WORKER, IO_THREAD_OPTION, share));
+        NettyTransport transport = getTransport(url);
+        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_WORKER, share, transport),
+                o -> create(o, url, EVENT_LOOP_GROUP_WORKER, IO_THREAD_OPTION, share, transport));
         result.addRef();
         return result;
     }
@@ -91,23 +102,72 @@ public class EventLoopGroupFactory {
      */
     public static EventLoopGroup getClientGroup(final URL url) {
         boolean share = url.getBoolean(NETTY_EVENT_LOOP_SHARE, true);
-        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_CLIENT, share),
-                o -> create(o, url, EVENT_LOOP_GROUP_CLIENT, IO_THREAD_OPTION, share));
+        NettyTransport transport = getTransport(url);
+        ReferenceEventLoopGroup result = groups.computeIfAbsent(getKey(url, EVENT_LOOP_GROUP_CLIENT, share, transport),
+                o -> create(o, url, EVENT_LOOP_GROUP_CLIENT, IO_THREAD_OPTION, share, transport));
         result.addRef();
         return result;
     }
 
 
+    /**
+     * 获取IO传输，指定的传输不存在或自检不可用的时候，按照优先级自动降级
+     *
+     * @param url url实例
+     * @return IO传输
+     */
+    public static NettyTransport getTransport(final URL url) {
+        String name = url.getString(NETTY_TRANSPORT_KEY, NETTY_TRANSPORT_AUTO);
+        //epoll的可用性还受useEpoll参数影响
+        String key = name + "." + isUseEpoll(url);
+        return transports.computeIfAbsent(key, k -> select(url, name));
+    }
+
+    /**
+     * 选择IO传输
+     *
+     * @param url  url实例
+     * @param name 名称
+     * @return IO传输
+     */
+    protected static NettyTransport select(final URL url, final String name) {
+        if (!NETTY_TRANSPORT_AUTO.equals(name)) {
+            NettyTransport transport = NETTY_TRANSPORT.get(name);
+            if (transport == null) {
+                logger.warn(String.format("Netty transport %s is not found, fall back to auto selection.", name));
+            } else if (!transport.isAvailable(url)) {
+                Throwable cause = transport.unavailabilityCause();
+                logger.warn(String.format("Netty transport %s is not available, fall back to auto selection. caused by %s",
+                        name, cause == null ? "unsupported environment" : cause.getMessage()));
+            } else {
+                logger.info(String.format("Success selecting netty transport %s.", name));
+                return transport;
+            }
+        }
+        for (ExtensionMeta<NettyTransport, String> meta : NETTY_TRANSPORT.metas()) {
+            NettyTransport transport = meta.getTarget();
+            if (transport.isAvailable(url)) {
+                logger.info(String.format("Success selecting netty transport %s.", meta.getExtension().getName()));
+                return transport;
+            }
+        }
+        //兜底
+        logger.info("Success selecting netty transport nio.");
+        return new NioTransport();
+    }
+
     /**
      * 获取Key
      *
-     * @param url   url
-     * @param type  类型
-     * @param share 共享标识
+     * @param url       url
+     * @param type      类型
+     * @param share     共享标识
+     * @param transport IO传输
      * @return 键
      */
-    protected static String getKey(final URL url, final String type, final boolean share) {
-        return share ? type : type + "." + url.getAddress();
+    protected static String getKey(final URL url, final String type, final boolean share, final NettyTransport transport) {
+        String key = type + "." + transport.getClass().getSimpleName();
+        return share ? key : key + "." + url.getAddress();
     }
 
     /**
@@ -118,21 +178,19 @@ public class EventLoopGroupFactory {
      * @param threadName 线程名称
      * @param ioThread   ioThread
      * @param share      共享标识
+     * @param transport  IO传输
      * @return
      */
     protected static ReferenceEventLoopGroup create(final String name,
                                                     final URL url,
                                                     final String threadName,
                                                     final URLOption<Integer> ioThread,
-                                                    final boolean share) {
+                                                    final boolean share,
+                                                    final NettyTransport transport) {
         int threads = url.getPositiveInt(ioThread);
-        boolean epoll = isUseEpoll(url);
-        logger.info(String.format("Success creating eventLoopGroup. name:%s, threads:%d, epoll:%b. ", ioThread.getName(), threads, epoll));
-        return new ReferenceEventLoopGroup(name,
-                epoll ?
-                        new EpollEventLoopGroup(threads, new NamedThreadFactory(threadName, true)) :
-                        new NioEventLoopGroup(threads, new NamedThreadFactory(threadName, true)),
-                groups, share);
+        logger.info(String.format("Success creating eventLoopGroup. name:%s, threads:%d, transport:%s. ",
+                ioThread.getName(), threads, transport.getClass().getSimpleName()));
+        return new ReferenceEventLoopGroup(name, transport.createGroup(threads, new NamedThreadFactory(threadName, true)), groups, share);
     }
 
     /**
@@ -0,0 +1,116 @@
+package io.joyrpc.transport.netty4.transport;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.URL;
+import io.joyrpc.extension.condition.ConditionalOnClass;
+import io.joyrpc.util.ClassUtils;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.SocketChannel;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadFactory;
+
+import static io.joyrpc.Plugin.ENVIRONMENT;
+import static io.joyrpc.context.OsType.LINUX;
+
+/**
+ * io_uring传输，依赖可选的netty-incubator-transport-native-io_uring，通过反射加载。<br/>
+ * 需要Linux 5.9+内核，通过配置netty.transport=io_uring显式开启，不可用时自动降级。
+ */
+@Extension(value = "io_uring", order = NettyTransport.IO_URING_ORDER)
+@ConditionalOnClass("io.netty.incubator.channel.uring.IOUring")
+public class IoUringTransport implements NettyTransport {
+
+    protected static final String PACKAGE = "io.netty.incubator.channel.uring.";
+
+    @Override
+    public boolean isAvailable(final URL url) {
+        return ENVIRONMENT.get().osType() == LINUX && Native.AVAILABLE;
+    }
+
+    @Override
+    public Throwable unavailabilityCause() {
+        return Native.CAUSE;
+    }
+
+    @Override
+    public EventLoopGroup createGroup(final int threads, final ThreadFactory threadFactory) {
+        try {
+            return (EventLoopGroup) Native.GROUP_CONSTRUCTOR.newInstance(threads, threadFactory);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException() == null ? e : e.getTargetException();
+            throw new IllegalStateException("Failed creating io_uring event loop group. caused by " + cause.getMessage(), cause);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed creating io_uring event loop group. caused by " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Class<? extends SocketChannel> getChannelClass() {
+        return Native.SOCKET_CHANNEL;
+    }
+
+    @Override
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return Native.SERVER_SOCKET_CHANNEL;
+    }
+
+    /**
+     * 延迟加载本地库
+     */
+    protected static class Native {
+        protected static final boolean AVAILABLE;
+        protected static final Throwable CAUSE;
+        protected static final Constructor<?> GROUP_CONSTRUCTOR;
+        protected static final Class<? extends SocketChannel> SOCKET_CHANNEL;
+        protected static final Class<? extends ServerChannel> SERVER_SOCKET_CHANNEL;
+
+        static {
+            boolean available = false;
+            Throwable cause = null;
+            Constructor<?> constructor = null;
+            Class<? extends SocketChannel> socketChannel = null;
+            Class<? extends ServerChannel> serverSocketChannel = null;
+            try {
+                Class<?> uring = ClassUtils.forName(PACKAGE + "IOUring");
+                available = (Boolean) uring.getMethod("isAvailable").invoke(null);
+                if (available) {
+                    constructor = ClassUtils.forName(PACKAGE + "IOUringEventLoopGroup").getConstructor(int.class, ThreadFactory.class);
+                    socketChannel = ClassUtils.forName(PACKAGE + "IOUringSocketChannel").asSubclass(SocketChannel.class);
+                    serverSocketChannel = ClassUtils.forName(PACKAGE + "IOUringServerSocketChannel").asSubclass(ServerChannel.class);
+                } else {
+                    cause = (Throwable) uring.getMethod("unavailabilityCause").invoke(null);
+                }
+            } catch (Throwable e) {
+                available = false;
+                cause = e;
+            }
+            AVAILABLE = available;
+            CAUSE = cause;
+            GROUP_CONSTRUCTOR = constructor;
+            SOCKET_CHANNEL = socketChannel;
+            SERVER_SOCKET_CHANNEL = serverSocketChannel;
+        }
+    }
+}
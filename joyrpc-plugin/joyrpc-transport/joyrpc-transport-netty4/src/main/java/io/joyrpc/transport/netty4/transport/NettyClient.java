@@ -32,15 +32,14 @@ import io.joyrpc.transport.channel.ChannelManager.Connector;
 import io.joyrpc.transport.event.TransportEvent;
 import io.joyrpc.transport.heartbeat.HeartbeatStrategy.HeartbeatMode;
 import io.joyrpc.transport.netty4.channel.NettyClientChannel;
+import io.joyrpc.transport.netty4.channel.WriteBatcher;
 import io.joyrpc.transport.netty4.handler.ConnectionHandler;
 import io.joyrpc.transport.netty4.handler.IdleHeartbeatHandler;
 import io.joyrpc.transport.netty4.pipeline.PipelineFactory;
 import io.joyrpc.transport.netty4.ssl.SslContextManager;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
-import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.proxy.Socks5ProxyHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.timeout.IdleStateHandler;
@@ -124,7 +123,7 @@ public class NettyClient extends AbstractClient {
                                   final Channel[] channels,
                                   final SslContext sslContext) {
         //Unknown channel option 'SO_BACKLOG' for channel
-        bootstrap.group(ioGroup).channel(Constants.isUseEpoll(url) ? EpollSocketChannel.class : NioSocketChannel.class).
+        bootstrap.group(ioGroup).channel(EventLoopGroupFactory.getTransport(url).getChannelClass()).
                 option(ChannelOption.CONNECT_TIMEOUT_MILLIS, url.getPositiveInt(Constants.CONNECT_TIMEOUT_OPTION)).
                 //option(ChannelOption.SO_TIMEOUT, url.getPositiveInt(Constants.SO_TIMEOUT_OPTION)).
                         option(ChannelOption.TCP_NODELAY, url.getBoolean(TCP_NODELAY)).
@@ -139,7 +138,12 @@ public class NettyClient extends AbstractClient {
                     @Override
                     protected void initChannel(final SocketChannel ch) {
                         //及时发送 与 缓存发送
-                        channels[0] = new NettyClientChannel(name, ch, workerPool, publisher, url.getPositiveInt(Constants.PAYLOAD), ioGroup);
+                        channels[0] = new NettyClientChannel(name, ch, workerPool, publisher,
+                                url.getPositiveInt(Constants.PAYLOAD), ioGroup, WriteBatcher.create(url, ch),
+                                url.getInteger(FUTURE_RING_OPTION));
+                        channels[0].setAttribute(Channel.BUFFER_ZERO_COPY, url.getBoolean(BUFFER_ZERO_COPY_OPTION));
+                        channels[0].setAttribute(Channel.DECODE_LAZY, url.getBoolean(DECODE_LAZY_OPTION));
+                        channels[0].setAttribute(Channel.COMPRESS_ADAPTIVE, url.getBoolean(COMPRESS_ADAPTIVE_OPTION));
                         //添加连接事件监听
                         ch.pipeline().addLast("connection", new ConnectionHandler(channels[0]));
                         //添加编解码和处理链
@@ -30,15 +30,14 @@ import io.joyrpc.transport.TransportServer;
 import io.joyrpc.transport.channel.Channel;
 import io.joyrpc.transport.netty4.channel.NettyChannel;
 import io.joyrpc.transport.netty4.channel.NettyServerChannel;
+import io.joyrpc.transport.netty4.channel.WriteBatcher;
 import io.joyrpc.transport.netty4.codec.NettyDeductionContext;
 import io.joyrpc.transport.netty4.handler.ConnectionHandler;
 import io.joyrpc.transport.netty4.handler.ProtocolDeductionHandler;
 import io.joyrpc.transport.netty4.ssl.SslContextManager;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
-import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslContext;
 
 import java.net.InetSocketAddress;
@@ -138,7 +137,7 @@ public class NettyServer extends AbstractServer {
      */
     protected ServerBootstrap configure(final String name, final ServerBootstrap bootstrap, final SslContext sslContext) {
         //io.netty.bootstrap.Bootstrap - Unknown channel option 'SO_BACKLOG' for channel
-        bootstrap.channel(Constants.isUseEpoll(url) ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
+        bootstrap.channel(EventLoopGroupFactory.getTransport(url).getServerChannelClass())
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) throws Exception {
@@ -171,9 +170,12 @@ public class NettyServer extends AbstractServer {
      * @throws Exception
      */
     protected void configure(final String name, final SocketChannel ch, final SslContext sslContext) throws Exception {
-        Channel channel = new NettyChannel(name, ch, workerPool, publisher, payloadSize, true);
+        Channel channel = new NettyChannel(name, ch, workerPool, publisher, payloadSize, true, WriteBatcher.create(url, ch));
         ChannelTransport transport = function.apply(channel, url);
         channel.setAttribute(Channel.CHANNEL_TRANSPORT, transport);
+        channel.setAttribute(Channel.BUFFER_ZERO_COPY, url.getBoolean(Constants.BUFFER_ZERO_COPY_OPTION));
+        channel.setAttribute(Channel.DECODE_LAZY, url.getBoolean(Constants.DECODE_LAZY_OPTION));
+        channel.setAttribute(Channel.COMPRESS_ADAPTIVE, url.getBoolean(Constants.COMPRESS_ADAPTIVE_OPTION));
         if (sslContext != null) {
             ch.pipeline().addFirst("ssl", sslContext.newHandler(ch.alloc()));
         }
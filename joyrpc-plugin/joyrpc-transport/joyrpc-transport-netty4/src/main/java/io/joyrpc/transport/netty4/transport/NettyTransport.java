@@ -0,0 +1,90 @@
+package io.joyrpc.transport.netty4.transport;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import io.joyrpc.extension.Extensible;
+import io.joyrpc.extension.URL;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.SocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Netty的IO传输实现，封装事件循环及对应的通道类型
+ */
+@Extensible("nettyTransport")
+public interface NettyTransport {
+
+    /**
+     * Epoll优先级
+     */
+    int EPOLL_ORDER = 100;
+
+    /**
+     * NIO优先级
+     */
+    int NIO_ORDER = 200;
+
+    /**
+     * io_uring优先级，仍处于孵化阶段，排在NIO之后，只有显式配置才会被选中
+     */
+    int IO_URING_ORDER = 300;
+
+    /**
+     * 当前环境是否可用，在选择的时候进行自检
+     *
+     * @param url url
+     * @return 可用标识
+     */
+    boolean isAvailable(URL url);
+
+    /**
+     * 不可用的原因
+     *
+     * @return 异常
+     */
+    default Throwable unavailabilityCause() {
+        return null;
+    }
+
+    /**
+     * 创建事件循环
+     *
+     * @param threads       线程数
+     * @param threadFactory 线程工厂
+     * @return 事件循环
+     */
+    EventLoopGroup createGroup(int threads, ThreadFactory threadFactory);
+
+    /**
+     * 客户端通道类型
+     *
+     * @return 通道类型
+     */
+    Class<? extends SocketChannel> getChannelClass();
+
+    /**
+     * 服务端通道类型
+     *
+     * @return 通道类型
+     */
+    Class<? extends ServerChannel> getServerChannelClass();
+}
@@ -0,0 +1,58 @@
+package io.joyrpc.transport.netty4.transport;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import io.joyrpc.extension.Extension;
+import io.joyrpc.extension.URL;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * NIO传输，所有平台可用，作为兜底实现
+ */
+@Extension(value = "nio", order = NettyTransport.NIO_ORDER)
+public class NioTransport implements NettyTransport {
+
+    @Override
+    public boolean isAvailable(final URL url) {
+        return true;
+    }
+
+    @Override
+    public EventLoopGroup createGroup(final int threads, final ThreadFactory threadFactory) {
+        return new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    @Override
+    public Class<? extends SocketChannel> getChannelClass() {
+        return NioSocketChannel.class;
+    }
+
+    @Override
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return NioServerSocketChannel.class;
+    }
+}
@@ -0,0 +1,53 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，参数和JMH命令行一致，默认把结果输出到target/jmh-result.json，便于不同版本之间进行对比。
+ * <p>
+ * 例如只运行编解码和压缩：
+ * <pre>
+ * mvn -pl joyrpc-test/joyrpc-test-benchmark -am test-compile
+ * java -cp &lt;test classpath&gt; io.joyrpc.benchmark.BenchmarkMain "Codec|Compression" -p items=20
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResult().hasValue()) {
+            builder.result("target/jmh-result.json");
+        }
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(builder.build()).run();
+    }
+}
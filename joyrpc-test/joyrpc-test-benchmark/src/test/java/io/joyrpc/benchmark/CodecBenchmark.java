@@ -0,0 +1,167 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.codec.compression.Compression;
+import io.joyrpc.codec.serialization.Serialization;
+import io.joyrpc.protocol.MsgType;
+import io.joyrpc.protocol.Protocol;
+import io.joyrpc.protocol.message.*;
+import io.joyrpc.transport.buffer.ChannelBuffer;
+import io.joyrpc.transport.codec.Codec;
+import io.joyrpc.transport.codec.DecodeContext;
+import io.joyrpc.transport.codec.EncodeContext;
+import io.joyrpc.transport.netty4.buffer.NettyChannelBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.joyrpc.Plugin.*;
+
+/**
+ * JoyCodec编解码基准测试，包括消息头、序列化和压缩，不包括网络传输
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    @Param({"hessian", "protostuff", "kryo"})
+    protected String serialization;
+
+    @Param({"none", "lz4", "zstd"})
+    protected String compression;
+
+    @Param({"1", "20"})
+    protected int items;
+
+    protected Protocol clientProtocol;
+    protected Protocol serverProtocol;
+    protected Codec clientCodec;
+    protected Codec serverCodec;
+    protected EncodeContext encodeContext = () -> null;
+    protected DecodeContext decodeContext = () -> null;
+    protected byte serializationType;
+    protected byte compressionType;
+    protected Invocation invocation;
+    protected ResponsePayload response;
+    protected ByteBuf encodeBuffer;
+    protected ByteBuf request;
+    protected ByteBuf reply;
+
+    @Setup
+    public void setup() {
+        clientProtocol = CLIENT_PROTOCOL.get("joy");
+        serverProtocol = SERVER_PROTOCOL.get("joy");
+        clientCodec = clientProtocol.getCodec();
+        serverCodec = serverProtocol.getCodec();
+        Serialization target = SERIALIZATION.get(serialization);
+        serializationType = target.getTypeId();
+        Compression zip = "none".equals(compression) ? null : COMPRESSION.get(compression);
+        compressionType = zip == null ? Compression.NONE : zip.getTypeId();
+        invocation = Payloads.invocation();
+        response = Payloads.response(items);
+        encodeBuffer = PooledByteBufAllocator.DEFAULT.buffer(4096);
+        request = PooledByteBufAllocator.DEFAULT.buffer(4096);
+        reply = PooledByteBufAllocator.DEFAULT.buffer(4096);
+        clientCodec.encode(encodeContext, new NettyChannelBuffer(request), request());
+        serverCodec.encode(encodeContext, new NettyChannelBuffer(reply), response());
+    }
+
+    @TearDown
+    public void tearDown() {
+        encodeBuffer.release();
+        request.release();
+        reply.release();
+    }
+
+    /**
+     * 构造请求消息
+     *
+     * @return 请求消息
+     */
+    protected RequestMessage<Invocation> request() {
+        //编码会按照序列化调整调用对象，每次恢复类名
+        invocation.setClassName(Payloads.CLASS_NAME);
+        invocation.setAlias(Payloads.ALIAS);
+        MessageHeader header = new MessageHeader(MsgType.BizReq.getType(), serializationType);
+        header.setMsgId(1);
+        header.setTimeout(5000);
+        header.setCompression(compressionType);
+        return new RequestMessage<>(header, invocation);
+    }
+
+    /**
+     * 构造应答消息
+     *
+     * @return 应答消息
+     */
+    protected ResponseMessage<ResponsePayload> response() {
+        MessageHeader header = new MessageHeader(MsgType.BizResp.getType(), serializationType);
+        header.setMsgId(1);
+        header.setCompression(compressionType);
+        return new ResponseMessage<>(header, response);
+    }
+
+    /**
+     * 解码，跳过魔术位，和连接通道的帧解码保持一致
+     *
+     * @param codec    编解码器
+     * @param protocol 协议
+     * @param buffer   缓冲区
+     * @return 消息
+     */
+    protected Object decode(final Codec codec, final Protocol protocol, final ByteBuf buffer) {
+        byte[] magicCode = protocol.getMagicCode();
+        buffer.readerIndex(magicCode == null ? 0 : magicCode.length);
+        return codec.decode(decodeContext, new NettyChannelBuffer(buffer));
+    }
+
+    @Benchmark
+    public int encodeRequest() {
+        encodeBuffer.clear();
+        clientCodec.encode(encodeContext, new NettyChannelBuffer(encodeBuffer), request());
+        return encodeBuffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeRequest() {
+        return decode(serverCodec, clientProtocol, request);
+    }
+
+    @Benchmark
+    public int encodeResponse() {
+        encodeBuffer.clear();
+        serverCodec.encode(encodeContext, new NettyChannelBuffer(encodeBuffer), response());
+        return encodeBuffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeResponse() {
+        return decode(clientCodec, serverProtocol, reply);
+    }
+
+}
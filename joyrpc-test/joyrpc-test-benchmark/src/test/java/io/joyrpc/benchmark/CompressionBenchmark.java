@@ -0,0 +1,94 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.codec.UnsafeByteArrayInputStream;
+import io.joyrpc.codec.UnsafeByteArrayOutputStream;
+import io.joyrpc.codec.compression.Compression;
+import io.joyrpc.codec.compression.Finishable;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static io.joyrpc.Plugin.COMPRESSION;
+import static io.joyrpc.Plugin.SERIALIZATION;
+
+/**
+ * 压缩基准测试，数据为hessian序列化后的应答
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"lz4", "lz4f", "snappy", "snappyf", "zlib", "gzip", "zstd", "lzma"})
+    protected String compression;
+
+    @Param({"20", "200"})
+    protected int items;
+
+    protected Compression target;
+    protected byte[] source;
+    protected byte[] compressed;
+    protected byte[] buffer;
+    protected UnsafeByteArrayOutputStream output;
+
+    @Setup
+    public void setup() throws IOException {
+        target = COMPRESSION.get(compression);
+        output = new UnsafeByteArrayOutputStream(4096);
+        SERIALIZATION.get("hessian").getSerializer().serialize(output, Payloads.response(items));
+        source = output.toByteArray();
+        buffer = new byte[source.length];
+        compress();
+        compressed = output.toByteArray();
+    }
+
+    @Benchmark
+    public int compress() throws IOException {
+        output.reset();
+        OutputStream os = target.compress(output);
+        os.write(source);
+        if (os instanceof Finishable) {
+            ((Finishable) os).finish();
+        }
+        os.flush();
+        return output.size();
+    }
+
+    @Benchmark
+    public int decompress() throws IOException {
+        InputStream is = target.decompress(new UnsafeByteArrayInputStream(compressed));
+        int count = 0;
+        int len;
+        while ((len = is.read(buffer, 0, buffer.length)) > 0) {
+            count += len;
+        }
+        return count;
+    }
+
+}
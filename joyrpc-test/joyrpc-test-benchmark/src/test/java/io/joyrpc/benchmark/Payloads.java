@@ -0,0 +1,119 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.benchmark.model.Order;
+import io.joyrpc.benchmark.model.OrderItem;
+import io.joyrpc.benchmark.model.OrderQuery;
+import io.joyrpc.benchmark.model.OrderService;
+import io.joyrpc.permission.SerializerWhiteList;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.ResponsePayload;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * 基准测试数据，构造固定内容的请求和应答，保证不同版本之间的结果可比较
+ */
+public class Payloads {
+
+    public static final String ALIAS = "benchmark";
+
+    public static final String CLASS_NAME = OrderService.class.getName();
+
+    static {
+        SerializerWhiteList.getGlobalWhitelist().setEnabled(false);
+    }
+
+    /**
+     * 构造查询条件
+     *
+     * @return 查询条件
+     */
+    public static OrderQuery query() {
+        OrderQuery query = new OrderQuery();
+        query.setUserId(10086L);
+        query.setOrderNo("JD2019011400000001");
+        query.setStates(Arrays.asList(1, 2, 5));
+        query.setStartTime(1547395200000L);
+        query.setEndTime(1547481600000L);
+        query.setPageSize(20);
+        return query;
+    }
+
+    /**
+     * 构造订单
+     *
+     * @param items 明细数量
+     * @return 订单
+     */
+    public static Order order(final int items) {
+        Order order = new Order();
+        order.setId(100000001L);
+        order.setOrderNo("JD2019011400000001");
+        order.setUserId(10086L);
+        order.setState(2);
+        order.setAddress("北京市大兴区亦庄经济开发区科创十一街18号院");
+        order.setCreateTime(1547431200000L);
+        List<OrderItem> list = new ArrayList<>(items);
+        long amount = 0;
+        for (int i = 0; i < items; i++) {
+            OrderItem item = new OrderItem(5000000L + i, "商品-" + i + "-joyrpc benchmark item", 1 + i % 3, 1999L + i * 100);
+            amount += item.getPrice() * item.getQuantity();
+            list.add(item);
+        }
+        order.setAmount(amount);
+        order.setItems(list);
+        Map<String, String> extensions = new HashMap<>(4);
+        extensions.put("channel", "app");
+        extensions.put("warehouse", "BJ-01");
+        order.setExtensions(extensions);
+        return order;
+    }
+
+    /**
+     * 构造调用请求
+     *
+     * @return 调用请求
+     */
+    public static Invocation invocation() {
+        try {
+            Method method = OrderService.class.getMethod("query", OrderQuery.class);
+            Invocation invocation = new Invocation(OrderService.class, ALIAS, method, new Object[]{query()});
+            invocation.addAttachment("traceId", "7f3a52d1c0e44b5d");
+            return invocation;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 构造应答
+     *
+     * @param items 明细数量
+     * @return 应答
+     */
+    public static ResponsePayload response(final int items) {
+        return new ResponsePayload(order(items));
+    }
+
+}
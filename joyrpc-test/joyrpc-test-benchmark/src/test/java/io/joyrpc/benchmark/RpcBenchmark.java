@@ -0,0 +1,116 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.benchmark.model.Order;
+import io.joyrpc.benchmark.model.OrderQuery;
+import io.joyrpc.benchmark.model.OrderService;
+import io.joyrpc.benchmark.model.OrderServiceImpl;
+import io.joyrpc.config.ConsumerConfig;
+import io.joyrpc.config.ProviderConfig;
+import io.joyrpc.config.RegistryConfig;
+import io.joyrpc.config.ServerConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内回环的端到端调用基准测试，消费者通过netty4直连本机的服务提供者
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class RpcBenchmark {
+
+    @Param({"hessian", "protostuff"})
+    protected String serialization;
+
+    @Param({"1", "20"})
+    protected int items;
+
+    @Param({"shared", "pooled"})
+    protected String channelFactory;
+
+    protected ProviderConfig<OrderService> providerConfig;
+    protected ConsumerConfig<OrderService> consumerConfig;
+    protected OrderService consumer;
+    protected OrderQuery query;
+
+    @Setup
+    public void setup() throws Exception {
+        int port = getFreePort();
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setHost("127.0.0.1");
+        serverConfig.setPort(port);
+
+        providerConfig = new ProviderConfig<>();
+        providerConfig.setServerConfig(serverConfig);
+        providerConfig.setRegistry(new RegistryConfig("memory"));
+        providerConfig.setInterfaceClazz(OrderService.class.getName());
+        providerConfig.setRef(new OrderServiceImpl(Payloads.order(items)));
+        providerConfig.setAlias(Payloads.ALIAS);
+        providerConfig.exportAndOpen().get();
+
+        consumerConfig = new ConsumerConfig<>();
+        consumerConfig.setInterfaceClazz(OrderService.class.getName());
+        consumerConfig.setAlias(Payloads.ALIAS);
+        consumerConfig.setUrl("joyrpc://127.0.0.1:" + port);
+        consumerConfig.setSerialization(serialization);
+        consumerConfig.setChannelFactory(channelFactory);
+        consumerConfig.setTimeout(5000);
+        consumer = consumerConfig.refer().get();
+        query = Payloads.query();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (consumerConfig != null) {
+            consumerConfig.unrefer().get();
+        }
+        if (providerConfig != null) {
+            providerConfig.unexport().get();
+        }
+    }
+
+    /**
+     * 获取空闲端口
+     *
+     * @return 端口
+     * @throws IOException
+     */
+    protected static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public Order invoke() {
+        return consumer.query(query);
+    }
+
+}
@@ -0,0 +1,96 @@
+package io.joyrpc.benchmark;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.codec.UnsafeByteArrayInputStream;
+import io.joyrpc.codec.UnsafeByteArrayOutputStream;
+import io.joyrpc.codec.serialization.Serializer;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.ResponsePayload;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.joyrpc.Plugin.SERIALIZATION;
+
+/**
+ * 序列化基准测试，覆盖请求和应答两种消息体
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"hessian", "protostuff", "kryo", "fst", "json@fastjson", "json@jackson", "java"})
+    protected String serialization;
+
+    @Param({"1", "20"})
+    protected int items;
+
+    protected Serializer serializer;
+    protected Invocation invocation;
+    protected ResponsePayload response;
+    protected UnsafeByteArrayOutputStream output;
+    protected byte[] invocationBytes;
+    protected byte[] responseBytes;
+
+    @Setup
+    public void setup() {
+        serializer = SERIALIZATION.get(serialization).getSerializer();
+        invocation = Payloads.invocation();
+        response = Payloads.response(items);
+        output = new UnsafeByteArrayOutputStream(4096);
+        serializer.serialize(output, invocation);
+        invocationBytes = output.toByteArray();
+        output.reset();
+        serializer.serialize(output, response);
+        responseBytes = output.toByteArray();
+        output.reset();
+    }
+
+    @Benchmark
+    public int serializeInvocation() {
+        output.reset();
+        serializer.serialize(output, invocation);
+        return output.size();
+    }
+
+    @Benchmark
+    public Object deserializeInvocation() {
+        return serializer.deserialize(new UnsafeByteArrayInputStream(invocationBytes), Invocation.class);
+    }
+
+    @Benchmark
+    public int serializeResponse() {
+        output.reset();
+        serializer.serialize(output, response);
+        return output.size();
+    }
+
+    @Benchmark
+    public Object deserializeResponse() {
+        return serializer.deserialize(new UnsafeByteArrayInputStream(responseBytes), ResponsePayload.class);
+    }
+
+}
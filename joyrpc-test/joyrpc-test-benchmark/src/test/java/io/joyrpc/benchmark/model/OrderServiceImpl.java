@@ -0,0 +1,38 @@
+package io.joyrpc.benchmark.model;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * 订单服务实现，直接返回预先构造的订单
+ */
+public class OrderServiceImpl implements OrderService {
+
+    protected final Order order;
+
+    public OrderServiceImpl(Order order) {
+        this.order = order;
+    }
+
+    @Override
+    public Order query(final OrderQuery query) {
+        return order;
+    }
+}
@@ -0,0 +1,159 @@
+package io.joyrpc.cache;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.Invoker;
+import io.joyrpc.Result;
+import io.joyrpc.cache.map.MapCache;
+import io.joyrpc.filter.consumer.CacheFilter;
+import io.joyrpc.invoker.option.CacheOption;
+import io.joyrpc.invoker.option.MethodOption;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.util.SystemClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存过滤器测试
+ */
+public class CacheFilterTest {
+
+    protected RequestMessage<Invocation> request(final CacheOption policy) {
+        RequestMessage<Invocation> request = RequestMessage.build(new Invocation("io.joyrpc.Test", "", "echo"));
+        request.setOption((MethodOption) Proxy.newProxyInstance(MethodOption.class.getClassLoader(), new Class[]{MethodOption.class},
+                (proxy, method, args) -> "getCachePolicy".equals(method.getName()) ? policy : null));
+        return request;
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        CacheConfig<Object, Object> config = CacheConfig.builder().expireAfterWrite(10000).build();
+        CacheOption policy = new CacheOption(new MapCache<>("echo", config), invocation -> "key", 10000, true, 0);
+        PendingInvoker invoker = new PendingInvoker();
+        CacheFilter filter = new CacheFilter();
+        List<CompletableFuture<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(filter.invoke(invoker, request(policy)));
+        }
+        //合并为一次远程调用，完成前都在等待
+        Assertions.assertEquals(1, invoker.requests.size());
+        for (CompletableFuture<Result> future : futures) {
+            Assertions.assertFalse(future.isDone());
+        }
+        invoker.complete(0, "value1");
+        for (CompletableFuture<Result> future : futures) {
+            Assertions.assertEquals("value1", future.get().getValue());
+        }
+        Assertions.assertTrue(policy.getFlights().isEmpty());
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        ObjectCache cache = new ObjectCache();
+        //刷新阈值为300毫秒，直接写入400毫秒前的旧值
+        CacheOption policy = new CacheOption(cache, invocation -> "key", 1000, false, 0.3);
+        cache.objects.put("key", new CacheObject<>("value1", SystemClock.now() - 400));
+        PendingInvoker invoker = new PendingInvoker();
+        CacheFilter filter = new CacheFilter();
+        List<RequestMessage<Invocation>> requests = new ArrayList<>();
+        //命中旧值，只触发一次刷新
+        for (int i = 0; i < 10; i++) {
+            RequestMessage<Invocation> request = request(policy);
+            requests.add(request);
+            Assertions.assertEquals("value1", filter.invoke(invoker, request).get().getValue());
+        }
+        Assertions.assertEquals(1, invoker.requests.size());
+        //刷新使用复制的请求，不复用调用方的请求和上下文
+        RequestMessage<Invocation> refresh = invoker.requests.get(0);
+        Assertions.assertNotSame(requests.get(0), refresh);
+        Assertions.assertNotSame(requests.get(0).getPayLoad(), refresh.getPayLoad());
+        Assertions.assertNotSame(requests.get(0).getHeader(), refresh.getHeader());
+        Assertions.assertNotSame(requests.get(0).getContext(), refresh.getContext());
+        Assertions.assertEquals("echo", refresh.getPayLoad().getMethodName());
+        Assertions.assertSame(requests.get(0).getOption(), refresh.getOption());
+        invoker.complete(0, "value2");
+        Assertions.assertTrue(policy.getFlights().isEmpty());
+        //刷新后的新值，不再触发刷新
+        Assertions.assertEquals("value2", filter.invoke(invoker, request(policy)).get().getValue());
+        Assertions.assertEquals(1, invoker.requests.size());
+    }
+
+    /**
+     * 手动完成结果的调用器
+     */
+    protected static class PendingInvoker implements Invoker {
+
+        protected List<RequestMessage<Invocation>> requests = new ArrayList<>();
+
+        protected List<CompletableFuture<Result>> futures = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<Result> invoke(final RequestMessage<Invocation> request) {
+            CompletableFuture<Result> future = new CompletableFuture<>();
+            requests.add(request);
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * 完成指定调用
+         *
+         * @param index 序号
+         * @param value 值
+         */
+        public void complete(final int index, final Object value) {
+            futures.get(index).complete(new Result(requests.get(index).getContext(), value));
+        }
+    }
+
+    /**
+     * 可以指定写入时间的缓存
+     */
+    protected static class ObjectCache implements Cache<Object, Object> {
+
+        protected Map<Object, CacheObject<Object>> objects = new ConcurrentHashMap<>();
+
+        @Override
+        public CompletableFuture<Void> put(final Object key, final Object value) {
+            objects.put(key, new CacheObject<>(value));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<CacheObject<Object>> get(final Object key) {
+            return CompletableFuture.completedFuture(objects.get(key));
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(final Object key) {
+            objects.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.joyrpc.cache.offheap;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cache.CacheConfig;
+import io.joyrpc.cache.CacheObject;
+import io.joyrpc.permission.SerializerWhiteList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public class OffHeapCacheTest {
+
+    @Test
+    public void testSerialize() throws ExecutionException, InterruptedException {
+        CacheConfig.Builder<String, Object> builder = CacheConfig.builder();
+        OffHeapCache<String, Object> cache = new OffHeapCache<>("test", builder.nullable(true).serialization("java").build());
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        cache.put("list", list).get();
+        cache.put("null", null).get();
+        CacheObject<Object> result = cache.get("list").get();
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(list, result.getResult());
+        Assertions.assertNotSame(list, result.getResult());
+        result = cache.get("null").get();
+        Assertions.assertNotNull(result);
+        Assertions.assertNull(result.getResult());
+        cache.remove("list").get();
+        Assertions.assertNull(cache.get("list").get());
+    }
+
+    @Test
+    public void testMemory() throws ExecutionException, InterruptedException {
+        long memory = 1024 * 1024;
+        CacheConfig.Builder<Integer, String> builder = CacheConfig.builder();
+        OffHeapCache<Integer, String> cache = new OffHeapCache<>("test", builder.memory(memory).build());
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        String value = new String(chars);
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, value).get();
+        }
+        Assertions.assertTrue(cache.getAllocated() <= memory);
+        Assertions.assertTrue(cache.size() < 10000);
+        //最近写入的数据还在
+        Assertions.assertEquals(value, cache.get(9999).get().getResult());
+        Assertions.assertNull(cache.get(0).get());
+    }
+
+    @Test
+    public void testValueType() throws Exception {
+        //用方法的泛型返回值反序列化，保留集合元素类型
+        Type type = ItemService.class.getMethod("getItems").getGenericReturnType();
+        SerializerWhiteList.addGlobalWhite(Collections.singletonList(Item.class));
+        CacheConfig.Builder<String, Object> builder = CacheConfig.builder();
+        OffHeapCache<String, Object> cache = new OffHeapCache<>("test", builder.serialization("json").valueType(type).build());
+        List<Item> items = new ArrayList<>(Arrays.asList(new Item("a"), new Item("b")));
+        cache.put("items", items).get();
+        List<?> result = (List<?>) cache.get("items").get().getResult();
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertTrue(result.get(0) instanceof Item);
+        Assertions.assertEquals("b", ((Item) result.get(1)).getName());
+        //Object类型采用值的实际类型
+        builder = CacheConfig.builder();
+        cache = new OffHeapCache<>("test", builder.serialization("json").valueType(Object.class).build());
+        cache.put("item", new Item("c")).get();
+        Assertions.assertEquals("c", ((Item) cache.get("item").get().getResult()).getName());
+    }
+
+    public interface ItemService {
+
+        List<Item> getItems();
+    }
+
+    public static class Item {
+
+        protected String name;
+
+        public Item() {
+        }
+
+        public Item(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package io.joyrpc.cache.tinylfu;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cache.CacheConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testCapacity() throws ExecutionException, InterruptedException {
+        CacheConfig.Builder<Integer, Integer> builder = CacheConfig.builder();
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>("test", builder.capacity(100).build());
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, i).get();
+        }
+        Assertions.assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void testScanResistant() throws ExecutionException, InterruptedException {
+        CacheConfig.Builder<Integer, Integer> builder = CacheConfig.builder();
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>("test", builder.capacity(100).build());
+        //热点数据
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, i).get();
+        }
+        for (int j = 0; j < 20; j++) {
+            for (int i = 0; i < 50; i++) {
+                Assertions.assertNotNull(cache.get(i).get());
+            }
+        }
+        //一次性扫描大量冷数据
+        for (int i = 1000; i < 11000; i++) {
+            cache.put(i, i).get();
+        }
+        int hits = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i).get() != null) {
+                hits++;
+            }
+        }
+        Assertions.assertTrue(hits >= 45, "hits " + hits);
+    }
+
+}
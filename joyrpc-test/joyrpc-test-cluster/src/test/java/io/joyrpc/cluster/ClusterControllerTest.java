@@ -0,0 +1,182 @@
+package io.joyrpc.cluster;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Cluster.ClusterController;
+import io.joyrpc.cluster.Shard.ShardState;
+import io.joyrpc.cluster.candidate.Candidature;
+import io.joyrpc.cluster.discovery.naming.fix.FixRegistar;
+import io.joyrpc.cluster.event.ClusterEvent;
+import io.joyrpc.cluster.event.ClusterEvent.ShardEvent;
+import io.joyrpc.cluster.event.ClusterEvent.ShardEventType;
+import io.joyrpc.event.UpdateEvent.UpdateType;
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClusterControllerTest {
+
+    /**
+     * 记录选举的候选者数量
+     */
+    protected static class RecordCandidature implements Candidature {
+        protected final boolean incremental;
+        protected final List<Integer> sizes = new ArrayList<>();
+
+        public RecordCandidature(final boolean incremental) {
+            this.incremental = incremental;
+        }
+
+        @Override
+        public Result candidate(final URL url, final Candidate candidate) {
+            sizes.add(candidate.getNodes().size());
+            return new Result(new ArrayList<>(candidate.getNodes()));
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return incremental;
+        }
+    }
+
+    protected ClusterController controller(final Candidature candidature) {
+        URL url = URL.valueOf("joy://io.joyrpc.HelloService?alias=test");
+        Cluster cluster = new Cluster("test", url, new FixRegistar(URL.valueOf("fix://test?address=192.168.1.1")),
+                candidature, null, null, null, null, null, null);
+        return new ClusterController(cluster);
+    }
+
+    protected Shard shard(final int index, final int weight) {
+        return new Shard.DefaultShard("shard" + index, "huabei", "lf", "joy",
+                URL.valueOf("joy://192.168.1." + index + ":22000"), weight, ShardState.INITIAL);
+    }
+
+    protected ClusterEvent event(final UpdateType type, final ShardEventType shardType, final Shard... shards) {
+        List<ShardEvent> events = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            events.add(new ShardEvent(shard, shardType));
+        }
+        return new ClusterEvent(this, null, type, 0, events);
+    }
+
+    protected ClusterEvent full(final Shard... shards) {
+        return event(UpdateType.FULL, ShardEventType.ADD, shards);
+    }
+
+    @Test
+    public void testDuplicate() {
+        ClusterController controller = controller(new RecordCandidature(false));
+        //同一次推送中重复的分片只处理第一个
+        controller.onFullEvent(full(shard(1, 100), shard(1, 50), shard(2, 100)));
+        Assertions.assertEquals(2, controller.nodes.size());
+        Assertions.assertEquals(2, controller.snapshots.size());
+        Assertions.assertEquals(100, controller.nodes.get("shard1").originWeight);
+    }
+
+    @Test
+    public void testUnchanged() {
+        ClusterController controller = controller(new RecordCandidature(false));
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        Node node1 = controller.nodes.get("shard1");
+        Node node2 = controller.nodes.get("shard2");
+        //分片没有变化，不重建节点
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        Assertions.assertSame(node1, controller.nodes.get("shard1"));
+        Assertions.assertSame(node2, controller.nodes.get("shard2"));
+    }
+
+    @Test
+    public void testWeightChanged() {
+        ClusterController controller = controller(new RecordCandidature(false));
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        Node node1 = controller.nodes.get("shard1");
+        Node node2 = controller.nodes.get("shard2");
+        //权重变化，只重建变化的节点
+        controller.onFullEvent(full(shard(1, 50), shard(2, 100)));
+        Assertions.assertNotSame(node1, controller.nodes.get("shard1"));
+        Assertions.assertEquals(50, controller.nodes.get("shard1").originWeight);
+        Assertions.assertSame(node2, controller.nodes.get("shard2"));
+    }
+
+    @Test
+    public void testMissing() {
+        ClusterController controller = controller(new RecordCandidature(false));
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100), shard(3, 100)));
+        Node node1 = controller.nodes.get("shard1");
+        //全量推送中缺失的分片被删除
+        controller.onFullEvent(full(shard(1, 100), shard(3, 100)));
+        Assertions.assertEquals(2, controller.nodes.size());
+        Assertions.assertFalse(controller.nodes.containsKey("shard2"));
+        Assertions.assertFalse(controller.snapshots.containsKey("shard2"));
+        Assertions.assertSame(node1, controller.nodes.get("shard1"));
+        //重新出现则重新创建
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100), shard(3, 100)));
+        Assertions.assertTrue(controller.nodes.containsKey("shard2"));
+    }
+
+    @Test
+    public void testClear() {
+        ClusterController controller = controller(new RecordCandidature(false));
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        Assertions.assertTrue(controller.elected);
+        controller.onClearEvent(event(UpdateType.CLEAR, ShardEventType.DELETE));
+        Assertions.assertTrue(controller.nodes.isEmpty());
+        Assertions.assertTrue(controller.snapshots.isEmpty());
+        Assertions.assertFalse(controller.elected);
+        //清理后同样的分片重新创建
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        Assertions.assertEquals(2, controller.nodes.size());
+    }
+
+    @Test
+    public void testIncrementalCandidate() {
+        RecordCandidature candidature = new RecordCandidature(true);
+        ClusterController controller = controller(candidature);
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        //新增节点只对新增节点选举
+        controller.onUpdateEvent(event(UpdateType.UPDATE, ShardEventType.ADD, shard(3, 100)));
+        //全量推送没有变化，不选举
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100), shard(3, 100)));
+        Assertions.assertEquals(2, candidature.sizes.size());
+        Assertions.assertEquals(2, (int) candidature.sizes.get(0));
+        Assertions.assertEquals(1, (int) candidature.sizes.get(1));
+    }
+
+    @Test
+    public void testFullCandidate() {
+        RecordCandidature candidature = new RecordCandidature(false);
+        ClusterController controller = controller(candidature);
+        controller.onFullEvent(full(shard(1, 100), shard(2, 100)));
+        //不支持增量选举，全量重新选举
+        controller.onUpdateEvent(event(UpdateType.UPDATE, ShardEventType.ADD, shard(3, 100)));
+        Assertions.assertEquals(2, candidature.sizes.size());
+        Assertions.assertEquals(3, (int) candidature.sizes.get(1));
+        //删除分片
+        controller.onUpdateEvent(event(UpdateType.UPDATE, ShardEventType.DELETE, shard(3, 100)));
+        Assertions.assertEquals(2, controller.nodes.size());
+        Assertions.assertFalse(controller.snapshots.containsKey("shard3"));
+    }
+
+}
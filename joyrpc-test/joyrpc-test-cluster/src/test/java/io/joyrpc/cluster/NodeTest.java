@@ -0,0 +1,47 @@
+package io.joyrpc.cluster;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NodeTest {
+
+    protected Node node(final int index) {
+        URL url = URL.valueOf("joy://io.joyrpc.HelloService?alias=test");
+        return new Node("test", url, new Shard.DefaultShard(URL.valueOf("joy://192.168.1." + index + ":22000")));
+    }
+
+    @Test
+    public void testLatency() {
+        Node success = node(1);
+        Node failure = node(2);
+        success.latency(System.nanoTime(), 0);
+        //快速失败的请求按照惩罚延迟计算
+        failure.latency(System.nanoTime(), 3000);
+        Assertions.assertTrue(success.getLatency() < 100);
+        Assertions.assertTrue(failure.getLatency() >= 3000);
+        Assertions.assertTrue(failure.getLatency() > success.getLatency());
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.joyrpc.cluster.discovery.registry;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.cluster.discovery.registry.AbstractRegistry.ClusterBooking;
+import io.joyrpc.cluster.discovery.registry.URLKey.ClusterKey;
+import io.joyrpc.cluster.event.ClusterEvent;
+import io.joyrpc.cluster.event.ClusterEvent.ShardEvent;
+import io.joyrpc.event.UpdateEvent.UpdateType;
+import io.joyrpc.extension.URL;
+import io.joyrpc.util.Timer.Timeout;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.joyrpc.Plugin.EVENT_BUS;
+import static io.joyrpc.cluster.event.ClusterEvent.ShardEventType.ADD;
+import static io.joyrpc.cluster.event.ClusterEvent.ShardEventType.DELETE;
+
+public class ClusterBookingTest {
+
+    protected ShardEvent event(final int index, final ClusterEvent.ShardEventType type) {
+        return new ShardEvent(new Shard.DefaultShard(URL.valueOf("joy://192.168.1." + index + ":22000")), type);
+    }
+
+    @Test
+    public void testWindow() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<ClusterEvent> events = new CopyOnWriteArrayList<>();
+        ClusterBooking booking = new ClusterBooking(new ClusterKey(URL.valueOf("joy://topic1")), null,
+                EVENT_BUS.get().getPublisher("Registry", "topic1"));
+        booking.setWindow(200);
+        booking.addHandler(e -> {
+            events.add(e);
+            latch.countDown();
+        });
+        List<ShardEvent> full = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            full.add(event(i, ADD));
+        }
+        booking.handle(new ClusterEvent(this, null, UpdateType.FULL, 1, full));
+        //一批滚动发布的变更
+        long version = 2;
+        for (int i = 4; i <= 10; i++) {
+            booking.handle(new ClusterEvent(this, null, UpdateType.UPDATE, version++, Collections.singletonList(event(i, ADD))));
+            booking.handle(new ClusterEvent(this, null, UpdateType.UPDATE, version++, Collections.singletonList(event(i - 3, DELETE))));
+        }
+        Assertions.assertTrue(latch.await(2000, TimeUnit.MILLISECONDS));
+        Thread.sleep(400);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(UpdateType.FULL, events.get(0).getType());
+        ClusterEvent merged = events.get(1);
+        Assertions.assertEquals(UpdateType.UPDATE, merged.getType());
+        Assertions.assertEquals(version - 1, merged.getVersion());
+        //1~7删除，8~10新增
+        Assertions.assertEquals(10, merged.getDatum().size());
+        for (ShardEvent e : merged.getDatum()) {
+            int index = e.getShard().getUrl().getHost().lastIndexOf('.');
+            int host = Integer.parseInt(e.getShard().getUrl().getHost().substring(index + 1));
+            Assertions.assertEquals(host >= 8 ? ADD : DELETE, e.getType());
+        }
+        booking.close();
+    }
+
+    @Test
+    public void testClose() {
+        ClusterBooking booking = new ClusterBooking(new ClusterKey(URL.valueOf("joy://topic2")), null,
+                EVENT_BUS.get().getPublisher("Registry", "topic2"));
+        booking.setWindow(200);
+        booking.handle(new ClusterEvent(this, null, UpdateType.FULL, 1, Collections.singletonList(event(1, ADD))));
+        booking.handle(new ClusterEvent(this, null, UpdateType.UPDATE, 2, Collections.singletonList(event(2, ADD))));
+        Timeout flusher = booking.flusher;
+        Assertions.assertNotNull(flusher);
+        //关闭后取消通知任务并丢弃合并的数据
+        booking.close();
+        Assertions.assertTrue(flusher.isCancelled());
+        Assertions.assertNull(booking.flusher);
+        Assertions.assertNull(booking.pending);
+    }
+
+    @Test
+    public void testClear() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<ClusterEvent> events = new CopyOnWriteArrayList<>();
+        ClusterBooking booking = new ClusterBooking(new ClusterKey(URL.valueOf("joy://topic3")), null,
+                EVENT_BUS.get().getPublisher("Registry", "topic3"));
+        booking.setWindow(200);
+        booking.addHandler(e -> {
+            events.add(e);
+            latch.countDown();
+        });
+        booking.handle(new ClusterEvent(this, null, UpdateType.FULL, 1, Collections.singletonList(event(1, ADD))));
+        booking.handle(new ClusterEvent(this, null, UpdateType.UPDATE, 2, Collections.singletonList(event(2, ADD))));
+        Timeout flusher = booking.flusher;
+        //清理事件取消窗口内的通知
+        booking.handle(new ClusterEvent(this, null, UpdateType.CLEAR, 3, Collections.singletonList(event(1, DELETE))));
+        Assertions.assertTrue(flusher.isCancelled());
+        Assertions.assertTrue(latch.await(2000, TimeUnit.MILLISECONDS));
+        Thread.sleep(400);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(UpdateType.FULL, events.get(0).getType());
+        Assertions.assertEquals(UpdateType.CLEAR, events.get(1).getType());
+        booking.close();
+    }
+
+}
@@ -0,0 +1,75 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GradientConcurrencyLimiterTest {
+
+    /**
+     * 并发打满上限，按指定耗时完成一个窗口
+     *
+     * @param limiter 限制器
+     * @param rtt     耗时
+     */
+    protected void window(final GradientConcurrencyLimiter limiter, final long rtt) {
+        int count = 0;
+        while (limiter.acquire()) {
+            count++;
+        }
+        Assertions.assertEquals(limiter.getLimit(), count);
+        for (int i = 0; i < count; i++) {
+            limiter.release(rtt);
+        }
+        limiter.update();
+    }
+
+    @Test
+    public void testAdjust() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 200, 1.5, 3600 * 1000L);
+        //耗时平稳，逐步放大
+        for (int i = 0; i < 20; i++) {
+            window(limiter, 1000000L);
+        }
+        int grown = limiter.getLimit();
+        Assertions.assertTrue(grown > 20);
+        //耗时变大，出现排队，收缩
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 5000000L);
+        }
+        Assertions.assertTrue(limiter.getLimit() < grown);
+        Assertions.assertTrue(limiter.getLimit() >= 1);
+    }
+
+    @Test
+    public void testIdle() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 1, 200, 1.5, 3600 * 1000L);
+        //调用方压力不足时不放大
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertTrue(limiter.acquire());
+            limiter.release(1000000L);
+            limiter.update();
+        }
+        Assertions.assertEquals(20, limiter.getLimit());
+    }
+
+}
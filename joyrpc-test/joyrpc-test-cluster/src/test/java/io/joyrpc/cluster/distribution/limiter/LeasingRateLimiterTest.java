@@ -0,0 +1,89 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.QuotaCoordinator.Lease;
+import io.joyrpc.util.SystemClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LeasingRateLimiterTest {
+
+    @Test
+    public void testShare() {
+        RateLimiterConfig config = RateLimiterConfig.builder().type("leasing").name("io.joyrpc.Test#echo##")
+                .limitCount(1000).leaseCount(30).limitPeriodNanos(TimeUnit.HOURS.toNanos(1)).build();
+        //模拟两个进程共享全局配额
+        LeasingRateLimiter limiter1 = new LeasingRateLimiter(config);
+        LeasingRateLimiter limiter2 = new LeasingRateLimiter(config);
+        int count1 = 0;
+        int count2 = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (limiter1.getPermission()) {
+                count1++;
+            }
+            if (limiter2.getPermission()) {
+                count2++;
+            }
+        }
+        Assertions.assertEquals(1000, count1 + count2);
+        Assertions.assertTrue(count1 > 0 && count2 > 0);
+        Assertions.assertFalse(limiter1.getPermission());
+        Assertions.assertFalse(limiter2.getPermission());
+    }
+
+    @Test
+    public void testPendingLease() {
+        RateLimiterConfig config = RateLimiterConfig.builder().type("leasing").name("io.joyrpc.Test#echo##")
+                .limitCount(1000).leaseCount(30).limitPeriodNanos(TimeUnit.HOURS.toNanos(1)).build();
+        LeasingRateLimiter limiter = new LeasingRateLimiter(config);
+        //模拟异步的协调器，第一次租约挂起，后续租约表示全局配额已经用完
+        CompletableFuture<Lease> pending = new CompletableFuture<>();
+        long expireTime = SystemClock.now() + TimeUnit.HOURS.toMillis(1);
+        AtomicInteger leases = new AtomicInteger();
+        limiter.coordinator = (c, count) -> leases.incrementAndGet() == 1 ? pending :
+                CompletableFuture.completedFuture(new Lease(0, expireTime));
+        int count = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.getPermission()) {
+                count++;
+            }
+        }
+        //租约没有返回，由本地限流器按照租用块大小过渡
+        Assertions.assertTrue(count > 0 && count <= 30);
+        Assertions.assertEquals(1, leases.get());
+        pending.complete(new Lease(30, expireTime));
+        count = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.getPermission()) {
+                count++;
+            }
+        }
+        //消费完租约，全局配额用完后拒绝
+        Assertions.assertEquals(30, count);
+        Assertions.assertFalse(limiter.getPermission());
+    }
+
+}
\ No newline at end of file
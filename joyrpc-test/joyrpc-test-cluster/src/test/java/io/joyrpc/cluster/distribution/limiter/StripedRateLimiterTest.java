@@ -0,0 +1,92 @@
+package io.joyrpc.cluster.distribution.limiter;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.distribution.RateLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StripedRateLimiterTest {
+
+    protected RateLimiterConfig config(final String type, final int limit) {
+        return RateLimiterConfig.builder().type(type).limitCount(limit).limitPeriodNanos(TimeUnit.HOURS.toNanos(1)).build();
+    }
+
+    /**
+     * 单个周期内并发获取许可，不能超发
+     *
+     * @param limiter 限流器
+     * @param limit   限流数
+     */
+    protected void concurrent(final RateLimiter limiter, final int limit) throws InterruptedException {
+        AtomicInteger permits = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < limit; j++) {
+                    if (limiter.getPermission()) {
+                        permits.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assertions.assertEquals(limit, permits.get());
+        Assertions.assertFalse(limiter.getPermission());
+    }
+
+    @Test
+    public void testTokenBucket() throws InterruptedException {
+        concurrent(new TokenBucketRateLimiter(config("tokenBucket", 1000)), 1000);
+        concurrent(new TokenBucketRateLimiter(config("tokenBucket", 3)), 3);
+    }
+
+    @Test
+    public void testSlidingWindow() throws InterruptedException {
+        concurrent(new SlidingWindowRateLimiter(config("slidingWindow", 1000)), 1000);
+        concurrent(new SlidingWindowRateLimiter(config("slidingWindow", 3)), 3);
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        RateLimiterConfig config = RateLimiterConfig.builder().type("tokenBucket").limitCount(10)
+                .limitPeriodNanos(TimeUnit.MILLISECONDS.toNanos(100)).build();
+        RateLimiter[] limiters = new RateLimiter[]{new TokenBucketRateLimiter(config), new SlidingWindowRateLimiter(config)};
+        for (RateLimiter limiter : limiters) {
+            int count = 0;
+            while (limiter.getPermission()) {
+                count++;
+            }
+            Assertions.assertEquals(10, count);
+        }
+        Thread.sleep(250);
+        for (RateLimiter limiter : limiters) {
+            Assertions.assertTrue(limiter.getPermission());
+        }
+    }
+
+}
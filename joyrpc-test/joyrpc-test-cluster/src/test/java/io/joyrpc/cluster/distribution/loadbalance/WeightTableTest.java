@@ -0,0 +1,137 @@
+package io.joyrpc.cluster.distribution.loadbalance;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Weighter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WeightTableTest {
+
+    /**
+     * 可修改权重的节点
+     */
+    protected static class WeightNode implements Weighter {
+        protected int weight;
+        protected int count;
+        protected AtomicLong version;
+
+        public WeightNode(int weight) {
+            this.weight = weight;
+        }
+
+        public WeightNode(int weight, AtomicLong version) {
+            this.weight = weight;
+            this.version = version;
+        }
+
+        @Override
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    protected List<WeightNode> nodes(final int size) {
+        List<WeightNode> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            //第一个节点权重为0
+            nodes.add(new WeightNode(i));
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testSelect() {
+        List<WeightNode> nodes = nodes(20);
+        WeightTable<WeightNode> table = new WeightTable<>(nodes, 0);
+        Assertions.assertEquals(190, table.getTotal());
+        int count = 190000;
+        for (int i = 0; i < count; i++) {
+            table.select().count++;
+        }
+        Assertions.assertEquals(0, nodes.get(0).count);
+        for (int i = 1; i < nodes.size(); i++) {
+            //期望次数为权重*1000，允许15%的误差
+            Assertions.assertEquals(i * 1000, nodes.get(i).count, i * 150);
+        }
+    }
+
+    @Test
+    public void testZeroWeight() {
+        List<WeightNode> nodes = new ArrayList<>();
+        nodes.add(new WeightNode(0));
+        nodes.add(new WeightNode(0));
+        WeightTable<WeightNode> table = new WeightTable<>(nodes, 0);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNotNull(table.select());
+        }
+    }
+
+    @Test
+    public void testSelector() {
+        AtomicLong version = new AtomicLong();
+        RandomWeight.Selector<WeightNode> selector = new RandomWeight.Selector<>(8, version::get);
+        List<WeightNode> nodes = nodes(20);
+        WeightTable<WeightNode> table = selector.table(nodes);
+        Assertions.assertSame(table, selector.table(nodes));
+        //权重变化后重建
+        for (WeightNode node : nodes) {
+            node.weight = 0;
+        }
+        nodes.get(5).weight = 10;
+        version.incrementAndGet();
+        Assertions.assertNotSame(table, selector.table(nodes));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertSame(nodes.get(5), selector.select(nodes));
+        }
+    }
+
+    @Test
+    public void testClusterVersion() {
+        //每个集群有独立的权重版本
+        AtomicLong version1 = new AtomicLong();
+        AtomicLong version2 = new AtomicLong();
+        RandomWeight.Selector<WeightNode> selector = new RandomWeight.Selector<>(8,
+                (List<WeightNode> nodes) -> nodes.get(0).version.get());
+        List<WeightNode> nodes1 = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            nodes1.add(new WeightNode(i + 1, version1));
+        }
+        //两个节点列表缓存在不同的槽位，避免相互覆盖
+        List<WeightNode> nodes2;
+        do {
+            nodes2 = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                nodes2.add(new WeightNode(i + 1, version2));
+            }
+        } while ((System.identityHashCode(nodes1) & selector.mask) == (System.identityHashCode(nodes2) & selector.mask));
+        WeightTable<WeightNode> table1 = selector.table(nodes1);
+        WeightTable<WeightNode> table2 = selector.table(nodes2);
+        //其它集群的权重变化不影响本集群的选择表
+        version1.incrementAndGet();
+        Assertions.assertNotSame(table1, selector.table(nodes1));
+        Assertions.assertSame(table2, selector.table(nodes2));
+    }
+}
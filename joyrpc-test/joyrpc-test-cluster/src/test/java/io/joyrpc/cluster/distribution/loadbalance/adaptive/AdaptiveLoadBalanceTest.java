@@ -0,0 +1,236 @@
+package io.joyrpc.cluster.distribution.loadbalance.adaptive;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.apm.metric.Dashboard;
+import io.joyrpc.apm.metric.TPMetric;
+import io.joyrpc.apm.metric.TPWindow;
+import io.joyrpc.cluster.Cluster;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.cluster.distribution.loadbalance.adaptive.AdaptiveLoadBalance.ClusterRank;
+import io.joyrpc.cluster.distribution.loadbalance.adaptive.AdaptiveLoadBalance.RankCache;
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 自适应负载均衡评分缓存测试
+ */
+public class AdaptiveLoadBalanceTest {
+
+    protected List<Node> nodes(final int size) {
+        URL url = URL.valueOf("joy://io.joyrpc.HelloService?alias=test");
+        List<Node> nodes = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            nodes.add(new Node("test", url, new Shard.DefaultShard(URL.valueOf("joy://192.168.1." + i + ":22000"))));
+        }
+        return nodes;
+    }
+
+    protected TPMetric snapshot() {
+        return (TPMetric) Proxy.newProxyInstance(TPMetric.class.getClassLoader(), new Class[]{TPMetric.class},
+                (proxy, method, args) -> null);
+    }
+
+    /**
+     * 过期的评分缓存
+     *
+     * @param cache 缓存
+     * @return 过期的评分缓存
+     */
+    protected RankCache expire(final RankCache cache) {
+        return new RankCache(cache.clusterRank, cache.nodes, cache.policy, cache.snapshot, 0);
+    }
+
+    @Test
+    public void testCache() {
+        CountLoadBalance lb = new CountLoadBalance(10000);
+        List<Node> nodes = nodes(3);
+        AdaptivePolicy policy = new AdaptivePolicy();
+        RankCache cache = lb.getRankCache("echo", null, nodes, policy, null);
+        //输入不变，复用缓存
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertSame(cache, lb.getRankCache("echo", null, nodes, policy, null));
+        }
+        Assertions.assertEquals(1, lb.ranks.get());
+        //按照方法缓存
+        Assertions.assertNotSame(cache, lb.getRankCache("hello", null, nodes, policy, null));
+        Assertions.assertEquals(2, lb.ranks.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+        CountLoadBalance lb = new CountLoadBalance(10000);
+        List<Node> nodes = nodes(3);
+        AdaptivePolicy policy = new AdaptivePolicy();
+        RankCache cache = lb.getRankCache("echo", null, nodes, policy, null);
+        //节点列表变化
+        List<Node> changed = new ArrayList<>(nodes);
+        RankCache next = lb.getRankCache("echo", null, changed, policy, null);
+        Assertions.assertNotSame(cache, next);
+        Assertions.assertSame(changed, next.nodes);
+        Assertions.assertEquals(2, lb.ranks.get());
+        //策略变化
+        AdaptivePolicy other = new AdaptivePolicy();
+        cache = next;
+        next = lb.getRankCache("echo", null, changed, other, null);
+        Assertions.assertNotSame(cache, next);
+        Assertions.assertSame(other, next.policy);
+        Assertions.assertEquals(3, lb.ranks.get());
+        //集群指标快照变化
+        cache = next;
+        lb.snapshot = snapshot();
+        next = lb.getRankCache("echo", null, changed, other, null);
+        Assertions.assertNotSame(cache, next);
+        Assertions.assertSame(lb.snapshot, next.snapshot);
+        Assertions.assertEquals(4, lb.ranks.get());
+        //缓存过期
+        lb.rankCaches.put("echo", expire(next));
+        cache = lb.getRankCache("echo", null, changed, other, null);
+        Assertions.assertTrue(cache.expireTime > 0);
+        Assertions.assertEquals(5, lb.ranks.get());
+        Assertions.assertSame(cache, lb.getRankCache("echo", null, changed, other, null));
+        Assertions.assertEquals(5, lb.ranks.get());
+    }
+
+    @Test
+    public void testRefreshing() {
+        CountLoadBalance lb = new CountLoadBalance(10000);
+        List<Node> nodes = nodes(3);
+        AdaptivePolicy policy = new AdaptivePolicy();
+        RankCache expired = expire(lb.getRankCache("echo", null, nodes, policy, null));
+        lb.rankCaches.put("echo", expired);
+        //已经有线程在刷新，继续使用旧的评分结果
+        expired.refreshing.set(true);
+        Assertions.assertSame(expired, lb.getRankCache("echo", null, nodes, policy, null));
+        Assertions.assertEquals(1, lb.ranks.get());
+        //节点列表变化不等待刷新，直接重新评分
+        List<Node> changed = new ArrayList<>(nodes);
+        Assertions.assertNotSame(expired, lb.getRankCache("echo", null, changed, policy, null));
+        Assertions.assertEquals(2, lb.ranks.get());
+    }
+
+    @Test
+    public void testSingleRefresher() throws Exception {
+        CountLoadBalance lb = new CountLoadBalance(10000);
+        List<Node> nodes = nodes(3);
+        AdaptivePolicy policy = new AdaptivePolicy();
+        RankCache expired = expire(lb.getRankCache("echo", null, nodes, policy, null));
+        lb.rankCaches.put("echo", expired);
+        lb.ranks.set(0);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < 100; j++) {
+                            lb.getRankCache("echo", null, nodes, policy, null);
+                        }
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        end.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            Assertions.assertTrue(end.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        //过期后只有一个线程重新评分
+        Assertions.assertEquals(1, lb.ranks.get());
+        Assertions.assertTrue(expired.refreshing.get());
+        Assertions.assertNotSame(expired, lb.rankCaches.get("echo"));
+    }
+
+    @Test
+    public void testRefreshError() {
+        CountLoadBalance lb = new CountLoadBalance(10000);
+        List<Node> nodes = nodes(3);
+        AdaptivePolicy policy = new AdaptivePolicy();
+        RankCache expired = expire(lb.getRankCache("echo", null, nodes, policy, null));
+        lb.rankCaches.put("echo", expired);
+        //评分异常，保留旧的评分结果并释放刷新标识
+        lb.error = true;
+        Assertions.assertThrows(IllegalStateException.class, () -> lb.getRankCache("echo", null, nodes, policy, null));
+        Assertions.assertFalse(expired.refreshing.get());
+        Assertions.assertSame(expired, lb.rankCaches.get("echo"));
+        //后续请求可以重新评分
+        lb.error = false;
+        RankCache cache = lb.getRankCache("echo", null, nodes, policy, null);
+        Assertions.assertNotSame(expired, cache);
+        Assertions.assertEquals(3, lb.ranks.get());
+    }
+
+    /**
+     * 统计评分次数的负载均衡
+     */
+    protected static class CountLoadBalance extends AdaptiveLoadBalance {
+        /**
+         * 评分次数
+         */
+        protected AtomicInteger ranks = new AtomicInteger();
+        /**
+         * 集群指标快照
+         */
+        protected volatile TPMetric snapshot;
+        /**
+         * 评分是否抛出异常
+         */
+        protected volatile boolean error;
+
+        public CountLoadBalance(final long rankTtl) {
+            this.rankTtl = rankTtl;
+        }
+
+        @Override
+        protected TPMetric getClusterSnapshot(final Cluster cluster, final Function<Dashboard, TPWindow> metricFunction) {
+            return snapshot;
+        }
+
+        @Override
+        protected ClusterRank rank(final Cluster cluster, final List<Node> candidates, final AdaptivePolicy policy,
+                                   final Function<Dashboard, TPWindow> metricFunction, final boolean full) {
+            ranks.incrementAndGet();
+            if (error) {
+                throw new IllegalStateException("rank error");
+            }
+            return new ClusterRank(cluster, policy, metricFunction, nodeFunction);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.joyrpc.cluster.distribution.loadbalance.consistenthash;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.cluster.Shard.ShardState;
+import io.joyrpc.cluster.distribution.loadbalance.consistenthash.ConsistentHashLoadBalance.Ring;
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConsistentHashLoadBalanceTest {
+
+    protected List<Node> nodes(final int size) {
+        URL url = URL.valueOf("joyrpc://127.0.0.1/xxx.xxx.xxx.xxx");
+        List<Node> nodes = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            nodes.add(new Node("test", url, new Shard.DefaultShard("shard" + i, "huabei", "lf", "joyrpc",
+                    URL.valueOf("joyrpc://192.168.1." + i), 100, ShardState.INITIAL)));
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testUpdate() {
+        List<Node> nodes = nodes(10);
+        Ring ring = new Ring(nodes, 100);
+        //下线一个节点
+        List<Node> removed = new ArrayList<>(nodes);
+        Node offline = removed.remove(3);
+        Ring update = ring.update(removed, 100);
+        Ring full = new Ring(removed, 100);
+        Assertions.assertArrayEquals(full.hashes, update.hashes);
+        Assertions.assertArrayEquals(full.owners, update.owners);
+        //只有下线节点的键发生迁移
+        for (int i = 0; i < 10000; i++) {
+            long hash = ConsistentHashLoadBalance.hash("key" + i);
+            Node before = ring.owners[ring.index(hash)];
+            Node after = update.owners[update.index(hash)];
+            if (before != offline) {
+                Assertions.assertSame(before, after);
+            }
+        }
+        //重新上线
+        Ring online = update.update(nodes, 100);
+        Assertions.assertArrayEquals(ring.hashes, online.hashes);
+        Assertions.assertArrayEquals(ring.owners, online.owners);
+    }
+
+    @Test
+    public void testBalance() {
+        List<Node> nodes = nodes(10);
+        Ring ring = new Ring(nodes, 160);
+        int[] counts = new int[nodes.size()];
+        int count = 100000;
+        for (int i = 0; i < count; i++) {
+            counts[nodes.indexOf(ring.owners[ring.index(ConsistentHashLoadBalance.hash("key" + i))])]++;
+        }
+        for (int value : counts) {
+            //期望每个节点10000次，允许30%的误差
+            Assertions.assertEquals(count / nodes.size(), value, count / nodes.size() * 0.3);
+        }
+    }
+
+    @Test
+    public void testRingCache() {
+        ConsistentHashLoadBalance loadBalance = new ConsistentHashLoadBalance();
+        loadBalance.setUrl(URL.valueOf("joyrpc://127.0.0.1/xxx.xxx.xxx.xxx"));
+        List<Node> nodes = nodes(10);
+        List<Node> part = new ArrayList<>(nodes.subList(0, 5));
+        Ring ring = loadBalance.getRing(nodes);
+        Ring partRing = loadBalance.getRing(part);
+        //候选列表交替出现，不重建哈希环
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertSame(ring, loadBalance.getRing(nodes));
+            Assertions.assertSame(partRing, loadBalance.getRing(part));
+        }
+        //增量更新的结果和全量构建一致
+        Ring full = new Ring(part, loadBalance.replicas);
+        Assertions.assertArrayEquals(full.hashes, partRing.hashes);
+        //超过缓存容量后淘汰最早的哈希环
+        for (int i = 0; i < ConsistentHashLoadBalance.RING_CAPACITY; i++) {
+            loadBalance.getRing(new ArrayList<>(nodes));
+        }
+        Assertions.assertNotSame(ring, loadBalance.getRing(nodes));
+    }
+}
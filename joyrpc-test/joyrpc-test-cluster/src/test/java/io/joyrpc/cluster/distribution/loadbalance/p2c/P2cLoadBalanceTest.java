@@ -0,0 +1,127 @@
+package io.joyrpc.cluster.distribution.loadbalance.p2c;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Candidate;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class P2cLoadBalanceTest {
+
+    /**
+     * 可以指定负载的节点
+     */
+    protected static class LoadNode extends Node {
+        protected int requests;
+        protected double latency;
+        protected int weight;
+
+        public LoadNode(final int index, final int requests, final double latency, final int weight) {
+            super("test", URL.valueOf("joy://io.joyrpc.HelloService?alias=test"),
+                    new Shard.DefaultShard(URL.valueOf("joy://192.168.1." + index + ":22000")));
+            this.requests = requests;
+            this.latency = latency;
+            this.weight = weight;
+        }
+
+        @Override
+        public int getRequests() {
+            return requests;
+        }
+
+        @Override
+        public double getLatency() {
+            return latency;
+        }
+
+        @Override
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    protected P2cLoadBalance loadBalance(final boolean latency) {
+        P2cLoadBalance result = new P2cLoadBalance();
+        result.setUrl(URL.valueOf("joy://io.joyrpc.HelloService?alias=test&p2c.latency=" + latency));
+        return result;
+    }
+
+    protected Node select(final P2cLoadBalance loadBalance, final Node... nodes) {
+        List<Node> list = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            list.add(node);
+        }
+        return loadBalance.select(new Candidate(null, null, list, list.size()), null);
+    }
+
+    @Test
+    public void testLoad() {
+        P2cLoadBalance loadBalance = loadBalance(true);
+        //(请求数+1)*延迟/权重
+        Assertions.assertEquals(3 * 20 / 100D, loadBalance.load(new LoadNode(1, 2, 20, 100)), 0.0001);
+        //没有延迟数据按照1毫秒计算
+        Assertions.assertEquals(3 / 100D, loadBalance.load(new LoadNode(1, 2, 0, 100)), 0.0001);
+        //权重为0的节点负载放大
+        Assertions.assertEquals(3 * 20 * 100D, loadBalance.load(new LoadNode(1, 2, 20, 0)), 0.0001);
+        //不考虑延迟
+        Assertions.assertEquals(3 / 100D, loadBalance(false).load(new LoadNode(1, 2, 20, 100)), 0.0001);
+    }
+
+    @Test
+    public void testSelect() {
+        P2cLoadBalance loadBalance = loadBalance(true);
+        Node idle = new LoadNode(1, 0, 10, 100);
+        Node busy = new LoadNode(2, 10, 10, 100);
+        Node slow = new LoadNode(3, 0, 500, 100);
+        Node warmup = new LoadNode(4, 0, 10, 10);
+        for (int i = 0; i < 100; i++) {
+            //两个节点的时候总是选择负载较低的
+            Assertions.assertSame(idle, select(loadBalance, idle, busy));
+            Assertions.assertSame(idle, select(loadBalance, slow, idle));
+            Assertions.assertSame(idle, select(loadBalance, idle, warmup));
+        }
+        Assertions.assertSame(idle, select(loadBalance, idle));
+        Assertions.assertNull(select(loadBalance));
+    }
+
+    @Test
+    public void testDistribution() {
+        P2cLoadBalance loadBalance = loadBalance(true);
+        Node[] nodes = new Node[]{new LoadNode(1, 0, 10, 100), new LoadNode(2, 0, 10, 100),
+                new LoadNode(3, 0, 10, 100), new LoadNode(4, 20, 10, 100)};
+        int count = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (select(loadBalance, nodes) == nodes[3]) {
+                count++;
+            }
+        }
+        //负载最高的节点只有和自己比较的时候才会被选中，这里不可能
+        Assertions.assertEquals(0, count);
+    }
+
+}
@@ -0,0 +1,188 @@
+package io.joyrpc.cluster.distribution.router.hedging;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.Result;
+import io.joyrpc.cluster.Candidate;
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.extension.URL;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class HedgingRouterTest {
+
+    protected List<Node> nodes(final URL url) {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            nodes.add(new Node("test", url, new Shard.DefaultShard(URL.valueOf("joyrpc://192.168.1." + i + ":22000"))));
+        }
+        return nodes;
+    }
+
+    protected RequestMessage<Invocation> request() {
+        RequestMessage<Invocation> request = RequestMessage.build(new Invocation("io.joyrpc.HelloService", "test", "sayHello"));
+        request.setMethodName("sayHello");
+        return request;
+    }
+
+    /**
+     * 构造路由，第一个节点不应答，第二个节点立即应答
+     *
+     * @param url     参数
+     * @param nodes   节点
+     * @param futures 每个节点的调用
+     * @return 路由
+     */
+    protected HedgingRouter router(final URL url, final List<Node> nodes, final Map<Node, CompletableFuture<Result>> futures) {
+        HedgingRouter router = new HedgingRouter();
+        router.setUrl(url);
+        //首次调用总是选择第一个节点
+        router.setLoadBalance((candidate, request) -> candidate.getNodes().get(0));
+        router.setOperation((node, last, request) -> {
+            CompletableFuture<Result> future = new CompletableFuture<>();
+            futures.put(node, future);
+            if (node == nodes.get(1)) {
+                future.complete(new Result(request.getContext(), "hedged"));
+            }
+            return future;
+        });
+        router.setup();
+        return router;
+    }
+
+    @Test
+    public void testHedge() throws Exception {
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test&hedge.delay=50");
+        List<Node> nodes = nodes(url);
+        Map<Node, CompletableFuture<Result>> futures = new ConcurrentHashMap<>();
+        HedgingRouter router = router(url, nodes, futures);
+        long begin = System.nanoTime();
+        Result result = router.route(request(), new Candidate(null, null, nodes, nodes.size())).get(2, TimeUnit.SECONDS);
+        //超过阈值才对冲，时间轮的刻度为5毫秒，允许提前一个刻度
+        Assertions.assertTrue(System.nanoTime() - begin >= TimeUnit.MILLISECONDS.toNanos(50 - 5));
+        Assertions.assertEquals("hedged", result.getValue());
+        //落后的调用在结果完成之后被取消
+        CompletableFuture<Result> loser = futures.get(nodes.get(0));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!loser.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(loser.isCancelled());
+    }
+
+    @Test
+    public void testPrimaryWins() throws Exception {
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test&hedge.delay=200");
+        List<Node> nodes = nodes(url);
+        Map<Node, CompletableFuture<Result>> futures = new ConcurrentHashMap<>();
+        HedgingRouter router = router(url, nodes, futures);
+        RequestMessage<Invocation> request = request();
+        CompletableFuture<Result> future = router.route(request, new Candidate(null, null, nodes, nodes.size()));
+        futures.get(nodes.get(0)).complete(new Result(request.getContext(), "primary"));
+        Assertions.assertEquals("primary", future.get(1, TimeUnit.SECONDS).getValue());
+        Thread.sleep(400);
+        //阈值之前返回，不对冲
+        Assertions.assertFalse(futures.containsKey(nodes.get(1)));
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        //令牌桶只有一个令牌，几乎不补充
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test&hedge.delay=20&hedge.burst=1&hedge.ratio=0.001");
+        List<Node> nodes = nodes(url);
+        Map<Node, CompletableFuture<Result>> futures = new ConcurrentHashMap<>();
+        HedgingRouter router = router(url, nodes, futures);
+        Candidate candidate = new Candidate(null, null, nodes, nodes.size());
+        Assertions.assertEquals("hedged", router.route(request(), candidate).get(1, TimeUnit.SECONDS).getValue());
+        futures.clear();
+        CompletableFuture<Result> future = router.route(request(), candidate);
+        Thread.sleep(300);
+        //没有令牌，不再对冲
+        Assertions.assertFalse(future.isDone());
+        Assertions.assertFalse(futures.containsKey(nodes.get(1)));
+    }
+
+    @Test
+    public void testLateSuccess() throws Exception {
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test&hedge.delay=20");
+        List<Node> nodes = nodes(url);
+        Map<Node, CompletableFuture<Result>> futures = new ConcurrentHashMap<>();
+        Map<Node, RequestMessage<Invocation>> requests = new ConcurrentHashMap<>();
+        HedgingRouter router = new HedgingRouter();
+        router.setUrl(url);
+        router.setLoadBalance((candidate, request) -> candidate.getNodes().get(0));
+        router.setOperation((node, last, request) -> {
+            CompletableFuture<Result> future = new CompletableFuture<>();
+            futures.put(node, future);
+            requests.put(node, request);
+            if (node == nodes.get(1)) {
+                //首次调用在对冲调用设置之前成功返回
+                futures.get(nodes.get(0)).complete(new Result(request.getContext(), "primary"));
+            }
+            return future;
+        });
+        router.setup();
+        RequestMessage<Invocation> request = request();
+        Result result = router.route(request, new Candidate(null, null, nodes, nodes.size())).get(1, TimeUnit.SECONDS);
+        Assertions.assertEquals("primary", result.getValue());
+        //对冲调用在定时线程里面被取消
+        CompletableFuture<Result> secondary = futures.get(nodes.get(1));
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!secondary.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(secondary.isCancelled());
+        //对冲调用使用复制的请求
+        RequestMessage<Invocation> hedged = requests.get(nodes.get(1));
+        Assertions.assertSame(request, requests.get(nodes.get(0)));
+        Assertions.assertNotSame(request, hedged);
+        Assertions.assertNotSame(request.getHeader(), hedged.getHeader());
+        Assertions.assertNotSame(request.getPayLoad(), hedged.getPayLoad());
+        Assertions.assertEquals(request.getPayLoad().getMethodName(), hedged.getPayLoad().getMethodName());
+    }
+
+    @Test
+    public void testNoTarget() throws Exception {
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test&hedge.delay=20&hedge.burst=1&hedge.ratio=0.001");
+        List<Node> nodes = nodes(url);
+        Map<Node, CompletableFuture<Result>> futures = new ConcurrentHashMap<>();
+        HedgingRouter router = router(url, nodes, futures);
+        //只有一个节点，没有对冲目标
+        List<Node> single = new ArrayList<>(nodes.subList(0, 1));
+        CompletableFuture<Result> future = router.route(request(), new Candidate(null, null, single, single.size()));
+        Thread.sleep(200);
+        Assertions.assertFalse(future.isDone());
+        //没有消耗令牌，仍然可以对冲
+        Candidate candidate = new Candidate(null, null, nodes, nodes.size());
+        Assertions.assertEquals("hedged", router.route(request(), candidate).get(1, TimeUnit.SECONDS).getValue());
+    }
+
+}
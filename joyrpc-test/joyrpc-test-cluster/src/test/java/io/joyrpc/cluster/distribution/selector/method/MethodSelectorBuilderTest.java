@@ -0,0 +1,91 @@
+package io.joyrpc.cluster.distribution.selector.method;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.cluster.Node;
+import io.joyrpc.cluster.Shard;
+import io.joyrpc.cluster.distribution.selector.SelectorCache;
+import io.joyrpc.cluster.distribution.selector.method.predicate.RulePredicate;
+import io.joyrpc.extension.URL;
+import io.joyrpc.protocol.message.Invocation;
+import io.joyrpc.protocol.message.RequestMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+public class MethodSelectorBuilderTest {
+
+    protected RequestMessage<Invocation> request(final String method, final Object... args) {
+        Invocation invocation = new Invocation("io.joyrpc.HelloService", "test", method);
+        invocation.setArgs(args);
+        return RequestMessage.build(invocation);
+    }
+
+    protected List<Node> nodes() {
+        URL url = URL.valueOf("joyrpc://io.joyrpc.HelloService?alias=test");
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            nodes.add(new Node("test", url, new Shard.DefaultShard(URL.valueOf("joyrpc://192.168.1." + i + ":22000"))));
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testArgRule() {
+        BiPredicate<Shard, RequestMessage<Invocation>> predicate = MethodSelectorBuilder.build(
+                "{\"sayHello.arg1==abc\":\"192.168.1.1\"}");
+        Assertions.assertTrue(predicate instanceof RulePredicate);
+        List<Node> nodes = nodes();
+        Node node = nodes.get(0);
+        Node other = nodes.get(1);
+        //第二个参数匹配才路由
+        Assertions.assertTrue(predicate.test(node, request("sayHello", "x", "abc")));
+        Assertions.assertFalse(predicate.test(other, request("sayHello", "x", "abc")));
+        Assertions.assertTrue(predicate.test(other, request("sayHello", "abc", "x")));
+        Assertions.assertTrue(predicate.test(other, request("sayBye", "x", "abc")));
+        //缓存键包含方法名和引用的参数
+        RulePredicate rule = (RulePredicate) predicate;
+        Assertions.assertEquals(Arrays.asList("sayHello", "abc"), rule.getKey(request("sayHello", "x", "abc")));
+        Assertions.assertEquals(rule.getKey(request("sayHello", "y", "abc")), rule.getKey(request("sayHello", "x", "abc")));
+    }
+
+    @Test
+    public void testSelectorCache() {
+        RulePredicate rule = (RulePredicate) MethodSelectorBuilder.build("{\"sayHello.arg0==abc\":\"192.168.1.1\"}");
+        SelectorCache cache = new SelectorCache(16);
+        List<Node> nodes = nodes();
+        RequestMessage<Invocation> hit = request("sayHello", "abc");
+        RequestMessage<Invocation> miss = request("sayHello", "def");
+        List<Node> first = cache.get(nodes, rule, rule.getKey(hit), n -> rule.test(n, hit));
+        Assertions.assertEquals(1, first.size());
+        Assertions.assertSame(first, cache.get(nodes, rule, rule.getKey(hit), n -> rule.test(n, hit)));
+        //全部节点都满足，返回原始列表
+        Assertions.assertSame(nodes, cache.get(nodes, rule, rule.getKey(miss), n -> rule.test(n, miss)));
+        //节点列表变化，缓存失效
+        List<Node> changed = new ArrayList<>(nodes.subList(1, nodes.size()));
+        Assertions.assertTrue(cache.get(changed, rule, rule.getKey(hit), n -> rule.test(n, hit)).isEmpty());
+    }
+
+}
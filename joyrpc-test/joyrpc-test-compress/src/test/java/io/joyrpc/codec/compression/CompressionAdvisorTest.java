@@ -0,0 +1,102 @@
+package io.joyrpc.codec.compression;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.joyrpc.Plugin.COMPRESSION;
+
+public class CompressionAdvisorTest {
+
+    protected static final List<String> NAMES = Arrays.asList("lz4", "snappy");
+
+    /**
+     * 模拟调用，返回最后count次选择中各个算法的次数
+     *
+     * @param advisor 选择器
+     * @param key     方法键
+     * @param times   调用次数
+     * @param count   统计的次数
+     * @param lz4     lz4的压缩率
+     * @param snappy  snappy的压缩率
+     * @return 选择次数，依次为不压缩、lz4和snappy
+     */
+    protected int[] simulate(final CompressionAdvisor advisor, final String key, final int times, final int count,
+                             final double lz4, final double snappy) {
+        Compression preferred = COMPRESSION.get("lz4");
+        int[] result = new int[3];
+        for (int i = 0; i < times; i++) {
+            Compression compression = advisor.select(key, preferred, NAMES);
+            int compressed;
+            int index;
+            if (compression == null) {
+                compressed = 1000;
+                index = 0;
+            } else if ("lz4".equals(compression.getTypeName())) {
+                compressed = (int) (1000 * lz4);
+                index = 1;
+            } else {
+                compressed = (int) (1000 * snappy);
+                index = 2;
+            }
+            advisor.feedback(key, compression, 1000, compressed, compression == null ? 1000 : 3000);
+            if (i >= times - count) {
+                result[index]++;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testSelect() {
+        CompressionAdvisor advisor = new CompressionAdvisor();
+        //预热阶段先采集不压缩的样本
+        Assertions.assertNull(advisor.select("io.joyrpc.HelloService.sayHello", COMPRESSION.get("lz4"), NAMES));
+        int[] counts = simulate(advisor, "io.joyrpc.HelloService.sayHello", 300, 100, 0.4, 0.8);
+        //lz4的收益最高，其它算法只在探测的时候选择
+        Assertions.assertTrue(counts[1] >= 95);
+        Assertions.assertTrue(counts[0] + counts[2] <= 5);
+    }
+
+    @Test
+    public void testNoSaving() {
+        CompressionAdvisor advisor = new CompressionAdvisor();
+        int[] counts = simulate(advisor, "io.joyrpc.HelloService.echo", 300, 100, 0.95, 0.98);
+        //压缩收益太低，不压缩
+        Assertions.assertTrue(counts[0] >= 95);
+    }
+
+    @Test
+    public void testMethodKey() {
+        CompressionAdvisor advisor = new CompressionAdvisor();
+        simulate(advisor, "io.joyrpc.HelloService.sayHello", 300, 100, 0.4, 0.8);
+        //不同方法的统计互不影响，新方法重新预热
+        Assertions.assertNull(advisor.select("io.joyrpc.HelloService.echo", COMPRESSION.get("lz4"), NAMES));
+        Assertions.assertNotNull(advisor.stats.get("io.joyrpc.HelloService.sayHello"));
+        Assertions.assertEquals(2, advisor.stats.size());
+    }
+
+}
@@ -20,14 +20,27 @@ package io.joyrpc.codec.compression;
  * #L%
  */
 
+import com.github.luben.zstd.ZstdDictTrainer;
 import io.joyrpc.codec.UnsafeByteArrayOutputStream;
+import io.joyrpc.codec.compression.zstd.ZstdCompression;
+import io.joyrpc.context.GlobalContext;
 import io.joyrpc.transport.netty4.buffer.NettyChannelBuffer;
+import io.joyrpc.transport.session.DefaultSession;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static io.joyrpc.Plugin.COMPRESSION;
 
@@ -158,4 +171,138 @@ public class CompressionTest {
 
     }
 
-}
+    @Test
+    public void testAdaptivePooled() throws IOException {
+        Compression lz4 = COMPRESSION.get("lz4");
+        byte[] source = new byte[1024];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) (i % 128);
+        }
+        ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+        NettyChannelBuffer buffer = new NettyChannelBuffer(allocator.directBuffer(1024));
+        AdaptiveCompressOutputStream acos = new AdaptiveCompressOutputStream(buffer, lz4, 128,
+                size -> new NettyChannelBuffer(allocator.directBuffer(size)));
+        acos.write(source, 0, 100);
+        acos.write(source, 100, source.length - 100);
+        acos.finish();
+        acos.flush();
+        Assertions.assertTrue(acos.isCompressed());
+        byte[] target = new byte[source.length];
+        DataInputStream is = new DataInputStream(lz4.decompress(buffer.inputStream()));
+        is.readFully(target);
+        Assertions.assertArrayEquals(source, target);
+        buffer.release();
+    }
+
+    @Test
+    public void testZstdDictionary() throws IOException {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(1024 * 1024, 16 * 1024);
+        for (int i = 0; i < 2000; i++) {
+            trainer.addSample(("{\"id\":" + i + ",\"name\":\"user" + i + "\",\"email\":\"user" + i
+                    + "@joyrpc.io\",\"status\":\"ACTIVE\",\"roles\":[\"admin\",\"guest\"]}").getBytes(StandardCharsets.UTF_8));
+        }
+        Path path = Files.createTempFile("joyrpc", ".dict");
+        Files.write(path, trainer.trainSamples());
+        GlobalContext.put(ZstdCompression.ZSTD_DICTIONARIES, path.toString());
+        try {
+            ZstdCompression zstd = new ZstdCompression();
+            Assertions.assertEquals(1, zstd.getDictionaries().size());
+            Compression compression = zstd.dictionary(zstd.getDictionaries().get(0));
+            Assertions.assertNotNull(compression);
+            byte[] source = ("{\"id\":12345,\"name\":\"user12345\",\"email\":\"user12345@joyrpc.io\","
+                    + "\"status\":\"ACTIVE\",\"roles\":[\"admin\",\"guest\"]}").getBytes(StandardCharsets.UTF_8);
+            byte[] plain = zstd.compress(source);
+            byte[] dict = compression.compress(source);
+            Assertions.assertTrue(dict.length < plain.length);
+            Assertions.assertArrayEquals(source, zstd.decompress(dict));
+            Assertions.assertArrayEquals(source, zstd.decompress(plain));
+        } finally {
+            GlobalContext.remove(ZstdCompression.ZSTD_DICTIONARIES);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * 训练字典并创建压缩算法
+     *
+     * @param prefix    样本前缀，不同的样本生成不同的字典
+     * @param classpath 是否从类路径加载字典
+     * @return 压缩算法
+     * @throws IOException
+     */
+    protected ZstdCompression zstd(final String prefix, final boolean classpath) throws IOException {
+        ZstdDictTrainer trainer = new ZstdDictTrainer(1024 * 1024, 16 * 1024);
+        for (int i = 0; i < 2000; i++) {
+            trainer.addSample(("{\"id\":" + i + ",\"name\":\"" + prefix + i + "\",\"email\":\"" + prefix + i
+                    + "@joyrpc.io\",\"status\":\"ACTIVE\",\"roles\":[\"admin\",\"guest\"]}").getBytes(StandardCharsets.UTF_8));
+        }
+        Path path = Files.createTempFile("joyrpc", ".dict");
+        Files.write(path, trainer.trainSamples());
+        Thread thread = Thread.currentThread();
+        ClassLoader loader = thread.getContextClassLoader();
+        if (classpath) {
+            thread.setContextClassLoader(new URLClassLoader(new URL[]{path.getParent().toUri().toURL()}, loader));
+        }
+        GlobalContext.put(ZstdCompression.ZSTD_DICTIONARIES, classpath ? path.getFileName().toString() : path.toString());
+        try {
+            return new ZstdCompression();
+        } finally {
+            thread.setContextClassLoader(loader);
+            GlobalContext.remove(ZstdCompression.ZSTD_DICTIONARIES);
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testZstdHandshake() throws IOException {
+        ZstdCompression client = zstd("user", false);
+        ZstdCompression server = zstd("user", true);
+        long id = client.getDictionaries().get(0);
+        Assertions.assertEquals(client.getDictionaries(), server.getDictionaries());
+        //客户端在协商请求中提供本地字典
+        Map<String, String> attributes = new HashMap<>();
+        DictionaryCompression.offer(Collections.singletonList(client), attributes::put);
+        Assertions.assertEquals(String.valueOf(id), attributes.get("zstd" + DictionaryCompression.DICTIONARIES_SUFFIX));
+        //服务端选择双方都有的字典，保存到会话
+        DefaultSession session = new DefaultSession();
+        DictionaryCompression.negotiate(Collections.singletonList(server), attributes, session::put);
+        Assertions.assertEquals(String.valueOf(id), session.get("zstd" + DictionaryCompression.DICTIONARY_SUFFIX));
+        //按照会话绑定字典压缩，对端按照数据中的字典ID解压
+        Compression bound = DictionaryCompression.bind(server, session);
+        Assertions.assertNotSame(server, bound);
+        byte[] source = ("{\"id\":12345,\"name\":\"user12345\",\"email\":\"user12345@joyrpc.io\","
+                + "\"status\":\"ACTIVE\",\"roles\":[\"admin\",\"guest\"]}").getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = bound.compress(source);
+        Assertions.assertEquals(id, new DataInputStream(new ByteArrayInputStream(compressed)).readInt() & 0xFFFFFFFFL);
+        Assertions.assertTrue(compressed.length < server.compress(source).length);
+        Assertions.assertArrayEquals(source, client.decompress(compressed));
+
+        //没有共同的字典，不绑定
+        ZstdCompression other = zstd("order", false);
+        Assertions.assertNotEquals(id, (long) other.getDictionaries().get(0));
+        session = new DefaultSession();
+        DictionaryCompression.negotiate(Collections.singletonList(other), attributes, session::put);
+        Assertions.assertNull(session.get("zstd" + DictionaryCompression.DICTIONARY_SUFFIX));
+        Assertions.assertSame(other, DictionaryCompression.bind(other, session));
+        compressed = other.compress(source);
+        Assertions.assertEquals(0, new DataInputStream(new ByteArrayInputStream(compressed)).readInt());
+        Assertions.assertArrayEquals(source, client.decompress(compressed));
+    }
+
+    @Test
+    public void testZstdPayloadLimit() throws IOException {
+        byte[] source = new byte[2 * 1024 * 1024];
+        byte[] large = new ZstdCompression().compress(source);
+        GlobalContext.put("payload", 1024 * 1024);
+        try {
+            ZstdCompression zstd = new ZstdCompression();
+            //声明的解压大小超过payload直接拒绝
+            Assertions.assertThrows(IOException.class, () -> zstd.decompress(new ByteArrayInputStream(large)));
+            byte[] small = new byte[512 * 1024];
+            Assertions.assertArrayEquals(small, zstd.decompress(zstd.compress(small)));
+        } finally {
+            GlobalContext.remove("payload");
+        }
+    }
+
+}
\ No newline at end of file
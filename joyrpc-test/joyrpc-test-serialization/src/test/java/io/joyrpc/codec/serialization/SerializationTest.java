@@ -121,6 +121,32 @@ public class SerializationTest {
         }
     }
 
+    @Test
+    public void testKryoReentrant() {
+        Serializer serializer = SERIALIZATION.get("kryo").getSerializer();
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        //底层输出流在第一次写入的时候再次序列化
+        ByteArrayOutputStream outer = new ByteArrayOutputStream() {
+            boolean nested;
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                if (!nested) {
+                    nested = true;
+                    serializer.serialize(inner, "inner");
+                }
+                super.write(b, off, len);
+            }
+        };
+        ArrayList<String> values = new ArrayList<>(2000);
+        for (int i = 0; i < 2000; i++) {
+            values.add("value" + i);
+        }
+        serializer.serialize(outer, values);
+        Assertions.assertEquals(values, serializer.deserialize(new ByteArrayInputStream(outer.toByteArray()), ArrayList.class));
+        Assertions.assertEquals("inner", serializer.deserialize(new ByteArrayInputStream(inner.toByteArray()), String.class));
+    }
+
     @Test
     public void testBackup() {
         Map<String, List<BackupShard>> clusters = new HashMap<>();
@@ -0,0 +1,44 @@
+package io.joyrpc.invoker;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.URL;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 服务管理器测试
+ */
+public class ServiceManagerTest {
+
+    @Test
+    public void testResponsePool() {
+        ServiceManager manager = ServiceManager.INSTANCE;
+        //默认在IO线程解码和处理应答
+        Assertions.assertNull(manager.getResponsePool(URL.valueOf("joyrpc://io.joyrpc.HelloService")));
+        //延迟解码使用回调线程池
+        Assertions.assertSame(ServiceManager.getCallbackPool(),
+                manager.getResponsePool(URL.valueOf("joyrpc://io.joyrpc.HelloService?decode.lazy=true")));
+        Assertions.assertNotNull(ServiceManager.getCallbackPool());
+    }
+
+}
@@ -0,0 +1,137 @@
+package io.joyrpc.protocol;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.CodecException;
+import io.joyrpc.protocol.message.MessageHeader;
+import io.joyrpc.protocol.message.ResponseMessage;
+import io.joyrpc.protocol.message.ResponsePayload;
+import io.joyrpc.transport.channel.Channel;
+import io.joyrpc.transport.codec.Codec;
+import io.joyrpc.transport.codec.DecodeContext;
+import io.joyrpc.transport.codec.EncodeContext;
+import io.joyrpc.transport.message.LazyMessage;
+import io.joyrpc.transport.netty4.buffer.NettyChannelBuffer;
+import io.joyrpc.transport.netty4.channel.NettyChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static io.joyrpc.Plugin.*;
+
+/**
+ * 延迟解码测试
+ */
+public class LazyDecodeTest {
+
+    protected Protocol protocol = SERVER_PROTOCOL.get("joy");
+
+    protected Codec clientCodec = CLIENT_PROTOCOL.get("joy").getCodec();
+
+    /**
+     * 编码应答，跳过魔术位，和连接通道的帧解码保持一致
+     *
+     * @param msgId 消息ID
+     * @param value 应答值
+     * @return 数据帧
+     */
+    protected ByteBuf encode(final long msgId, final Object value) {
+        MessageHeader header = new MessageHeader(MsgType.BizResp.getType(), SERIALIZATION.get("hessian").getTypeId());
+        header.setMsgId(msgId);
+        ByteBuf buffer = Unpooled.buffer(1024);
+        EncodeContext context = () -> null;
+        protocol.getCodec().encode(context, new NettyChannelBuffer(buffer), new ResponseMessage<>(header, new ResponsePayload(value)));
+        byte[] magicCode = protocol.getMagicCode();
+        buffer.readerIndex(magicCode == null ? 0 : magicCode.length);
+        return buffer;
+    }
+
+    protected DecodeContext context(final boolean lazy) {
+        Channel channel = new NettyChannel("test", new EmbeddedChannel(), null, null, 8 * 1024 * 1024, false);
+        channel.setAttribute(Channel.DECODE_LAZY, lazy);
+        return () -> channel;
+    }
+
+    @Test
+    public void testLazy() {
+        ByteBuf buffer = encode(10, "hello");
+        Object message = clientCodec.decode(context(true), new NettyChannelBuffer(buffer));
+        //只解析消息头，保留数据帧
+        Assertions.assertTrue(message instanceof LazyMessage);
+        LazyMessage lazy = (LazyMessage) message;
+        Assertions.assertEquals(10, ((MessageHeader) lazy.getHeader()).getMsgId());
+        Assertions.assertEquals(0, buffer.readableBytes());
+        Assertions.assertEquals(2, buffer.refCnt());
+        //原始缓冲区由解码器释放，保留的数据帧仍然可用
+        buffer.release();
+        Object result = lazy.decode();
+        Assertions.assertTrue(result instanceof ResponseMessage);
+        ResponseMessage<ResponsePayload> response = (ResponseMessage<ResponsePayload>) result;
+        Assertions.assertEquals(10, response.getMsgId());
+        Assertions.assertEquals("hello", response.getPayLoad().getResponse());
+        //解码后释放数据帧，重复释放无影响
+        Assertions.assertEquals(0, buffer.refCnt());
+        lazy.release();
+    }
+
+    @Test
+    public void testEager() {
+        ByteBuf buffer = encode(11, "hello");
+        Object message = clientCodec.decode(context(false), new NettyChannelBuffer(buffer));
+        Assertions.assertTrue(message instanceof ResponseMessage);
+        Assertions.assertEquals("hello", ((ResponseMessage<ResponsePayload>) message).getPayLoad().getResponse());
+        Assertions.assertEquals(1, buffer.refCnt());
+        buffer.release();
+    }
+
+    @Test
+    public void testRelease() {
+        ByteBuf buffer = encode(12, "hello");
+        LazyMessage lazy = (LazyMessage) clientCodec.decode(context(true), new NettyChannelBuffer(buffer));
+        buffer.release();
+        //丢弃消息的时候释放数据帧
+        lazy.release();
+        Assertions.assertEquals(0, buffer.refCnt());
+        lazy.release();
+        Assertions.assertEquals(0, buffer.refCnt());
+    }
+
+    @Test
+    public void testError() {
+        ByteBuf buffer = encode(13, "hello");
+        //破坏消息体
+        for (int i = buffer.writerIndex() - 4; i < buffer.writerIndex(); i++) {
+            buffer.setByte(i, 0xff);
+        }
+        buffer.writerIndex(buffer.writerIndex() - 2);
+        LazyMessage lazy = (LazyMessage) clientCodec.decode(context(true), new NettyChannelBuffer(buffer));
+        buffer.release();
+        //解码异常携带消息头，便于应答失败，数据帧被释放
+        CodecException e = Assertions.assertThrows(CodecException.class, lazy::decode);
+        Assertions.assertNotNull(e.getHeader());
+        Assertions.assertEquals(13, ((MessageHeader) e.getHeader()).getMsgId());
+        Assertions.assertEquals(0, buffer.refCnt());
+    }
+
+}
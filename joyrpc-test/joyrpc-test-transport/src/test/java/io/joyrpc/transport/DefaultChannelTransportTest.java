@@ -0,0 +1,173 @@
+package io.joyrpc.transport;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.ChannelSendException;
+import io.joyrpc.extension.URL;
+import io.joyrpc.protocol.MsgType;
+import io.joyrpc.protocol.message.MessageHeader;
+import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.protocol.message.ResponseMessage;
+import io.joyrpc.transport.channel.Channel;
+import io.joyrpc.transport.channel.PooledChannel;
+import io.joyrpc.transport.message.Message;
+import io.joyrpc.transport.netty4.channel.NettyChannel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 连接传输通道测试
+ */
+public class DefaultChannelTransportTest {
+
+    protected final URL url = URL.valueOf("joy://127.0.0.1:22000");
+
+    protected EmbeddedChannel[] embeddeds(final int size) {
+        EmbeddedChannel[] result = new EmbeddedChannel[size];
+        for (int i = 0; i < size; i++) {
+            int port = 22000 + i;
+            //异常信息需要格式化地址
+            result[i] = new EmbeddedChannel() {
+                @Override
+                protected SocketAddress localAddress0() {
+                    return new InetSocketAddress("127.0.0.1", 10000);
+                }
+
+                @Override
+                protected SocketAddress remoteAddress0() {
+                    return new InetSocketAddress("127.0.0.1", port);
+                }
+            };
+        }
+        return result;
+    }
+
+    protected PooledChannel pool(final EmbeddedChannel[] embeddeds) {
+        Channel[] channels = new Channel[embeddeds.length];
+        for (int i = 0; i < embeddeds.length; i++) {
+            channels[i] = new NettyChannel("test" + i, embeddeds[i], null, null, 8 * 1024 * 1024, false);
+        }
+        return new PooledChannel(channels);
+    }
+
+    /**
+     * 应答指定连接上发送的请求
+     *
+     * @param pool     连接池
+     * @param index    连接序号
+     * @param embedded 连接
+     * @return 应答
+     */
+    protected Message reply(final PooledChannel pool, final int index, final EmbeddedChannel embedded) {
+        Message request = embedded.readOutbound();
+        Assertions.assertNotNull(request);
+        ResponseMessage<Object> response = new ResponseMessage<>(MsgType.NegotiationResp.getType(), request.getMsgId());
+        Assertions.assertTrue(pool.getChannels()[index].getFutureManager().complete(request.getMsgId(), response));
+        return response;
+    }
+
+    @Test
+    public void testBroadcast() throws Exception {
+        EmbeddedChannel[] embeddeds = embeddeds(3);
+        PooledChannel pool = pool(embeddeds);
+        DefaultChannelTransport transport = new DefaultChannelTransport(pool, url);
+        CompletableFuture<Message> future = transport.async(new RequestMessage<>(new MessageHeader(MsgType.NegotiationReq.getType())), 1000);
+        //依次发送，收到上一个连接的应答后再发送下一个连接
+        Assertions.assertNull(embeddeds[1].readOutbound());
+        Message first = reply(pool, 0, embeddeds[0]);
+        Assertions.assertNull(embeddeds[2].readOutbound());
+        reply(pool, 1, embeddeds[1]);
+        Assertions.assertFalse(future.isDone());
+        reply(pool, 2, embeddeds[2]);
+        //返回第一个连接的应答
+        Assertions.assertSame(first, future.get());
+        Assertions.assertEquals(0, transport.requests.get());
+        pool.close();
+    }
+
+    @Test
+    public void testBroadcastError() {
+        EmbeddedChannel[] embeddeds = embeddeds(3);
+        PooledChannel pool = pool(embeddeds);
+        DefaultChannelTransport transport = new DefaultChannelTransport(pool, url);
+        CompletableFuture<Message> future = transport.async(new RequestMessage<>(new MessageHeader(MsgType.SessionReq.getType())), 1000);
+        reply(pool, 0, embeddeds[0]);
+        Message request = embeddeds[1].readOutbound();
+        pool.getChannels()[1].getFutureManager().completeExceptionally(request.getMsgId(), new IllegalStateException("failed"));
+        //任何一个连接失败则失败，不再发送到后续连接
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+        Assertions.assertNull(embeddeds[2].readOutbound());
+        Assertions.assertEquals(0, transport.requests.get());
+        pool.close();
+    }
+
+    @Test
+    public void testRequest() {
+        EmbeddedChannel[] embeddeds = embeddeds(3);
+        PooledChannel pool = pool(embeddeds);
+        pool.getChannels()[0].getFutureManager().create(100L, 10000, null, null);
+        pool.getChannels()[2].getFutureManager().create(100L, 10000, null, null);
+        DefaultChannelTransport transport = new DefaultChannelTransport(pool, url);
+        //业务请求只发送到请求最少的连接
+        transport.async(new RequestMessage<>(new MessageHeader(MsgType.BizReq.getType())), 1000);
+        Assertions.assertNull(embeddeds[0].readOutbound());
+        Assertions.assertNotNull(embeddeds[1].readOutbound());
+        Assertions.assertNull(embeddeds[2].readOutbound());
+        Assertions.assertEquals(1, pool.getChannels()[1].getFutureManager().size());
+        transport.oneway(new RequestMessage<>(new MessageHeader(MsgType.BizReq.getType())));
+        Assertions.assertEquals(1, embeddeds.length - countEmpty(embeddeds));
+        pool.close();
+    }
+
+    @Test
+    public void testInactive() {
+        EmbeddedChannel[] embeddeds = embeddeds(2);
+        PooledChannel pool = pool(embeddeds);
+        DefaultChannelTransport transport = new DefaultChannelTransport(pool, url);
+        embeddeds[1].close();
+        //任何一个连接断开，不再发送请求
+        CompletableFuture<Message> future = transport.async(new RequestMessage<>(new MessageHeader(MsgType.BizReq.getType())), 1000);
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertTrue(e.getCause() instanceof ChannelSendException);
+        Assertions.assertNull(embeddeds[0].readOutbound());
+        Assertions.assertEquals(0, transport.requests.get());
+        pool.close();
+    }
+
+    protected int countEmpty(final EmbeddedChannel[] embeddeds) {
+        int result = 0;
+        for (EmbeddedChannel embedded : embeddeds) {
+            if (embedded.readOutbound() == null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,66 @@
+package io.joyrpc.transport.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FutureManagerTest {
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicLong ids = new AtomicLong();
+        FutureManager<Long, Object> manager = new FutureManager<>(null, ids::incrementAndGet, () -> 1);
+        AtomicInteger requests = new AtomicInteger(1);
+        RequestFuture<Long, Object> future = manager.create(manager.nextMessageId(), 100, null, requests);
+        Assertions.assertTrue(future.cancel(false));
+        //请求计数立即释放
+        Assertions.assertEquals(0, requests.get());
+        Assertions.assertEquals(1, manager.size());
+        //应答一直没有到达，由超时任务移除
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!manager.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertTrue(manager.isEmpty());
+        Assertions.assertNull(manager.get(future.getMessageId()));
+        Assertions.assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void testLateReplyAfterCancel() {
+        AtomicLong ids = new AtomicLong();
+        FutureManager<Long, Object> manager = new FutureManager<>(null, ids::incrementAndGet, () -> 1);
+        AtomicInteger requests = new AtomicInteger(1);
+        RequestFuture<Long, Object> future = manager.create(manager.nextMessageId(), 5000, null, requests);
+        future.cancel(false);
+        //迟到的应答移除Future，不会重复释放请求计数
+        Assertions.assertFalse(manager.complete(future.getMessageId(), "late"));
+        Assertions.assertTrue(manager.isEmpty());
+        Assertions.assertEquals(0, requests.get());
+        Assertions.assertFalse(manager.completeExceptionally(future.getMessageId(), new TimeoutException()));
+    }
+
+}
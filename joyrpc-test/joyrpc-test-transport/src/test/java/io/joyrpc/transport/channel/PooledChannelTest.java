@@ -0,0 +1,124 @@
+package io.joyrpc.transport.channel;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.protocol.MsgType;
+import io.joyrpc.protocol.message.MessageHeader;
+import io.joyrpc.protocol.message.RequestMessage;
+import io.joyrpc.transport.netty4.channel.NettyChannel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 连接池通道测试
+ */
+public class PooledChannelTest {
+
+    protected Channel[] channels(final int size) {
+        Channel[] result = new Channel[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = new NettyChannel("test" + i, new EmbeddedChannel(), null, null, 8 * 1024 * 1024, false);
+        }
+        return result;
+    }
+
+    /**
+     * 增加待应答的请求
+     *
+     * @param channel 连接
+     * @param count   请求数
+     */
+    protected void pending(final Channel channel, final int count) {
+        FutureManager<Long, ?> futureManager = channel.getFutureManager();
+        for (int i = 0; i < count; i++) {
+            futureManager.create(futureManager.nextMessageId(), 10000, null, null);
+        }
+    }
+
+    @Test
+    public void testSelect() {
+        Channel[] channels = channels(3);
+        pending(channels[0], 3);
+        pending(channels[1], 1);
+        pending(channels[2], 2);
+        PooledChannel pool = new PooledChannel(channels);
+        //选择正在处理请求最少的连接
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertSame(channels[1], pool.select());
+        }
+        pool.close();
+    }
+
+    @Test
+    public void testSpread() {
+        Channel[] channels = channels(3);
+        PooledChannel pool = new PooledChannel(channels);
+        //请求数相同的时候分散到不同的连接
+        int[] counts = new int[channels.length];
+        for (int i = 0; i < 300; i++) {
+            Channel ch = pool.select();
+            for (int j = 0; j < channels.length; j++) {
+                if (channels[j] == ch) {
+                    counts[j]++;
+                }
+            }
+        }
+        for (int count : counts) {
+            Assertions.assertTrue(count > 0);
+        }
+        pool.close();
+    }
+
+    @Test
+    public void testInactive() {
+        Channel[] channels = channels(3);
+        pending(channels[0], 2);
+        pending(channels[2], 1);
+        PooledChannel pool = new PooledChannel(channels);
+        Assertions.assertTrue(pool.isActive());
+        //断开空闲的连接，选择剩余活跃连接中请求最少的
+        channels[1].close();
+        Assertions.assertFalse(channels[1].isActive());
+        Assertions.assertFalse(pool.isActive());
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertSame(channels[2], pool.select());
+        }
+        //全部断开，仍然返回一个连接，由发送失败触发重连
+        channels[0].close();
+        channels[2].close();
+        Assertions.assertNotNull(pool.select());
+    }
+
+    @Test
+    public void testBroadcast() {
+        PooledChannel pool = new PooledChannel(channels(2));
+        Assertions.assertTrue(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.NegotiationReq.getType()))));
+        Assertions.assertTrue(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.AuthenticationReq.getType()))));
+        Assertions.assertTrue(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.SessionReq.getType()))));
+        Assertions.assertTrue(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.SessionbeatReq.getType()))));
+        Assertions.assertFalse(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.BizReq.getType()))));
+        Assertions.assertFalse(pool.isBroadcast(new RequestMessage<>(new MessageHeader(MsgType.HbReq.getType()))));
+        pool.close();
+    }
+
+}
@@ -0,0 +1,94 @@
+package io.joyrpc.transport.channel;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RingFutureManagerTest {
+
+    protected RingFutureManager<Object> manager(final int capacity) {
+        AtomicLong ids = new AtomicLong();
+        return new RingFutureManager<>(null, ids::incrementAndGet, () -> 1, capacity);
+    }
+
+    @Test
+    public void testWrapAround() {
+        RingFutureManager<Object> manager = manager(4);
+        for (long id = 1; id <= 20; id++) {
+            RequestFuture<Long, Object> future = manager.create(id, 5000, null, null);
+            Assertions.assertSame(future, manager.get(id));
+            Assertions.assertEquals(1, manager.size());
+            Assertions.assertTrue(manager.complete(id, id));
+            Assertions.assertEquals(id, future.join());
+        }
+        Assertions.assertEquals(0, manager.slots.get());
+        Assertions.assertTrue(manager.futures.isEmpty());
+    }
+
+    @Test
+    public void testFallback() {
+        RingFutureManager<Object> manager = manager(4);
+        RequestFuture<Long, Object> first = manager.create(1L, 5000, null, null);
+        //同一个槽位，降级到哈希表
+        RequestFuture<Long, Object> second = manager.create(5L, 5000, null, null);
+        Assertions.assertEquals(2, manager.size());
+        Assertions.assertEquals(1, manager.slots.get());
+        Assertions.assertEquals(1, manager.futures.size());
+        Assertions.assertSame(second, manager.get(5L));
+        Assertions.assertSame(second, manager.create(5L, 5000, null, null));
+        //槽位释放后，重复创建仍然返回哈希表中的Future
+        Assertions.assertTrue(manager.complete(1L, "1"));
+        Assertions.assertSame(second, manager.create(5L, 5000, null, null));
+        Assertions.assertEquals(0, manager.slots.get());
+        Assertions.assertTrue(manager.complete(5L, "5"));
+        Assertions.assertEquals("1", first.join());
+        Assertions.assertEquals("5", second.join());
+        Assertions.assertTrue(manager.isEmpty());
+    }
+
+    @Test
+    public void testSweep() throws InterruptedException {
+        RingFutureManager<Object> manager = manager(4);
+        RequestFuture<Long, Object> ring = manager.create(1L, 100, null, null);
+        RequestFuture<Long, Object> fallback = manager.create(5L, 100, null, null);
+        RequestFuture<Long, Object> alive = manager.create(2L, 60000, null, null);
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> ring.get(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        e = Assertions.assertThrows(ExecutionException.class, () -> fallback.get(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        Assertions.assertFalse(alive.isDone());
+        Assertions.assertEquals(1, manager.size());
+        //下一次扫描推迟到剩余请求的截止时间
+        Assertions.assertEquals(((RingFutureManager.DeadlineFuture<Object>) alive).deadline, manager.earliest.get());
+        //超时后迟到的应答被丢弃
+        Assertions.assertFalse(manager.complete(1L, "late"));
+        Assertions.assertFalse(manager.complete(5L, "late"));
+        Assertions.assertTrue(manager.complete(2L, "2"));
+        Assertions.assertTrue(manager.isEmpty());
+    }
+
+}
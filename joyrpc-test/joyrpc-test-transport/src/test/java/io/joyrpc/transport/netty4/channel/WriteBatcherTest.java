@@ -0,0 +1,179 @@
+package io.joyrpc.transport.netty4.channel;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.URL;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 写批处理测试
+ */
+public class WriteBatcherTest {
+
+    protected List<CompletableFuture<Void>> write(final WriteBatcher batcher, final int count) {
+        List<CompletableFuture<Void>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            batcher.write("message" + i, future);
+            result.add(future);
+        }
+        return result;
+    }
+
+    @Test
+    public void testCreate() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        Assertions.assertNull(WriteBatcher.create(null, channel));
+        Assertions.assertNull(WriteBatcher.create(URL.valueOf("joyrpc://127.0.0.1:22000"), channel));
+        //最大待flush的消息数大于1才开启
+        Assertions.assertNull(WriteBatcher.create(URL.valueOf("joyrpc://127.0.0.1:22000?netty.flush.maxPending=1"), channel));
+        WriteBatcher batcher = WriteBatcher.create(URL.valueOf("joyrpc://127.0.0.1:22000?netty.flush.maxPending=16&netty.flush.maxDelay=-5"), channel);
+        Assertions.assertNotNull(batcher);
+        Assertions.assertEquals(16, batcher.maxPending);
+        Assertions.assertEquals(0, batcher.maxDelay);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testMaxPending() {
+        FlushRecorder recorder = new FlushRecorder();
+        EmbeddedChannel channel = new EmbeddedChannel(recorder);
+        WriteBatcher batcher = new WriteBatcher(channel, 3, 10_000_000L);
+        List<CompletableFuture<Void>> futures = write(batcher, 2);
+        //未达到最大待flush的消息数，消息还在缓冲中
+        Assertions.assertEquals(0, recorder.flushes);
+        Assertions.assertEquals(0, recorder.flushed.size());
+        futures.forEach(f -> Assertions.assertFalse(f.isDone()));
+        futures.addAll(write(batcher, 1));
+        //达到上限，一次flush
+        Assertions.assertEquals(1, recorder.flushes);
+        Assertions.assertEquals(3, recorder.flushed.size());
+        futures.forEach(f -> Assertions.assertTrue(f.isDone() && !f.isCompletedExceptionally()));
+        Assertions.assertEquals(0, batcher.pending);
+        //定时任务到期，没有待flush的消息则不再flush
+        batcher.onFlushTask();
+        Assertions.assertEquals(1, recorder.flushes);
+        Assertions.assertFalse(batcher.scheduled);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testMaxDelay() {
+        FlushRecorder recorder = new FlushRecorder();
+        EmbeddedChannel channel = new EmbeddedChannel(recorder);
+        WriteBatcher batcher = new WriteBatcher(channel, 100, 10_000_000L);
+        write(batcher, 5);
+        //延迟时间未到，不会flush，只调度一次定时任务
+        channel.runPendingTasks();
+        Assertions.assertEquals(0, recorder.flushes);
+        Assertions.assertTrue(batcher.scheduled);
+        Assertions.assertEquals(5, batcher.pending);
+        //模拟定时任务到期
+        batcher.onFlushTask();
+        Assertions.assertEquals(1, recorder.flushes);
+        Assertions.assertEquals(5, recorder.flushed.size());
+        Assertions.assertFalse(batcher.scheduled);
+        //重新调度
+        write(batcher, 1);
+        Assertions.assertTrue(batcher.scheduled);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testNoDelay() {
+        FlushRecorder recorder = new FlushRecorder();
+        EmbeddedChannel channel = new EmbeddedChannel(recorder);
+        WriteBatcher batcher = new WriteBatcher(channel, 100, 0);
+        write(batcher, 5);
+        Assertions.assertEquals(0, recorder.flushes);
+        //EventLoop执行完当前批次的任务后flush
+        channel.runPendingTasks();
+        Assertions.assertEquals(1, recorder.flushes);
+        Assertions.assertEquals(5, recorder.flushed.size());
+        Assertions.assertFalse(batcher.scheduled);
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testChannel() {
+        FlushRecorder recorder = new FlushRecorder();
+        EmbeddedChannel embedded = new EmbeddedChannel(recorder);
+        WriteBatcher batcher = new WriteBatcher(embedded, 2, 0);
+        NettyChannel channel = new NettyChannel("test", embedded, null, null, 8 * 1024 * 1024, false, batcher);
+        CompletableFuture<Void> first = channel.send("message1");
+        Assertions.assertFalse(first.isDone());
+        CompletableFuture<Void> second = channel.send("message2");
+        //发送走写批处理，达到上限后flush
+        Assertions.assertEquals(1, recorder.flushes);
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertTrue(second.isDone());
+        Assertions.assertEquals(2, recorder.flushed.size());
+        embedded.finishAndReleaseAll();
+    }
+
+    /**
+     * 记录写入和flush的处理器，拦截写操作，避免EmbeddedChannel在写的时候执行待处理任务
+     */
+    protected static class FlushRecorder extends ChannelOutboundHandlerAdapter {
+        /**
+         * flush次数
+         */
+        protected int flushes;
+        /**
+         * 待flush消息的Promise
+         */
+        protected List<ChannelPromise> pending = new ArrayList<>();
+        /**
+         * 已经flush的消息
+         */
+        protected List<Object> flushed = new ArrayList<>();
+        /**
+         * 待flush的消息
+         */
+        protected List<Object> messages = new ArrayList<>();
+
+        @Override
+        public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+            messages.add(msg);
+            pending.add(promise);
+        }
+
+        @Override
+        public void flush(final ChannelHandlerContext ctx) {
+            flushes++;
+            flushed.addAll(messages);
+            messages.clear();
+            pending.forEach(ChannelPromise::setSuccess);
+            pending.clear();
+        }
+    }
+
+}
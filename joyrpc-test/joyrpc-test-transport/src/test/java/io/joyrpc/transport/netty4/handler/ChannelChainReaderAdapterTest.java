@@ -0,0 +1,184 @@
+package io.joyrpc.transport.netty4.handler;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.exception.CodecException;
+import io.joyrpc.transport.channel.ChannelContext;
+import io.joyrpc.transport.channel.ChannelReader;
+import io.joyrpc.transport.message.Header;
+import io.joyrpc.transport.message.LazyMessage;
+import io.joyrpc.transport.netty4.channel.NettyChannel;
+import io.joyrpc.util.thread.DefaultThreadPool;
+import io.joyrpc.util.thread.ThreadPool;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 延迟解码消息的分发测试
+ */
+public class ChannelChainReaderAdapterTest {
+
+    protected ThreadPool pool() {
+        return new DefaultThreadPool("worker", 1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> new Thread(r, "worker"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    protected EmbeddedChannel channel(final ThreadPool workerPool, final RecordReader reader) {
+        EmbeddedChannel embedded = new EmbeddedChannel();
+        NettyChannel channel = new NettyChannel("test", embedded, workerPool, null, 8 * 1024 * 1024, false);
+        embedded.pipeline().addLast(new ChannelChainReaderAdapter(new ChannelReader[]{reader}, channel));
+        return embedded;
+    }
+
+    @Test
+    public void testWorker() throws Exception {
+        ThreadPool workerPool = pool();
+        try {
+            RecordReader reader = new RecordReader();
+            EmbeddedChannel embedded = channel(workerPool, reader);
+            StubMessage message = new StubMessage("hello", null);
+            embedded.writeInbound(message);
+            //在业务线程池中解码并分发
+            Assertions.assertEquals("hello", reader.messages.poll(1, TimeUnit.SECONDS));
+            Assertions.assertEquals("worker", message.thread);
+            Assertions.assertEquals(0, message.releases.get());
+            embedded.finishAndReleaseAll();
+        } finally {
+            workerPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDirect() throws Exception {
+        RecordReader reader = new RecordReader();
+        EmbeddedChannel embedded = channel(null, reader);
+        StubMessage message = new StubMessage("hello", null);
+        embedded.writeInbound(message);
+        //没有业务线程池，在IO线程解码
+        Assertions.assertEquals("hello", reader.messages.poll());
+        Assertions.assertEquals(Thread.currentThread().getName(), message.thread);
+        //普通消息直接分发
+        embedded.writeInbound("world");
+        Assertions.assertEquals("world", reader.messages.poll());
+        embedded.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testDecodeError() throws Exception {
+        ThreadPool workerPool = pool();
+        try {
+            RecordReader reader = new RecordReader();
+            EmbeddedChannel embedded = channel(workerPool, reader);
+            CodecException error = new CodecException("error");
+            embedded.writeInbound(new StubMessage(null, error));
+            //解码异常交给异常处理，不分发消息
+            Assertions.assertSame(error, reader.errors.poll(1, TimeUnit.SECONDS));
+            Assertions.assertTrue(reader.messages.isEmpty());
+            embedded.finishAndReleaseAll();
+        } finally {
+            workerPool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        ThreadPool workerPool = pool();
+        workerPool.shutdown();
+        RecordReader reader = new RecordReader();
+        EmbeddedChannel embedded = channel(workerPool, reader);
+        StubMessage message = new StubMessage("hello", null);
+        embedded.writeInbound(message);
+        //线程池拒绝，释放保留的数据帧
+        Assertions.assertTrue(reader.errors.poll() instanceof RejectedExecutionException);
+        Assertions.assertEquals(1, message.releases.get());
+        Assertions.assertNull(message.thread);
+        Assertions.assertTrue(reader.messages.isEmpty());
+        embedded.finishAndReleaseAll();
+    }
+
+    /**
+     * 记录收到消息的处理器
+     */
+    protected static class RecordReader implements ChannelReader {
+
+        protected BlockingQueue<Object> messages = new LinkedBlockingQueue<>();
+
+        protected BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+        @Override
+        public void received(final ChannelContext context, final Object message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void caught(final ChannelContext context, final Throwable throwable) {
+            errors.add(throwable);
+        }
+    }
+
+    /**
+     * 延迟解码消息
+     */
+    protected static class StubMessage implements LazyMessage {
+
+        protected final Object value;
+
+        protected final CodecException error;
+
+        protected final AtomicInteger releases = new AtomicInteger();
+
+        protected volatile String thread;
+
+        public StubMessage(final Object value, final CodecException error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        @Override
+        public Header getHeader() {
+            return null;
+        }
+
+        @Override
+        public Object decode() throws CodecException {
+            thread = Thread.currentThread().getName();
+            if (error != null) {
+                throw error;
+            }
+            return value;
+        }
+
+        @Override
+        public void release() {
+            releases.incrementAndGet();
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.joyrpc.transport.netty4.handler;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.transport.buffer.ChannelBuffer;
+import io.joyrpc.transport.channel.Channel;
+import io.joyrpc.transport.codec.Codec;
+import io.joyrpc.transport.codec.DecodeContext;
+import io.joyrpc.transport.codec.EncodeContext;
+import io.joyrpc.transport.netty4.channel.NettyChannel;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MessageEncoderTest {
+
+    /**
+     * 按照消息指定的大小输出字节
+     */
+    protected static final Codec CODEC = new Codec() {
+        @Override
+        public Object decode(final DecodeContext context, final ChannelBuffer buffer) {
+            return null;
+        }
+
+        @Override
+        public void encode(final EncodeContext context, final ChannelBuffer buffer, final Object message) {
+            int size = (Integer) message;
+            for (int i = 0; i < size; i++) {
+                buffer.writeByte(i);
+            }
+        }
+    };
+
+    protected MessageEncoder encoder(final EmbeddedChannel embedded, final boolean zeroCopy) {
+        NettyChannel channel = new NettyChannel("test", embedded, null, null, 8 * 1024 * 1024, false);
+        channel.setAttribute(Channel.BUFFER_ZERO_COPY, zeroCopy);
+        MessageEncoder encoder = new MessageEncoder(CODEC, channel);
+        embedded.pipeline().addLast(encoder);
+        return encoder;
+    }
+
+    protected void write(final EmbeddedChannel embedded, final int size) {
+        embedded.writeOutbound(size);
+        ByteBuf buf = embedded.readOutbound();
+        Assertions.assertEquals(size, buf.readableBytes());
+        buf.release();
+    }
+
+    @Test
+    public void testEstimate() {
+        EmbeddedChannel embedded = new EmbeddedChannel();
+        MessageEncoder encoder = encoder(embedded, true);
+        for (int i = 0; i < 20; i++) {
+            write(embedded, 1000);
+        }
+        Assertions.assertEquals(1000, encoder.estimate);
+        //偶发的超大消息，预估大小不超过上限
+        write(embedded, 4 * 1024 * 1024);
+        Assertions.assertTrue(encoder.estimate <= MessageEncoder.MAX_ESTIMATE);
+        //逐步回落到常规消息的大小
+        for (int i = 0; i < 100; i++) {
+            write(embedded, 1000);
+        }
+        Assertions.assertTrue(encoder.estimate < 2000);
+        embedded.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testMinEstimate() {
+        EmbeddedChannel embedded = new EmbeddedChannel();
+        MessageEncoder encoder = encoder(embedded, true);
+        for (int i = 0; i < 100; i++) {
+            write(embedded, 10);
+        }
+        Assertions.assertEquals(MessageEncoder.MIN_ESTIMATE, encoder.estimate);
+        embedded.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testDisabled() {
+        EmbeddedChannel embedded = new EmbeddedChannel();
+        MessageEncoder encoder = encoder(embedded, false);
+        write(embedded, 100000);
+        //非零拷贝模式不更新预估大小
+        Assertions.assertEquals(MessageEncoder.MIN_ESTIMATE, encoder.estimate);
+        embedded.finishAndReleaseAll();
+    }
+
+}
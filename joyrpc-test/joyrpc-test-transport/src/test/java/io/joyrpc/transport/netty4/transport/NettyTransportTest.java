@@ -0,0 +1,98 @@
+package io.joyrpc.transport.netty4.transport;
+
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.joyrpc.extension.URL;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+
+import static io.joyrpc.constants.Constants.isUseEpoll;
+import static io.joyrpc.transport.netty4.Plugin.NETTY_TRANSPORT;
+
+/**
+ * IO传输选择测试
+ */
+public class NettyTransportTest {
+
+    /**
+     * 自动选择的期望传输
+     *
+     * @param url url
+     * @return 传输类型
+     */
+    protected Class<?> auto(final URL url) {
+        return isUseEpoll(url) && Epoll.isAvailable() ? EpollTransport.class : NioTransport.class;
+    }
+
+    @Test
+    public void testNio() {
+        URL url = URL.valueOf("joyrpc://127.0.0.1:22000?netty.transport=nio");
+        NettyTransport transport = EventLoopGroupFactory.select(url, "nio");
+        Assertions.assertTrue(transport instanceof NioTransport);
+        Assertions.assertEquals(NioSocketChannel.class, transport.getChannelClass());
+        Assertions.assertEquals(NioServerSocketChannel.class, transport.getServerChannelClass());
+        EventLoopGroup group = transport.createGroup(1, Executors.defaultThreadFactory());
+        group.shutdownGracefully();
+    }
+
+    @Test
+    public void testAuto() {
+        URL url = URL.valueOf("joyrpc://127.0.0.1:22000");
+        Assertions.assertEquals(auto(url), EventLoopGroupFactory.select(url, EventLoopGroupFactory.NETTY_TRANSPORT_AUTO).getClass());
+        //关闭epoll后选择nio
+        URL nio = URL.valueOf("joyrpc://127.0.0.1:22000?useEpoll=false");
+        Assertions.assertTrue(EventLoopGroupFactory.select(nio, EventLoopGroupFactory.NETTY_TRANSPORT_AUTO) instanceof NioTransport);
+    }
+
+    @Test
+    public void testFallback() {
+        URL url = URL.valueOf("joyrpc://127.0.0.1:22000");
+        //不存在的传输，自动选择
+        Assertions.assertEquals(auto(url), EventLoopGroupFactory.select(url, "unknown").getClass());
+        //io_uring的孵化模块不在类路径中，扩展不会注册
+        Assertions.assertNull(NETTY_TRANSPORT.get("io_uring"));
+        Assertions.assertEquals(auto(url), EventLoopGroupFactory.select(url, "io_uring").getClass());
+        //epoll不可用，降级到nio
+        URL nio = URL.valueOf("joyrpc://127.0.0.1:22000?useEpoll=false");
+        Assertions.assertFalse(NETTY_TRANSPORT.get("epoll").isAvailable(nio));
+        Assertions.assertTrue(EventLoopGroupFactory.select(nio, "epoll") instanceof NioTransport);
+    }
+
+    @Test
+    public void testCache() {
+        URL url = URL.valueOf("joyrpc://127.0.0.1:22000?netty.transport=nio");
+        NettyTransport transport = EventLoopGroupFactory.getTransport(url);
+        Assertions.assertTrue(transport instanceof NioTransport);
+        //相同配置复用选择结果
+        Assertions.assertSame(transport, EventLoopGroupFactory.getTransport(URL.valueOf("joyrpc://127.0.0.2:22001?netty.transport=nio")));
+        //不同传输的事件循环分开缓存
+        Assertions.assertNotEquals(EventLoopGroupFactory.getKey(url, EventLoopGroupFactory.EVENT_LOOP_GROUP_CLIENT, true, transport),
+                EventLoopGroupFactory.getKey(url, EventLoopGroupFactory.EVENT_LOOP_GROUP_CLIENT, true, new EpollTransport()));
+    }
+
+}
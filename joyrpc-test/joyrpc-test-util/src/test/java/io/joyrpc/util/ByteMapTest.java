@@ -0,0 +1,60 @@
+package io.joyrpc.util;
+
+/*-
+ * #%L
+ * joyrpc
+ * %%
+ * Copyright (C) 2019 joyrpc.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class ByteMapTest {
+
+    @Test
+    public void testPutAndRemove() {
+        ByteMap<Object> map = new ByteMap<>(1);
+        for (byte i = 0; i < 10; i++) {
+            map.putValue(i, (int) i);
+        }
+        Assertions.assertEquals(10, map.size());
+        Assertions.assertEquals(5, map.get((byte) 5));
+        Assertions.assertEquals(5, map.get(Byte.valueOf((byte) 5)));
+        Assertions.assertEquals(5, map.putValue((byte) 5, "5"));
+        Assertions.assertEquals("5", map.get((byte) 5));
+        Assertions.assertEquals(0, map.remove((byte) 0));
+        Assertions.assertNull(map.get((byte) 0));
+        Assertions.assertEquals(9, map.size());
+        Assertions.assertEquals(1, map.keyAt(0));
+        Iterator<Map.Entry<Byte, Object>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assertions.assertEquals(5, map.size());
+        Map<Byte, Object> expected = new HashMap<>();
+        for (byte i = 1; i < 10; i += 2) {
+            expected.put(i, i == 5 ? "5" : (Object) (int) i);
+        }
+        Assertions.assertEquals(expected, map);
+    }
+}
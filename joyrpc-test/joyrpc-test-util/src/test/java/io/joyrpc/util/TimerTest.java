@@ -20,12 +20,18 @@ package io.joyrpc.util;
  * #L%
  */
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TimerTest {
     protected static final Logger logger = LoggerFactory.getLogger(TimerTest.class);
@@ -48,6 +54,90 @@ public class TimerTest {
         latch.await();
     }
 
+    @Test
+    public void testStriped() throws InterruptedException {
+        Timer timer = new Timer("striped", 10, 20, 2);
+        int threads = 8;
+        int count = 100;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads * count / 2);
+        List<Timer.Timeout> timeouts = new CopyOnWriteArrayList<>();
+        CountDownLatch added = new CountDownLatch(threads);
+        //多个线程并发添加和取消任务
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < count; j++) {
+                    Timer.Timeout timeout = timer.delay("test", 200, () -> {
+                        runs.incrementAndGet();
+                        done.countDown();
+                    });
+                    if (j % 2 == 0) {
+                        timeouts.add(timeout);
+                    }
+                }
+                added.countDown();
+            }).start();
+        }
+        Assertions.assertTrue(added.await(1, TimeUnit.SECONDS));
+        for (Timer.Timeout timeout : timeouts) {
+            Assertions.assertTrue(timeout.cancel());
+        }
+        Assertions.assertEquals(threads * count / 2, timer.getPendingTasks());
+        Assertions.assertTrue(done.await(2, TimeUnit.SECONDS));
+        //计数在任务执行之后减少
+        long deadline = System.currentTimeMillis() + 1000;
+        while (timer.getPendingTasks() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, timer.getPendingTasks());
+        Thread.sleep(100);
+        //放弃的任务没有执行
+        Assertions.assertEquals(threads * count / 2, runs.get());
+        for (Timer.Timeout timeout : timeouts) {
+            Assertions.assertTrue(timeout.isCancelled());
+        }
+    }
+
+    @Test
+    public void testMaxTasks() {
+        Timer timer = new Timer("max", 10, 20, 1, 10);
+        Timer.Timeout[] timeouts = new Timer.Timeout[10];
+        for (int i = 0; i < timeouts.length; i++) {
+            timeouts[i] = timer.delay("test", 10000, () -> {
+            });
+        }
+        Assertions.assertEquals(10, timer.getPendingTasks());
+        //超过最大待处理任务
+        Assertions.assertThrows(RejectedExecutionException.class, () -> timer.delay("test", 10000, () -> {
+        }));
+        Assertions.assertEquals(10, timer.getPendingTasks());
+        //放弃任务后可以继续添加
+        timeouts[0].cancel();
+        Assertions.assertEquals(9, timer.getPendingTasks());
+        Assertions.assertNotNull(timer.delay("test", 10000, () -> {
+        }));
+        Assertions.assertEquals(10, timer.getPendingTasks());
+        Assertions.assertEquals(10L, timer.dump().get("pendingTasks"));
+    }
+
+    @Test
+    public void testTickLag() {
+        //没有任务，轮询线程不会更新执行延迟
+        Timer timer = new Timer("lag", 10, 20, 1);
+        Assertions.assertEquals(0, timer.getTickLag());
+        timer.lag(SystemClock.now() - 50);
+        Assertions.assertTrue(timer.getTickLag() >= 50);
+        Assertions.assertTrue(timer.getMaxTickLag() >= 50);
+        //时间槽没有延迟，保留最大延迟
+        timer.lag(SystemClock.now() + 1000);
+        Assertions.assertEquals(0, timer.getTickLag());
+        Assertions.assertTrue(timer.getMaxTickLag() >= 50);
+        Map<String, Object> dump = timer.dump();
+        Assertions.assertEquals(0L, dump.get("tickLag"));
+        Assertions.assertEquals(timer.getMaxTickLag(), dump.get("maxTickLag"));
+        Assertions.assertEquals(0L, dump.get("pendingTasks"));
+    }
+
     protected static class MyTask implements Runnable {
         protected String name;
         protected CountDownLatch latch;